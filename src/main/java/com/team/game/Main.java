@@ -1,6 +1,12 @@
 package main.java.com.team.game;
 
+import main.java.com.team.game.data.BackupFile;
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.DatabaseBackup;
+import main.java.com.team.game.data.GameStorage;
 import main.java.com.team.game.data.GameStore;
+import main.java.com.team.game.data.InMemoryGameStore;
+import main.java.com.team.game.data.TransferStats;
 import main.java.com.team.game.model.GameMode;
 import main.java.com.team.game.model.GameSession;
 import main.java.com.team.game.model.Question;
@@ -12,8 +18,12 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Scanner;
@@ -35,15 +45,95 @@ public class Main {
 
     /**
      * Starts the program. Use {@code --console} to run the text UI; otherwise launches JavaFX.
+     * <p>
+     * Answer write-behind is enabled with {@code -Dgame.writeBehind=true}; the batch size and
+     * flush interval come from {@code game.writeBehind.batch} and {@code game.writeBehind.intervalMs}.
+     * <p>
+     * Single-writer mode is enabled with {@code -Dgame.singleWriter=true}; the number of read-only
+     * connections and the group-commit size come from {@code game.readers} and {@code game.writer.batch}.
+     * <p>
+     * In-memory live rounds are enabled with {@code -Dgame.liveSessions=true} (instead of write-behind);
+     * progress is snapshotted every {@code game.liveSessions.snapshotMs}.
+     * <p>
+     * Unless write-behind is on, rounds are journaled to {@code data/sessions.journal} (override with
+     * {@code game.journal}, or {@code -Dgame.journal=off}), and rounds interrupted last time are finalized.
+     * <p>
+     * {@code -Dgame.storage=memory} keeps everything in memory instead of {@code data/game.db}, for
+     * practice sessions whose results need not be kept. The database location, pool size and extra
+     * SQLite settings come from {@code game.db.url}, {@code game.db.poolSize} and {@code game.db.pragmas}
+     * (see {@link Database#fromProperties}).
+     * <p>
+     * {@code -Dgame.archive.days=N} moves rounds completed more than N days ago into the compressed
+     * session archive in the background, every {@code game.archive.intervalMs} (default hourly);
+     * see {@link GameStore#archiveSessions}.
+     * <p>
+     * {@code -Dgame.backup.intervalMs=N} takes an online backup of the database every N ms while the
+     * game runs, into {@code game.backup.dir} (default {@code data/backups}), keeping the newest
+     * {@code game.backup.keep} (default 7); the console menu can also take one on demand. Starting
+     * with {@code --restore}, or with the database file missing while backups exist, offers to
+     * restore one before the database is opened (see {@link DatabaseBackup}).
+     * <p>
+     * {@code -Dgame.replica.maxStalenessMs=N} serves the user list, leaderboards and session
+     * history from an in-memory copy of the database that is at most N ms behind, with
+     * {@code game.replica.poolSize} connections (see {@link GameStore#enableReadReplica}).
+     * <p>
+     * {@code --export <file>} and {@code --import <file>} copy every user, session and logged
+     * answer to or from a file ({@code .gz} for compression) and exit; see {@link GameStore#exportTo}.
+     * {@code --seed-data [users] [sessionsPerUser] [seed]} adds synthetic data for load testing and exits.
+     * {@code --vacuum} rebuilds a database file created before incremental vacuum was enabled, so
+     * archiving hands freed space back to the file system, and exits; see
+     * {@link GameStore#enableIncrementalVacuum}.
      *
      * @param args command-line args; first may be {@code --console} to run the console UI
      */
     public static void main(String[] args) {
-        GameStore store = new GameStore();
+        if (args.length == 2 && ("--export".equals(args[0]) || "--import".equals(args[0]))) {
+            transfer("--export".equals(args[0]), Path.of(args[1]));
+            return;
+        }
+        if (args.length > 0 && "--seed-data".equals(args[0])) {
+            seedData(args);
+            return;
+        }
+        if (args.length == 1 && "--vacuum".equals(args[0])) {
+            vacuum();
+            return;
+        }
+        boolean restore = args.length > 0 && "--restore".equals(args[0]);
+        if (restore) args = Arrays.copyOfRange(args, 1, args.length);
+        boolean inMemory = "memory".equals(System.getProperty("game.storage"));
+        if (!inMemory) offerRestore(restore);
+        GameStorage store = inMemory ? new InMemoryGameStore() : createStore();
+        Integer archiveDays = Integer.getInteger("game.archive.days");
+        if (archiveDays != null && store instanceof GameStore durable) {
+            durable.startArchiving(Duration.ofDays(archiveDays),
+                    Duration.ofMillis(Long.getLong("game.archive.intervalMs", 3_600_000L)));
+        }
+        Long replicaStaleness = Long.getLong("game.replica.maxStalenessMs");
+        if (replicaStaleness != null && store instanceof GameStore durable) {
+            durable.enableReadReplica(Duration.ofMillis(replicaStaleness),
+                    Integer.getInteger("game.replica.poolSize", Database.DEFAULT_POOL_SIZE));
+        }
+        DatabaseBackup backups = inMemory ? null : new DatabaseBackup(Database.getDefault(), backupDir(),
+                Integer.getInteger("game.backup.keep", DatabaseBackup.DEFAULT_KEEP));
+        Long backupInterval = Long.getLong("game.backup.intervalMs");
+        if (backups != null && backupInterval != null) backups.start(Duration.ofMillis(backupInterval));
         GameService svc = new GameService(store);
+        if (Boolean.getBoolean("game.liveSessions")) {
+            svc.enableLiveSessions(Long.getLong("game.liveSessions.snapshotMs", 5_000L));
+        } else if (Boolean.getBoolean("game.writeBehind")) {
+            svc.enableWriteBehind(
+                    Integer.getInteger("game.writeBehind.batch", 20),
+                    Long.getLong("game.writeBehind.intervalMs", 500L));
+        }
+        String journal = System.getProperty("game.journal", "data/sessions.journal");
+        if (!inMemory && !Boolean.getBoolean("game.writeBehind") && !"off".equals(journal)) {
+            int recovered = svc.enableJournal(Path.of(journal));
+            if (recovered > 0) System.out.println("Finalized " + recovered + " interrupted round(s)");
+        }
 
         if (args.length > 0 && "--console".equals(args[0])) {
-            runConsole(svc);
+            runConsole(svc, backups);
         } else {
             Windows.openLogin(svc, user -> {
                 Windows.openMenu(svc, user);
@@ -51,6 +141,98 @@ public class Main {
         }
     }
 
+    /** Exports the database to a file, or imports one into it, and reports the counts. */
+    private static void transfer(boolean export, Path file) {
+        GameStore store = createStore();
+        try {
+            TransferStats stats = export ? store.exportTo(file) : store.importFrom(file);
+            System.out.println((export ? "Exported " : "Imported ") + stats);
+        } finally {
+            store.close();
+        }
+    }
+
+    /** Generates synthetic users and rounds: {@code --seed-data [users=1000] [sessionsPerUser=50] [seed=42]}. */
+    private static void seedData(String[] args) {
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        int sessionsPerUser = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42L;
+        GameStore store = createStore();
+        try {
+            System.out.println("Seeded " + store.seedData(users, sessionsPerUser, seed));
+        } finally {
+            store.close();
+        }
+    }
+
+    /** Converts an older database file to incremental auto-vacuum. */
+    private static void vacuum() {
+        GameStore store = createStore();
+        try {
+            System.out.println(store.enableIncrementalVacuum()
+                    ? "Rebuilt the database for incremental vacuum"
+                    : "The database already uses incremental vacuum");
+        } finally {
+            store.close();
+        }
+    }
+
+    /** @return where backups are kept: {@code game.backup.dir}, or {@code backups} beside the database */
+    private static Path backupDir() {
+        String dir = System.getProperty("game.backup.dir");
+        return dir != null ? Path.of(dir) : DatabaseBackup.defaultDirectory(Database.configuredUrl());
+    }
+
+    /**
+     * Offers to restore a backup before the database is opened: always when {@code asked}
+     * (the {@code --restore} flag), otherwise only if the database file is missing and
+     * backups exist. The chosen backup's checksum is verified before it replaces the file.
+     *
+     * @param asked true if the user started with {@code --restore}
+     */
+    private static void offerRestore(boolean asked) {
+        String url = Database.configuredUrl();
+        Path file = Database.filePath(url);
+        if (file == null) return;
+        List<BackupFile> available = DatabaseBackup.list(url, backupDir());
+        if (available.isEmpty()) {
+            if (asked) System.out.println("No backups found in " + backupDir());
+            return;
+        }
+        if (!asked && Files.exists(file)) return;
+
+        if (!asked) System.out.println("The database " + file + " is missing.");
+        System.out.println("Backups (newest first):");
+        for (int i = 0; i < available.size(); i++) {
+            BackupFile b = available.get(i);
+            System.out.printf("%d) %s  %s%n", i + 1, b.getCreatedAt().atZone(LOCAL_TZ).format(DT_FMT), b);
+        }
+        System.out.print("Restore which (Enter to skip): ");
+        Scanner in = new Scanner(System.in);
+        String pick = in.hasNextLine() ? in.nextLine().trim() : "";
+        if (pick.isEmpty()) return;
+        try {
+            BackupFile chosen = available.get(Integer.parseInt(pick) - 1);
+            Path kept = DatabaseBackup.restore(chosen, url);
+            System.out.println("Restored " + chosen.getFile().getFileName()
+                    + (kept == null ? "" : "; the replaced database is kept as " + kept));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            System.out.println("Invalid choice; nothing restored.");
+        } catch (RuntimeException e) {
+            System.out.println("Restore failed: " + e.getMessage());
+        }
+    }
+
+    /** Builds the store on the configured database, splitting reads from a single writer if configured. */
+    private static GameStore createStore() {
+        if (!Boolean.getBoolean("game.singleWriter")) return new GameStore();
+        Database db = Database.getDefault();
+        Database reads = Database.readOnly(db.getUrl(), Integer.getInteger("game.readers", 4));
+        GameStore store = new GameStore(db, reads, Integer.getInteger("game.writer.batch", 64));
+        db.onClose(reads::close);
+        return store;
+    }
+
     /**
      * Prompts the user to select a game mode in the console.
      *
@@ -106,7 +288,7 @@ public class Main {
 
         // For other modes, use the existing console-based gameplay
         GameSession s = svc.startRound(user, mode);
-        int score = 0, strikes = 0;
+        int score = 0, strikes = 0; // counted here only when the service does not report state back
         System.out.printf("Started %s round (session id=%d).%n", mode, s.getId());
 
         // Get questions for the selected mode
@@ -136,7 +318,9 @@ public class Main {
                 System.out.print("Enter your answer or 'skip' to skip: ");
             }
 
+            long shownAt = System.nanoTime();
             String userInput = in.nextLine().trim();
+            int took = (int) ((System.nanoTime() - shownAt) / 1_000_000);
 
             if (userInput.equalsIgnoreCase("skip")) {
                 System.out.println("Question skipped.");
@@ -166,12 +350,12 @@ public class Main {
 
             if (isCorrect) {
                 System.out.println("✓ Correct!");
-                svc.submitCorrect(s);
-                score++;
+                Optional<GameSession> now = svc.submitCorrect(s, currentQuestion.getText(), userInput, took);
+                score = now.map(GameSession::getScore).orElse(score + 1);
             } else {
                 System.out.println("✗ Wrong! The correct answer was: " + currentQuestion.getAnswer());
-                svc.submitWrong(s);
-                strikes++;
+                Optional<GameSession> now = svc.submitWrong(s, currentQuestion.getText(), userInput, took);
+                strikes = now.map(GameSession::getStrikes).orElse(strikes + 1);
                 if (strikes >= 3) {
                     System.out.println("3 strikes reached — round finished automatically.");
                     break;
@@ -196,11 +380,12 @@ public class Main {
     /**
      * Console login/registration + main loop dispatcher.
      *
-     * @param svc game service façade
+     * @param svc     game service façade
+     * @param backups database backups for the menu, or {@code null} when running in memory
      */
-    private static void runConsole(GameService svc) {
+    private static void runConsole(GameService svc, DatabaseBackup backups) {
         System.out.println("cwd = " + System.getProperty("user.dir"));
-        System.out.println("db  = data/game.db");
+        System.out.println("db  = " + Database.configuredUrl());
 
         Scanner in = new Scanner(System.in);
         System.out.println("1) Register   2) Login");
@@ -228,16 +413,17 @@ public class Main {
             System.out.println("Welcome back, " + user.getUsername());
         }
 
-        runConsoleMenu(svc, user);
+        runConsoleMenu(svc, user, backups);
     }
 
     /**
      * Console menu loop for CRUD actions, rounds, and leaderboard.
      *
-     * @param svc  game service façade
-     * @param user current authenticated user (may be updated after username change)
+     * @param svc     game service façade
+     * @param user    current authenticated user (may be updated after username change)
+     * @param backups database backups, or {@code null} to hide the backup option
      */
-    private static void runConsoleMenu(GameService svc, User user) {
+    private static void runConsoleMenu(GameService svc, User user, DatabaseBackup backups) {
         Scanner in = new Scanner(System.in);
 
         while (true) {
@@ -250,6 +436,7 @@ public class Main {
             System.out.println("6) Delete my account (Delete)");
             System.out.println("7) Leaderboard (pick mode)");
             System.out.println("8) List all users (Read)");
+            if (backups != null) System.out.println("9) Back up the database now");
             System.out.println("0) Exit");
             System.out.print("Pick: ");
             String op = in.nextLine().trim();
@@ -321,6 +508,18 @@ public class Main {
                     }
                 }
 
+                case "9" -> {
+                    if (backups == null) {
+                        System.out.println("Unknown option.");
+                        break;
+                    }
+                    try {
+                        System.out.println("Backed up to " + backups.backup());
+                    } catch (RuntimeException e) {
+                        System.out.println("Backup failed: " + e.getMessage());
+                    }
+                }
+
                 case "0" -> { return; }
 
                 default -> System.out.println("Unknown option.");
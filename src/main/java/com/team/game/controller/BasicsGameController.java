@@ -2,9 +2,10 @@ package main.java.com.team.game.controller;
 
 import main.java.com.team.game.model.Question;
 import main.java.com.team.game.model.GameMode;
-import main.java.com.team.game.model.GameSession;
 import main.java.com.team.game.model.User;
+import main.java.com.team.game.service.AsyncGameService;
 import main.java.com.team.game.service.GameService;
+import main.java.com.team.game.ui.BackgroundSaves;
 import main.java.com.team.game.Main;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -29,8 +30,8 @@ import java.util.ResourceBundle;
  * <p>
  * Displays multiple-choice and numeric questions, manages per-question timers,
  * records score/strikes, and coordinates persistence through {@link GameService}.
- * A round is started and finished against a {@link GameSession} for the
- * currently logged-in {@link User}.
+ * A round is started and finished against an {@link AsyncGameService.Round} for the
+ * currently logged-in {@link User}, so saving answers never blocks the FX thread.
  */
 public class BasicsGameController implements Initializable {
     @FXML
@@ -72,7 +73,7 @@ public class BasicsGameController implements Initializable {
     // Game service and user
     private GameService gameService;
     private User currentUser;
-    private GameSession currentGameSession;
+    private AsyncGameService.Round currentRound;
 
     // Game state variables
     private List<Question> gameQuestions;
@@ -80,6 +81,7 @@ public class BasicsGameController implements Initializable {
     private int score = 0;
     private int strikes = 0;
     private Question currentQuestion;
+    private long questionShownAt; // System.nanoTime() when the current question appeared
     private boolean gameActive = true;
 
     // Timer
@@ -128,17 +130,16 @@ public class BasicsGameController implements Initializable {
     }
 
     /**
-     * Starts a new persisted BASICS round for the current user.
+     * Starts a new persisted BASICS round for the current user in the background.
      * Logs (but does not rethrow) failures to avoid crashing the UI.
      */
     private void startGameSession() {
         if (gameService != null && currentUser != null) {
-            try {
-                currentGameSession = gameService.startRound(currentUser, GameMode.BASICS);
-                System.out.println("Started new basics game session with ID: " + currentGameSession.getId());
-            } catch (Exception e) {
-                System.err.println("Failed to start game session: " + e.getMessage());
-            }
+            currentRound = gameService.async().startRound(currentUser, GameMode.BASICS);
+            currentRound.started().whenComplete((s, err) -> {
+                if (err != null) System.err.println("Failed to start game session: " + AsyncGameService.causeOf(err).getMessage());
+                else System.out.println("Started new basics game session with ID: " + s.getId());
+            });
         }
     }
 
@@ -231,6 +232,7 @@ public class BasicsGameController implements Initializable {
 
             resetOptionButtons();
             nextButton.setDisable(true);
+            questionShownAt = System.nanoTime();
             startQuestionTimer();
         } else {
             endGame("Game Completed! Final Score: " + score + "/" + gameQuestions.size());
@@ -290,12 +292,8 @@ public class BasicsGameController implements Initializable {
         strikes++;
         updateStrikesDisplay();
 
-        if (gameService != null && currentGameSession != null) {
-            try {
-                gameService.submitWrong(currentGameSession);
-            } catch (Exception e) {
-                System.err.println("Failed to save wrong answer: " + e.getMessage());
-            }
+        if (currentRound != null) {
+            BackgroundSaves.logFailure(currentRound.submitWrong(currentQuestion.getText(), null, responseMs()), "save wrong answer");
         }
 
         highlightCorrectAnswer();
@@ -320,7 +318,7 @@ public class BasicsGameController implements Initializable {
         // Fixed: For multiple choice questions, we know it's always multiple choice
         boolean isCorrect = isAnswerCorrect(selectedAnswer, currentQuestion.getAnswer(), true);
 
-        processAnswer(isCorrect);
+        processAnswer(isCorrect, selectedAnswer);
 
         if (isCorrect) {
             selectedButton.setStyle("-fx-background-color: #90EE90; -fx-border-color: #006400;");
@@ -350,7 +348,7 @@ public class BasicsGameController implements Initializable {
 
         // Fixed: For numeric questions, we know it's always numeric (not multiple choice)
         boolean isCorrect = isAnswerCorrect(userAnswer, currentQuestion.getAnswer(), false);
-        processAnswer(isCorrect);
+        processAnswer(isCorrect, userAnswer);
 
         if (!isCorrect) {
             feedbackLabel.setText("Incorrect! The correct answer was: " + currentQuestion.getAnswer());
@@ -439,20 +437,18 @@ public class BasicsGameController implements Initializable {
      * Ends the game on three strikes.
      *
      * @param isCorrect whether the submitted answer was correct
+     * @param response  the option chosen or the number entered
      */
-    private void processAnswer(boolean isCorrect) {
+    private void processAnswer(boolean isCorrect, String response) {
+        int took = responseMs();
         if (isCorrect) {
             score++;
             updateScoreDisplay();
             feedbackLabel.setText("Correct!");
             feedbackLabel.setStyle("-fx-text-fill: green; -fx-font-size: 16px; -fx-font-weight: bold;");
 
-            if (gameService != null && currentGameSession != null) {
-                try {
-                    gameService.submitCorrect(currentGameSession);
-                } catch (Exception e) {
-                    System.err.println("Failed to save correct answer: " + e.getMessage());
-                }
+            if (currentRound != null) {
+                BackgroundSaves.logFailure(currentRound.submitCorrect(currentQuestion.getText(), response, took), "save correct answer");
             }
         } else {
             strikes++;
@@ -460,12 +456,8 @@ public class BasicsGameController implements Initializable {
             feedbackLabel.setText("Incorrect! The correct answer was: " + currentQuestion.getAnswer());
             feedbackLabel.setStyle("-fx-text-fill: red; -fx-font-size: 16px; -fx-font-weight: bold;");
 
-            if (gameService != null && currentGameSession != null) {
-                try {
-                    gameService.submitWrong(currentGameSession);
-                } catch (Exception e) {
-                    System.err.println("Failed to save wrong answer: " + e.getMessage());
-                }
+            if (currentRound != null) {
+                BackgroundSaves.logFailure(currentRound.submitWrong(currentQuestion.getText(), response, took), "save wrong answer");
             }
 
             if (strikes >= 3) {
@@ -474,6 +466,11 @@ public class BasicsGameController implements Initializable {
         }
     }
 
+    /** @return milliseconds since the current question was shown */
+    private int responseMs() {
+        return (int) ((System.nanoTime() - questionShownAt) / 1_000_000);
+    }
+
     /**
      * Strips the "X: " prefix from a button label to get the answer text.
      */
@@ -545,12 +542,8 @@ public class BasicsGameController implements Initializable {
     private void endGame(String message) {
         gameActive = false;
 
-        if (gameService != null && currentGameSession != null) {
-            try {
-                gameService.finishRound(currentGameSession);
-            } catch (Exception e) {
-                System.err.println("Failed to finish game session: " + e.getMessage());
-            }
+        if (currentRound != null) {
+            BackgroundSaves.logFailure(currentRound.finish(), "finish game session");
         }
 
         if (questionTimer != null) {
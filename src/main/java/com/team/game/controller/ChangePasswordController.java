@@ -7,10 +7,14 @@ import javafx.scene.control.*;
 import javafx.stage.Stage;
 import main.java.com.team.game.Main;
 import main.java.com.team.game.model.User;
+import main.java.com.team.game.service.AsyncGameService;
 import main.java.com.team.game.service.GameService;
+import main.java.com.team.game.ui.FxRuntime;
 
 import java.net.URL;
+import java.util.Arrays;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller for the Change Password dialog/view.
@@ -18,6 +22,7 @@ import java.util.ResourceBundle;
  * Handles user input validation, verifies the current password,
  * and delegates the update to {@link GameService}. Uses references
  * provided via {@code Main.MenuApp} for the active {@link User} and service.
+ * Both the check and the update (each a bcrypt hash) run off the FX thread.
  */
 public class ChangePasswordController implements Initializable {
 
@@ -98,29 +103,30 @@ public class ChangePasswordController implements Initializable {
             return;
         }
 
+        char[] currentPw = currentPassword.toCharArray();
+        char[] npw = newPassword.toCharArray();
+        AsyncGameService async = gameService.async();
+        changeButton.setDisable(true);
         try {
-            var loginResult = gameService.login(currentUser.getUsername(), currentPassword.toCharArray());
-            if (loginResult.isEmpty()) {
-                showStatus("Current password is incorrect.", false);
-                return;
-            }
-        } catch (Exception e) {
-            showStatus("Current password is incorrect.", false);
-            return;
-        }
-
-        try {
-            char[] npw = newPassword.toCharArray();
-
-            gameService.updatePassword(currentUser, npw);
-            currentPasswordField.clear();
-            newPasswordField.clear();
-            confirmPasswordField.clear();
-
-            showStatus("Password changed.", true);
-
-        } catch (Exception ex) {
-            showStatus("Error changing password: " + ex.getMessage(), false);
+            async.login(currentUser.getUsername(), currentPw)
+                    .thenCompose(loginResult -> loginResult.isEmpty()
+                            ? CompletableFuture.completedFuture(false)
+                            : async.updatePassword(currentUser, npw).thenApply(v -> true))
+                    .whenCompleteAsync((changed, err) -> {
+                        changeButton.setDisable(false);
+                        if (err != null) {
+                            showStatus("Error changing password: " + AsyncGameService.causeOf(err).getMessage(), false);
+                        } else if (!changed) {
+                            showStatus("Current password is incorrect.", false);
+                        } else {
+                            currentPasswordField.clear();
+                            newPasswordField.clear();
+                            confirmPasswordField.clear();
+                            showStatus("Password changed.", true);
+                        }
+                    }, FxRuntime.fxThread());
+        } finally {
+            Arrays.fill(currentPw, '\0'); // the async calls copy what they need
         }
     }
 
@@ -7,7 +7,9 @@ import javafx.scene.control.*;
 import javafx.stage.Stage;
 import main.java.com.team.game.Main;
 import main.java.com.team.game.model.User;
+import main.java.com.team.game.service.AsyncGameService;
 import main.java.com.team.game.service.GameService;
+import main.java.com.team.game.ui.FxRuntime;
 
 import java.net.URL;
 import java.util.ResourceBundle;
@@ -81,23 +83,24 @@ public class ChangeUsernameController implements Initializable {
             return;
         }
 
-        try {
-            gameService.updateUsername(currentUser, newUsername);
-
-            // Create a new user instance to reflect the change
-            currentUser = new User(currentUser.getId(), newUsername, currentUser.getRegisteredAt());
-
-            Main.MenuApp.setUserData(gameService, currentUser);
-            currentUsernameLabel.setText(newUsername);
-            newUsernameField.clear();
-
-            showStatus("Updated.", true);
-
-        } catch (IllegalStateException ex) {
-            showStatus("That name is taken.", false);
-        } catch (Exception ex) {
-            showStatus("Error updating username: " + ex.getMessage(), false);
-        }
+        updateButton.setDisable(true);
+        gameService.async().updateUsername(currentUser, newUsername).whenCompleteAsync((v, err) -> {
+            updateButton.setDisable(false);
+            if (err == null) {
+                // Create a new user instance to reflect the change
+                currentUser = new User(currentUser.getId(), newUsername, currentUser.getRegisteredAt());
+
+                Main.MenuApp.setUserData(gameService, currentUser);
+                currentUsernameLabel.setText(newUsername);
+                newUsernameField.clear();
+
+                showStatus("Updated.", true);
+            } else if (AsyncGameService.causeOf(err) instanceof IllegalStateException) {
+                showStatus("That name is taken.", false);
+            } else {
+                showStatus("Error updating username: " + AsyncGameService.causeOf(err).getMessage(), false);
+            }
+        }, FxRuntime.fxThread());
     }
 
     /**
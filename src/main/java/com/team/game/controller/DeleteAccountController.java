@@ -8,6 +8,7 @@ import javafx.stage.Stage;
 import main.java.com.team.game.Main;
 import main.java.com.team.game.model.User;
 import main.java.com.team.game.service.GameService;
+import main.java.com.team.game.ui.FxRuntime;
 
 import java.net.URL;
 import java.util.Optional;
@@ -83,20 +84,22 @@ public class DeleteAccountController implements Initializable {
 
         Optional<ButtonType> result = confirmationAlert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            boolean ok = gameService.deleteUser(currentUser);
-
-            if (ok) {
-                showStatus("Account deleted.", true);
-                showFinalDeletionMessage();
-
-                javafx.application.Platform.runLater(() -> {
-                    closeWindow();
-                    System.exit(0);
-                });
-
-            } else {
-                showStatus("Delete failed.", false);
-            }
+            deleteButton.setDisable(true);
+            gameService.async().deleteUser(currentUser).whenCompleteAsync((ok, err) -> {
+                if (err == null && ok) {
+                    showStatus("Account deleted.", true);
+                    showFinalDeletionMessage();
+
+                    javafx.application.Platform.runLater(() -> {
+                        closeWindow();
+                        System.exit(0);
+                    });
+
+                } else {
+                    deleteButton.setDisable(false);
+                    showStatus("Delete failed.", false);
+                }
+            }, FxRuntime.fxThread());
         }
     }
 
@@ -11,6 +11,7 @@ import main.java.com.team.game.Main;
 import main.java.com.team.game.model.GameSession;
 import main.java.com.team.game.service.GameService;
 import main.java.com.team.game.model.User;
+import main.java.com.team.game.ui.FxRuntime;
 
 import java.net.URL;
 import java.time.ZoneId;
@@ -23,13 +24,14 @@ import java.util.ResourceBundle;
  * Controller for the Delete Session view.
  * <p>
  * Allows users to select or manually enter a session ID to delete.
- * Lists all saved game sessions for the logged-in user and delegates
- * deletion logic to {@link GameService}.
+ * Lists the logged-in user's most recent game sessions (older ones can be
+ * deleted by ID) and delegates deletion logic to {@link GameService}.
  */
 public class DeleteSessionController implements Initializable {
 
     private static final ZoneId LOCAL_TZ = ZoneId.of("Australia/Brisbane");
     private static final DateTimeFormatter DT_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int RECENT_LIMIT = 100;
 
     @FXML
     private ComboBox<SessionItem> sessionComboBox;
@@ -77,8 +79,8 @@ public class DeleteSessionController implements Initializable {
     }
 
     /**
-     * Loads all sessions belonging to the current user
-     * and populates the combo box with formatted session details.
+     * Loads the current user's {@value #RECENT_LIMIT} most recent sessions in the
+     * background and shows them once they arrive.
      */
     private void loadSessions() {
         if (gameService == null || currentUser == null) {
@@ -86,7 +88,23 @@ public class DeleteSessionController implements Initializable {
             return;
         }
 
-        List<GameSession> sessions = gameService.listSessionsByUser(currentUser);
+        gameService.async().listSessionsByUser(currentUser, null, RECENT_LIMIT, null)
+                .whenCompleteAsync((page, err) -> {
+                    if (err != null) {
+                        showStatus("Error: Unable to load sessions", false);
+                        deleteButton.setDisable(true);
+                    } else {
+                        showSessions(page.getSessions());
+                    }
+                }, FxRuntime.fxThread());
+    }
+
+    /**
+     * Populates the combo box with formatted session details.
+     *
+     * @param sessions sessions loaded for the current user
+     */
+    private void showSessions(List<GameSession> sessions) {
         ObservableList<SessionItem> sessionItems = FXCollections.observableArrayList();
 
         for (GameSession session : sessions) {
@@ -129,17 +147,21 @@ public class DeleteSessionController implements Initializable {
 
         Optional<ButtonType> result = confirmationAlert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            boolean success = gameService.deleteSession(sessionId);
-
-            if (success) {
-                showStatus("Session ID " + sessionId + " deleted successfully.", true);
-
-                loadSessions();
-                sessionComboBox.setValue(null);
-                sessionIdField.clear();
-            } else {
-                showStatus("Session ID " + sessionId + " not found.", false);
-            }
+            deleteButton.setDisable(true);
+            gameService.async().deleteSession(sessionId).whenCompleteAsync((success, err) -> {
+                deleteButton.setDisable(false);
+                if (err != null) {
+                    showStatus("Error deleting session ID " + sessionId + ".", false);
+                } else if (success) {
+                    showStatus("Session ID " + sessionId + " deleted successfully.", true);
+
+                    loadSessions();
+                    sessionComboBox.setValue(null);
+                    sessionIdField.clear();
+                } else {
+                    showStatus("Session ID " + sessionId + " not found.", false);
+                }
+            }, FxRuntime.fxThread());
         }
     }
 
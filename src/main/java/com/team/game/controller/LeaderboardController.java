@@ -8,13 +8,20 @@ import javafx.fxml.Initializable;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
+import javafx.util.StringConverter;
 import main.java.com.team.game.Main;
 import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.LeaderboardPeriod;
 import main.java.com.team.game.model.ScoreRow;
 import main.java.com.team.game.service.GameService;
+import main.java.com.team.game.service.Subscription;
+import main.java.com.team.game.ui.FxRuntime;
+import main.java.com.team.game.util.ListDiff;
 
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.ResourceBundle;
 
 /**
@@ -22,10 +29,18 @@ import java.util.ResourceBundle;
  * <p>
  * Displays the top players for each {@link GameMode}.
  * Fetches leaderboard data from {@link GameService}, formats it for display,
- * and allows users to switch between different game mode leaderboards.
+ * and allows users to switch between different game mode leaderboards and
+ * between today, this week, this term and all time.
+ * <p>
+ * The shown board is a subscription: when a finished round changes its top ten the
+ * service pushes the new rows and only the rows that moved, appeared or dropped out
+ * are updated, so a board left open (say on a classroom projector) stays live
+ * without re-querying.
  */
 public class LeaderboardController implements Initializable {
 
+    private static final int TOP_K = 10;
+
     @FXML
     private Button basicsButton;
 
@@ -38,6 +53,9 @@ public class LeaderboardController implements Initializable {
     @FXML
     private Button backButton;
 
+    @FXML
+    private ChoiceBox<LeaderboardPeriod> periodChoice;
+
     @FXML
     private Label selectedModeLabel;
 
@@ -60,10 +78,15 @@ public class LeaderboardController implements Initializable {
     private Label instructionLabel;
 
     private GameService gameService;
+    private GameMode selectedMode;
+    private LeaderboardPeriod selectedPeriod = LeaderboardPeriod.ALL_TIME;
+    private final ObservableList<LeaderboardRow> leaderboardRows = FXCollections.observableArrayList();
+    private Subscription subscription;
 
     /**
      * JavaFX lifecycle hook.
-     * Initializes the leaderboard table columns and binds them to data properties.
+     * Initializes the leaderboard table columns and binds them to data properties,
+     * and fills the period selector (all time by default).
      */
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -72,6 +95,20 @@ public class LeaderboardController implements Initializable {
         rankColumn.setCellValueFactory(new PropertyValueFactory<>("rank"));
         usernameColumn.setCellValueFactory(new PropertyValueFactory<>("username"));
         highScoreColumn.setCellValueFactory(new PropertyValueFactory<>("highScore"));
+        leaderboardTable.setItems(leaderboardRows);
+        FxRuntime.onWindowHidden(leaderboardTable, this::unsubscribe);
+
+        periodChoice.getItems().setAll(LeaderboardPeriod.values());
+        periodChoice.setConverter(new StringConverter<>() {
+            @Override public String toString(LeaderboardPeriod period) { return period == null ? "" : period.getLabel(); }
+            @Override public LeaderboardPeriod fromString(String label) { return null; }
+        });
+        periodChoice.setValue(selectedPeriod);
+        periodChoice.valueProperty().addListener((obs, old, period) -> {
+            if (period == null) return;
+            selectedPeriod = period;
+            if (selectedMode != null) loadLeaderboard(selectedMode);
+        });
     }
 
     /**
@@ -108,7 +145,9 @@ public class LeaderboardController implements Initializable {
     }
 
     /**
-     * Loads leaderboard data for the specified game mode from {@link GameService}.
+     * Subscribes to the leaderboard of the specified game mode and the selected period,
+     * replacing the previous subscription. Rows arrive from {@link GameService} in the
+     * background, first as they are and then whenever they change.
      * If no data exists, displays a "no scores" message.
      *
      * @param mode the game mode whose leaderboard should be displayed
@@ -119,44 +158,60 @@ public class LeaderboardController implements Initializable {
             return;
         }
 
-        selectedModeLabel.setText(mode.toString() + " LEADERBOARD");
+        LeaderboardPeriod period = selectedPeriod;
+        selectedModeLabel.setText(mode.toString() + " LEADERBOARD"
+                + (period.isWindowed() ? " (" + period.getLabel().toUpperCase() + ")" : ""));
         selectedModeLabel.setVisible(true);
         instructionLabel.setVisible(false);
 
-        List<ScoreRow> rows = gameService.leaderboard(mode, 10);
-
-        if (rows.isEmpty()) {
-            showNoScores();
-        } else {
-            showLeaderboard(rows);
-        }
+        selectedMode = mode;
+        unsubscribe(); // a closed subscription delivers nothing more, even if already queued
+        leaderboardRows.clear();
+        subscription = gameService.subscribeLeaderboard(mode, period, TOP_K, FxRuntime.fxThread(), rows -> {
+            if (rows.isEmpty()) {
+                showNoScores();
+            } else {
+                showLeaderboard(rows);
+            }
+        });
     }
 
     /**
-     * Populates the leaderboard table with player rankings and scores.
+     * Updates the leaderboard table to the given player rankings and scores, touching
+     * only the rows that changed so the table keeps its selection and scroll position.
      *
      * @param scoreRows list of scores retrieved from the service
      */
     private void showLeaderboard(List<ScoreRow> scoreRows) {
         noScoresLabel.setVisible(false);
 
-        ObservableList<LeaderboardRow> leaderboardRows = FXCollections.observableArrayList();
-
+        List<LeaderboardRow> next = new ArrayList<>(scoreRows.size());
         int rank = 1;
         for (ScoreRow scoreRow : scoreRows) {
-            LeaderboardRow row = new LeaderboardRow(rank, scoreRow.getUsername(), scoreRow.getHighScore());
-            leaderboardRows.add(row);
+            next.add(new LeaderboardRow(scoreRow.getUserId(), rank, scoreRow.getUsername(), scoreRow.getHighScore()));
             rank++;
         }
+        ListDiff.patch(leaderboardRows, next, LeaderboardRow::getUserId, (a, b) ->
+                Objects.equals(a.getRank(), b.getRank())
+                        && Objects.equals(a.getUsername(), b.getUsername())
+                        && Objects.equals(a.getHighScore(), b.getHighScore()));
 
-        leaderboardTable.setItems(leaderboardRows);
         leaderboardTable.setVisible(true);
     }
 
+    /** Stops following the shown board. */
+    private void unsubscribe() {
+        if (subscription != null) {
+            subscription.close();
+            subscription = null;
+        }
+    }
+
     /**
      * Displays a message indicating that no scores were found.
      */
     private void showNoScores() {
+        leaderboardRows.clear();
         leaderboardTable.setVisible(false);
         noScoresLabel.setVisible(true);
     }
@@ -176,6 +231,7 @@ public class LeaderboardController implements Initializable {
      * Utility method to close the current stage (window).
      */
     private void closeWindow() {
+        unsubscribe();
         Stage stage = (Stage) backButton.getScene().getWindow();
         stage.close();
     }
@@ -185,6 +241,7 @@ public class LeaderboardController implements Initializable {
      * Stores a player’s rank, username, and high score.
      */
     public static class LeaderboardRow {
+        private Integer userId;
         private Integer rank;
         private String username;
         private Integer highScore;
@@ -197,11 +254,28 @@ public class LeaderboardController implements Initializable {
          * @param highScore  the player’s top score
          */
         public LeaderboardRow(Integer rank, String username, Integer highScore) {
+            this(null, rank, username, highScore);
+        }
+
+        /**
+         * Constructs a leaderboard row entry that remembers whose row it is, so it can be
+         * matched up when the board changes.
+         *
+         * @param userId     the player’s user ID
+         * @param rank       the player’s position
+         * @param username   the player’s username
+         * @param highScore  the player’s top score
+         */
+        public LeaderboardRow(Integer userId, Integer rank, String username, Integer highScore) {
+            this.userId = userId;
             this.rank = rank;
             this.username = username;
             this.highScore = highScore;
         }
 
+        /** @return the player’s user ID, or {@code null} if not known */
+        public Integer getUserId() { return userId; }
+
         /** @return the player’s rank in the leaderboard */
         public Integer getRank() { return rank; }
 
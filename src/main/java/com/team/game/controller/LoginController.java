@@ -6,7 +6,9 @@ import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 import main.java.com.team.game.model.User;
+import main.java.com.team.game.service.AsyncGameService;
 import main.java.com.team.game.service.GameService;
+import main.java.com.team.game.ui.FxRuntime;
 
 import java.util.Arrays;
 import java.util.Optional;
@@ -18,6 +20,8 @@ import java.util.function.Consumer;
  * Handles user authentication and registration, validating input
  * and delegating logic to {@link GameService}. On success, passes
  * the logged-in user to a callback so the next view can be loaded.
+ * Button handlers call the service through {@link GameService#async()}, so
+ * bcrypt hashing never blocks the JavaFX Application Thread.
  */
 public class LoginController {
     @FXML private TextField usernameField;
@@ -93,7 +97,7 @@ public class LoginController {
     // === GUI HANDLERS ===================================
     // =====================================================
 
-    /** Handles login button click. */
+    /** Handles login button click; credentials are checked off the FX thread. */
     @FXML
     private void handleLogin() {
         String u = safe(usernameField.getText());
@@ -105,19 +109,23 @@ public class LoginController {
         }
 
         try {
-            Optional<User> user = checkUser(u, pw);
-            if (user.isPresent()) {
-                onSuccess.accept(user.get());
-                closeWindow();
-            } else {
-                feedbackLabel.setText("Incorrect username or password");
-            }
+            feedbackLabel.setText("Signing in...");
+            svc.async().login(u, pw).whenCompleteAsync((user, err) -> {
+                if (err != null) {
+                    feedbackLabel.setText("Sign in failed, please try again");
+                } else if (user.isPresent()) {
+                    onSuccess.accept(user.get());
+                    closeWindow();
+                } else {
+                    feedbackLabel.setText("Incorrect username or password");
+                }
+            }, FxRuntime.fxThread());
         } finally {
-            Arrays.fill(pw, '\0');
+            Arrays.fill(pw, '\0'); // the async call keeps its own copy
         }
     }
 
-    /** Handles register button click. */
+    /** Handles register button click; the account is created off the FX thread. */
     @FXML
     private void handleRegister() {
         String u = safe(usernameField.getText());
@@ -129,13 +137,19 @@ public class LoginController {
         }
 
         try {
-            User user = registerUser(u, pw);
-            onSuccess.accept(user);
-            closeWindow();
-        } catch (IllegalStateException dup) {
-            feedbackLabel.setText("Username already exists or invalid");
+            feedbackLabel.setText("Creating account...");
+            svc.async().register(u, pw).whenCompleteAsync((user, err) -> {
+                if (err == null) {
+                    onSuccess.accept(user);
+                    closeWindow();
+                } else if (AsyncGameService.causeOf(err) instanceof IllegalStateException) {
+                    feedbackLabel.setText("Username already exists or invalid");
+                } else {
+                    feedbackLabel.setText("Registration failed, please try again");
+                }
+            }, FxRuntime.fxThread());
         } finally {
-            Arrays.fill(pw, '\0');
+            Arrays.fill(pw, '\0'); // the async call keeps its own copy
         }
     }
 
@@ -11,10 +11,12 @@ import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import main.java.com.team.game.Main;
 import main.java.com.team.game.model.GameMode;
-import main.java.com.team.game.model.GameSession;
 import main.java.com.team.game.model.User;
+import main.java.com.team.game.service.AsyncGameService;
 import main.java.com.team.game.service.GameService;
 import main.java.com.team.game.target.TargetPhysics;
+import main.java.com.team.game.ui.BackgroundSaves;
+import main.java.com.team.game.ui.FxRuntime;
 
 import javafx.application.Platform;
 import javafx.scene.input.KeyCode;
@@ -26,7 +28,8 @@ import java.util.Random;
  * <p>
  * Generates projectile scenarios (angle, wall distance, target height) and asks the user
  * to compute a launch speed {@code v}. Animates the projectile, checks for a hit, and
- * records score/strikes. Persists progress via {@link GameService} and {@link GameSession}.
+ * records score/strikes. Persists progress in the background via an
+ * {@link AsyncGameService.Round} from {@link GameService#async()}.
  */
 public class TargetGameController {
 
@@ -43,7 +46,7 @@ public class TargetGameController {
 
     private GameService gameService;
     private User currentUser;
-    private GameSession session;
+    private AsyncGameService.Round round;
 
     private final Random rng = new Random();
 
@@ -80,6 +83,10 @@ public class TargetGameController {
     private double t;
     private double vUser;
 
+    // Answer timing for the answer log
+    private long questionShownAt;               // System.nanoTime() when the scenario appeared
+    private int responseMs;                     // time from scenario shown to Fire
+
     /**
      * JavaFX lifecycle hook. Wires the service and current user from {@code Main.TargetApp},
      * starts a session if possible, prepares UI state, and binds Enter key to fire/next.
@@ -92,7 +99,8 @@ public class TargetGameController {
         } catch (Throwable ignored) {}
 
         if (gameService != null && currentUser != null) {
-            session = gameService.startRound(currentUser, GameMode.TARGET);
+            round = gameService.async().startRound(currentUser, GameMode.TARGET);
+            BackgroundSaves.logFailure(round.started(), "start game session");
             statusLabel.setText("Session started. User: " + currentUser.getUsername());
         } else {
             statusLabel.setText("database ain't there chief");
@@ -148,9 +156,20 @@ public class TargetGameController {
             return;
         }
 
+        responseMs = (int) ((System.nanoTime() - questionShownAt) / 1_000_000);
         startAnimation();
     }
 
+    /**
+     * Scenarios are random, so the answer log groups them by launch angle: each whole
+     * degree is one "question" for per-question statistics.
+     *
+     * @return the prompt recorded for the current scenario
+     */
+    private String questionKey() {
+        return "Target: angle " + Math.round(angleDeg) + "°";
+    }
+
     /**
      * Proceeds to the next round if no animation is running.
      */
@@ -172,7 +191,8 @@ public class TargetGameController {
         updateHud();
 
         if (gameService != null && currentUser != null) {
-            session = gameService.startRound(currentUser, GameMode.TARGET);
+            round = gameService.async().startRound(currentUser, GameMode.TARGET);
+            BackgroundSaves.logFailure(round.started(), "start game session");
         }
 
         fireBtn.setDisable(false);
@@ -249,6 +269,7 @@ public class TargetGameController {
 
         String q = "Angle θ = " + Math.round(angleDeg) + "°, wall = " + String.format("%.1f", x_m) + " m, target height = " + String.format("%.1f", targetY_m) + " m.\nEnter v (m/s) and press Fire.";
         questionLabel.setText(q);
+        questionShownAt = System.nanoTime();
         statusLabel.setText("Enter v and click Fire.");
         answerField.clear();
         nextBtn.setDisable(true);
@@ -275,14 +296,14 @@ public class TargetGameController {
         if (wasHit == true) {
             score++;
             statusLabel.setText("Hit! v* = " + String.format("%.2f", correctV) + " m/s, your v = " + String.format("%.2f", vUser) + " m/s");
-            if (gameService != null && session != null) {
-                gameService.submitCorrect(session);
+            if (round != null) {
+                BackgroundSaves.logFailure(round.submitCorrect(questionKey(), String.format("%.2f", vUser), responseMs), "save correct answer");
             }
         } else {
             strikes++;
             statusLabel.setText("Miss. v* = " + String.format("%.2f", correctV) + " m/s, your v = " + String.format("%.2f", vUser) + " m/s");
-            if (gameService != null && session != null) {
-                gameService.submitWrong(session);
+            if (round != null) {
+                BackgroundSaves.logFailure(round.submitWrong(questionKey(), String.format("%.2f", vUser), responseMs), "save wrong answer");
             }
         }
 
@@ -310,11 +331,17 @@ public class TargetGameController {
         if (timer != null) timer.stop();
 
         String finalMsg = "Game over: " + reason;
-        if (gameService != null && session != null) {
-            gameService.finishRound(session);
-            finalMsg = finalMsg + " (session " + session.getId() + " finished)";
-        }
         statusLabel.setText(finalMsg);
+        if (round != null) {
+            AsyncGameService.Round finished = round;
+            finished.finish().whenCompleteAsync((v, err) -> {
+                if (err != null) {
+                    System.err.println("Failed to finish game session: " + AsyncGameService.causeOf(err).getMessage());
+                } else if (statusLabel.getText().equals(finalMsg)) { // not replaced by a new game yet
+                    statusLabel.setText(finalMsg + " (session " + finished.started().join().getId() + " finished)");
+                }
+            }, FxRuntime.fxThread());
+        }
     }
 
     /**
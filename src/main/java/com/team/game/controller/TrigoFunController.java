@@ -3,9 +3,10 @@ package main.java.com.team.game.controller;
 import main.java.com.team.game.model.Question;
 import main.java.com.team.game.model.QuestionBank;
 import main.java.com.team.game.model.GameMode;
-import main.java.com.team.game.model.GameSession;
 import main.java.com.team.game.model.User;
+import main.java.com.team.game.service.AsyncGameService;
 import main.java.com.team.game.service.GameService;
+import main.java.com.team.game.ui.BackgroundSaves;
 import main.java.com.team.game.Main;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -51,7 +52,7 @@ public class TrigoFunController implements Initializable {
     // Database integration
     private GameService gameService;
     private User currentUser;
-    private GameSession currentGameSession;
+    private AsyncGameService.Round currentRound;
 
     // Game state variables
     private int currentQuestionIndex = 0;
@@ -60,6 +61,7 @@ public class TrigoFunController implements Initializable {
     private int highestConsecutiveCorrect = 0;   // Tracks best streak
     private int currentConsecutiveCorrect = 0;   // Tracks ongoing correct streak
     private Question currentQuestion;
+    private long questionShownAt; // System.nanoTime() when the current question appeared
 
     // Timer variables
     private Timeline gameTimer;
@@ -130,17 +132,19 @@ public class TrigoFunController implements Initializable {
     }
 
     /**
-     * Starts a new game session in the database for the current user.
+     * Starts a new game session in the database for the current user, in the background.
      */
     private void startGameSession() {
         if (gameService != null && currentUser != null) {
-            try {
-                currentGameSession = gameService.startRound(currentUser, GameMode.TRIG);
-                System.out.println("Started new game session with ID: " + currentGameSession.getId());
-            } catch (Exception e) {
-                System.err.println("Failed to start game session: " + e.getMessage());
-                e.printStackTrace();
-            }
+            currentRound = gameService.async().startRound(currentUser, GameMode.TRIG);
+            currentRound.started().whenComplete((s, err) -> {
+                if (err == null) {
+                    System.out.println("Started new game session with ID: " + s.getId());
+                } else {
+                    System.err.println("Failed to start game session: " + AsyncGameService.causeOf(err).getMessage());
+                    AsyncGameService.causeOf(err).printStackTrace();
+                }
+            });
         }
     }
 
@@ -203,6 +207,8 @@ public class TrigoFunController implements Initializable {
             return;
         }
 
+        int took = (int) ((System.nanoTime() - questionShownAt) / 1_000_000);
+
         // Evaluate answer correctness
         if (isAnswerCorrect(userAnswer, currentQuestion.getAnswer())) {
             totalScore++;
@@ -213,12 +219,8 @@ public class TrigoFunController implements Initializable {
             feedbackLabel.setStyle("-fx-text-fill: green; -fx-font-size: 18px; -fx-font-weight: bold;");
 
             // Save correct result
-            if (gameService != null && currentGameSession != null) {
-                try {
-                    gameService.submitCorrect(currentGameSession);
-                } catch (Exception e) {
-                    System.err.println("Failed to save correct answer: " + e.getMessage());
-                }
+            if (currentRound != null) {
+                BackgroundSaves.logFailure(currentRound.submitCorrect(currentQuestion.getText(), userAnswer, took), "save correct answer");
             }
         } else {
             if (currentConsecutiveCorrect > highestConsecutiveCorrect) {
@@ -229,12 +231,8 @@ public class TrigoFunController implements Initializable {
             feedbackLabel.setText("Wrong! Correct answer: " + currentQuestion.getAnswer() + " (Strikes: " + wrongStrikes + "/3)");
             feedbackLabel.setStyle("-fx-text-fill: red; -fx-font-size: 18px; -fx-font-weight: bold;");
 
-            if (gameService != null && currentGameSession != null) {
-                try {
-                    gameService.submitWrong(currentGameSession);
-                } catch (Exception e) {
-                    System.err.println("Failed to save wrong answer: " + e.getMessage());
-                }
+            if (currentRound != null) {
+                BackgroundSaves.logFailure(currentRound.submitWrong(currentQuestion.getText(), userAnswer, took), "save wrong answer");
             }
 
             // End game if 3 strikes reached
@@ -280,6 +278,7 @@ public class TrigoFunController implements Initializable {
             }
 
             loadQuestionImage("triangle.png"); // Default diagram for trig questions
+            questionShownAt = System.nanoTime();
         }
     }
 
@@ -366,13 +365,13 @@ public class TrigoFunController implements Initializable {
     private void endGame(String message) {
         gameActive = false;
 
-        if (gameService != null && currentGameSession != null) {
-            try {
-                gameService.finishRound(currentGameSession);
-                System.out.println("Finished session " + currentGameSession.getId() + " with score " + totalScore);
-            } catch (Exception e) {
-                System.err.println("Failed to finish game session: " + e.getMessage());
-            }
+        if (currentRound != null) {
+            AsyncGameService.Round round = currentRound;
+            int finalScore = totalScore;
+            round.finish().whenComplete((v, err) -> {
+                if (err != null) System.err.println("Failed to finish game session: " + AsyncGameService.causeOf(err).getMessage());
+                else System.out.println("Finished session " + round.started().join().getId() + " with score " + finalScore);
+            });
         }
 
         if (gameTimer != null) gameTimer.stop();
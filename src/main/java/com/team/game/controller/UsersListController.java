@@ -10,7 +10,9 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 import main.java.com.team.game.Main;
 import main.java.com.team.game.model.User;
+import main.java.com.team.game.service.AsyncGameService;
 import main.java.com.team.game.service.GameService;
+import main.java.com.team.game.ui.FxRuntime;
 
 import java.net.URL;
 import java.time.ZoneId;
@@ -72,7 +74,8 @@ public class UsersListController implements Initializable {
 
     /**
      * Loads users from the service and shows them in the table.
-     * Displays a placeholder message if none are found or service is unavailable.
+     * Displays a placeholder message if none are found or service is unavailable,
+     * and an error message (logged with its cause) if the load fails.
      */
     private void loadUsers() {
         if (gameService == null) {
@@ -80,13 +83,17 @@ public class UsersListController implements Initializable {
             return;
         }
 
-        List<User> users = gameService.listUsers();
-
-        if (users.isEmpty()) {
-            showNoUsers();
-        } else {
-            showUsers(users);
-        }
+        gameService.async().listUsers().whenCompleteAsync((users, err) -> {
+            if (err != null) {
+                Throwable cause = AsyncGameService.causeOf(err);
+                System.err.println("Failed to load users: " + cause.getMessage());
+                showLoadFailed();
+            } else if (users.isEmpty()) {
+                showNoUsers();
+            } else {
+                showUsers(users);
+            }
+        }, FxRuntime.fxThread());
     }
 
     /**
@@ -123,11 +130,22 @@ public class UsersListController implements Initializable {
      */
     private void showNoUsers() {
         usersTable.setVisible(false);
+        noUsersLabel.setText("No users found.");
         noUsersLabel.setVisible(true);
         totalUsersLabel.setText("Total users: 0");
         totalUsersLabel.setVisible(true);
     }
 
+    /**
+     * Hides the table and says the users could not be loaded, without claiming there are none.
+     */
+    private void showLoadFailed() {
+        usersTable.setVisible(false);
+        noUsersLabel.setText("Could not load users. Try Refresh.");
+        noUsersLabel.setVisible(true);
+        totalUsersLabel.setVisible(false);
+    }
+
     /**
      * Refreshes the list of users from the database.
      *
@@ -10,8 +10,13 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 import main.java.com.team.game.Main;
 import main.java.com.team.game.model.GameSession;
+import main.java.com.team.game.model.SessionCursor;
+import main.java.com.team.game.model.SessionPage;
 import main.java.com.team.game.service.GameService;
 import main.java.com.team.game.model.User;
+import main.java.com.team.game.service.SessionChange;
+import main.java.com.team.game.service.Subscription;
+import main.java.com.team.game.ui.FxRuntime;
 
 import java.net.URL;
 import java.time.ZoneId;
@@ -22,14 +27,20 @@ import java.util.ResourceBundle;
 /**
  * Controller for the "My Sessions" screen.
  * <p>
- * Displays all saved {@link GameSession}s for the current user,
+ * Displays the current user's saved {@link GameSession}s, newest first,
  * including score, strikes, completion status, and timestamps.
+ * Sessions are loaded one page at a time ("Load More"), so the screen opens
+ * equally fast however long the history is.
+ * While the screen is open it follows the user's sessions through
+ * {@link GameService#subscribeSessions}: new rounds are inserted at the top and rounds
+ * being played, finished or deleted are updated in place, without reloading.
  * Supports refreshing and returning to the main menu.
  */
 public class ViewSessionController implements Initializable {
 
     private static final ZoneId LOCAL_TZ = ZoneId.of("Australia/Brisbane");
     private static final DateTimeFormatter DT_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss z");
+    private static final int PAGE_SIZE = 50;
 
     @FXML private TableView<SessionRow> sessionsTable;
     @FXML private TableColumn<SessionRow, Integer> idColumn;
@@ -40,11 +51,18 @@ public class ViewSessionController implements Initializable {
     @FXML private TableColumn<SessionRow, String> startedColumn;
     @FXML private TableColumn<SessionRow, String> endedColumn;
     @FXML private Label noSessionsLabel;
+    @FXML private Label sessionCountLabel;
+    @FXML private Button loadMoreButton;
     @FXML private Button refreshButton;
     @FXML private Button backButton;
 
     private GameService gameService;
     private User currentUser;
+    private final ObservableList<SessionRow> sessionRows = FXCollections.observableArrayList();
+    private SessionCursor nextCursor;
+    private int totalSessions;
+    private int loadGeneration; // bumped on reload so late pages from an older load are dropped
+    private Subscription subscription;
 
     /**
      * Initializes the controller after FXML loading.
@@ -64,47 +82,152 @@ public class ViewSessionController implements Initializable {
         completedColumn.setCellValueFactory(new PropertyValueFactory<>("completed"));
         startedColumn.setCellValueFactory(new PropertyValueFactory<>("started"));
         endedColumn.setCellValueFactory(new PropertyValueFactory<>("ended"));
+        sessionsTable.setItems(sessionRows);
 
+        if (gameService != null && currentUser != null) {
+            subscription = gameService.subscribeSessions(currentUser, FxRuntime.fxThread(), this::applyChanges);
+            FxRuntime.onWindowHidden(sessionsTable, this::unsubscribe);
+        }
         loadSessions();
     }
 
     /**
-     * Loads all sessions for the current user and populates the table.
+     * Reloads the first page of the current user's sessions in the background.
      * Displays a message if no sessions are found.
      */
     private void loadSessions() {
+        sessionRows.clear();
+        nextCursor = null;
+        int generation = ++loadGeneration;
         if (gameService == null || currentUser == null) {
             showNoSessions();
             return;
         }
 
-        List<GameSession> sessions = gameService.listSessionsByUser(currentUser);
+        loadMoreButton.setDisable(true);
+        gameService.async().supply(() -> {
+            int total = gameService.countSessionsByUser(currentUser, null);
+            SessionPage first = total == 0 ? null : gameService.listSessionsByUser(currentUser, null, PAGE_SIZE, null);
+            return new FirstPage(total, first);
+        }).whenCompleteAsync((result, err) -> {
+            if (generation != loadGeneration) return;
+            if (err != null || result.total() == 0) {
+                showNoSessions();
+                return;
+            }
+            totalSessions = result.total();
+            hideNoSessions();
+            appendPage(result.page());
+        }, FxRuntime.fxThread());
+    }
+
+    /** Session count and first page, loaded together when the screen (re)loads. */
+    private record FirstPage(int total, SessionPage page) { }
+
+    /**
+     * Fetches the page after {@link #nextCursor} in the background and appends it to the table.
+     */
+    private void loadNextPage() {
+        int generation = loadGeneration;
+        loadMoreButton.setDisable(true);
+        gameService.async().listSessionsByUser(currentUser, nextCursor, PAGE_SIZE, null)
+                .whenCompleteAsync((page, err) -> {
+                    if (generation != loadGeneration) return;
+                    if (err != null) {
+                        loadMoreButton.setDisable(false); // let the user retry
+                        return;
+                    }
+                    appendPage(page);
+                }, FxRuntime.fxThread());
+    }
+
+    /**
+     * Appends a loaded page to the table and remembers where the next one starts.
+     *
+     * @param page sessions following the previous page
+     */
+    private void appendPage(SessionPage page) {
+        for (GameSession session : page.getSessions()) {
+            if (indexOf(session.getId()) < 0) sessionRows.add(toRow(session)); // may have arrived as a change already
+        }
+
+        nextCursor = page.getNextCursor().orElse(null);
+        loadMoreButton.setDisable(nextCursor == null);
+        updateCount();
+    }
 
-        if (sessions.isEmpty()) {
+    /**
+     * Applies a batch of pushed changes to the rows on screen: a new round is inserted at
+     * the top, a changed one replaced where it is and a deleted one removed. Rounds that
+     * are not loaded (further down than "Load More" has gone) are left for a later page.
+     *
+     * @param changes the user's session changes since the last batch
+     */
+    private void applyChanges(List<SessionChange> changes) {
+        for (SessionChange change : changes) {
+            int at = indexOf(change.getSessionId());
+            switch (change.getKind()) {
+                case RESET -> {
+                    loadSessions();
+                    return;
+                }
+                case ADDED -> {
+                    if (at >= 0) continue;
+                    sessionRows.add(0, toRow(change.getSession()));
+                    totalSessions++;
+                }
+                case UPDATED -> {
+                    if (at >= 0) sessionRows.set(at, toRow(change.getSession()));
+                }
+                case REMOVED -> {
+                    if (at < 0) continue;
+                    sessionRows.remove(at);
+                    totalSessions--;
+                }
+            }
+        }
+        if (sessionRows.isEmpty() && nextCursor == null) {
             showNoSessions();
         } else {
             hideNoSessions();
-            ObservableList<SessionRow> sessionRows = FXCollections.observableArrayList();
-
-            for (GameSession session : sessions) {
-                String startedLocal = session.getStartedAt().atZone(LOCAL_TZ).format(DT_FMT);
-                String endedLocal = (session.getEndedAt() == null)
-                        ? "-" : session.getEndedAt().atZone(LOCAL_TZ).format(DT_FMT);
-
-                SessionRow row = new SessionRow(
-                        session.getId(),
-                        session.getMode().toString(),
-                        session.getScore(),
-                        session.getStrikes(),
-                        session.isCompleted() ? "Yes" : "No",
-                        startedLocal,
-                        endedLocal
-                );
-
-                sessionRows.add(row);
-            }
+            updateCount();
+        }
+    }
 
-            sessionsTable.setItems(sessionRows);
+    /** @return position of the session's row in the table, or -1 if it is not loaded */
+    private int indexOf(int sessionId) {
+        for (int i = 0; i < sessionRows.size(); i++) {
+            if (sessionRows.get(i).getId() == sessionId) return i;
+        }
+        return -1;
+    }
+
+    /** Formats a session for the table in local time. */
+    private static SessionRow toRow(GameSession session) {
+        String startedLocal = session.getStartedAt().atZone(LOCAL_TZ).format(DT_FMT);
+        String endedLocal = (session.getEndedAt() == null)
+                ? "-" : session.getEndedAt().atZone(LOCAL_TZ).format(DT_FMT);
+
+        return new SessionRow(
+                session.getId(),
+                session.getMode().toString(),
+                session.getScore(),
+                session.getStrikes(),
+                session.isCompleted() ? "Yes" : "No",
+                startedLocal,
+                endedLocal
+        );
+    }
+
+    private void updateCount() {
+        sessionCountLabel.setText("Showing " + sessionRows.size() + " of " + totalSessions + " sessions");
+    }
+
+    /** Stops following the user's sessions. */
+    private void unsubscribe() {
+        if (subscription != null) {
+            subscription.close();
+            subscription = null;
         }
     }
 
@@ -113,6 +236,8 @@ public class ViewSessionController implements Initializable {
      */
     private void showNoSessions() {
         sessionsTable.setVisible(false);
+        loadMoreButton.setDisable(true);
+        sessionCountLabel.setText("");
         noSessionsLabel.setVisible(true);
     }
 
@@ -135,6 +260,16 @@ public class ViewSessionController implements Initializable {
         loadSessions();
     }
 
+    /**
+     * Appends the next page of sessions when the user clicks "Load More".
+     *
+     * @param actionEvent the originating UI event
+     */
+    @FXML
+    public void handleLoadMore(ActionEvent actionEvent) {
+        if (nextCursor != null) loadNextPage();
+    }
+
     /**
      * Closes the current window and returns to the main menu.
      *
@@ -150,6 +285,7 @@ public class ViewSessionController implements Initializable {
      * Utility method to close the current window.
      */
     private void closeWindow() {
+        unsubscribe();
         Stage stage = (Stage) backButton.getScene().getWindow();
         stage.close();
     }
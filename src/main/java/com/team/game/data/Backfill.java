@@ -0,0 +1,29 @@
+package main.java.com.team.game.data;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A data backfill run online, in small chunks, after the migration that needs it.
+ * <p>
+ * Each chunk runs in its own short transaction together with the update of its
+ * progress cursor, so the game keeps writing between chunks and an interrupted
+ * backfill resumes where it stopped. Chunks must be idempotent and safe to run
+ * alongside live writes (for example, upserts that only ever raise a value).
+ */
+@FunctionalInterface
+public interface Backfill {
+
+    /** Cursor value returned once there is nothing left to process. */
+    long DONE = -1;
+
+    /**
+     * Processes up to {@code chunkSize} items after {@code cursor}.
+     *
+     * @param c         connection inside the chunk's transaction
+     * @param cursor    last key processed by the previous chunk, 0 for the first chunk
+     * @param chunkSize maximum number of items to process
+     * @return the last key processed, or {@link #DONE} when no items remain
+     */
+    long step(Connection c, long cursor, int chunkSize) throws SQLException;
+}
@@ -0,0 +1,54 @@
+package main.java.com.team.game.data;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * A finished backup of the game database, as written by {@link DatabaseBackup}.
+ * <p>
+ * The copy is a complete SQLite database file. Its SHA-256 checksum is kept next to it in
+ * {@code <name>.sha256}, in the format {@code sha256sum} reads, so it can be checked
+ * before a restore or by hand with {@code sha256sum -c}.
+ */
+public final class BackupFile {
+
+    private final Path file;
+    private final String sha256;
+    private final long sizeBytes;
+    private final Instant createdAt;
+
+    /**
+     * Constructs a new {@code BackupFile}.
+     *
+     * @param file      the database copy
+     * @param sha256    hex SHA-256 of the copy, as recorded when it was written
+     * @param sizeBytes size of the copy
+     * @param createdAt when the copy was taken
+     */
+    public BackupFile(Path file, String sha256, long sizeBytes, Instant createdAt) {
+        this.file = file;
+        this.sha256 = sha256;
+        this.sizeBytes = sizeBytes;
+        this.createdAt = createdAt;
+    }
+
+    /** @return the database copy */
+    public Path getFile() { return file; }
+
+    /** @return the checksum file that belongs to the copy */
+    public Path getChecksumFile() { return file.resolveSibling(file.getFileName() + ".sha256"); }
+
+    /** @return hex SHA-256 recorded for the copy */
+    public String getSha256() { return sha256; }
+
+    /** @return size of the copy in bytes */
+    public long getSizeBytes() { return sizeBytes; }
+
+    /** @return when the copy was taken */
+    public Instant getCreatedAt() { return createdAt; }
+
+    @Override
+    public String toString() {
+        return file.getFileName() + " (" + (sizeBytes + 1023) / 1024 + " KB, sha256 " + sha256.substring(0, 12) + "…)";
+    }
+}
@@ -0,0 +1,186 @@
+package main.java.com.team.game.data;
+
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.util.PasswordUtils;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fills a {@link GameStore} with synthetic users and sessions for load and scale testing.
+ * <p>
+ * Users are generated in chunks on a thread pool, each chunk from its own random stream
+ * derived from the seed and the chunk number, and the chunks are written in order
+ * through the {@link DataTransfer.Importer}, which uses multi-row INSERTs in large
+ * transactions. The same seed, counts and end day therefore give the same rows with the
+ * same IDs in an empty database, however many threads run.
+ * <p>
+ * Every user has a skill level. The chance of a correct answer depends on it and on the
+ * mode, and a round's score is the number of correct answers before the third strike,
+ * so scores follow the skewed shape real rounds have. About one user in twenty has a
+ * round still in progress. Registrations and rounds are spread over the year before
+ * the end day. Seeded users are named {@code seed<seed>_<n>} and share the password
+ * {@link #PASSWORD}, hashed once.
+ */
+final class DataGenerator {
+
+    /** Password of every generated user. */
+    static final String PASSWORD = "password";
+
+    /** Users generated per chunk; one chunk is the unit of parallel work. */
+    private static final int USERS_PER_CHUNK = 1_000;
+
+    /** Days of history before the end day. */
+    private static final int HISTORY_DAYS = 365;
+
+    private DataGenerator() { }
+
+    /**
+     * Generates and writes the data.
+     *
+     * @param tx              runs each batch in its own transaction
+     * @param users           number of users to create
+     * @param sessionsPerUser rounds per user, spread over all modes
+     * @param seed            random seed
+     * @param endDay          start of the day after the newest generated round
+     * @param threads         generator threads (min 1)
+     * @return what was written; users whose name already exists are skipped with their rounds
+     */
+    static TransferStats generate(DataTransfer.Transactions tx, int users, int sessionsPerUser,
+                                  long seed, Instant endDay, int threads) throws SQLException {
+        String hash = PasswordUtils.hashPassword(PASSWORD.toCharArray());
+        long end = endDay.truncatedTo(ChronoUnit.DAYS).getEpochSecond();
+        DataTransfer.Importer importer = new DataTransfer.Importer(tx, DataTransfer.DEFAULT_TRANSACTION_ROWS);
+        int chunks = (users + USERS_PER_CHUNK - 1) / USERS_PER_CHUNK;
+        int workers = Math.max(1, threads);
+        ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "seed-data");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            // A bounded window of chunks in flight keeps memory flat while the writer catches up
+            Deque<Future<Chunk>> window = new ArrayDeque<>();
+            int next = 0;
+            while (next < chunks || !window.isEmpty()) {
+                while (next < chunks && window.size() < 2 * workers) {
+                    int chunk = next++;
+                    int from = chunk * USERS_PER_CHUNK;
+                    int to = Math.min(users, from + USERS_PER_CHUNK);
+                    window.add(pool.submit(() -> Chunk.generate(seed, chunk, from, to, sessionsPerUser, end)));
+                }
+                write(importer, window.removeFirst().get(), hash);
+            }
+            return importer.finish();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while generating data", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Feeds one chunk to the importer: its users, then their sessions. */
+    private static void write(DataTransfer.Importer importer, Chunk chunk, String hash) throws SQLException {
+        importer.beginUsers(); // the chunk's users are written before its first session
+        for (int i = 0; i < chunk.usernames.size(); i++) {
+            importer.user(chunk.firstUser + i, chunk.usernames.get(i), hash, chunk.registeredAt.get(i));
+        }
+        for (Session s : chunk.sessions) {
+            importer.session(s.id, s.userId, s.mode, s.startedAt, s.endedAt, s.score, s.strikes, s.completed);
+        }
+    }
+
+    private record Session(int id, int userId, String mode, String startedAt, String endedAt,
+                           int score, int strikes, boolean completed) { }
+
+    /** The generated rows of one range of users. */
+    private static final class Chunk {
+        final int firstUser;
+        final List<String> usernames = new ArrayList<>();
+        final List<String> registeredAt = new ArrayList<>();
+        final List<Session> sessions = new ArrayList<>();
+
+        private Chunk(int firstUser) { this.firstUser = firstUser; }
+
+        static Chunk generate(long seed, int chunk, int from, int to, int sessionsPerUser, long end) {
+            SplittableRandom rnd = new SplittableRandom(seed ^ (chunk * 0x9E3779B97F4A7C15L));
+            GameMode[] modes = GameMode.values();
+            Chunk out = new Chunk(from + 1);
+            long historyStart = end - HISTORY_DAYS * 86_400L;
+            int sessionId = from * sessionsPerUser;
+            for (int u = from; u < to; u++) {
+                int userId = u + 1;
+                long registered = rnd.nextLong(historyStart, end - 3_600);
+                out.usernames.add("seed" + seed + "_" + userId);
+                out.registeredAt.add(timestamp(registered));
+                double skill = rnd.nextDouble() + rnd.nextDouble() - 1.0; // triangular on [-1, 1]
+                boolean leavesOneOpen = rnd.nextInt(20) == 0;
+                for (int k = 0; k < sessionsPerUser; k++) {
+                    GameMode mode = modes[rnd.nextInt(modes.length)];
+                    double p = Math.min(0.97, Math.max(0.3, baseAccuracy(mode) + 0.15 * skill));
+                    long started = rnd.nextLong(registered, end);
+                    boolean open = leavesOneOpen && k == sessionsPerUser - 1;
+                    int score = 0, strikes = 0;
+                    int limit = open ? rnd.nextInt(3) : 3;
+                    while (strikes < limit && score < 500) {
+                        if (rnd.nextDouble() < p) score++; else strikes++;
+                    }
+                    long seconds = 10 + (score + strikes) * (long) rnd.nextInt(3, 15);
+                    out.sessions.add(new Session(++sessionId, userId, mode.name(), timestamp(started),
+                            open ? null : timestamp(Math.min(started + seconds, end - 1)),
+                            score, strikes, !open));
+                }
+            }
+            return out;
+        }
+
+        /** Typical chance of a correct answer for an average player. */
+        private static double baseAccuracy(GameMode mode) {
+            return switch (mode) {
+                case BASICS -> 0.85;
+                case TRIG -> 0.7;
+                default -> 0.75;
+            };
+        }
+
+        /** Formats epoch seconds the way SQLite's {@code CURRENT_TIMESTAMP} does. */
+        private static String timestamp(long epochSecond) {
+            LocalDateTime t = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+            char[] c = new char[19];
+            put(c, 0, t.getYear(), 4);
+            c[4] = '-';
+            put(c, 5, t.getMonthValue(), 2);
+            c[7] = '-';
+            put(c, 8, t.getDayOfMonth(), 2);
+            c[10] = ' ';
+            put(c, 11, t.getHour(), 2);
+            c[13] = ':';
+            put(c, 14, t.getMinute(), 2);
+            c[16] = ':';
+            put(c, 17, t.getSecond(), 2);
+            return new String(c);
+        }
+
+        private static void put(char[] c, int at, int value, int digits) {
+            for (int i = at + digits - 1; i >= at; i--) {
+                c[i] = (char) ('0' + value % 10);
+                value /= 10;
+            }
+        }
+    }
+}
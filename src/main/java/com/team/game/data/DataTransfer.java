@@ -0,0 +1,717 @@
+package main.java.com.team.game.data;
+
+import main.java.com.team.game.model.GameMode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams users, sessions and the answer log between a {@link GameStore} and a
+ * line-oriented file, for moving class cohorts between machines.
+ * <p>
+ * The format is JSON Lines: UTF-8, one flat JSON object per line, told apart by
+ * {@code type}. A header comes first, then every user, then every session (live ones,
+ * then those in the {@link SessionArchive}), each session directly followed by its
+ * logged answers:
+ * <pre>
+ * {"type":"header","format":"cab302-game","version":1}
+ * {"type":"user","id":1,"username":"alice","passwordHash":"$2a$10$...","registeredAt":"2024-03-01 09:15:00"}
+ * {"type":"session","id":7,"userId":1,"mode":"BASICS","startedAt":"2024-03-01 09:20:00","endedAt":null,"score":3,"strikes":1,"completed":false}
+ * {"type":"answer","sessionId":7,"correct":true,"answeredAt":1709284812345,"question":"2 + 2","response":"4","responseMs":1200}
+ * </pre>
+ * Timestamps are SQLite's UTC {@code YYYY-MM-DD HH:MM:SS} text, except {@code answeredAt}
+ * which is epoch milliseconds. {@code question}, {@code response} and {@code responseMs}
+ * may be null. IDs are those of the exporting database; the importer assigns new ones
+ * and only uses the file's IDs to connect the records.
+ * <p>
+ * Export reads a single snapshot one row at a time, so memory use does not depend on
+ * the amount of data. Import buffers up to a transaction's worth of rows and writes
+ * them with multi-row INSERTs; password hashes are stored as they are, so no BCrypt
+ * work is done. Users whose name already exists (ignoring case) are skipped with their
+ * sessions and answers. Batches committed before a failing line are kept.
+ */
+final class DataTransfer {
+
+    /** Value of the header's {@code format} field. */
+    static final String FORMAT = "cab302-game";
+
+    /** Version written by {@link #export}; the only one {@link #importFrom} accepts. */
+    static final int VERSION = 1;
+
+    /** Default number of rows the importer writes per transaction. */
+    static final int DEFAULT_TRANSACTION_ROWS = 50_000;
+
+    /** Rows per INSERT statement; 500 rows of 7 values stays well below SQLite's parameter limit. */
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    /** Runs work in one committed transaction and returns its result. */
+    @FunctionalInterface
+    interface Transactions {
+        <T> T run(SingleWriter.Work<T> work) throws SQLException;
+    }
+
+    private DataTransfer() { }
+
+    // ---- export ----
+
+    /**
+     * Writes every user, session and logged answer to {@code out}, from one read snapshot.
+     * The writer is flushed but not closed.
+     */
+    static TransferStats export(Database reads, Writer out) throws IOException, SQLException {
+        long start = System.nanoTime();
+        long users = 0, sessions = 0, answers = 0;
+        try (Connection c = reads.getConnection()) {
+            c.setAutoCommit(false); // one snapshot for all three queries
+            try {
+                out.write(new JsonLine("header").put("format", FORMAT).put("version", VERSION).end());
+                try (var ps = c.prepareStatement("SELECT id, username, password_hash, registered_at FROM users ORDER BY id")) {
+                    ps.setFetchSize(GameStorage.DEFAULT_FETCH_SIZE);
+                    try (var rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            out.write(new JsonLine("user")
+                                    .put("id", rs.getInt(1))
+                                    .put("username", rs.getString(2))
+                                    .put("passwordHash", rs.getString(3))
+                                    .put("registeredAt", rs.getString(4))
+                                    .end());
+                            users++;
+                        }
+                    }
+                }
+                // Both cursors walk session IDs in order, so answers are merged in without buffering
+                try (var sp = c.prepareStatement("""
+                        SELECT id, user_id, mode, started_at, ended_at, score, strikes, completed
+                        FROM game_session ORDER BY id""");
+                     var ap = c.prepareStatement("""
+                        SELECT e.session_id, e.correct, e.answered_at, q.prompt, e.response, e.response_ms
+                        FROM answer_event e LEFT JOIN question q ON q.id = e.question_id
+                        ORDER BY e.session_id, e.id""")) {
+                    sp.setFetchSize(GameStorage.DEFAULT_FETCH_SIZE);
+                    ap.setFetchSize(GameStorage.DEFAULT_FETCH_SIZE);
+                    try (var srs = sp.executeQuery(); var ars = ap.executeQuery()) {
+                        boolean moreAnswers = ars.next();
+                        while (srs.next()) {
+                            int id = srs.getInt(1);
+                            out.write(new JsonLine("session")
+                                    .put("id", id)
+                                    .put("userId", srs.getInt(2))
+                                    .put("mode", srs.getString(3))
+                                    .put("startedAt", srs.getString(4))
+                                    .put("endedAt", srs.getString(5))
+                                    .put("score", srs.getInt(6))
+                                    .put("strikes", srs.getInt(7))
+                                    .put("completed", srs.getInt(8) != 0)
+                                    .end());
+                            sessions++;
+                            while (moreAnswers && ars.getInt(1) <= id) {
+                                if (ars.getInt(1) == id) {
+                                    int ms = ars.getInt(6);
+                                    boolean noMs = ars.wasNull();
+                                    out.write(new JsonLine("answer")
+                                            .put("sessionId", id)
+                                            .put("correct", ars.getInt(2) != 0)
+                                            .put("answeredAt", ars.getLong(3))
+                                            .put("question", ars.getString(4))
+                                            .put("response", ars.getString(5))
+                                            .put("responseMs", noMs ? null : ms)
+                                            .end());
+                                    answers++;
+                                }
+                                moreAnswers = ars.next();
+                            }
+                        }
+                    }
+                }
+                Map<Integer, String> prompts = null;
+                try (var ps = c.prepareStatement("SELECT user_id, mode, data FROM session_archive ORDER BY id")) {
+                    ps.setFetchSize(GameStorage.DEFAULT_FETCH_SIZE);
+                    try (var rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            if (prompts == null) prompts = questionPrompts(c);
+                            for (SessionArchive.Entry e : SessionArchive.decode(
+                                    rs.getBytes(3), rs.getInt(1), GameMode.valueOf(rs.getString(2)))) {
+                                out.write(new JsonLine("session")
+                                        .put("id", e.id())
+                                        .put("userId", e.userId())
+                                        .put("mode", e.mode().name())
+                                        .put("startedAt", e.startedAt())
+                                        .put("endedAt", e.endedAt())
+                                        .put("score", e.score())
+                                        .put("strikes", e.strikes())
+                                        .put("completed", true)
+                                        .end());
+                                sessions++;
+                                for (SessionArchive.Answer a : e.answers()) {
+                                    out.write(new JsonLine("answer")
+                                            .put("sessionId", e.id())
+                                            .put("correct", a.correct())
+                                            .put("answeredAt", a.answeredAt())
+                                            .put("question", prompts.get(a.questionId()))
+                                            .put("response", a.response())
+                                            .put("responseMs", a.responseMs() < 0 ? null : a.responseMs())
+                                            .end());
+                                    answers++;
+                                }
+                            }
+                        }
+                    }
+                }
+            } finally {
+                c.rollback();
+                c.setAutoCommit(true);
+            }
+        }
+        out.flush();
+        return new TransferStats(users, sessions, answers, 0, 0, 0, elapsedMillis(start));
+    }
+
+    /** Every interned question prompt by ID, to resolve the answers of archived sessions. */
+    private static Map<Integer, String> questionPrompts(Connection c) throws SQLException {
+        Map<Integer, String> out = new HashMap<>();
+        try (var st = c.createStatement(); var rs = st.executeQuery("SELECT id, prompt FROM question")) {
+            while (rs.next()) out.put(rs.getInt(1), rs.getString(2));
+        }
+        return out;
+    }
+
+    // ---- import ----
+
+    /**
+     * Reads a file written by {@link #export} and adds its contents to the database.
+     *
+     * @param in              the file's lines
+     * @param tx              runs each batch in its own transaction
+     * @param transactionRows rows buffered per transaction (min 1)
+     * @throws IllegalArgumentException if a line is malformed; the message names the line
+     */
+    static TransferStats importFrom(BufferedReader in, Transactions tx, int transactionRows)
+            throws IOException, SQLException {
+        return new Importer(tx, transactionRows).run(in);
+    }
+
+    /**
+     * Import state: buffered rows and the mapping from the file's IDs to new ones. Records
+     * are fed in file order, either parsed from lines or directly (as by {@link DataGenerator});
+     * {@link #finish()} writes what is still buffered.
+     */
+    static final class Importer {
+        private final Transactions tx;
+        private final int transactionRows;
+        private final long start = System.nanoTime();
+
+        /** File user ID to new user ID, for users that were imported. */
+        private final Map<Integer, Integer> userIds = new HashMap<>();
+        private final Set<String> seenNames = new HashSet<>();
+        private final Map<String, Integer> questionIds = new HashMap<>();
+
+        private final List<PendingUser> users = new ArrayList<>();
+        private final List<PendingSession> sessions = new ArrayList<>();
+        private int pendingRows;
+        private boolean inSessions;
+        /** Session the next answers belong to; null if it was skipped. */
+        private PendingSession current;
+        private int currentId;
+
+        private long importedUsers, importedSessions, importedAnswers;
+        private long skippedUsers, skippedSessions, skippedAnswers;
+
+        /**
+         * @param tx              runs each batch in its own transaction
+         * @param transactionRows rows buffered per transaction (min 1)
+         */
+        Importer(Transactions tx, int transactionRows) {
+            this.tx = tx;
+            this.transactionRows = Math.max(1, transactionRows);
+        }
+
+        TransferStats run(BufferedReader in) throws IOException, SQLException {
+            long lineNo = 0;
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) continue;
+                try {
+                    Map<String, Object> record = Json.parseObject(line);
+                    if (lineNo == 1) {
+                        header(record);
+                    } else {
+                        accept(record);
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("line " + lineNo + ": " + e.getMessage(), e);
+                }
+            }
+            if (lineNo == 0) throw new IllegalArgumentException("empty file");
+            return finish();
+        }
+
+        /** Writes the buffered rows and reports the totals. */
+        TransferStats finish() throws SQLException {
+            flushUsers();
+            flushSessions();
+            return new TransferStats(importedUsers, importedSessions, importedAnswers,
+                    skippedUsers, skippedSessions, skippedAnswers, elapsedMillis(start));
+        }
+
+        private void header(Map<String, Object> record) {
+            if (!"header".equals(record.get("type")) || !FORMAT.equals(record.get("format"))) {
+                throw new IllegalArgumentException("not a " + FORMAT + " file");
+            }
+            long version = Json.number(record, "version");
+            if (version != VERSION) throw new IllegalArgumentException("unsupported version " + version);
+        }
+
+        private void accept(Map<String, Object> record) throws SQLException {
+            String type = Json.string(record, "type");
+            switch (type == null ? "" : type) {
+                case "user" -> user(
+                        (int) Json.number(record, "id"),
+                        Json.required(record, "username"),
+                        Json.required(record, "passwordHash"),
+                        Json.string(record, "registeredAt"));
+                case "session" -> session(
+                        (int) Json.number(record, "id"),
+                        (int) Json.number(record, "userId"),
+                        Json.required(record, "mode"),
+                        Json.string(record, "startedAt"),
+                        Json.string(record, "endedAt"),
+                        (int) Json.number(record, "score"),
+                        (int) Json.number(record, "strikes"),
+                        Json.bool(record, "completed"));
+                case "answer" -> answer(
+                        (int) Json.number(record, "sessionId"),
+                        Json.bool(record, "correct"),
+                        Json.number(record, "answeredAt"),
+                        Json.string(record, "question"),
+                        Json.string(record, "response"),
+                        record.get("responseMs") == null ? -1 : (int) Json.number(record, "responseMs"));
+                default -> throw new IllegalArgumentException("unknown record type " + type);
+            }
+        }
+
+        /** Adds a user; every user must come before the first session. */
+        void user(int id, String username, String passwordHash, String registeredAt) throws SQLException {
+            if (inSessions) throw new IllegalArgumentException("users must come before sessions");
+            users.add(new PendingUser(id, username, passwordHash, registeredAt));
+            if (users.size() >= transactionRows) flushUsers();
+        }
+
+        /**
+         * Allows more users after sessions have been added. Buffered sessions keep the user
+         * IDs they were given; the new users are written before the next session.
+         */
+        void beginUsers() {
+            inSessions = false;
+        }
+
+        /** Adds a session of a previously added user; its answers must follow it. */
+        void session(int id, int userId, String mode, String startedAt, String endedAt,
+                     int score, int strikes, boolean completed) throws SQLException {
+            if (!inSessions) {
+                flushUsers();
+                inSessions = true;
+            }
+            if (pendingRows >= transactionRows) flushSessions(); // only between sessions
+            currentId = id;
+            try {
+                GameMode.valueOf(mode);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown mode " + mode);
+            }
+            Integer newUserId = userIds.get(userId);
+            if (newUserId == null) {
+                current = null;
+                skippedSessions++;
+                return;
+            }
+            current = new PendingSession(newUserId, mode, startedAt, endedAt, score, strikes, completed);
+            sessions.add(current);
+            pendingRows++;
+        }
+
+        /** Adds a logged answer of the session added last. */
+        void answer(int sessionId, boolean correct, long answeredAt, String question, String response,
+                    int responseMs) {
+            if (!inSessions || sessionId != currentId) {
+                throw new IllegalArgumentException("answer does not follow its session");
+            }
+            if (current == null) {
+                skippedAnswers++;
+                return;
+            }
+            current.answers.add(new PendingAnswer(correct, answeredAt, question, response, responseMs));
+            pendingRows++;
+        }
+
+        /** Inserts the buffered users, skipping names that are taken, and records their new IDs. */
+        private void flushUsers() throws SQLException {
+            List<PendingUser> batch = new ArrayList<>(users.size());
+            for (PendingUser u : users) {
+                if (seenNames.add(u.username.toLowerCase(Locale.ROOT))) batch.add(u); else skippedUsers++;
+            }
+            users.clear();
+            if (batch.isEmpty()) return;
+            Map<Integer, Integer> inserted = tx.run(c -> {
+                Map<String, Integer> fileIds = new HashMap<>();
+                for (PendingUser u : batch) fileIds.put(u.username.toLowerCase(Locale.ROOT), u.id);
+                Map<Integer, Integer> ids = new HashMap<>();
+                insertChunks(c, "INSERT INTO users(username, password_hash, registered_at) VALUES ",
+                        "(?,?,COALESCE(?,CURRENT_TIMESTAMP))", " ON CONFLICT DO NOTHING RETURNING id, username",
+                        batch, (ps, p, u) -> {
+                            ps.setString(p, u.username);
+                            ps.setString(p + 1, u.passwordHash);
+                            ps.setString(p + 2, u.registeredAt);
+                            return p + 3;
+                        }, ps -> {
+                            try (var rs = ps.executeQuery()) {
+                                while (rs.next()) {
+                                    ids.put(fileIds.get(rs.getString(2).toLowerCase(Locale.ROOT)), rs.getInt(1));
+                                }
+                            }
+                        });
+                return ids;
+            });
+            userIds.putAll(inserted);
+            importedUsers += inserted.size();
+            skippedUsers += batch.size() - inserted.size();
+        }
+
+        /** Inserts the buffered sessions and their answers in one transaction. */
+        private void flushSessions() throws SQLException {
+            if (sessions.isEmpty()) return;
+            List<PendingSession> batch = new ArrayList<>(sessions);
+            sessions.clear();
+            pendingRows = 0;
+            Map<String, Integer> interned = tx.run(c -> {
+                int[] newIds = new int[batch.size()];
+                int[] next = {0};
+                insertChunks(c, "INSERT INTO game_session(user_id, mode, started_at, ended_at, score, strikes, completed) VALUES ",
+                        "(?,?,COALESCE(?,CURRENT_TIMESTAMP),?,?,?,?)", "",
+                        batch, (ps, p, s) -> {
+                            ps.setInt(p, s.userId);
+                            ps.setString(p + 1, s.mode);
+                            ps.setString(p + 2, s.startedAt);
+                            ps.setString(p + 3, s.endedAt);
+                            ps.setInt(p + 4, s.score);
+                            ps.setInt(p + 5, s.strikes);
+                            ps.setInt(p + 6, s.completed ? 1 : 0);
+                            return p + 7;
+                        }, ps -> {
+                            int rows = ps.executeUpdate();
+                            // AUTOINCREMENT hands out consecutive IDs to the rows of one statement
+                            long last;
+                            try (var st = c.createStatement(); var rs = st.executeQuery("SELECT last_insert_rowid()")) {
+                                rs.next();
+                                last = rs.getLong(1);
+                            }
+                            for (int i = 0; i < rows; i++) newIds[next[0]++] = (int) (last - rows + 1 + i);
+                        });
+
+                Map<String, Integer> prompts = new HashMap<>();
+                List<Object[]> answers = new ArrayList<>();
+                for (int i = 0; i < batch.size(); i++) {
+                    PendingSession s = batch.get(i);
+                    for (PendingAnswer a : s.answers) {
+                        Integer questionId = a.question == null ? null : questionId(c, a.question, s.mode, prompts);
+                        answers.add(new Object[]{newIds[i], s.userId, questionId, a});
+                    }
+                }
+                insertChunks(c, "INSERT INTO answer_event(session_id, user_id, question_id, correct, response_ms, response, answered_at) VALUES ",
+                        "(?,?,?,?,?,?,?)", "", answers, (ps, p, row) -> {
+                            PendingAnswer a = (PendingAnswer) row[3];
+                            ps.setInt(p, (Integer) row[0]);
+                            ps.setInt(p + 1, (Integer) row[1]);
+                            if (row[2] == null) ps.setNull(p + 2, Types.INTEGER); else ps.setInt(p + 2, (Integer) row[2]);
+                            ps.setInt(p + 3, a.correct ? 1 : 0);
+                            if (a.responseMs < 0) ps.setNull(p + 4, Types.INTEGER); else ps.setInt(p + 4, a.responseMs);
+                            ps.setString(p + 5, a.response);
+                            ps.setLong(p + 6, a.answeredAt);
+                            return p + 7;
+                        }, PreparedStatement::executeUpdate);
+                return prompts;
+            });
+            questionIds.putAll(interned);
+            importedSessions += batch.size();
+            for (PendingSession s : batch) importedAnswers += s.answers.size();
+        }
+
+        /** Returns the ID of a question prompt, inserting it on first sight. */
+        private Integer questionId(Connection c, String prompt, String mode, Map<String, Integer> interned)
+                throws SQLException {
+            Integer id = questionIds.get(prompt);
+            if (id == null) id = interned.get(prompt);
+            if (id != null) return id;
+            try (var ins = c.prepareStatement("INSERT INTO question(prompt, mode) VALUES (?, ?) ON CONFLICT(prompt) DO NOTHING")) {
+                ins.setString(1, prompt);
+                ins.setString(2, mode);
+                ins.executeUpdate();
+            }
+            try (var ps = c.prepareStatement("SELECT id FROM question WHERE prompt = ?")) {
+                ps.setString(1, prompt);
+                try (var rs = ps.executeQuery()) {
+                    rs.next();
+                    id = rs.getInt(1);
+                }
+            }
+            interned.put(prompt, id);
+            return id;
+        }
+    }
+
+    private record PendingUser(int id, String username, String passwordHash, String registeredAt) { }
+
+    private record PendingAnswer(boolean correct, long answeredAt, String question, String response, int responseMs) { }
+
+    private static final class PendingSession {
+        final int userId;
+        final String mode;
+        final String startedAt;
+        final String endedAt;
+        final int score;
+        final int strikes;
+        final boolean completed;
+        final List<PendingAnswer> answers = new ArrayList<>(0);
+
+        PendingSession(int userId, String mode, String startedAt, String endedAt,
+                       int score, int strikes, boolean completed) {
+            this.userId = userId;
+            this.mode = mode;
+            this.startedAt = startedAt;
+            this.endedAt = endedAt;
+            this.score = score;
+            this.strikes = strikes;
+            this.completed = completed;
+        }
+    }
+
+    /** Binds one row's values from parameter {@code p} on; returns the next free parameter. */
+    @FunctionalInterface
+    private interface RowBinder<T> {
+        int bind(PreparedStatement ps, int p, T row) throws SQLException;
+    }
+
+    /** Executes a bound multi-row statement. */
+    @FunctionalInterface
+    private interface Execution {
+        void execute(PreparedStatement ps) throws SQLException;
+    }
+
+    /**
+     * Inserts rows with multi-row INSERTs of up to {@link #ROWS_PER_STATEMENT} rows. Full
+     * chunks share their SQL text, so they reuse one cached statement.
+     */
+    private static <T> void insertChunks(Connection c, String head, String row, String tail, List<T> rows,
+                                         RowBinder<T> binder, Execution execution) throws SQLException {
+        for (int from = 0; from < rows.size(); from += ROWS_PER_STATEMENT) {
+            int to = Math.min(rows.size(), from + ROWS_PER_STATEMENT);
+            String sql = head + String.join(",", Collections.nCopies(to - from, row)) + tail;
+            try (var ps = c.prepareStatement(sql)) {
+                int p = 1;
+                for (int i = from; i < to; i++) p = binder.bind(ps, p, rows.get(i));
+                execution.execute(ps);
+            }
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    // ---- JSON ----
+
+    /** Builds one line of output: a flat object with the {@code type} field first. */
+    private static final class JsonLine {
+        private final StringBuilder sb = new StringBuilder(160);
+
+        JsonLine(String type) {
+            sb.append("{\"type\":");
+            Json.quote(sb, type);
+        }
+
+        JsonLine put(String key, Object value) {
+            sb.append(",\"").append(key).append("\":");
+            if (value instanceof String s) Json.quote(sb, s); else sb.append(value);
+            return this;
+        }
+
+        String end() {
+            return sb.append("}\n").toString();
+        }
+    }
+
+    /** The subset of JSON the format uses: flat objects of strings, integers, booleans and nulls. */
+    private static final class Json {
+        private Json() { }
+
+        static void quote(StringBuilder sb, String s) {
+            sb.append('"');
+            for (int i = 0; i < s.length(); i++) {
+                char ch = s.charAt(i);
+                switch (ch) {
+                    case '"' -> sb.append("\\\"");
+                    case '\\' -> sb.append("\\\\");
+                    case '\n' -> sb.append("\\n");
+                    case '\r' -> sb.append("\\r");
+                    case '\t' -> sb.append("\\t");
+                    default -> {
+                        if (ch < 0x20) sb.append(String.format("\\u%04x", (int) ch)); else sb.append(ch);
+                    }
+                }
+            }
+            sb.append('"');
+        }
+
+        /**
+         * Parses one flat object. Values are {@link String}, {@link Long}, {@link Boolean} or null.
+         *
+         * @throws IllegalArgumentException if the text is not such an object
+         */
+        static Map<String, Object> parseObject(String text) {
+            Parser p = new Parser(text);
+            Map<String, Object> out = new LinkedHashMap<>();
+            p.expect('{');
+            if (!p.consume('}')) {
+                do {
+                    String key = p.string();
+                    p.expect(':');
+                    out.put(key, p.value());
+                } while (p.consume(','));
+                p.expect('}');
+            }
+            p.end();
+            return out;
+        }
+
+        static String string(Map<String, Object> record, String key) {
+            Object v = record.get(key);
+            if (v == null || v instanceof String) return (String) v;
+            throw new IllegalArgumentException(key + " must be a string");
+        }
+
+        static String required(Map<String, Object> record, String key) {
+            String v = string(record, key);
+            if (v == null || v.isEmpty()) throw new IllegalArgumentException(key + " is missing");
+            return v;
+        }
+
+        static long number(Map<String, Object> record, String key) {
+            if (record.get(key) instanceof Long n) return n;
+            throw new IllegalArgumentException(key + " must be a number");
+        }
+
+        static boolean bool(Map<String, Object> record, String key) {
+            if (record.get(key) instanceof Boolean b) return b;
+            throw new IllegalArgumentException(key + " must be true or false");
+        }
+
+        private static final class Parser {
+            private final String s;
+            private int i;
+
+            Parser(String s) { this.s = s; }
+
+            void skipSpace() {
+                while (i < s.length() && Character.isWhitespace(s.charAt(i))) i++;
+            }
+
+            boolean consume(char ch) {
+                skipSpace();
+                if (i < s.length() && s.charAt(i) == ch) {
+                    i++;
+                    return true;
+                }
+                return false;
+            }
+
+            void expect(char ch) {
+                if (!consume(ch)) throw error("expected '" + ch + "'");
+            }
+
+            void end() {
+                skipSpace();
+                if (i != s.length()) throw error("unexpected text after the object");
+            }
+
+            Object value() {
+                skipSpace();
+                if (i >= s.length()) throw error("missing value");
+                char ch = s.charAt(i);
+                if (ch == '"') return string();
+                if (s.startsWith("null", i)) { i += 4; return null; }
+                if (s.startsWith("true", i)) { i += 4; return Boolean.TRUE; }
+                if (s.startsWith("false", i)) { i += 5; return Boolean.FALSE; }
+                int from = i;
+                if (ch == '-') i++;
+                while (i < s.length() && Character.isDigit(s.charAt(i))) i++;
+                if (i == from || (i == from + 1 && ch == '-')) throw error("unsupported value");
+                try {
+                    return Long.parseLong(s, from, i, 10);
+                } catch (NumberFormatException e) {
+                    throw error("number out of range");
+                }
+            }
+
+            String string() {
+                skipSpace();
+                if (i >= s.length() || s.charAt(i) != '"') throw error("expected a string");
+                i++;
+                StringBuilder sb = null;
+                int from = i;
+                while (i < s.length()) {
+                    char ch = s.charAt(i);
+                    if (ch == '"') {
+                        String part = s.substring(from, i++);
+                        return sb == null ? part : sb.append(part).toString();
+                    }
+                    if (ch != '\\') {
+                        i++;
+                        continue;
+                    }
+                    if (sb == null) sb = new StringBuilder();
+                    sb.append(s, from, i);
+                    if (++i >= s.length()) break;
+                    char esc = s.charAt(i++);
+                    switch (esc) {
+                        case '"', '\\', '/' -> sb.append(esc);
+                        case 'b' -> sb.append('\b');
+                        case 'f' -> sb.append('\f');
+                        case 'n' -> sb.append('\n');
+                        case 'r' -> sb.append('\r');
+                        case 't' -> sb.append('\t');
+                        case 'u' -> {
+                            if (i + 4 > s.length()) throw error("bad \\u escape");
+                            try {
+                                sb.append((char) Integer.parseInt(s, i, i + 4, 16));
+                            } catch (NumberFormatException e) {
+                                throw error("bad \\u escape");
+                            }
+                            i += 4;
+                        }
+                        default -> throw error("bad escape \\" + esc);
+                    }
+                    from = i;
+                }
+                throw error("unterminated string");
+            }
+
+            IllegalArgumentException error(String message) {
+                return new IllegalArgumentException(message + " at column " + (i + 1));
+            }
+        }
+    }
+}
@@ -1,51 +1,684 @@
 package main.java.com.team.game.data;
 
+import org.sqlite.ProgressHandler;
+import org.sqlite.SQLiteCommitListener;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.SQLiteUpdateListener;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
- * Utility class responsible for managing the SQLite database connection.
+ * Connection manager for the SQLite database.
+ * <p>
+ * Keeps a bounded pool of long-lived connections that are configured once when
+ * they are created (WAL journal, {@code synchronous=NORMAL}, busy timeout, mmap
+ * and page cache sizes, foreign keys) instead of opening a new connection for
+ * every query. Connections handed out by {@link #getConnection()} go back to the
+ * pool when closed, so callers keep using try-with-resources as before.
+ * <p>
+ * Each physical connection also owns a {@link StatementCache}, so
+ * {@code prepareStatement} on a pooled connection reuses an already-parsed
+ * statement for SQL it has seen before.
+ * <p>
+ * Row change and commit listeners registered with {@link #addUpdateListener} and
+ * {@link #addCommitListener} receive events from every pooled connection.
+ * <p>
+ * Work wrapped in {@link #withQueryTimeout} runs under a deadline: a progress handler on
+ * every pooled connection interrupts a statement that is still stepping past the deadline
+ * (or once its thread is interrupted), and the statement fails with {@code SQLITE_INTERRUPT}.
+ * <p>
+ * The pool records usage metrics (see {@link PoolStats}), reports connections
+ * that are held suspiciously long (with the borrower's stack trace when
+ * {@code -Dgame.db.traceLeaks=true}), and closes every physical connection on
+ * {@link #close()}. A shared default instance is available through
+ * {@link #getDefault()} and {@link #open()}; it uses {@code data/game.db} unless the
+ * {@code game.db.*} system properties say otherwise (see {@link #fromProperties}).
  * <p>
- * Ensures the database directory exists, loads the SQLite JDBC driver,
- * and provides a static method for obtaining a connection with
- * foreign key support enabled.
+ * In-memory databases work too. A plain {@code jdbc:sqlite::memory:} URL gives every
+ * connection its own empty database, so such a pool is limited to one connection. A named
+ * in-memory database ({@link #memoryUrl}, or a {@code mode=memory&cache=shared} URL) is
+ * shared by all connections of the process; the pool keeps one extra connection open so it
+ * lives until the pool is closed. {@link #isolated} creates a fresh one per caller, which
+ * lets database tests run in parallel without touching the disk.
  */
-public final class Database {
+public final class Database implements AutoCloseable {
+
+    /** JDBC URL of the default database, relative to the working directory. */
+    public static final String DEFAULT_URL = "jdbc:sqlite:data/game.db";
+
+    /** System property overriding {@link #DEFAULT_URL}. */
+    public static final String URL_PROPERTY = "game.db.url";
+
+    /** Default number of pooled connections. */
+    public static final int DEFAULT_POOL_SIZE = 4;
+
+    /** Default time a caller waits for a free connection before giving up. */
+    public static final long DEFAULT_BORROW_TIMEOUT_MS = 10_000;
+
+    /** Default number of prepared statements cached per connection. */
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 32;
+
+    /** A connection held longer than this is reported as a possible leak. */
+    private static final long LEAK_THRESHOLD_MS = 30_000;
+
+    /**
+     * Whether each borrow records its stack trace for leak reports ({@code game.db.traceLeaks}).
+     * Off by default: capturing a trace on every borrow is costly on the pool's hottest path.
+     */
+    private static final boolean TRACE_LEAKS = Boolean.getBoolean("game.db.traceLeaks");
+
+    /** Per-connection settings, applied once when a physical connection is created. */
+    private static final String[] CONNECTION_PRAGMAS = {
+            "PRAGMA synchronous = NORMAL",
+            "PRAGMA cache_size = -16000",     // ~16 MB
+            "PRAGMA foreign_keys = ON"
+    };
+
+    /**
+     * Settings that only apply to databases backed by a file; applied before the others.
+     * {@code auto_vacuum} only takes effect on a new file (or after a VACUUM, which
+     * {@link GameStore#enableIncrementalVacuum} runs on request); it lets the session archiver hand
+     * freed pages back with {@code PRAGMA incremental_vacuum}.
+     */
+    private static final String[] FILE_PRAGMAS = {
+            "PRAGMA auto_vacuum = INCREMENTAL",
+            "PRAGMA journal_mode = WAL",
+            "PRAGMA mmap_size = 268435456"    // 256 MB
+    };
+
+    /** Daemon thread shared by all pools for periodic leak checks. */
+    private static final ScheduledExecutorService LEAK_WATCHER =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "db-leak-watcher");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private static volatile Database defaultInstance;
 
-    /** Path to the SQLite database file. */
-    private static final String URL = "jdbc:sqlite:data/game.db";
+    /** Numbers the in-memory databases handed out by {@link #isolated}. */
+    private static final AtomicLong ISOLATED_IDS = new AtomicLong();
 
-    // Static initializer: creates directory and loads JDBC driver once
+    /**
+     * Time a connection waits for a lock held by another connection. Set through the driver's
+     * config rather than a PRAGMA, because the driver writes its own value back after some calls.
+     */
+    private static final int BUSY_TIMEOUT_MS = 5_000;
+
+    /** Virtual machine steps between two checks of the query deadline. */
+    private static final int PROGRESS_STEPS = 10_000;
+
+    /** {@link System#nanoTime()} deadline for statements run on the current thread; 0 means none. */
+    private static final ThreadLocal<Long> QUERY_DEADLINE = ThreadLocal.withInitial(() -> 0L);
+
+    /** Threads inside {@link #withQueryTimeout}; while none are, the progress handler skips the lookup. */
+    private static final AtomicInteger TIMED_THREADS = new AtomicInteger();
+
+    /** Interrupts a statement whose thread is past its query deadline or has been interrupted. */
+    private static final ProgressHandler DEADLINE_CHECK = new ProgressHandler() {
+        @Override
+        protected int progress() {
+            if (TIMED_THREADS.get() == 0) return 0;
+            long deadline = QUERY_DEADLINE.get();
+            if (deadline == 0) return 0;
+            return System.nanoTime() - deadline > 0 || Thread.currentThread().isInterrupted() ? 1 : 0;
+        }
+    };
+
+    // Static initializer: loads JDBC driver once
     static {
         try {
-            Files.createDirectories(Path.of("data"));
             Class.forName("org.sqlite.JDBC");
         } catch (Exception e) {
             throw new RuntimeException("DB init failed", e);
         }
     }
 
+    private final String url;
+    private final int maxSize;
+    private final long borrowTimeoutMs;
+    private final int statementCacheSize;
+    private final boolean readOnly;
+    private final List<String> extraPragmas;
+    private final boolean memory;
+    private final boolean sharedMemory;
+
+    private final Semaphore permits;
+    private final Deque<Slot> idle = new ConcurrentLinkedDeque<>();
+    private final Set<Lease> leased = ConcurrentHashMap.newKeySet();
+    private final ScheduledFuture<?> leakCheck;
+    private final List<Runnable> closeHooks = new CopyOnWriteArrayList<>();
+    private final List<SQLiteUpdateListener> updateListeners = new CopyOnWriteArrayList<>();
+    private final List<SQLiteCommitListener> commitListeners = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+    /** Unpooled connection keeping a shared in-memory database alive; null until the first connection. */
+    private Connection keepAlive;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong waited = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong leaked = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+    private final AtomicLong statementEvictions = new AtomicLong();
+
+    /**
+     * Creates a pool for the given JDBC URL with the default borrow timeout.
+     *
+     * @param url     SQLite JDBC URL, e.g. {@code jdbc:sqlite:data/game.db}
+     * @param maxSize maximum number of open connections (min 1)
+     */
+    public Database(String url, int maxSize) {
+        this(url, maxSize, DEFAULT_BORROW_TIMEOUT_MS);
+    }
+
     /**
-     * Private constructor to prevent instantiation of this utility class.
+     * Creates a pool for the given JDBC URL.
+     *
+     * @param url             SQLite JDBC URL
+     * @param maxSize         maximum number of open connections (min 1)
+     * @param borrowTimeoutMs how long {@link #getConnection()} waits for a free connection
      */
-    private Database() {}
+    public Database(String url, int maxSize, long borrowTimeoutMs) {
+        this(url, maxSize, borrowTimeoutMs, DEFAULT_STATEMENT_CACHE_SIZE);
+    }
 
     /**
-     * Opens a new connection to the SQLite database.
+     * Creates a pool for the given JDBC URL.
+     *
+     * @param url                SQLite JDBC URL
+     * @param maxSize            maximum number of open connections (min 1)
+     * @param borrowTimeoutMs    how long {@link #getConnection()} waits for a free connection
+     * @param statementCacheSize prepared statements cached per connection (0 disables the cache)
+     */
+    public Database(String url, int maxSize, long borrowTimeoutMs, int statementCacheSize) {
+        this(url, maxSize, borrowTimeoutMs, statementCacheSize, false, List.of());
+    }
+
+    private Database(String url, int maxSize, long borrowTimeoutMs, int statementCacheSize,
+                     boolean readOnly, List<String> extraPragmas) {
+        this.url = url;
+        this.readOnly = readOnly;
+        this.extraPragmas = List.copyOf(extraPragmas);
+        this.memory = isInMemory(url);
+        this.sharedMemory = memory && (url.contains("cache=shared") || url.contains("vfs=memdb"));
+        // Each connection to a private in-memory database sees its own empty database
+        this.maxSize = memory && !sharedMemory ? 1 : Math.max(1, maxSize);
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.permits = new Semaphore(this.maxSize, true);
+        long period = Math.max(1_000, LEAK_THRESHOLD_MS / 3);
+        this.leakCheck = LEAK_WATCHER.scheduleAtFixedRate(this::checkForLeaks, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a pool of read-only connections ({@code PRAGMA query_only}) to the same
+     * file as a writer pool. In WAL mode these readers never block the writer, nor it them.
+     *
+     * @param url     SQLite JDBC URL of the database to read
+     * @param maxSize maximum number of open connections (min 1)
+     * @return a pool whose connections reject every write
+     */
+    public static Database readOnly(String url, int maxSize) {
+        return new Database(url, maxSize, DEFAULT_BORROW_TIMEOUT_MS, DEFAULT_STATEMENT_CACHE_SIZE, true, List.of());
+    }
+
+    /**
+     * Creates a pool configured by properties, falling back to the defaults for missing keys:
+     * <ul>
+     *   <li>{@code game.db.url} &ndash; JDBC URL ({@link #DEFAULT_URL});</li>
+     *   <li>{@code game.db.poolSize} &ndash; maximum open connections ({@link #DEFAULT_POOL_SIZE});</li>
+     *   <li>{@code game.db.borrowTimeoutMs} &ndash; wait for a free connection ({@link #DEFAULT_BORROW_TIMEOUT_MS});</li>
+     *   <li>{@code game.db.statementCacheSize} &ndash; statements cached per connection
+     *       ({@link #DEFAULT_STATEMENT_CACHE_SIZE});</li>
+     *   <li>{@code game.db.pragmas} &ndash; extra settings such as {@code synchronous=OFF;cache_size=-64000},
+     *       separated by semicolons and applied after the built-in ones, so they take precedence.</li>
+     * </ul>
+     * The parent directory of a file database is created if missing.
+     *
+     * @param props configuration, typically {@link System#getProperties()}
+     * @return a new pool
+     * @throws IllegalArgumentException if a numeric setting is not a number
+     */
+    public static Database fromProperties(Properties props) {
+        String url = props.getProperty(URL_PROPERTY, DEFAULT_URL);
+        Path file = filePath(url);
+        if (file != null && file.getParent() != null) {
+            try {
+                Files.createDirectories(file.getParent());
+            } catch (Exception e) {
+                throw new RuntimeException("DB init failed", e);
+            }
+        }
+        List<String> pragmas = new ArrayList<>();
+        for (String p : props.getProperty("game.db.pragmas", "").split(";")) {
+            if (!p.isBlank()) pragmas.add("PRAGMA " + p.strip());
+        }
+        return new Database(url,
+                intSetting(props, "game.db.poolSize", DEFAULT_POOL_SIZE),
+                intSetting(props, "game.db.borrowTimeoutMs", (int) DEFAULT_BORROW_TIMEOUT_MS),
+                intSetting(props, "game.db.statementCacheSize", DEFAULT_STATEMENT_CACHE_SIZE),
+                false, pragmas);
+    }
+
+    /** @return the JDBC URL the default pool uses, from {@code game.db.url} or {@link #DEFAULT_URL} */
+    public static String configuredUrl() {
+        return System.getProperty(URL_PROPERTY, DEFAULT_URL);
+    }
+
+    /**
+     * Returns a JDBC URL for a named in-memory database. Every pool and connection of this
+     * process that uses the same name sees the same data, with the usual SQLite locking, until
+     * the last connection to it closes.
+     *
+     * @param name database name; letters, digits, {@code -} and {@code _}
+     */
+    public static String memoryUrl(String name) {
+        return "jdbc:sqlite:file:/" + name + "?vfs=memdb";
+    }
+
+    /**
+     * Creates a pool on a named in-memory database; see {@link #memoryUrl}.
+     *
+     * @param name    database name
+     * @param maxSize maximum number of open connections (min 1)
+     */
+    public static Database inMemory(String name, int maxSize) {
+        return new Database(memoryUrl(name), maxSize);
+    }
+
+    /**
+     * Creates a pool on a new, empty in-memory database that nothing else uses, for tests and
+     * benchmarks. The data is discarded when the pool is closed.
+     *
+     * @param label   readable prefix for the database name, e.g. the test class name
+     * @param maxSize maximum number of open connections (min 1)
+     */
+    public static Database isolated(String label, int maxSize) {
+        return inMemory(label.replaceAll("[^A-Za-z0-9_-]", "_") + "-" + ISOLATED_IDS.incrementAndGet(), maxSize);
+    }
+
+    /**
+     * Returns the shared pool, creating it on first use from the system properties
+     * (see {@link #fromProperties}). The pool is closed by a JVM shutdown hook.
+     */
+    public static Database getDefault() {
+        Database db = defaultInstance;
+        if (db == null) {
+            synchronized (Database.class) {
+                db = defaultInstance;
+                if (db == null) {
+                    db = fromProperties(System.getProperties());
+                    Runtime.getRuntime().addShutdownHook(new Thread(db::close, "db-shutdown"));
+                    defaultInstance = db;
+                }
+            }
+        }
+        return db;
+    }
+
+    /**
+     * Borrows a connection from the shared default pool.
      * <p>
-     * Automatically enables foreign key constraints to ensure referential integrity.
+     * Foreign key constraints are enabled on every pooled connection.
+     * Closing the returned connection hands it back to the pool.
      *
-     * @return a new {@link Connection} to the database
-     * @throws SQLException if the connection cannot be established
+     * @return a pooled {@link Connection} to the database
+     * @throws SQLException if no connection could be obtained
      */
     public static Connection open() throws SQLException {
-        Connection c = DriverManager.getConnection(URL);
+        return getDefault().getConnection();
+    }
+
+    /**
+     * Borrows a connection from this pool, waiting up to the borrow timeout if
+     * all connections are in use.
+     *
+     * @return a pooled connection; {@link Connection#close()} returns it to the pool
+     * @throws SQLException if the pool is closed, the wait times out, or a new connection fails to open
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("Database pool is closed");
+
+        if (!permits.tryAcquire()) {
+            waited.incrementAndGet();
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                ok = permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a connection", e);
+            } finally {
+                waitNanos.addAndGet(System.nanoTime() - start);
+            }
+            if (!ok) {
+                timedOut.incrementAndGet();
+                throw new SQLException("Timed out after " + borrowTimeoutMs
+                        + " ms waiting for a connection (" + maxSize + " in use)");
+            }
+        }
+
+        Slot slot;
+        try {
+            slot = idle.pollFirst();
+            while (slot != null && slot.physical.isClosed()) slot = idle.pollFirst();
+            if (slot == null) slot = openPhysical();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        Lease lease = new Lease(slot);
+        leased.add(lease);
+        borrowed.incrementAndGet();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new PooledConnection(lease));
+    }
+
+    /**
+     * Runs {@code work} with a deadline on every statement it runs on this thread, through
+     * any pool: a statement still stepping when the deadline passes, or after the thread
+     * is interrupted, is stopped and throws an {@link SQLException} ({@code SQLITE_INTERRUPT}).
+     * Time spent waiting for a lock is bounded by the busy timeout instead, and writes
+     * handed to a {@link SingleWriter} run on its thread, outside the deadline. Calls may
+     * nest; the earlier deadline applies.
+     *
+     * @param timeoutMs time {@code work} may spend in statements; 0 or less for no deadline
+     * @param work      database work to run on the calling thread
+     * @return the result of {@code work}
+     */
+    public static <T> T withQueryTimeout(long timeoutMs, Supplier<T> work) {
+        if (timeoutMs <= 0) return work.get();
+        long previous = QUERY_DEADLINE.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        QUERY_DEADLINE.set(previous != 0 && previous - deadline < 0 ? previous : deadline);
+        TIMED_THREADS.incrementAndGet();
+        try {
+            return work.get();
+        } finally {
+            TIMED_THREADS.decrementAndGet();
+            QUERY_DEADLINE.set(previous);
+        }
+    }
+
+    /** @return a snapshot of this pool's usage counters */
+    public PoolStats stats() {
+        long w = waited.get();
+        return new PoolStats(maxSize, leased.size(), idle.size(), created.get(), borrowed.get(),
+                w, w == 0 ? 0.0 : waitNanos.get() / 1_000_000.0 / w, timedOut.get(), leaked.get(),
+                statementHits.get(), statementMisses.get(), statementEvictions.get());
+    }
+
+    /** @return the JDBC URL this pool connects to */
+    public String getUrl() { return url; }
+
+    /** @return true if this pool's connections reject writes */
+    public boolean isReadOnly() { return readOnly; }
+
+    /** @return true if the database lives in memory rather than in a file */
+    public boolean isInMemory() { return memory; }
+
+    /**
+     * Registers a listener for row inserts, updates and deletes made through any
+     * connection of this pool, including changes made by triggers. Callbacks run on
+     * the thread executing the statement, before its transaction commits, and must
+     * not use the database.
+     *
+     * @param listener listener to add
+     */
+    public void addUpdateListener(SQLiteUpdateListener listener) {
+        updateListeners.add(listener);
+    }
+
+    /**
+     * Registers a listener told when a transaction on any connection of this pool
+     * commits or rolls back. Callbacks run on the committing thread and must not use
+     * the database.
+     *
+     * @param listener listener to add
+     */
+    public void addCommitListener(SQLiteCommitListener listener) {
+        commitListeners.add(listener);
+    }
+
+    /**
+     * Registers a task to run when the pool is closed, before it stops handing out
+     * connections. Used to flush buffered writes at shutdown.
+     *
+     * @param hook task to run once on {@link #close()}; exceptions are logged and ignored
+     */
+    public void onClose(Runnable hook) {
+        closeHooks.add(hook);
+    }
+
+    /**
+     * Shuts the pool down: close hooks run first, then idle connections are closed
+     * immediately and borrowed ones as soon as they are returned. Safe to call more than once.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        for (Runnable hook : closeHooks) {
+            try {
+                hook.run();
+            } catch (RuntimeException e) {
+                System.err.println("Database close hook failed: " + e.getMessage());
+            }
+        }
+        closed = true;
+        leakCheck.cancel(false);
+        Slot slot;
+        while ((slot = idle.pollFirst()) != null) slot.close();
+        if (keepAlive != null) closeQuietly(keepAlive);
+    }
+
+    // ---- internals ----
+
+    /** Opens and configures a new physical connection. */
+    private Slot openPhysical() throws SQLException {
+        if (sharedMemory) keepAlive();
+        SQLiteConfig config = new SQLiteConfig();
+        config.setBusyTimeout(BUSY_TIMEOUT_MS);
+        Connection c = DriverManager.getConnection(url, config.toProperties());
         try (var st = c.createStatement()) {
-            st.execute("PRAGMA foreign_keys = ON");
+            if (!memory) {
+                for (String pragma : FILE_PRAGMAS) st.execute(pragma);
+            }
+            for (String pragma : CONNECTION_PRAGMAS) st.execute(pragma);
+            for (String pragma : extraPragmas) st.execute(pragma);
+            if (readOnly) st.execute("PRAGMA query_only = ON");
+            ProgressHandler.setHandler(c, PROGRESS_STEPS, DEADLINE_CHECK);
+        } catch (SQLException e) {
+            closeQuietly(c);
+            throw e;
+        }
+        // One forwarder per physical connection, so listeners added later still see every connection
+        SQLiteConnection sqlite = c.unwrap(SQLiteConnection.class);
+        sqlite.addUpdateListener((type, database, table, rowId) -> {
+            for (SQLiteUpdateListener l : updateListeners) l.onUpdate(type, database, table, rowId);
+        });
+        sqlite.addCommitListener(new SQLiteCommitListener() {
+            @Override public void onCommit() { for (SQLiteCommitListener l : commitListeners) l.onCommit(); }
+            @Override public void onRollback() { for (SQLiteCommitListener l : commitListeners) l.onRollback(); }
+        });
+        created.incrementAndGet();
+        return new Slot(c, new StatementCache(c, statementCacheSize,
+                statementHits, statementMisses, statementEvictions));
+    }
+
+    /** Opens the connection that keeps a shared in-memory database alive while pooled ones come and go. */
+    private synchronized void keepAlive() throws SQLException {
+        if (keepAlive == null && !closed) keepAlive = DriverManager.getConnection(url);
+    }
+
+    /** Returns a borrowed connection to the idle set, or closes it if it is unusable. */
+    private void release(Lease lease) {
+        leased.remove(lease);
+        Slot slot = lease.slot;
+        Connection c = slot.physical;
+        boolean reusable = !closed;
+        try {
+            if (reusable && !c.getAutoCommit()) {
+                c.rollback();           // never hand out a half-finished transaction
+                c.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+        if (reusable) {
+            idle.offerFirst(slot);      // LIFO keeps recently used connections warm
+            if (closed && idle.remove(slot)) slot.close();
+        } else {
+            slot.close();
+        }
+        permits.release();
+    }
+
+    /** Logs connections that have been borrowed for longer than the leak threshold. */
+    private void checkForLeaks() {
+        long now = System.nanoTime();
+        for (Lease lease : leased) {
+            long heldMs = TimeUnit.NANOSECONDS.toMillis(now - lease.borrowedAt);
+            if (heldMs >= LEAK_THRESHOLD_MS && !lease.reported) {
+                lease.reported = true;
+                leaked.incrementAndGet();
+                System.err.println("Possible connection leak: held for " + heldMs
+                        + " ms by thread " + lease.thread);
+                if (lease.origin != null) lease.origin.printStackTrace();
+                else System.err.println("  (run with -Dgame.db.traceLeaks=true to see where it was borrowed)");
+            }
+        }
+    }
+
+    /** @return true if the URL names an in-memory database rather than a file */
+    static boolean isInMemory(String url) {
+        return url.contains(":memory:") || url.contains("mode=memory") || url.contains("vfs=memdb");
+    }
+
+    /** @return the database file of a file URL, or null for an in-memory database */
+    public static Path filePath(String url) {
+        if (isInMemory(url)) return null;
+        String name = url.startsWith("jdbc:sqlite:") ? url.substring("jdbc:sqlite:".length()) : url;
+        if (name.startsWith("file:")) name = name.substring("file:".length());
+        int query = name.indexOf('?');
+        if (query >= 0) name = name.substring(0, query);
+        return name.isEmpty() ? null : Path.of(name);
+    }
+
+    private static int intSetting(Properties props, String key, int defaultValue) {
+        String value = props.getProperty(key);
+        if (value == null || value.isBlank()) return defaultValue;
+        try {
+            return Integer.parseInt(value.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " must be a number, not '" + value + "'", e);
+        }
+    }
+
+    private static void closeQuietly(Connection c) {
+        try { c.close(); } catch (SQLException ignored) { }
+    }
+
+    /** A physical connection together with its statement cache. */
+    private static final class Slot {
+        final Connection physical;
+        final StatementCache statements;
+
+        Slot(Connection physical, StatementCache statements) {
+            this.physical = physical;
+            this.statements = statements;
+        }
+
+        void close() {
+            statements.clear();
+            closeQuietly(physical);
+        }
+    }
+
+    /** Bookkeeping for one borrowed connection. */
+    private static final class Lease {
+        final Slot slot;
+        final long borrowedAt = System.nanoTime();
+        final String thread = Thread.currentThread().getName();
+        final Throwable origin = TRACE_LEAKS ? new Throwable("Connection borrowed here") : null;
+        volatile boolean reported;
+
+        Lease(Slot slot) { this.slot = slot; }
+    }
+
+    /**
+     * Proxy handler for a borrowed connection: {@code close()} returns the
+     * connection to the pool, {@code prepareStatement} goes through the
+     * statement cache, and every other call goes to the physical connection.
+     */
+    private final class PooledConnection implements InvocationHandler {
+        private final Lease lease;
+        private boolean returned;
+
+        PooledConnection(Lease lease) { this.lease = lease; }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (name) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> "Pooled[" + lease.slot.physical + "]";
+                };
+            }
+            switch (name) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(lease);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || lease.slot.physical.isClosed();
+                default:
+                    if (returned) throw new SQLException("Connection has already been returned to the pool");
+            }
+            if (name.equals("prepareStatement") && args.length <= 2
+                    && (args.length == 1 || method.getParameterTypes()[1] == int.class)) {
+                int keys = args.length == 1 ? -1 : (Integer) args[1];
+                return lease.slot.statements.prepare((Connection) proxy, (String) args[0], keys);
+            }
+            try {
+                return method.invoke(lease.slot.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
         }
-        return c;
     }
 }
@@ -0,0 +1,353 @@
+package main.java.com.team.game.data;
+
+import org.sqlite.SQLiteConnection;
+import org.sqlite.SQLiteErrorCode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Online ("hot") backups of a {@link Database}, taken while players keep writing.
+ * <p>
+ * A backup is copied with SQLite's online backup API, a few pages per step. After each
+ * step the copier sleeps briefly, so it never holds the database for long. On a WAL
+ * database (the normal file setup) the copier also holds one read transaction for the
+ * whole copy. The result is a consistent snapshot that a concurrent write cannot restart,
+ * and writers are never blocked; the only cost is that checkpoints wait until the copy
+ * ends. Without WAL (in-memory databases) each step takes its own short read lock, and a
+ * write between steps makes SQLite restart the copy.
+ * <p>
+ * The copy is written to a {@code .part} file, checked with {@code PRAGMA quick_check},
+ * switched out of WAL mode so it is a single self-contained file, and checksummed
+ * (SHA-256, in a {@code .sha256} file beside it). Only then is it renamed to
+ * {@code <db name>-<UTC time>.db}, so a crash mid-backup never leaves anything that looks
+ * finished. The newest {@code keep} backups are kept and older ones deleted.
+ * <p>
+ * {@link #list(String, Path)}, {@link #verify} and {@link #restore} work without an open
+ * pool, so a backup can be restored at startup before the database is opened.
+ */
+public final class DatabaseBackup {
+
+    /** Default number of finished backups kept. */
+    public static final int DEFAULT_KEEP = 7;
+
+    /** Default pages copied per backup step (256 KB at the default page size). */
+    public static final int DEFAULT_PAGES_PER_STEP = 64;
+
+    /** Default pause after each step, during which the copier holds no lock of its own. */
+    public static final long DEFAULT_PAUSE_MS = 5;
+
+    /** Pause before retrying a step that found the database busy, and how many times to retry. */
+    private static final int BUSY_SLEEP_MS = 50;
+    private static final int BUSY_RETRIES = 200;
+
+    private static final DateTimeFormatter STAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+    private final Database source;
+    private final Path dir;
+    private final String prefix;
+    private final int keep;
+    private final int pagesPerStep;
+    private final long pauseMs;
+
+    /**
+     * Creates a backup writer with the default step size and pause.
+     *
+     * @param source pool of the database to copy
+     * @param dir    directory the backups are kept in; created if missing
+     * @param keep   number of finished backups kept (min 1)
+     */
+    public DatabaseBackup(Database source, Path dir, int keep) {
+        this(source, dir, keep, DEFAULT_PAGES_PER_STEP, DEFAULT_PAUSE_MS);
+    }
+
+    /**
+     * Creates a backup writer.
+     *
+     * @param source       pool of the database to copy
+     * @param dir          directory the backups are kept in; created if missing
+     * @param keep         number of finished backups kept (min 1)
+     * @param pagesPerStep pages copied per step (min 1); smaller steps hold locks for less time
+     * @param pauseMs      sleep after each step (0 for none)
+     */
+    public DatabaseBackup(Database source, Path dir, int keep, int pagesPerStep, long pauseMs) {
+        this.source = source;
+        this.dir = dir;
+        this.prefix = prefixFor(source.getUrl());
+        this.keep = Math.max(1, keep);
+        this.pagesPerStep = Math.max(1, pagesPerStep);
+        this.pauseMs = Math.max(0, pauseMs);
+    }
+
+    /**
+     * Copies the database now, then deletes the backups beyond the newest {@code keep}.
+     *
+     * @return the finished, verified backup
+     * @throws IllegalStateException if the copy fails its integrity check
+     */
+    public BackupFile backup() {
+        try {
+            Files.createDirectories(dir);
+            Instant now = Instant.now();
+            Path target = dir.resolve(prefix + "-" + STAMP.format(now) + ".db");
+            for (int n = 1; Files.exists(target); n++) { // two backups in the same millisecond
+                target = dir.resolve(prefix + "-" + STAMP.format(now) + "-" + n + ".db");
+            }
+            Path part = target.resolveSibling(target.getFileName() + ".part");
+            Files.deleteIfExists(part);
+            try {
+                copy(part);
+                finish(part);
+                String sha = sha256(part);
+                BackupFile backup = new BackupFile(target, sha, Files.size(part), now);
+                Files.writeString(backup.getChecksumFile(), sha + "  " + target.getFileName() + "\n",
+                        StandardCharsets.UTF_8);
+                Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+                rotate();
+                return backup;
+            } finally { // leftovers of a failed attempt
+                Files.deleteIfExists(part);
+                for (String suffix : new String[] {"-journal", "-wal", "-shm"}) {
+                    Files.deleteIfExists(part.resolveSibling(part.getFileName() + suffix));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /** @return this database's finished backups, newest first */
+    public List<BackupFile> list() {
+        return list(dir, prefix);
+    }
+
+    /**
+     * Runs {@link #backup()} every {@code interval} on a daemon thread, starting one interval
+     * from now. The thread is stopped when the source pool closes.
+     *
+     * @param interval pause between backups
+     */
+    public void start(Duration interval) {
+        Thread backups = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(interval.toMillis());
+                } catch (InterruptedException e) {
+                    return; // pool closing
+                }
+                try {
+                    System.out.println("Backed up the database to " + backup());
+                } catch (RuntimeException e) {
+                    System.err.println("Database backup failed: " + e.getMessage());
+                }
+            }
+        }, "db-backup");
+        backups.setDaemon(true);
+        backups.start();
+        source.onClose(() -> {
+            backups.interrupt();
+            try {
+                backups.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    // ---- restore (no pool needed) ----
+
+    /** @return {@code backups} beside the database file of {@code url}, or {@code data/backups} for in-memory URLs */
+    public static Path defaultDirectory(String url) {
+        Path file = Database.filePath(url);
+        Path parent = file == null ? null : file.toAbsolutePath().getParent();
+        return parent == null ? Path.of("data", "backups") : parent.resolve("backups");
+    }
+
+    /**
+     * Lists the finished backups of the database at {@code url}. Files without a checksum
+     * file (or left half-written) are not listed.
+     *
+     * @return backups in {@code dir}, newest first; empty if the directory does not exist
+     */
+    public static List<BackupFile> list(String url, Path dir) {
+        return list(dir, prefixFor(url));
+    }
+
+    /** @return true if the backup's contents still match the checksum recorded for it */
+    public static boolean verify(BackupFile backup) {
+        try {
+            return Files.isRegularFile(backup.getFile()) && sha256(backup.getFile()).equals(backup.getSha256());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Replaces the database file of {@code url} with a backup. Must be called before
+     * any pool on that database is opened. The replaced file and its WAL are kept
+     * beside it with the suffix {@code .before-restore}.
+     *
+     * @param backup backup to restore; its checksum is verified first
+     * @param url    JDBC URL of the database to replace
+     * @return the kept copy of the replaced database, or {@code null} if there was none
+     * @throws IllegalArgumentException if {@code url} is not a file database
+     * @throws IllegalStateException    if the backup does not match its checksum
+     */
+    public static Path restore(BackupFile backup, String url) {
+        Path file = Database.filePath(url);
+        if (file == null) throw new IllegalArgumentException("Not a database file: " + url);
+        if (!verify(backup)) throw new IllegalStateException("Backup " + backup.getFile() + " does not match its checksum");
+        try {
+            Path kept = null;
+            if (Files.exists(file)) {
+                kept = file.resolveSibling(file.getFileName() + ".before-restore");
+                Files.move(file, kept, StandardCopyOption.REPLACE_EXISTING);
+            }
+            // A WAL left by the replaced database must not be replayed into the restored one
+            for (String suffix : new String[] {"-wal", "-shm"}) {
+                Path side = file.resolveSibling(file.getFileName() + suffix);
+                if (Files.exists(side)) {
+                    Files.move(side, file.resolveSibling(file.getFileName() + ".before-restore" + suffix),
+                            StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Path tmp = file.resolveSibling(file.getFileName() + ".restoring");
+            Files.copy(backup.getFile(), tmp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+            return kept;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ---- internals ----
+
+    /** Copies the live database into {@code part} in small steps. */
+    private void copy(Path part) throws SQLException {
+        try (Connection c = source.getConnection()) {
+            boolean wal;
+            try (var st = c.createStatement(); var rs = st.executeQuery("PRAGMA journal_mode")) {
+                wal = rs.next() && "wal".equalsIgnoreCase(rs.getString(1));
+            }
+            if (wal) { // pin one snapshot for the whole copy; WAL writers carry on regardless
+                c.setAutoCommit(false);
+                try (var st = c.createStatement(); var rs = st.executeQuery("SELECT count(*) FROM sqlite_schema")) {
+                    rs.next();
+                }
+            }
+            int rc = c.unwrap(SQLiteConnection.class).getDatabase().backup("main", part.toString(),
+                    (remaining, pageCount) -> pause(), BUSY_SLEEP_MS, BUSY_RETRIES, pagesPerStep);
+            if (rc != SQLiteErrorCode.SQLITE_OK.code) {
+                throw new SQLException("Backup failed: " + SQLiteErrorCode.getErrorCode(rc), null, rc);
+            }
+            if (wal) c.rollback();
+        }
+    }
+
+    /** Yields between steps; an interrupt ends the pause, and the copy finishes without further pauses. */
+    private void pause() {
+        if (pauseMs == 0 || Thread.currentThread().isInterrupted()) return;
+        try {
+            Thread.sleep(pauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Checks the copy and turns it into a standalone rollback-journal file. */
+    private static void finish(Path part) throws SQLException {
+        try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + part);
+             var st = c.createStatement()) {
+            try (var rs = st.executeQuery("PRAGMA quick_check")) {
+                String result = rs.next() ? rs.getString(1) : "no result";
+                if (!"ok".equals(result)) throw new IllegalStateException("Backup failed its integrity check: " + result);
+            }
+            try (var rs = st.executeQuery("PRAGMA journal_mode = DELETE")) { rs.next(); }
+        }
+    }
+
+    /** Deletes finished backups beyond the newest {@link #keep}. */
+    private void rotate() throws IOException {
+        List<BackupFile> all = list();
+        for (BackupFile old : all.subList(Math.min(keep, all.size()), all.size())) {
+            Files.deleteIfExists(old.getFile());
+            Files.deleteIfExists(old.getChecksumFile());
+        }
+    }
+
+    private static List<BackupFile> list(Path dir, String prefix) {
+        List<BackupFile> out = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return out;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, prefix + "-*.db")) {
+            for (Path file : files) {
+                Path sum = file.resolveSibling(file.getFileName() + ".sha256");
+                if (!Files.isRegularFile(sum)) continue;
+                String line = Files.readString(sum, StandardCharsets.UTF_8).strip();
+                int space = line.indexOf(' ');
+                String sha = space < 0 ? line : line.substring(0, space);
+                out.add(new BackupFile(file, sha, Files.size(file), createdAt(file, prefix)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        out.sort(Comparator.comparing(BackupFile::getCreatedAt).reversed()
+                .thenComparing(b -> b.getFile().getFileName().toString(), Comparator.reverseOrder()));
+        return out;
+    }
+
+    /** @return the time in the backup's name, or its modification time if the name has none */
+    private static Instant createdAt(Path file, String prefix) throws IOException {
+        String name = file.getFileName().toString();
+        String stamp = name.substring(prefix.length() + 1, name.length() - ".db".length());
+        if (stamp.length() > 19) stamp = stamp.substring(0, 19); // drop a same-millisecond counter
+        try {
+            return STAMP.parse(stamp, Instant::from);
+        } catch (DateTimeParseException e) {
+            return Files.getLastModifiedTime(file).toInstant();
+        }
+    }
+
+    /** @return the file name without extension, e.g. {@code game} for {@code data/game.db} */
+    private static String prefixFor(String url) {
+        Path file = Database.filePath(url);
+        if (file == null) return "memory";
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JVM has SHA-256
+        }
+        byte[] buf = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int n; (n = in.read(buf)) > 0; ) digest.update(buf, 0, n);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,181 @@
+package main.java.com.team.game.data;
+
+import main.java.com.team.game.model.AnswerEvent;
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.GameSession;
+import main.java.com.team.game.model.LeaderboardPeriod;
+import main.java.com.team.game.model.ScoreRow;
+import main.java.com.team.game.model.SessionCursor;
+import main.java.com.team.game.model.SessionPage;
+import main.java.com.team.game.model.User;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.stream.Stream;
+
+/**
+ * Storage of users, game sessions, best scores and the answer log.
+ * <p>
+ * {@link GameStore} keeps everything in SQLite; {@link InMemoryGameStore} keeps it in
+ * memory for tests, benchmarks and throwaway practice servers. Both follow the same
+ * rules, which the shared contract tests check:
+ * <ul>
+ *   <li>usernames are unique ignoring case, and {@link IllegalStateException} reports a clash;</li>
+ *   <li>answers to a completed session are ignored, and the third strike completes it;</li>
+ *   <li>a user's best score per mode follows completions and deletions of their sessions;</li>
+ *   <li>windowed leaderboards count sessions that ended in the current local day, week or term;</li>
+ *   <li>leaderboards break ties in score by ascending user ID;</li>
+ *   <li>deleting a user deletes their sessions, best scores and logged answers.</li>
+ * </ul>
+ * Every method is thread-safe. Methods that change data return once the change is
+ * visible to every reader.
+ */
+public interface GameStorage extends AutoCloseable {
+
+    /** Default number of rows fetched per step by the {@code stream*} methods. */
+    int DEFAULT_FETCH_SIZE = 256;
+
+    // ---- users ----
+
+    /**
+     * Creates a user with a unique (case-insensitive) username.
+     *
+     * @throws IllegalStateException if the username already exists
+     */
+    User createUser(String username, char[] password);
+
+    /** @return the user if the (case-insensitive) username and password match, otherwise empty */
+    Optional<User> authenticate(String username, char[] password);
+
+    /** @return the user with this username, ignoring case, or empty */
+    Optional<User> findUserByUsername(String username);
+
+    /** Lists all users ordered by username. */
+    List<User> listUsers();
+
+    /**
+     * Renames a user.
+     *
+     * @throws IllegalStateException if the new username is already taken
+     */
+    void updateUsername(int userId, String newUsername);
+
+    /** Replaces a user's password. */
+    void updatePassword(int userId, char[] newPassword);
+
+    /**
+     * Deletes a user with their sessions, best scores and logged answers.
+     *
+     * @return true if the user existed
+     */
+    boolean deleteUser(int userId);
+
+    // ---- sessions ----
+
+    /** Starts a new, empty session. */
+    GameSession startSession(int userId, GameMode mode);
+
+    /** @return the session after adding a point, or empty if it does not exist or is completed */
+    Optional<GameSession> submitCorrect(int sessionId);
+
+    /** @return the session after adding a strike (completing it on the third), or empty if it does not exist or is completed */
+    Optional<GameSession> submitWrong(int sessionId);
+
+    /** Applies queued answers in order, as {@link #submitCorrect}/{@link #submitWrong} would, and logs them. */
+    void applyAnswers(List<AnswerEvent> events);
+
+    /** Logs answers without changing scores; events of sessions that no longer exist are dropped. */
+    void appendAnswerEvents(List<AnswerEvent> events);
+
+    /** Lists a session's logged answers in the order they were given. */
+    List<AnswerEvent> listAnswerEvents(int sessionId);
+
+    /** Writes the score and strikes of sessions that are still in progress; completed ones are left untouched. */
+    void saveSessionProgress(List<GameSession> sessions);
+
+    /** @return true if this call completed the session with the given result; false if it was already completed */
+    boolean completeSession(GameSession result);
+
+    /**
+     * Completes sessions interrupted mid-round from their journaled state, keeping the
+     * stored state where it has as many answers.
+     *
+     * @return number of sessions completed
+     */
+    int recoverSessions(List<SessionJournal.Entry> interrupted);
+
+    /**
+     * Marks a session as completed and stamps its end time.
+     *
+     * @return the session as stored after the update; empty if there is no such session
+     */
+    Optional<GameSession> finishSession(int sessionId);
+
+    /** Lists a user's sessions, newest first (by start time, then ID). */
+    List<GameSession> listSessionsByUser(int userId);
+
+    /**
+     * Lists one page of a user's sessions, in the order of {@link #listSessionsByUser(int)}.
+     *
+     * @param after    cursor from the previous page, or {@code null} for the first page
+     * @param pageSize maximum number of sessions to return (at least 1)
+     * @param mode     only list sessions of this mode, or {@code null} for all modes
+     */
+    SessionPage listSessionsByUser(int userId, SessionCursor after, int pageSize, GameMode mode);
+
+    /** @param mode only count sessions of this mode, or {@code null} for all modes */
+    int countSessionsByUser(int userId, GameMode mode);
+
+    /** @return true if the session existed */
+    boolean deleteSession(int sessionId);
+
+    // ---- scores ----
+
+    /** @return the user's best completed score in the mode, or empty */
+    OptionalInt getHighScore(int userId, GameMode mode);
+
+    /** @return the top {@code limit} (min 1) best scores of the mode, highest first */
+    List<ScoreRow> leaderboard(GameMode mode, int limit);
+
+    /**
+     * @return the top {@code limit} (min 1) best scores of the mode among sessions that
+     *         ended in the current window of {@code period}, highest first; all-time for
+     *         {@link LeaderboardPeriod#ALL_TIME}
+     */
+    List<ScoreRow> leaderboard(GameMode mode, LeaderboardPeriod period, int limit);
+
+    /** @return every user's best score in the mode, highest first */
+    List<ScoreRow> listBestScores(GameMode mode);
+
+    /** @return the user's best score row for the mode, or empty */
+    Optional<ScoreRow> findBestScore(int userId, GameMode mode);
+
+    // ---- streaming ----
+
+    /** Streams all users ordered by ID. Close the stream when done. */
+    Stream<User> streamUsers();
+
+    /**
+     * Streams every session ordered by ID. Close the stream when done.
+     *
+     * @param mode      only stream sessions of this mode, or {@code null} for all modes
+     * @param fetchSize rows fetched per step (a hint)
+     */
+    Stream<GameSession> streamSessions(GameMode mode, int fetchSize);
+
+    /** Streams one user's sessions in the order of {@link #listSessionsByUser(int)}. Close the stream when done. */
+    Stream<GameSession> streamSessionsByUser(int userId);
+
+    // ---- lifecycle ----
+
+    /** Registers a change listener; see {@link StorageListener}. */
+    void addChangeListener(StorageListener listener);
+
+    /** Registers work to run, in registration order, when the storage is closed, while it is still usable. */
+    void onClose(Runnable hook);
+
+    /** Runs the close hooks and releases the storage. */
+    @Override
+    void close();
+}
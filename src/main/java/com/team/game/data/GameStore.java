@@ -1,97 +1,316 @@
 package main.java.com.team.game.data;
 
+import main.java.com.team.game.model.AnswerEvent;
 import main.java.com.team.game.model.GameMode;
 import main.java.com.team.game.model.GameSession;
+import main.java.com.team.game.model.LeaderboardPeriod;
 import main.java.com.team.game.model.ScoreRow;
+import main.java.com.team.game.model.SessionCursor;
+import main.java.com.team.game.model.SessionPage;
 import main.java.com.team.game.model.User;
 import main.java.com.team.game.util.PasswordUtils;
+import org.sqlite.SQLiteCommitListener;
+import org.sqlite.SQLiteErrorCode;
+import org.sqlite.SQLiteException;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Data access layer for users and game sessions.
  * <p>
  * Owns schema creation and all CRUD/queries against the SQLite DB via {@link Database}.
  * This class keeps SQL in one place and returns simple model types.
+ * <p>
+ * By default every caller reads and writes on its own pooled connection. With
+ * {@link #GameStore(Database, Database, int)} writes are instead queued to a single
+ * writer thread that groups them into shared transactions, and reads go to a separate
+ * pool of read-only WAL connections, so concurrent players never contend for the write
+ * lock. {@link #writerStats()} reports the writer's queue depth and batch sizes.
+ * <p>
+ * {@link #enableReadReplica} sends the queries of the read-heavy screens (user list,
+ * leaderboards, session history) to an in-memory {@link ReadReplica} that may lag the
+ * file by a bounded time, so they take no lock on the file.
+ * <p>
+ * Old completed sessions can be moved into a compressed {@link SessionArchive} with
+ * {@link #archiveSessions} or {@link #startArchiving}; every session read still
+ * returns them.
+ * <p>
+ * {@link #exportTo} and {@link #importFrom} move whole cohorts between databases through
+ * a streamed line format (see {@link DataTransfer}).
+ * <p>
+ * This is the durable {@link GameStorage}; {@link InMemoryGameStore} is the ephemeral one.
  */
-public final class GameStore {
+public final class GameStore implements GameStorage {
+
+    private final Database db;
+    private final Database reads;
+    private final SingleWriter writer; // null: callers write on their own thread
+    private volatile ReadReplica replica; // null: every query uses reads
+    private final List<StorageListener> listeners = new CopyOnWriteArrayList<>();
+    /** Interned question prompts; only committed IDs are added. */
+    private final Map<String, Integer> questionIds = new ConcurrentHashMap<>();
 
-    /** Constructs the store and ensures the schema exists. */
-    public GameStore() { initSchema(); } // create tables if missing
+    /** Constructs the store on the shared default database and ensures the schema exists. */
+    public GameStore() { this(Database.getDefault()); }
 
     /**
-     * Creates the required tables and indexes if they do not already exist.
-     * Ensures referential integrity for sessions → users.
+     * Constructs the store on the given connection pool and ensures the schema exists.
+     *
+     * @param db pooled database to read from and write to
      */
-    private void initSchema() {
-        String users = """
-          CREATE TABLE IF NOT EXISTS users (
-            id            INTEGER PRIMARY KEY AUTOINCREMENT,
-            username      TEXT NOT NULL UNIQUE,
-            password_hash TEXT NOT NULL,
-            registered_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
-          )
-        """;
-        String sessions = """
-          CREATE TABLE IF NOT EXISTS game_session (
-            id         INTEGER PRIMARY KEY AUTOINCREMENT,
-            user_id    INTEGER  NOT NULL,
-            mode       TEXT     NOT NULL,
-            started_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
-            ended_at   DATETIME,
-            score      INTEGER  NOT NULL DEFAULT 0,
-            strikes    INTEGER  NOT NULL DEFAULT 0,
-            completed  INTEGER  NOT NULL DEFAULT 0,
-            FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-          );
-          CREATE INDEX IF NOT EXISTS idx_session_user_mode ON game_session(user_id, mode, completed)
-        """;
-        try (var c = Database.open(); var st = c.createStatement()) {
-            st.execute(users);
-            for (String s : sessions.split(";")) {
-                String t = s.trim();
-                if (!t.isEmpty()) st.execute(t);
+    public GameStore(Database db) {
+        this.db = db;
+        this.reads = db;
+        this.writer = null;
+        initSchema(); // create tables if missing
+    }
+
+    /**
+     * Constructs a single-writer / multi-reader store and ensures the schema exists.
+     * <p>
+     * Writes run on one dedicated thread using {@code db}; up to {@code maxWriteBatch}
+     * waiting writes share a transaction. Reads use {@code reads}, normally a
+     * {@link Database#readOnly read-only} pool on the same file. The writer is stopped,
+     * after committing what is queued, when {@code db} closes; {@code reads} is owned
+     * by the caller.
+     *
+     * @param db            pool the writer thread borrows its connection from
+     * @param reads         pool used for all queries and streams
+     * @param maxWriteBatch maximum writes grouped into one transaction (min 1)
+     */
+    public GameStore(Database db, Database reads, int maxWriteBatch) {
+        this.db = db;
+        this.reads = reads;
+        this.writer = new SingleWriter(db, maxWriteBatch);
+        initSchema(); // its backfill thread is stopped before the writer on close
+        db.onClose(writer::close);
+    }
+
+    /** @return the connection pool this store writes to (and reads from, unless split) */
+    public Database getDatabase() { return db; }
+
+    /** @return the connection pool queries and streams run on; the same as {@link #getDatabase()} unless split */
+    public Database getReadDatabase() { return reads; }
+
+    /** @return queue and group-commit counters, or empty if writes are not routed through a writer thread */
+    public Optional<WriterStats> writerStats() {
+        return writer == null ? Optional.empty() : Optional.of(writer.stats());
+    }
+
+    /** Forwards the pool's SQLite update and commit hooks, so writes from any connection are reported. */
+    @Override
+    public void addChangeListener(StorageListener listener) {
+        listeners.add(listener);
+        db.addUpdateListener((type, database, table, rowId) ->
+                listener.onChange(StorageListener.Change.valueOf(type.name()), table, rowId));
+        db.addCommitListener(new SQLiteCommitListener() {
+            @Override public void onCommit() { listener.onCommit(); }
+            @Override public void onRollback() { listener.onRollback(); }
+        });
+    }
+
+    /**
+     * Sends {@link #listUsers}, {@link #leaderboard} and {@link #listSessionsByUser} to an
+     * in-memory copy of the database, refreshed in the background, which may be up to
+     * {@code maxStaleness} behind; see {@link ReadReplica}. The first copy is taken before
+     * this returns. Change listeners hear {@link StorageListener#onReplicaRefresh} after
+     * each refresh. The replica is closed when the write pool closes.
+     *
+     * @param maxStaleness how far behind the database the replica may be read
+     * @param poolSize     connections to the copy
+     * @return the replica, for its statistics
+     */
+    public synchronized ReadReplica enableReadReplica(Duration maxStaleness, int poolSize) {
+        if (replica != null) return replica;
+        ReadReplica r = new ReadReplica(db, maxStaleness, poolSize, (tables, takenAt) -> {
+            for (StorageListener l : listeners) l.onReplicaRefresh(tables, takenAt);
+        });
+        r.refresh();
+        r.start();
+        db.onClose(r::close);
+        replica = r;
+        return r;
+    }
+
+    /** Borrows a connection for a screen query: from the replica if it is fresh enough, else from {@code reads}. */
+    private Connection screenRead() throws SQLException {
+        ReadReplica r = replica;
+        Connection c = r == null ? null : r.getConnection();
+        return c != null ? c : reads.getConnection();
+    }
+
+    /** Registers the hook on the write pool; see {@link Database#onClose}. */
+    @Override
+    public void onClose(Runnable hook) { db.onClose(hook); }
+
+    /** Closes the write pool, running the close hooks first. A separate read pool is left to its owner. */
+    @Override
+    public void close() { db.close(); }
+
+    /**
+     * Runs a write on the writer thread, or on a connection of the caller's own if
+     * there is none. Either way it is committed when this returns.
+     */
+    private <T> T write(SingleWriter.Work<T> work) throws SQLException {
+        if (writer != null) return writer.submit(onCallersBehalf(work));
+        try (var c = db.getConnection()) {
+            return work.run(c);
+        }
+    }
+
+    /**
+     * Like {@link #write}, but guarantees the work runs in one transaction even without
+     * a writer thread (the writer always runs work inside a transaction).
+     */
+    private <T> T writeTransaction(SingleWriter.Work<T> work) throws SQLException {
+        if (writer != null) return writer.submit(onCallersBehalf(work));
+        try (var c = db.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                T result = work.run(c);
+                c.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(true);
             }
-        } catch (SQLException e) {
-            throw new RuntimeException("Schema init failed", e);
         }
     }
 
+    /**
+     * Wraps work queued for the writer thread so the change listeners see it with the
+     * caller's {@link StorageListener#captureWriteContext write context}, not the writer's.
+     */
+    private <T> SingleWriter.Work<T> onCallersBehalf(SingleWriter.Work<T> work) {
+        List<StorageListener> ls = List.copyOf(listeners);
+        if (ls.isEmpty()) return work;
+        Object[] contexts = new Object[ls.size()];
+        for (int i = 0; i < contexts.length; i++) contexts[i] = ls.get(i).captureWriteContext();
+        return c -> {
+            Object[] previous = new Object[contexts.length];
+            for (int i = 0; i < contexts.length; i++) previous[i] = ls.get(i).restoreWriteContext(contexts[i]);
+            try {
+                return work.run(c);
+            } finally {
+                for (int i = 0; i < contexts.length; i++) ls.get(i).restoreWriteContext(previous[i]);
+            }
+        };
+    }
+
+    /**
+     * Brings the schema up to date through {@link Schema#MIGRATIONS}; a current schema
+     * costs one version check and no DDL. Pending backfills run online on a daemon
+     * thread, which is stopped (keeping its progress) when the pool closes. With a writer
+     * thread their chunks are queued on it like any other write.
+     */
+    private void initSchema() {
+        Migrator migrator = new Migrator(db, Schema.MIGRATIONS);
+        migrator.migrate();
+        if (!migrator.hasPendingBackfills()) return;
+        Thread backfill = new Thread(() -> {
+            try {
+                migrator.runBackfills(Migrator.DEFAULT_CHUNK_SIZE, 10, writer);
+            } catch (InterruptedException e) {
+                // pool closing; the remaining chunks run on the next start
+            } catch (RuntimeException e) {
+                System.err.println("Schema backfill failed: " + e.getMessage());
+            }
+        }, "db-backfill");
+        backfill.setDaemon(true);
+        backfill.start();
+        db.onClose(() -> {
+            backfill.interrupt();
+            try {
+                backfill.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    /**
+     * Rebuilds a file created before the pool asked for {@code auto_vacuum = INCREMENTAL}
+     * with a full {@code VACUUM}, the only way the setting takes effect on an existing
+     * file. The rebuild rewrites the whole database and blocks writers until it is done,
+     * so it only runs when asked for (see {@code Main --vacuum}); until then
+     * {@link #archiveSessions} leaves freed pages in the file for reuse.
+     *
+     * @return true if the file was rebuilt, false if it already was incremental (or is
+     *         in memory or read-only)
+     */
+    public boolean enableIncrementalVacuum() {
+        if (db.isInMemory() || db.isReadOnly()) return false;
+        // A plain connection: VACUUM refuses to run while a pooled connection's cached statements
+        // are active, and pooled connections keep reporting the mode they first read
+        try (var c = DriverManager.getConnection(db.getUrl())) {
+            try (var st = c.createStatement(); var rs = st.executeQuery("PRAGMA auto_vacuum")) {
+                if (!rs.next() || rs.getInt(1) != 0) return false;
+            }
+            System.err.println("Rebuilding the database for incremental vacuum; a large file can take a while");
+            for (String sql : new String[] {"PRAGMA busy_timeout = 5000", "PRAGMA auto_vacuum = INCREMENTAL", "VACUUM"}) {
+                try (var st = c.createStatement()) { st.execute(sql); }
+            }
+            return true;
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
     // ---- AUTH  ----
 
     /**
      * Creates a user with a unique (case-insensitive) username.
+     * <p>
+     * A single INSERT; uniqueness is enforced by the {@code NOCASE} unique index,
+     * so two concurrent registrations of the same name cannot both succeed.
      *
      * @param username desired username
      * @param password plaintext password (stored as-is)
      * @return the created {@link User}
      * @throws IllegalStateException if the username already exists
      */
+    @Override
     public User createUser(String username, char[] password) {
-        try (var c = Database.open()) {
-            try (var chk = c.prepareStatement("SELECT 1 FROM users WHERE LOWER(username)=LOWER(?)")) {
-                chk.setString(1, username);
-                try (var rs = chk.executeQuery()) { if (rs.next()) throw new IllegalStateException("Username is taken"); }
-            }
-            int newId;
-            String hashed = PasswordUtils.hashPassword(password);
-            try (var ins = c.prepareStatement(
-                    "INSERT INTO users(username, password_hash) VALUES (?, ?)",
-                    Statement.RETURN_GENERATED_KEYS)) {
-                ins.setString(1, username);
-                ins.setString(2, hashed);
-                ins.executeUpdate();
-                try (var keys = ins.getGeneratedKeys()) {
-                    if (!keys.next()) throw new SQLException("No key");
-                    newId = keys.getInt(1);
+        String hashed = PasswordUtils.hashPassword(password);
+        try {
+            return write(c -> {
+                try (var ins = c.prepareStatement(
+                        "INSERT INTO users(username, password_hash) VALUES (?, ?) RETURNING id, username, registered_at")) {
+                    ins.setString(1, username);
+                    ins.setString(2, hashed);
+                    try (var rs = ins.executeQuery()) {
+                        if (!rs.next()) throw new SQLException("No row returned");
+                        return mapUser(rs);
+                    }
                 }
-            }
-            try (var ps = c.prepareStatement("SELECT id, username, registered_at FROM users WHERE id=?")) {
-                ps.setInt(1, newId);
-                try (var rs = ps.executeQuery()) { rs.next(); return mapUser(rs); }
-            }
-        } catch (SQLException e) { throw new RuntimeException(e); }
+            });
+        } catch (SQLException e) {
+            if (isUniqueViolation(e)) throw new IllegalStateException("Username is taken");
+            throw new RuntimeException(e);
+        }
     }
 
     /**
@@ -99,10 +318,11 @@ public final class GameStore {
      *
      * @return {@link Optional} of the {@link User} if credentials are valid, otherwise empty
      */
+    @Override
     public Optional<User> authenticate(String username, char[] password) {
-        try (var c = Database.open();
+        try (var c = reads.getConnection();
              var ps = c.prepareStatement(
-                     "SELECT id, username, registered_at, password_hash FROM users WHERE LOWER(username)=LOWER(?)")) {
+                     "SELECT id, username, registered_at, password_hash FROM users WHERE username = ? COLLATE NOCASE")) {
             ps.setString(1, username);
             try (var rs = ps.executeQuery()) {
                 if (!rs.next()) return Optional.empty();
@@ -118,12 +338,30 @@ public final class GameStore {
 
     // ---- USERS ----
 
+    /**
+     * Looks up a user by case-insensitive username using the {@code NOCASE} index.
+     *
+     * @return {@link Optional} of the {@link User}, or empty if no such user exists
+     */
+    @Override
+    public Optional<User> findUserByUsername(String username) {
+        try (var c = reads.getConnection();
+             var ps = c.prepareStatement(
+                     "SELECT id, username, registered_at FROM users WHERE username = ? COLLATE NOCASE")) {
+            ps.setString(1, username);
+            try (var rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(mapUser(rs)) : Optional.empty();
+            }
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
     /**
      * Lists all users ordered alphabetically by username.
      */
+    @Override
     public List<User> listUsers() {
         var out = new ArrayList<User>();
-        try (var c = Database.open();
+        try (var c = screenRead();
              var ps = c.prepareStatement("SELECT id, username, registered_at FROM users ORDER BY username ASC");
              var rs = ps.executeQuery()) {
             while (rs.next()) out.add(mapUser(rs));
@@ -136,31 +374,37 @@ public final class GameStore {
      *
      * @throws IllegalStateException if the new username is already taken
      */
+    @Override
     public void updateUsername(int userId, String newUsername) {
-        try (var c = Database.open()) {
-            try (var chk = c.prepareStatement("SELECT 1 FROM users WHERE LOWER(username)=LOWER(?) AND id<>?")) {
-                chk.setString(1, newUsername); chk.setInt(2, userId);
-                try (var rs = chk.executeQuery()) { if (rs.next()) throw new IllegalStateException("Username is taken"); }
-            }
-            try (var ps = c.prepareStatement("UPDATE users SET username=? WHERE id=?")) {
-                ps.setString(1, newUsername); ps.setInt(2, userId); ps.executeUpdate();
-            }
-        } catch (SQLException e) { throw new RuntimeException(e); }
+        try {
+            write(c -> {
+                try (var ps = c.prepareStatement("UPDATE users SET username=? WHERE id=?")) {
+                    ps.setString(1, newUsername); ps.setInt(2, userId); return ps.executeUpdate();
+                }
+            });
+        } catch (SQLException e) {
+            if (isUniqueViolation(e)) throw new IllegalStateException("Username is taken");
+            throw new RuntimeException(e);
+        }
     }
 
     /**
      * Updates a user's password (stored as a BCrypt hash in password_hash).
      */
+    @Override
     public void updatePassword(int userId, char[] newPassword) {
         // Make a defensive copy so we don't mutate the caller's array when hashing
         char[] pwCopy = Arrays.copyOf(newPassword, newPassword.length);
-        try (var c = Database.open();
-             var ps = c.prepareStatement("UPDATE users SET password_hash = ? WHERE id = ?")) {
-
+        try {
+            // Hash before queuing the write so the writer thread never waits on bcrypt
             String hash = PasswordUtils.hashPassword(pwCopy); // PasswordUtils wipes pwCopy
-            ps.setString(1, hash);
-            ps.setInt(2, userId);
-            ps.executeUpdate();
+            write(c -> {
+                try (var ps = c.prepareStatement("UPDATE users SET password_hash = ? WHERE id = ?")) {
+                    ps.setString(1, hash);
+                    ps.setInt(2, userId);
+                    return ps.executeUpdate();
+                }
+            });
         } catch (SQLException e) {
             throw new RuntimeException(e);
         } finally {
@@ -174,115 +418,507 @@ public final class GameStore {
      *
      * @return true if a row was deleted
      */
+    @Override
     public boolean deleteUser(int userId) {
-        try (var c = Database.open();
-             var ps = c.prepareStatement("DELETE FROM users WHERE id=?")) {
-            ps.setInt(1, userId);
-            return ps.executeUpdate() > 0;
+        try {
+            return write(c -> {
+                try (var ps = c.prepareStatement("DELETE FROM users WHERE id=?")) {
+                    ps.setInt(1, userId);
+                    return ps.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) { throw new RuntimeException(e); }
     }
 
     // ---- SESSIONS ----
 
+    /** Columns read by {@link #mapSession(ResultSet)}, shared by SELECTs and RETURNING clauses. */
+    private static final String SESSION_COLUMNS = "id,user_id,mode,started_at,ended_at,score,strikes,completed";
+
     /**
      * Starts a new game session for the given user and mode.
      *
      * @return the newly created {@link GameSession}
      */
+    @Override
     public GameSession startSession(int userId, GameMode mode) {
-        try (var c = Database.open()) {
-            int id;
-            try (var ps = c.prepareStatement(
-                    "INSERT INTO game_session(user_id, mode) VALUES (?, ?)",
-                    Statement.RETURN_GENERATED_KEYS)) {
-                ps.setInt(1, userId);
-                ps.setString(2, mode.name());
-                ps.executeUpdate();
-                try (var keys = ps.getGeneratedKeys()) {
-                    if (!keys.next()) throw new SQLException("No key");
-                    id = keys.getInt(1);
+        try {
+            return write(c -> {
+                try (var ps = c.prepareStatement(
+                        "INSERT INTO game_session(user_id, mode) VALUES (?, ?) RETURNING " + SESSION_COLUMNS)) {
+                    ps.setInt(1, userId);
+                    ps.setString(2, mode.name());
+                    try (var rs = ps.executeQuery()) {
+                        if (!rs.next()) throw new SQLException("No row returned");
+                        return mapSession(rs);
+                    }
                 }
-            }
-            try (var ps = c.prepareStatement(
-                    "SELECT id,user_id,mode,started_at,ended_at,score,strikes,completed FROM game_session WHERE id=?")) {
-                ps.setInt(1, id);
-                try (var rs = ps.executeQuery()) { rs.next(); return mapSession(rs); }
-            }
+            });
         } catch (SQLException e) { throw new RuntimeException(e); }
     }
 
     /**
      * Increments score by one for an in-progress session.
+     *
+     * @return the updated session, or empty if it does not exist or is already completed
      */
-    public void submitCorrect(int sessionId) {
-        try (var c = Database.open();
-             var ps = c.prepareStatement("UPDATE game_session SET score = score + 1 WHERE id=? AND completed=0")) {
+    @Override
+    public Optional<GameSession> submitCorrect(int sessionId) {
+        return updateSession(
+                "UPDATE game_session SET score = score + 1 WHERE id=? AND completed=0 RETURNING " + SESSION_COLUMNS,
+                sessionId);
+    }
+
+    /**
+     * Increments strikes for an in-progress session; auto-completes when strikes ≥ 3.
+     * The increment and the completion check are a single atomic statement.
+     *
+     * @return the updated session, or empty if it does not exist or is already completed
+     */
+    @Override
+    public Optional<GameSession> submitWrong(int sessionId) {
+        return updateSession("""
+                UPDATE game_session
+                SET strikes   = strikes + 1,
+                    completed = CASE WHEN strikes + 1 >= 3 THEN 1 ELSE 0 END,
+                    ended_at  = CASE WHEN strikes + 1 >= 3 THEN CURRENT_TIMESTAMP ELSE ended_at END
+                WHERE id=? AND completed=0
+                RETURNING\s""" + SESSION_COLUMNS,
+                sessionId);
+    }
+
+    /** Runs a single-row {@code UPDATE ... RETURNING} keyed by session ID. */
+    private Optional<GameSession> updateSession(String sql, int sessionId) {
+        try {
+            return write(c -> {
+                try (var ps = c.prepareStatement(sql)) {
+                    ps.setInt(1, sessionId);
+                    try (var rs = ps.executeQuery()) {
+                        return rs.next() ? Optional.of(mapSession(rs)) : Optional.<GameSession>empty();
+                    }
+                }
+            });
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /**
+     * Applies a batch of queued answers in a single transaction, in the given order.
+     * <p>
+     * Each event adds one point or one strike to its session, using the same rules as
+     * {@link #submitCorrect(int)} and {@link #submitWrong(int)}: answers to completed
+     * sessions are ignored and the third strike completes the session. The events are
+     * also appended to the answer log in the same transaction.
+     *
+     * @param events answers to apply; an empty list is a no-op
+     */
+    @Override
+    public void applyAnswers(List<AnswerEvent> events) {
+        if (events.isEmpty()) return;
+        String sql = """
+            UPDATE game_session
+            SET score     = score + ?1,
+                strikes   = strikes + ?2,
+                completed = CASE WHEN strikes + ?2 >= 3 THEN 1 ELSE 0 END,
+                ended_at  = CASE WHEN strikes + ?2 >= 3 THEN CURRENT_TIMESTAMP ELSE ended_at END
+            WHERE id = ?3 AND completed = 0
+            """;
+        try {
+            questionIds.putAll(writeTransaction(c -> {
+                try (var ps = c.prepareStatement(sql)) {
+                    for (AnswerEvent e : events) {
+                        ps.setInt(1, e.isCorrect() ? 1 : 0);
+                        ps.setInt(2, e.isCorrect() ? 0 : 1);
+                        ps.setInt(3, e.getSessionId());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                return appendEvents(c, events);
+            }));
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /**
+     * Appends answers to the {@code answer_event} log in one transaction, without
+     * touching the sessions' scores. Events of sessions that no longer exist are dropped.
+     *
+     * @param events answers to log; an empty list is a no-op
+     */
+    @Override
+    public void appendAnswerEvents(List<AnswerEvent> events) {
+        if (events.isEmpty()) return;
+        try {
+            questionIds.putAll(writeTransaction(c -> appendEvents(c, events)));
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /**
+     * Lists a session's logged answers in the order they were given.
+     */
+    @Override
+    public List<AnswerEvent> listAnswerEvents(int sessionId) {
+        String sql = """
+            SELECT e.session_id, e.correct, e.answered_at, q.prompt, e.response, e.response_ms
+            FROM answer_event e
+            LEFT JOIN question q ON q.id = e.question_id
+            WHERE e.session_id = ?
+            ORDER BY e.id
+            """;
+        var out = new ArrayList<AnswerEvent>();
+        try (var c = reads.getConnection(); var ps = c.prepareStatement(sql)) {
             ps.setInt(1, sessionId);
-            ps.executeUpdate();
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int ms = rs.getInt("response_ms");
+                    if (rs.wasNull()) ms = -1;
+                    out.add(new AnswerEvent(
+                            rs.getInt("session_id"),
+                            rs.getInt("correct") != 0,
+                            Instant.ofEpochMilli(rs.getLong("answered_at")),
+                            rs.getString("prompt"),
+                            rs.getString("response"),
+                            ms));
+                }
+            }
+            if (out.isEmpty() && !isLiveSession(c, sessionId)) out.addAll(archivedAnswerEvents(c, sessionId));
+            return out;
         } catch (SQLException e) { throw new RuntimeException(e); }
     }
 
+    /** @return whether the session still has a row in {@code game_session}, i.e. is not archived */
+    private static boolean isLiveSession(Connection c, int sessionId) throws SQLException {
+        try (var ps = c.prepareStatement("SELECT 1 FROM game_session WHERE id=?")) {
+            ps.setInt(1, sessionId);
+            try (var rs = ps.executeQuery()) { return rs.next(); }
+        }
+    }
+
+    /** Answers of an archived session, with their prompts looked up; empty if it is not archived. */
+    private static List<AnswerEvent> archivedAnswerEvents(Connection c, int sessionId) throws SQLException {
+        SessionArchive.Entry entry = SessionArchive.find(c, sessionId);
+        if (entry == null) return List.of();
+        var out = new ArrayList<AnswerEvent>(entry.answers().size());
+        var prompts = new HashMap<Integer, String>();
+        try (var ps = c.prepareStatement("SELECT prompt FROM question WHERE id=?")) {
+            for (SessionArchive.Answer a : entry.answers()) {
+                String prompt = a.questionId() == 0 ? null : prompts.computeIfAbsent(a.questionId(), id -> {
+                    try {
+                        ps.setInt(1, id);
+                        try (var rs = ps.executeQuery()) { return rs.next() ? rs.getString(1) : null; }
+                    } catch (SQLException e) { throw new RuntimeException(e); }
+                });
+                out.add(new AnswerEvent(sessionId, a.correct(), Instant.ofEpochMilli(a.answeredAt()),
+                        prompt, a.response(), a.responseMs()));
+            }
+        }
+        return out;
+    }
+
     /**
-     * Increments strikes for an in-progress session; auto-completes when strikes ≥ 3.
+     * Inserts answer events as one batch on a connection inside a transaction. The owning
+     * user is copied from the session row, which also drops events of deleted sessions.
+     *
+     * @return question prompts interned by this call, to cache once the transaction commits
      */
-    public void submitWrong(int sessionId) {
-        try (var c = Database.open()) {
-            try (var inc = c.prepareStatement("UPDATE game_session SET strikes = strikes + 1 WHERE id=? AND completed=0")) {
-                inc.setInt(1, sessionId);
-                inc.executeUpdate();
+    private Map<String, Integer> appendEvents(Connection c, List<AnswerEvent> events) throws SQLException {
+        Map<String, Integer> interned = new HashMap<>();
+        try (var ins = c.prepareStatement("""
+                INSERT INTO answer_event(session_id, user_id, question_id, correct, response_ms, response, answered_at)
+                SELECT id, user_id, ?, ?, ?, ?, ? FROM game_session WHERE id = ?
+                """)) {
+            for (AnswerEvent e : events) {
+                Integer questionId = e.getQuestion() == null ? null : questionId(c, e, interned);
+                if (questionId == null) ins.setNull(1, Types.INTEGER); else ins.setInt(1, questionId);
+                ins.setInt(2, e.isCorrect() ? 1 : 0);
+                if (e.getResponseMs() < 0) ins.setNull(3, Types.INTEGER); else ins.setInt(3, e.getResponseMs());
+                ins.setString(4, e.getResponse());
+                ins.setLong(5, e.getAnsweredAt().toEpochMilli());
+                ins.setInt(6, e.getSessionId());
+                ins.addBatch();
             }
-            int strikes;
-            try (var sel = c.prepareStatement("SELECT strikes FROM game_session WHERE id=?")) {
-                sel.setInt(1, sessionId);
-                try (var rs = sel.executeQuery()) { rs.next(); strikes = rs.getInt(1); }
+            ins.executeBatch();
+        }
+        return interned;
+    }
+
+    /** Returns the ID of an event's question prompt, inserting the prompt on first sight. */
+    private Integer questionId(Connection c, AnswerEvent e, Map<String, Integer> interned) throws SQLException {
+        String prompt = e.getQuestion();
+        Integer id = questionIds.get(prompt);
+        if (id == null) id = interned.get(prompt);
+        if (id != null) return id;
+        try (var ins = c.prepareStatement("""
+                INSERT INTO question(prompt, mode) SELECT ?, mode FROM game_session WHERE id = ?
+                ON CONFLICT(prompt) DO NOTHING
+                """)) {
+            ins.setString(1, prompt);
+            ins.setInt(2, e.getSessionId());
+            ins.executeUpdate();
+        }
+        try (var ps = c.prepareStatement("SELECT id FROM question WHERE prompt = ?")) {
+            ps.setString(1, prompt);
+            try (var rs = ps.executeQuery()) {
+                if (!rs.next()) return null; // session is gone, so the event is dropped anyway
+                id = rs.getInt(1);
             }
-            if (strikes >= 3) {
-                try (var fin = c.prepareStatement("UPDATE game_session SET completed=1, ended_at=CURRENT_TIMESTAMP WHERE id=?")) {
-                    fin.setInt(1, sessionId);
-                    fin.executeUpdate();
+        }
+        interned.put(prompt, id);
+        return id;
+    }
+
+    /**
+     * Writes the current score and strikes of in-progress sessions kept in memory,
+     * in one transaction. Sessions completed in the meantime are left untouched, so a
+     * late snapshot can never overwrite a final result.
+     *
+     * @param sessions states to write; an empty list is a no-op
+     */
+    @Override
+    public void saveSessionProgress(List<GameSession> sessions) {
+        if (sessions.isEmpty()) return;
+        try {
+            writeTransaction(c -> {
+                try (var ps = c.prepareStatement(
+                        "UPDATE game_session SET score=?, strikes=? WHERE id=? AND completed=0")) {
+                    for (GameSession s : sessions) {
+                        ps.setInt(1, s.getScore());
+                        ps.setInt(2, s.getStrikes());
+                        ps.setInt(3, s.getId());
+                        ps.addBatch();
+                    }
+                    return ps.executeBatch();
                 }
-            }
+            });
         } catch (SQLException e) { throw new RuntimeException(e); }
     }
 
     /**
-     * Marks a session as completed and stamps {@code ended_at}.
+     * Writes the final result of a session played in memory: its score and strikes,
+     * completed, with {@code ended_at} stamped. A session that is already completed
+     * is left as it is.
+     *
+     * @return true if the session was completed by this call
      */
-    public void finishSession(int sessionId) {
-        try (var c = Database.open();
-             var ps = c.prepareStatement("UPDATE game_session SET completed=1, ended_at=CURRENT_TIMESTAMP WHERE id=?")) {
-            ps.setInt(1, sessionId);
-            ps.executeUpdate();
+    @Override
+    public boolean completeSession(GameSession result) {
+        try {
+            return write(c -> {
+                try (var ps = c.prepareStatement("""
+                        UPDATE game_session
+                        SET score=?, strikes=?, completed=1, ended_at=CURRENT_TIMESTAMP
+                        WHERE id=? AND completed=0
+                        """)) {
+                    ps.setInt(1, result.getScore());
+                    ps.setInt(2, result.getStrikes());
+                    ps.setInt(3, result.getId());
+                    return ps.executeUpdate() > 0;
+                }
+            });
         } catch (SQLException e) { throw new RuntimeException(e); }
     }
 
     /**
-     * Lists sessions for a user, newest first (by start time, then ID to break ties).
+     * Finalizes sessions interrupted mid-round, from their journaled state. Each session
+     * takes the journaled score and strikes unless the stored row has seen as many
+     * answers already, is marked completed, and its {@code ended_at} is the time of its
+     * last journaled event. Sessions already completed (or deleted) are left as they are.
+     *
+     * @param interrupted latest journaled state of each session that did not finish
+     * @return number of sessions finalized
+     */
+    @Override
+    public int recoverSessions(List<SessionJournal.Entry> interrupted) {
+        if (interrupted.isEmpty()) return 0;
+        try {
+            return writeTransaction(c -> {
+                try (var ps = c.prepareStatement("""
+                        UPDATE game_session
+                        SET score   = CASE WHEN ? > score + strikes THEN ? ELSE score END,
+                            strikes = CASE WHEN ? > score + strikes THEN ? ELSE strikes END,
+                            completed = 1,
+                            ended_at = datetime(? / 1000, 'unixepoch')
+                        WHERE id=? AND completed=0
+                        """)) {
+                    for (SessionJournal.Entry e : interrupted) {
+                        int answers = e.score() + e.strikes();
+                        ps.setInt(1, answers);
+                        ps.setInt(2, e.score());
+                        ps.setInt(3, answers);
+                        ps.setInt(4, e.strikes());
+                        ps.setLong(5, e.at().toEpochMilli());
+                        ps.setInt(6, e.sessionId());
+                        ps.addBatch();
+                    }
+                    int n = 0;
+                    for (int count : ps.executeBatch()) if (count > 0) n++;
+                    return n;
+                }
+            });
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /**
+     * Marks a session as completed and stamps {@code ended_at}.
+     *
+     * @return the finished session; empty if there is no such session
      */
+    @Override
+    public Optional<GameSession> finishSession(int sessionId) {
+        return updateSession(
+                "UPDATE game_session SET completed=1, ended_at=CURRENT_TIMESTAMP WHERE id=? RETURNING " + SESSION_COLUMNS,
+                sessionId);
+    }
+
+    /**
+     * Lists sessions for a user, newest first (by start time, then ID to break ties),
+     * including archived ones.
+     */
+    @Override
     public List<GameSession> listSessionsByUser(int userId) {
         var out = new ArrayList<GameSession>();
-        String sql = """
-    SELECT id,user_id,mode,started_at,ended_at,score,strikes,completed
-    FROM game_session
-    WHERE user_id=? 
-    ORDER BY started_at DESC, id DESC   -- <— add id DESC to break ties
-    """;
-        try (var c = Database.open(); var ps = c.prepareStatement(sql)) {
-            ps.setInt(1, userId);
-            try (var rs = ps.executeQuery()) { while (rs.next()) out.add(mapSession(rs)); }
+        try (var c = screenRead(); var history = new History(c, userId, null, null, 0)) {
+            for (PageRow row = history.next(); row != null; row = history.next()) out.add(row.session());
             return out;
         } catch (SQLException e) { throw new RuntimeException(e); }
     }
 
     /**
-     * Deletes a session by ID.
+     * Lists one page of a user's sessions, newest first (by start time, then ID).
+     * <p>
+     * Seeks on {@code (started_at, id)} past the cursor using the keyset indexes, and
+     * decodes only the archive blocks the page reaches, so every page costs about the
+     * same however long the history is.
      *
-     * @return true if a row was deleted
+     * @param after    cursor from the previous page, or {@code null} for the first page
+     * @param pageSize maximum number of sessions to return (at least 1)
+     * @param mode     only list sessions of this mode, or {@code null} for all modes
+     */
+    @Override
+    public SessionPage listSessionsByUser(int userId, SessionCursor after, int pageSize, GameMode mode) {
+        if (pageSize < 1) throw new IllegalArgumentException("pageSize must be at least 1");
+        // one extra row tells us whether another page follows
+        try (var c = screenRead(); var history = new History(c, userId, mode, after, pageSize + 1)) {
+            var out = new ArrayList<GameSession>(pageSize);
+            PageRow last = null;
+            PageRow row = history.next();
+            while (row != null && out.size() < pageSize) {
+                out.add(row.session());
+                last = row;
+                row = history.next();
+            }
+            SessionCursor next = row == null ? null : new SessionCursor(last.started(), last.session().getId());
+            return new SessionPage(out, next);
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /** A session with its stored start time, the cursor key. */
+    private record PageRow(String started, GameSession session) { }
+
+    /**
+     * One user's sessions newest first, live and archived merged, read lazily on one
+     * connection: live rows through the keyset index, archived ones through
+     * {@link SessionArchive.NewestFirst}.
      */
+    private static final class History implements AutoCloseable {
+        private final PreparedStatement ps;
+        private final ResultSet rs;
+        private final SessionArchive.NewestFirst archived;
+        /** Next live row, or null once they are exhausted. */
+        private PageRow live;
+
+        /**
+         * @param after only sessions past this cursor, or {@code null} for all
+         * @param limit most live rows to read (0 for no limit)
+         */
+        History(Connection c, int userId, GameMode mode, SessionCursor after, int limit) throws SQLException {
+            String sql = "SELECT " + SESSION_COLUMNS + ", started_at AS cursor_started FROM game_session WHERE user_id=?"
+                    + (mode == null ? "" : " AND mode=?")
+                    + (after == null ? "" : " AND (started_at, id) < (?, ?)")
+                    + " ORDER BY started_at DESC, id DESC"
+                    + (limit > 0 ? " LIMIT ?" : "");
+            ps = c.prepareStatement(sql);
+            ResultSet liveRows = null;
+            try {
+                int i = 1;
+                ps.setInt(i++, userId);
+                if (mode != null) ps.setString(i++, mode.name());
+                if (after != null) {
+                    ps.setString(i++, after.getStartedAt());
+                    ps.setInt(i++, after.getId());
+                }
+                if (limit > 0) ps.setInt(i, limit);
+                ps.setFetchSize(DEFAULT_FETCH_SIZE);
+                liveRows = ps.executeQuery();
+                archived = new SessionArchive.NewestFirst(c, userId, mode,
+                        after == null ? null : after.getStartedAt(), after == null ? 0 : after.getId());
+            } catch (SQLException e) {
+                closeQuietly(liveRows, ps);
+                throw e;
+            }
+            rs = liveRows;
+            advanceLive();
+        }
+
+        /** @return the next session, newest first, or null when there are no more */
+        PageRow next() throws SQLException {
+            SessionArchive.Entry old = archived.peek();
+            if (live != null && (old == null || isNewer(live, old))) {
+                PageRow row = live;
+                advanceLive();
+                return row;
+            }
+            if (old == null) return null;
+            archived.next();
+            return new PageRow(old.startedAt(), old.toSession());
+        }
+
+        private void advanceLive() throws SQLException {
+            live = rs.next() ? new PageRow(rs.getString("cursor_started"), mapSession(rs)) : null;
+        }
+
+        private static boolean isNewer(PageRow row, SessionArchive.Entry e) {
+            int cmp = row.started().compareTo(e.startedAt());
+            return cmp > 0 || cmp == 0 && row.session().getId() > e.id();
+        }
+
+        @Override
+        public void close() {
+            closeQuietly(archived, rs, ps);
+        }
+    }
+
+    /**
+     * Counts a user's sessions from the covering index, without reading the rows, plus
+     * the per-block counts of archived ones.
+     *
+     * @param mode only count sessions of this mode, or {@code null} for all modes
+     */
+    @Override
+    public int countSessionsByUser(int userId, GameMode mode) {
+        String sql = "SELECT COUNT(*) FROM game_session WHERE user_id=?" + (mode == null ? "" : " AND mode=?");
+        try (var c = reads.getConnection(); var ps = c.prepareStatement(sql)) {
+            ps.setInt(1, userId);
+            if (mode != null) ps.setString(2, mode.name());
+            int live;
+            try (var rs = ps.executeQuery()) { live = rs.next() ? rs.getInt(1) : 0; }
+            return live + SessionArchive.count(c, userId, mode);
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /**
+     * Deletes a session by ID, live or archived.
+     *
+     * @return true if a session was deleted
+     */
+    @Override
     public boolean deleteSession(int sessionId) {
-        try (var c = Database.open(); var ps = c.prepareStatement("DELETE FROM game_session WHERE id=?")) {
-            ps.setInt(1, sessionId);
-            return ps.executeUpdate() > 0;
+        try {
+            return writeTransaction(c -> {
+                try (var ps = c.prepareStatement("DELETE FROM game_session WHERE id=?")) {
+                    ps.setInt(1, sessionId);
+                    return ps.executeUpdate() > 0 || SessionArchive.delete(c, sessionId);
+                }
+            });
         } catch (SQLException e) { throw new RuntimeException(e); }
     }
 
@@ -290,13 +926,15 @@ public final class GameStore {
 
     /**
      * Returns a user’s high score for a given mode across completed sessions.
+     * Reads the maintained {@code user_best_score} row rather than scanning sessions.
      *
      * @return {@link OptionalInt} containing the max score, or empty if none
      */
+    @Override
     public OptionalInt getHighScore(int userId, GameMode mode) {
-        try (var c = Database.open();
+        try (var c = reads.getConnection();
              var ps = c.prepareStatement(
-                     "SELECT MAX(score) FROM game_session WHERE completed=1 AND user_id=? AND mode=?")) {
+                     "SELECT best_score FROM user_best_score WHERE user_id=? AND mode=?")) {
             ps.setInt(1, userId);
             ps.setString(2, mode.name());
             try (var rs = ps.executeQuery()) {
@@ -312,40 +950,538 @@ public final class GameStore {
 
     /**
      * Builds a leaderboard for a mode using each user’s highest completed-session score.
+     * Reads the top rows of {@code user_best_score} by index, so the cost does not grow
+     * with session history.
      *
      * @param mode  game mode to rank
      * @param limit max number of rows to return (min 1)
-     * @return ordered list of {@link ScoreRow} by descending high score
+     * @return ordered list of {@link ScoreRow} by descending high score, then user ID
      */
+    @Override
     public List<ScoreRow> leaderboard(GameMode mode, int limit) {
         String sql = """
-            SELECT u.id AS user_id, u.username, MAX(s.score) AS high_score
-            FROM users u
-            JOIN game_session s ON s.user_id = u.id
-            WHERE s.completed = 1 AND s.mode = ?
-            GROUP BY u.id, u.username
-            ORDER BY high_score DESC
+            SELECT b.user_id, u.username, b.best_score AS high_score
+            FROM user_best_score b
+            JOIN users u ON u.id = b.user_id
+            WHERE b.mode = ?
+            ORDER BY b.best_score DESC, b.user_id
             LIMIT ?
             """;
         var out = new ArrayList<ScoreRow>();
-        try (var c = Database.open(); var ps = c.prepareStatement(sql)) {
+        try (var c = screenRead(); var ps = c.prepareStatement(sql)) {
             ps.setString(1, mode.name());
             ps.setInt(2, Math.max(1, limit));
             try (var rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    out.add(new ScoreRow(
-                            rs.getInt("user_id"),
-                            rs.getString("username"),
-                            mode,
-                            rs.getInt("high_score")));
-                }
+                while (rs.next()) out.add(mapScore(rs, mode));
+            }
+            return out;
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /**
+     * Builds a leaderboard for a mode over the current day, week or term. Reads the top
+     * rows of the window's {@code period_best} rows by index, which the triggers keep
+     * up to date as sessions complete, so the cost does not grow with history.
+     *
+     * @param period window to rank; {@link LeaderboardPeriod#ALL_TIME} is {@link #leaderboard(GameMode, int)}
+     * @param limit  max number of rows to return (min 1)
+     */
+    @Override
+    public List<ScoreRow> leaderboard(GameMode mode, LeaderboardPeriod period, int limit) {
+        if (!period.isWindowed()) return leaderboard(mode, limit);
+        String sql = """
+            SELECT b.user_id, u.username, b.best_score AS high_score
+            FROM period_best b
+            JOIN users u ON u.id = b.user_id
+            WHERE b.period = ? AND b.bucket = %s AND b.mode = ?
+            ORDER BY b.best_score DESC, b.user_id
+            LIMIT ?
+            """.formatted(Schema.windowSql(period, "'now'"));
+        var out = new ArrayList<ScoreRow>();
+        try (var c = screenRead(); var ps = c.prepareStatement(sql)) {
+            ps.setString(1, period.name());
+            ps.setString(2, mode.name());
+            ps.setInt(3, Math.max(1, limit));
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) out.add(mapScore(rs, mode));
             }
             return out;
         } catch (SQLException e) { throw new RuntimeException(e); }
     }
 
+    /**
+     * Returns every user's best score for a mode, highest first. Used to build
+     * in-memory rankings; prefer {@link #leaderboard} for a top-N view.
+     *
+     * @param mode game mode to read
+     * @return all {@link ScoreRow}s for the mode
+     */
+    @Override
+    public List<ScoreRow> listBestScores(GameMode mode) {
+        String sql = """
+            SELECT b.user_id, u.username, b.best_score AS high_score
+            FROM user_best_score b
+            JOIN users u ON u.id = b.user_id
+            WHERE b.mode = ?
+            ORDER BY b.best_score DESC, b.user_id
+            """;
+        var out = new ArrayList<ScoreRow>();
+        try (var c = reads.getConnection(); var ps = c.prepareStatement(sql)) {
+            ps.setString(1, mode.name());
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) out.add(mapScore(rs, mode));
+            }
+            return out;
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /**
+     * Returns one user's best score row for a mode.
+     *
+     * @return the {@link ScoreRow}, or empty if the user has no completed session in the mode
+     */
+    @Override
+    public Optional<ScoreRow> findBestScore(int userId, GameMode mode) {
+        String sql = """
+            SELECT b.user_id, u.username, b.best_score AS high_score
+            FROM user_best_score b
+            JOIN users u ON u.id = b.user_id
+            WHERE b.user_id = ? AND b.mode = ?
+            """;
+        try (var c = reads.getConnection(); var ps = c.prepareStatement(sql)) {
+            ps.setInt(1, userId);
+            ps.setString(2, mode.name());
+            try (var rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(mapScore(rs, mode)) : Optional.empty();
+            }
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    // ---- ARCHIVE ----
+
+    /** Session IDs covered by one archiving transaction. */
+    private static final int ARCHIVE_CHUNK_IDS = 2_000;
+
+    /**
+     * Moves completed sessions that ended more than {@code olderThan} ago into the
+     * {@link SessionArchive}, {@link #ARCHIVE_CHUNK_IDS} session IDs per transaction so
+     * players are never blocked for long. Sessions of the current term are kept live
+     * whatever the age, since the windowed leaderboards are computed from them. Freed pages are handed back to the file
+     * system with {@code incremental_vacuum} once {@link #enableIncrementalVacuum} has run. Stops
+     * early, keeping what is done, if the calling thread is interrupted.
+     *
+     * @return number of sessions archived
+     */
+    public int archiveSessions(Duration olderThan) {
+        ZoneId zone = ZoneId.systemDefault();
+        Instant termStart = LeaderboardPeriod.TERM.startOf(LocalDate.now(zone)).atStartOfDay(zone).toInstant();
+        Instant before = Instant.now().minus(olderThan);
+        String cutoff = SessionArchive.formatTimestamp(before.isBefore(termStart) ? before : termStart);
+        try {
+            long maxId;
+            try (var c = reads.getConnection(); var st = c.createStatement();
+                 var rs = st.executeQuery("SELECT COALESCE(MAX(id), 0) FROM game_session")) {
+                maxId = rs.next() ? rs.getLong(1) : 0;
+            }
+            int archived = 0;
+            for (long from = 0; from < maxId && !Thread.currentThread().isInterrupted(); from += ARCHIVE_CHUNK_IDS) {
+                long after = from, upTo = Math.min(maxId, from + ARCHIVE_CHUNK_IDS);
+                if (!hasArchivable(after, upTo, cutoff)) continue;
+                archived += writeTransaction(c -> SessionArchive.archive(c, after, upTo, cutoff));
+            }
+            if (archived > 0) reclaimFreePages();
+            return archived;
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /** Cheap check on the primary key range, so chunks with nothing to do cost no write. */
+    private boolean hasArchivable(long afterId, long upToId, String cutoff) throws SQLException {
+        try (var c = reads.getConnection(); var ps = c.prepareStatement(
+                "SELECT 1 FROM game_session WHERE id > ? AND id <= ? AND completed = 1 AND ended_at < ? LIMIT 1")) {
+            ps.setLong(1, afterId);
+            ps.setLong(2, upToId);
+            ps.setString(3, cutoff);
+            try (var rs = ps.executeQuery()) { return rs.next(); }
+        }
+    }
+
+    /** Runs {@code incremental_vacuum} if the file uses {@code auto_vacuum = INCREMENTAL}. */
+    private void reclaimFreePages() throws SQLException {
+        if (db.isInMemory()) return;
+        write(c -> {
+            try (var st = c.createStatement()) {
+                boolean incremental;
+                try (var rs = st.executeQuery("PRAGMA auto_vacuum")) { incremental = rs.next() && rs.getInt(1) == 2; }
+                // The pragma frees pages as it is stepped, so drain any rows it reports
+                if (incremental && st.execute("PRAGMA incremental_vacuum")) {
+                    try (var rs = st.getResultSet()) { while (rs.next()) { } }
+                }
+                return incremental;
+            }
+        });
+    }
+
+    /**
+     * Runs {@link #archiveSessions} now and then every {@code interval} on a daemon
+     * thread, which is stopped when the pool closes.
+     *
+     * @param olderThan age after which completed sessions are archived
+     * @param interval  pause between passes
+     */
+    public void startArchiving(Duration olderThan, Duration interval) {
+        Thread archiver = new Thread(() -> {
+            while (true) {
+                try {
+                    archiveSessions(olderThan);
+                } catch (RuntimeException e) {
+                    System.err.println("Session archiving failed: " + e.getMessage());
+                }
+                try {
+                    Thread.sleep(interval.toMillis());
+                } catch (InterruptedException e) {
+                    return; // pool closing; the rest is archived on the next start
+                }
+            }
+        }, "db-archiver");
+        archiver.setDaemon(true);
+        archiver.start();
+        db.onClose(() -> {
+            archiver.interrupt();
+            try {
+                archiver.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    // ---- IMPORT / EXPORT ----
+
+    /**
+     * Writes every user (with their password hash), session and logged answer to a file
+     * in the {@link DataTransfer} line format, gzip-compressed if the name ends in
+     * {@code .gz}. Rows are streamed from one read snapshot, so players can keep writing.
+     *
+     * @param file file to create or overwrite
+     * @return what was written
+     */
+    public TransferStats exportTo(Path file) {
+        try (OutputStream os = open(file);
+             var out = new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8), TRANSFER_BUFFER)) {
+            return DataTransfer.export(reads, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /**
+     * Adds the users, sessions and answers of an exported file to this database,
+     * {@link DataTransfer#DEFAULT_TRANSACTION_ROWS} rows per transaction.
+     *
+     * @see #importFrom(Path, int)
+     */
+    public TransferStats importFrom(Path file) {
+        return importFrom(file, DataTransfer.DEFAULT_TRANSACTION_ROWS);
+    }
+
+    /**
+     * Adds the users, sessions and answers of an exported file (gzip-compressed if the
+     * name ends in {@code .gz}) to this database, under new IDs. Password hashes are
+     * stored as they are. Users whose name is already taken, ignoring case, are skipped
+     * together with their sessions.
+     *
+     * @param file            file written by {@link #exportTo}
+     * @param transactionRows rows written per transaction; batches committed before an error are kept
+     * @return what was imported and skipped
+     * @throws IllegalArgumentException if the file is malformed; the message names the line
+     */
+    public TransferStats importFrom(Path file, int transactionRows) {
+        try (InputStream is = Files.newInputStream(file);
+             var in = new BufferedReader(new InputStreamReader(
+                     isGzip(file) ? new GZIPInputStream(is, TRANSFER_BUFFER) : is, StandardCharsets.UTF_8),
+                     TRANSFER_BUFFER)) {
+            return DataTransfer.importFrom(in, this::writeTransaction, transactionRows);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /**
+     * Adds synthetic users and rounds for load and scale testing (see {@link DataGenerator}),
+     * generated on every core and written in large batched transactions. History ends at
+     * the start of the current UTC day, so a seed gives the same data all day.
+     *
+     * @param users           number of users, named {@code seed<seed>_<n>} with password {@code password}
+     * @param sessionsPerUser rounds per user, spread over all modes
+     * @param seed            random seed; the same seed and counts give the same data
+     * @return what was written
+     */
+    public TransferStats seedData(int users, int sessionsPerUser, long seed) {
+        try {
+            return DataGenerator.generate(this::writeTransaction, users, sessionsPerUser, seed,
+                    Instant.now(), Runtime.getRuntime().availableProcessors());
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /** Buffer size for export and import streams. */
+    private static final int TRANSFER_BUFFER = 1 << 16;
+
+    private static OutputStream open(Path file) throws IOException {
+        OutputStream os = Files.newOutputStream(file);
+        return isGzip(file) ? new GZIPOutputStream(os, TRANSFER_BUFFER) : os;
+    }
+
+    private static boolean isGzip(Path file) {
+        return file.getFileName().toString().endsWith(".gz");
+    }
+
+    // ---- STREAMING ----
+    //
+    // The stream* methods hold a pooled connection and an open result set until the stream is
+    // closed or fully consumed, reading one row at a time. Always use try-with-resources:
+    // an abandoned stream pins a read snapshot and blocks writers.
+
+    /**
+     * Streams all users ordered by ID.
+     */
+    @Override
+    public Stream<User> streamUsers() {
+        return stream("SELECT id, username, registered_at FROM users ORDER BY id",
+                ps -> { }, GameStore::mapUser, DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Streams every live session ordered by ID, then the archived ones block by block,
+     * for whole-table exports and reports. Both queries run on one connection and are
+     * opened together, so they read the same snapshot: a session the archiver moves while
+     * the stream is open is returned once. Archived blocks are decoded as they are reached.
+     *
+     * @param mode      only stream sessions of this mode, or {@code null} for all modes
+     * @param fetchSize rows the driver is asked to fetch per step (a hint)
+     */
+    @Override
+    public Stream<GameSession> streamSessions(GameMode mode, int fetchSize) {
+        String where = mode == null ? "" : " WHERE mode=?";
+        Connection c = null;
+        PreparedStatement livePs = null;
+        PreparedStatement blockPs = null;
+        ResultSet live = null;
+        ResultSet blocks = null;
+        try {
+            c = reads.getConnection();
+            livePs = c.prepareStatement("SELECT " + SESSION_COLUMNS + " FROM game_session" + where + " ORDER BY id");
+            blockPs = c.prepareStatement("SELECT user_id, mode, data FROM session_archive" + where + " ORDER BY id");
+            for (PreparedStatement ps : new PreparedStatement[]{livePs, blockPs}) {
+                if (mode != null) ps.setString(1, mode.name());
+                ps.setFetchSize(Math.max(1, fetchSize));
+            }
+            live = livePs.executeQuery();
+            blocks = blockPs.executeQuery(); // while the live cursor is open, so in its read transaction
+        } catch (SQLException e) {
+            closeQuietly(blocks, live, blockPs, livePs, c);
+            throw new RuntimeException(e);
+        }
+        AllSessions sessions = new AllSessions(c, livePs, live, blockPs, blocks);
+        return StreamSupport.stream(sessions, false).onClose(sessions::close);
+    }
+
+    /** Walks the live session rows, then each archived block's sessions, one at a time. */
+    private static final class AllSessions extends Spliterators.AbstractSpliterator<GameSession> {
+        private final Connection c;
+        private final PreparedStatement livePs;
+        private final ResultSet live;
+        private final PreparedStatement blockPs;
+        private final ResultSet blocks;
+        private Iterator<SessionArchive.Entry> block = Collections.emptyIterator();
+        private boolean liveDone;
+        private boolean closed;
+
+        AllSessions(Connection c, PreparedStatement livePs, ResultSet live, PreparedStatement blockPs, ResultSet blocks) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.c = c;
+            this.livePs = livePs;
+            this.live = live;
+            this.blockPs = blockPs;
+            this.blocks = blocks;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super GameSession> action) {
+            if (closed) return false;
+            try {
+                if (!liveDone) {
+                    if (live.next()) {
+                        action.accept(mapSession(live));
+                        return true;
+                    }
+                    liveDone = true;
+                }
+                while (!block.hasNext()) {
+                    if (!blocks.next()) {
+                        close();
+                        return false;
+                    }
+                    block = SessionArchive.decode(blocks.getBytes("data"), blocks.getInt("user_id"),
+                            GameMode.valueOf(blocks.getString("mode"))).iterator();
+                }
+                action.accept(block.next().toSession());
+                return true;
+            } catch (SQLException e) {
+                close();
+                throw new RuntimeException(e);
+            }
+        }
+
+        void close() {
+            if (closed) return;
+            closed = true;
+            closeQuietly(blocks, live, blockPs, livePs, c);
+        }
+    }
+
+    /**
+     * Streams one user's sessions, newest first (same order as {@link #listSessionsByUser(int)}).
+     * Live rows come off the keyset index and archived blocks are decoded only as the
+     * stream reaches them, all on one connection.
+     */
+    @Override
+    public Stream<GameSession> streamSessionsByUser(int userId) {
+        Connection c = null;
+        History history;
+        try {
+            c = reads.getConnection();
+            history = new History(c, userId, null, null, 0);
+        } catch (SQLException e) {
+            closeQuietly(c);
+            throw new RuntimeException(e);
+        }
+        Connection held = c;
+        var sessions = new Spliterators.AbstractSpliterator<GameSession>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private boolean closed;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super GameSession> action) {
+                if (closed) return false;
+                try {
+                    PageRow row = history.next();
+                    if (row == null) {
+                        close();
+                        return false;
+                    }
+                    action.accept(row.session());
+                    return true;
+                } catch (SQLException e) {
+                    close();
+                    throw new RuntimeException(e);
+                }
+            }
+
+            void close() {
+                if (closed) return;
+                closed = true;
+                closeQuietly(history, held);
+            }
+        };
+        return StreamSupport.stream(sessions, false).onClose(sessions::close);
+    }
+
+    /** Binds parameters to a prepared statement. */
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    /** Maps the current result-set row. */
+    @FunctionalInterface
+    private interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Runs a query and exposes its rows as a lazy stream. The connection, statement and
+     * result set are released when the stream is closed or its last row has been read.
+     */
+    private <T> Stream<T> stream(String sql, Binder binder, RowMapper<T> mapper, int fetchSize) {
+        Connection c = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            c = reads.getConnection();
+            ps = c.prepareStatement(sql);
+            binder.bind(ps);
+            ps.setFetchSize(Math.max(1, fetchSize));
+            rs = ps.executeQuery();
+        } catch (SQLException e) {
+            closeQuietly(rs, ps, c);
+            throw new RuntimeException(e);
+        }
+        RowSpliterator<T> rows = new RowSpliterator<>(c, ps, rs, mapper);
+        return StreamSupport.stream(rows, false).onClose(rows::close);
+    }
+
+    /** Walks a result set one row at a time, closing everything after the last row. */
+    private static final class RowSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+        private final Connection c;
+        private final PreparedStatement ps;
+        private final ResultSet rs;
+        private final RowMapper<T> mapper;
+        private boolean closed;
+
+        RowSpliterator(Connection c, PreparedStatement ps, ResultSet rs, RowMapper<T> mapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.c = c;
+            this.ps = ps;
+            this.rs = rs;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed) return false;
+            try {
+                if (!rs.next()) {
+                    close();
+                    return false;
+                }
+                action.accept(mapper.map(rs));
+                return true;
+            } catch (SQLException e) {
+                close();
+                throw new RuntimeException(e);
+            }
+        }
+
+        void close() {
+            if (closed) return;
+            closed = true;
+            closeQuietly(rs, ps, c);
+        }
+    }
+
+    /** Closes JDBC resources in order, logging rather than throwing on failure. */
+    private static void closeQuietly(AutoCloseable... resources) {
+        for (AutoCloseable r : resources) {
+            if (r == null) continue;
+            try {
+                r.close();
+            } catch (Exception e) {
+                System.err.println("Failed to close " + r.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+    }
+
     // ---- mappers ----
 
+    /** Maps a {@code user_id, username, high_score} row to a {@link ScoreRow}. */
+    private static ScoreRow mapScore(ResultSet rs, GameMode mode) throws SQLException {
+        return new ScoreRow(
+                rs.getInt("user_id"),
+                rs.getString("username"),
+                mode,
+                rs.getInt("high_score"));
+    }
+
     /** Maps a {@link ResultSet} row to a {@link User}. */
     private static User mapUser(ResultSet rs) throws SQLException {
         return new User(
@@ -367,4 +1503,10 @@ public final class GameStore {
                 rs.getInt("strikes"),
                 rs.getInt("completed") != 0);
     }
+
+    /** @return true if the exception is a UNIQUE constraint violation */
+    private static boolean isUniqueViolation(SQLException e) {
+        return e instanceof SQLiteException se
+                && se.getResultCode() == SQLiteErrorCode.SQLITE_CONSTRAINT_UNIQUE;
+    }
 }
@@ -0,0 +1,722 @@
+package main.java.com.team.game.data;
+
+import main.java.com.team.game.model.AnswerEvent;
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.GameSession;
+import main.java.com.team.game.model.LeaderboardPeriod;
+import main.java.com.team.game.model.ScoreRow;
+import main.java.com.team.game.model.SessionCursor;
+import main.java.com.team.game.model.SessionPage;
+import main.java.com.team.game.model.User;
+import main.java.com.team.game.util.PasswordUtils;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * {@link GameStorage} kept entirely in memory, for tests, benchmarks and practice
+ * servers whose data does not need to outlive the process.
+ * <p>
+ * Users and sessions live in arrays indexed directly by their (sequential) IDs, so a
+ * lookup by ID is one array read with no boxing or hashing. Ordered queries are served
+ * from sorted indexes kept up to date on every write: usernames (ignoring case, for
+ * uniqueness and login), each user's sessions newest first (for history and paging),
+ * each mode's best scores highest first (for leaderboards), and the same per current
+ * day, week and term (for windowed leaderboards).
+ * <p>
+ * Reads share a read lock and run in parallel; writes take the write lock, so each
+ * write is atomic and visible to every reader when it returns. Best scores follow the
+ * same rules as the SQLite triggers. Listeners are notified after the lock is released,
+ * with the same table names SQLite reports.
+ */
+public final class InMemoryGameStore implements GameStorage {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MODES = GameMode.values().length;
+
+    private static final String USERS = "users";
+    private static final String SESSIONS = "game_session";
+    private static final String BEST = "user_best_score";
+    private static final String PERIOD_BEST = "period_best";
+
+    /** A user, with their own indexes. Guarded by {@link #lock}. */
+    private static final class UserRow {
+        final int id;
+        final Instant registeredAt;
+        String username;
+        String passwordHash;
+        /** Newest first: started_at DESC, id DESC. */
+        final TreeSet<SessionRow> sessions = new TreeSet<>(NEWEST_FIRST);
+        /** Best completed score per mode ordinal, -1 if none. */
+        final int[] best = new int[MODES];
+
+        UserRow(int id, String username, String passwordHash, Instant registeredAt) {
+            this.id = id;
+            this.username = username;
+            this.passwordHash = passwordHash;
+            this.registeredAt = registeredAt;
+            Arrays.fill(best, -1);
+        }
+
+        User toUser() { return new User(id, username, registeredAt); }
+    }
+
+    /** A game session and its logged answers. Guarded by {@link #lock}. */
+    private static final class SessionRow {
+        final int id;
+        final int userId;
+        final GameMode mode;
+        final Instant startedAt;
+        Instant endedAt;
+        int score;
+        int strikes;
+        boolean completed;
+        List<AnswerEvent> answers; // created on the first logged answer
+
+        SessionRow(int id, int userId, GameMode mode, Instant startedAt) {
+            this.id = id;
+            this.userId = userId;
+            this.mode = mode;
+            this.startedAt = startedAt;
+        }
+
+        GameSession toSession() {
+            return new GameSession(id, userId, mode, startedAt, endedAt, score, strikes, completed);
+        }
+    }
+
+    /**
+     * Best scores of one mode in the current window of one {@link LeaderboardPeriod}.
+     * Emptied by the first completion after the window rolls over, like the SQLite
+     * triggers do. Guarded by {@link #lock}.
+     */
+    private static final class Window {
+        private record Entry(UserRow user, int score) { }
+
+        /** First day of the window the entries belong to; null until the first entry. */
+        LocalDate start;
+        final Map<Integer, Entry> byUser = new HashMap<>();
+        final TreeSet<Entry> ranked = new TreeSet<>(
+                Comparator.comparingInt((Entry e) -> -e.score).thenComparingInt(e -> e.user.id));
+
+        /** Drops the entries if {@code current} is a different window. */
+        void rollTo(LocalDate current) {
+            if (current.equals(start)) return;
+            byUser.clear();
+            ranked.clear();
+            start = current;
+        }
+
+        /** @return the user's best in the window, or -1 */
+        int best(int userId) {
+            Entry e = byUser.get(userId);
+            return e == null ? -1 : e.score;
+        }
+
+        /**
+         * Sets the user's best, or removes it if {@code score} is negative.
+         *
+         * @return the kind of row change, or null if nothing changed
+         */
+        StorageListener.Change set(UserRow u, int score) {
+            Entry old = byUser.remove(u.id);
+            if (old != null) ranked.remove(old);
+            if (score >= 0) {
+                Entry e = new Entry(u, score);
+                byUser.put(u.id, e);
+                ranked.add(e);
+            }
+            if (old == null) return score < 0 ? null : StorageListener.Change.INSERT;
+            if (score < 0) return StorageListener.Change.DELETE;
+            return old.score == score ? null : StorageListener.Change.UPDATE;
+        }
+    }
+
+    private static final Comparator<SessionRow> NEWEST_FIRST =
+            Comparator.comparing((SessionRow s) -> s.startedAt).thenComparingInt(s -> s.id).reversed();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<StorageListener> listeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> closeHooks = new CopyOnWriteArrayList<>();
+
+    // all guarded by lock
+    private UserRow[] users = new UserRow[INITIAL_CAPACITY];
+    private SessionRow[] sessions = new SessionRow[INITIAL_CAPACITY];
+    private int lastUserId;
+    private int lastSessionId;
+    private final TreeMap<String, UserRow> usersByName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final TreeSet<UserRow> usersSorted = new TreeSet<>(
+            Comparator.comparing((UserRow u) -> u.username).thenComparingInt(u -> u.id));
+    private final List<TreeSet<UserRow>> bestByMode = new ArrayList<>(MODES);
+    /** By period ordinal, then mode ordinal; null for {@link LeaderboardPeriod#ALL_TIME}. */
+    private final Window[][] windows = new Window[LeaderboardPeriod.values().length][];
+    /** Time zone windows follow, as SQLite's {@code localtime} does. */
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private boolean closed; // guarded by this
+
+    /** Creates an empty store. */
+    public InMemoryGameStore() {
+        for (GameMode mode : GameMode.values()) {
+            int m = mode.ordinal();
+            bestByMode.add(new TreeSet<>(Comparator.comparingInt((UserRow u) -> -u.best[m]).thenComparingInt(u -> u.id)));
+        }
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            if (!period.isWindowed()) continue;
+            Window[] byMode = new Window[MODES];
+            for (int m = 0; m < MODES; m++) byMode[m] = new Window();
+            windows[period.ordinal()] = byMode;
+        }
+    }
+
+    // ---- locking and change reporting ----
+
+    /** Row changes made by one write, reported to listeners once the write lock is released. */
+    private static final class Changes {
+        private record Row(StorageListener.Change change, String table, long rowId) { }
+
+        private final List<Row> rows = new ArrayList<>();
+
+        void add(StorageListener.Change change, String table, long rowId) {
+            rows.add(new Row(change, table, rowId));
+        }
+    }
+
+    private <T> T read(Supplier<T> query) {
+        lock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private <T> T write(Function<Changes, T> work) {
+        Changes changes = new Changes();
+        T result;
+        lock.writeLock().lock();
+        try {
+            result = work.apply(changes);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!changes.rows.isEmpty()) {
+            for (StorageListener l : listeners) {
+                for (Changes.Row r : changes.rows) l.onChange(r.change(), r.table(), r.rowId());
+                l.onCommit();
+            }
+        }
+        return result;
+    }
+
+    // ---- users ----
+
+    @Override
+    public User createUser(String username, char[] password) {
+        String hashed = PasswordUtils.hashPassword(password); // outside the lock: bcrypt is slow
+        return write(ch -> {
+            if (usersByName.containsKey(username)) throw new IllegalStateException("Username is taken");
+            int id = ++lastUserId;
+            UserRow u = new UserRow(id, username, hashed, now());
+            if (id >= users.length) users = Arrays.copyOf(users, Math.max(id + 1, users.length * 2));
+            users[id] = u;
+            usersByName.put(username, u);
+            usersSorted.add(u);
+            ch.add(StorageListener.Change.INSERT, USERS, id);
+            return u.toUser();
+        });
+    }
+
+    @Override
+    public Optional<User> authenticate(String username, char[] password) {
+        record Credentials(User user, String hash) { }
+        Credentials found = read(() -> {
+            UserRow u = usersByName.get(username);
+            return u == null ? null : new Credentials(u.toUser(), u.passwordHash);
+        });
+        // verified outside the lock: bcrypt is slow
+        if (found == null || !PasswordUtils.verifyPassword(password, found.hash())) return Optional.empty();
+        return Optional.of(found.user());
+    }
+
+    @Override
+    public Optional<User> findUserByUsername(String username) {
+        return read(() -> Optional.ofNullable(usersByName.get(username)).map(UserRow::toUser));
+    }
+
+    @Override
+    public List<User> listUsers() {
+        return read(() -> {
+            var out = new ArrayList<User>(usersSorted.size());
+            for (UserRow u : usersSorted) out.add(u.toUser());
+            return out;
+        });
+    }
+
+    @Override
+    public void updateUsername(int userId, String newUsername) {
+        write(ch -> {
+            UserRow u = user(userId);
+            if (u == null) return null;
+            UserRow holder = usersByName.get(newUsername);
+            if (holder != null && holder != u) throw new IllegalStateException("Username is taken");
+            usersByName.remove(u.username);
+            usersSorted.remove(u);
+            u.username = newUsername;
+            usersByName.put(newUsername, u);
+            usersSorted.add(u);
+            ch.add(StorageListener.Change.UPDATE, USERS, userId);
+            return null;
+        });
+    }
+
+    @Override
+    public void updatePassword(int userId, char[] newPassword) {
+        char[] pwCopy = Arrays.copyOf(newPassword, newPassword.length);
+        try {
+            String hash = PasswordUtils.hashPassword(pwCopy);
+            write(ch -> {
+                UserRow u = user(userId);
+                if (u == null) return null;
+                u.passwordHash = hash;
+                ch.add(StorageListener.Change.UPDATE, USERS, userId);
+                return null;
+            });
+        } finally {
+            Arrays.fill(pwCopy, '\0');
+        }
+    }
+
+    @Override
+    public boolean deleteUser(int userId) {
+        return write(ch -> {
+            UserRow u = user(userId);
+            if (u == null) return false;
+            for (SessionRow s : u.sessions) {
+                sessions[s.id] = null;
+                ch.add(StorageListener.Change.DELETE, SESSIONS, s.id);
+            }
+            for (GameMode mode : GameMode.values()) {
+                if (u.best[mode.ordinal()] >= 0) {
+                    bestByMode.get(mode.ordinal()).remove(u);
+                    ch.add(StorageListener.Change.DELETE, BEST, userId);
+                }
+                for (Window[] byMode : windows) {
+                    if (byMode != null && byMode[mode.ordinal()].set(u, -1) != null) {
+                        ch.add(StorageListener.Change.DELETE, PERIOD_BEST, userId);
+                    }
+                }
+            }
+            usersByName.remove(u.username);
+            usersSorted.remove(u);
+            users[userId] = null;
+            ch.add(StorageListener.Change.DELETE, USERS, userId);
+            return true;
+        });
+    }
+
+    // ---- sessions ----
+
+    @Override
+    public GameSession startSession(int userId, GameMode mode) {
+        return write(ch -> {
+            UserRow u = user(userId);
+            if (u == null) throw new IllegalArgumentException("No user with ID " + userId);
+            int id = ++lastSessionId;
+            SessionRow s = new SessionRow(id, userId, mode, now());
+            if (id >= sessions.length) sessions = Arrays.copyOf(sessions, Math.max(id + 1, sessions.length * 2));
+            sessions[id] = s;
+            u.sessions.add(s);
+            ch.add(StorageListener.Change.INSERT, SESSIONS, id);
+            return s.toSession();
+        });
+    }
+
+    @Override
+    public Optional<GameSession> submitCorrect(int sessionId) {
+        return write(ch -> Optional.ofNullable(answer(session(sessionId), true, ch)).map(SessionRow::toSession));
+    }
+
+    @Override
+    public Optional<GameSession> submitWrong(int sessionId) {
+        return write(ch -> Optional.ofNullable(answer(session(sessionId), false, ch)).map(SessionRow::toSession));
+    }
+
+    /** Applies one answer; returns the row, or null if it does not exist or is completed. */
+    private SessionRow answer(SessionRow s, boolean correct, Changes ch) {
+        if (s == null || s.completed) return null;
+        if (correct) {
+            s.score++;
+        } else if (++s.strikes >= 3) {
+            s.completed = true;
+            s.endedAt = now();
+            raiseBest(s, ch);
+        }
+        ch.add(StorageListener.Change.UPDATE, SESSIONS, s.id);
+        return s;
+    }
+
+    @Override
+    public void applyAnswers(List<AnswerEvent> events) {
+        if (events.isEmpty()) return;
+        write(ch -> {
+            for (AnswerEvent e : events) answer(session(e.getSessionId()), e.isCorrect(), ch);
+            log(events);
+            return null;
+        });
+    }
+
+    @Override
+    public void appendAnswerEvents(List<AnswerEvent> events) {
+        if (events.isEmpty()) return;
+        write(ch -> {
+            log(events);
+            return null;
+        });
+    }
+
+    private void log(List<AnswerEvent> events) {
+        for (AnswerEvent e : events) {
+            SessionRow s = session(e.getSessionId());
+            if (s == null) continue; // session deleted meanwhile
+            if (s.answers == null) s.answers = new ArrayList<>();
+            s.answers.add(e);
+        }
+    }
+
+    @Override
+    public List<AnswerEvent> listAnswerEvents(int sessionId) {
+        return read(() -> {
+            SessionRow s = session(sessionId);
+            return s == null || s.answers == null ? new ArrayList<AnswerEvent>() : new ArrayList<>(s.answers);
+        });
+    }
+
+    @Override
+    public void saveSessionProgress(List<GameSession> progress) {
+        if (progress.isEmpty()) return;
+        write(ch -> {
+            for (GameSession p : progress) {
+                SessionRow s = session(p.getId());
+                if (s == null || s.completed) continue;
+                s.score = p.getScore();
+                s.strikes = p.getStrikes();
+                ch.add(StorageListener.Change.UPDATE, SESSIONS, s.id);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public boolean completeSession(GameSession result) {
+        return write(ch -> {
+            SessionRow s = session(result.getId());
+            if (s == null || s.completed) return false;
+            complete(s, result.getScore(), result.getStrikes(), now(), ch);
+            return true;
+        });
+    }
+
+    @Override
+    public int recoverSessions(List<SessionJournal.Entry> interrupted) {
+        if (interrupted.isEmpty()) return 0;
+        return write(ch -> {
+            int n = 0;
+            for (SessionJournal.Entry e : interrupted) {
+                SessionRow s = session(e.sessionId());
+                if (s == null || s.completed) continue;
+                boolean journalAhead = e.score() + e.strikes() > s.score + s.strikes;
+                complete(s, journalAhead ? e.score() : s.score, journalAhead ? e.strikes() : s.strikes, e.at(), ch);
+                n++;
+            }
+            return n;
+        });
+    }
+
+    @Override
+    public Optional<GameSession> finishSession(int sessionId) {
+        return write(ch -> {
+            SessionRow s = session(sessionId);
+            if (s == null) return Optional.<GameSession>empty();
+            complete(s, s.score, s.strikes, now(), ch);
+            return Optional.of(s.toSession());
+        });
+    }
+
+    private void complete(SessionRow s, int score, int strikes, Instant endedAt, Changes ch) {
+        s.score = score;
+        s.strikes = strikes;
+        s.completed = true;
+        s.endedAt = endedAt;
+        raiseBest(s, ch);
+        ch.add(StorageListener.Change.UPDATE, SESSIONS, s.id);
+    }
+
+    @Override
+    public List<GameSession> listSessionsByUser(int userId) {
+        return read(() -> {
+            UserRow u = user(userId);
+            var out = new ArrayList<GameSession>();
+            if (u != null) for (SessionRow s : u.sessions) out.add(s.toSession());
+            return out;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Seeks past the cursor in the user's newest-first index. The cursor holds the
+     * start time as an ISO-8601 instant.
+     */
+    @Override
+    public SessionPage listSessionsByUser(int userId, SessionCursor after, int pageSize, GameMode mode) {
+        if (pageSize < 1) throw new IllegalArgumentException("pageSize must be at least 1");
+        return read(() -> {
+            UserRow u = user(userId);
+            var out = new ArrayList<GameSession>(Math.min(pageSize, 64));
+            if (u == null) return new SessionPage(out, null);
+            NavigableSet<SessionRow> rest = after == null ? u.sessions
+                    : u.sessions.tailSet(new SessionRow(after.getId(), userId, GameMode.BASICS,
+                            Instant.parse(after.getStartedAt())), false);
+            SessionCursor next = null;
+            for (SessionRow s : rest) {
+                if (mode != null && s.mode != mode) continue;
+                if (out.size() == pageSize) {
+                    GameSession last = out.get(out.size() - 1);
+                    next = new SessionCursor(last.getStartedAt().toString(), last.getId());
+                    break;
+                }
+                out.add(s.toSession());
+            }
+            return new SessionPage(out, next);
+        });
+    }
+
+    @Override
+    public int countSessionsByUser(int userId, GameMode mode) {
+        return read(() -> {
+            UserRow u = user(userId);
+            if (u == null) return 0;
+            if (mode == null) return u.sessions.size();
+            int n = 0;
+            for (SessionRow s : u.sessions) if (s.mode == mode) n++;
+            return n;
+        });
+    }
+
+    @Override
+    public boolean deleteSession(int sessionId) {
+        return write(ch -> {
+            SessionRow s = session(sessionId);
+            if (s == null) return false;
+            sessions[sessionId] = null;
+            UserRow u = user(s.userId);
+            u.sessions.remove(s);
+            ch.add(StorageListener.Change.DELETE, SESSIONS, sessionId);
+            int m = s.mode.ordinal();
+            if (s.completed && s.score >= u.best[m]) { // only the best session can lower the best score
+                int best = -1;
+                for (SessionRow other : u.sessions) {
+                    if (other.mode == s.mode && other.completed) best = Math.max(best, other.score);
+                }
+                setBest(u, m, best, ch);
+            }
+            if (s.completed) recomputeWindows(u, s, ch);
+            return true;
+        });
+    }
+
+    // ---- scores ----
+
+    /**
+     * Raises the owner's best score for the session's mode if the completed session beats
+     * it, and likewise in each current window the session ended in.
+     */
+    private void raiseBest(SessionRow s, Changes ch) {
+        UserRow u = user(s.userId);
+        int m = s.mode.ordinal();
+        if (u == null) return;
+        if (s.score > u.best[m]) setBest(u, m, s.score, ch);
+        LocalDate today = LocalDate.now(zone);
+        LocalDate ended = LocalDate.ofInstant(s.endedAt, zone);
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            if (!period.isWindowed()) continue;
+            Window w = windows[period.ordinal()][m];
+            LocalDate current = period.startOf(today);
+            w.rollTo(current);
+            if (period.startOf(ended).equals(current) && s.score > w.best(u.id)) {
+                ch.add(w.set(u, s.score), PERIOD_BEST, u.id);
+            }
+        }
+    }
+
+    /** After a completed session is deleted, recomputes the windows it may have held the best of. */
+    private void recomputeWindows(UserRow u, SessionRow deleted, Changes ch) {
+        LocalDate today = LocalDate.now(zone);
+        int m = deleted.mode.ordinal();
+        for (LeaderboardPeriod period : LeaderboardPeriod.values()) {
+            if (!period.isWindowed()) continue;
+            Window w = windows[period.ordinal()][m];
+            if (w.best(u.id) < 0 || w.best(u.id) > deleted.score) continue;
+            LocalDate current = period.startOf(today);
+            int best = -1;
+            for (SessionRow other : u.sessions) {
+                if (other.mode == deleted.mode && other.completed
+                        && period.startOf(LocalDate.ofInstant(other.endedAt, zone)).equals(current)) {
+                    best = Math.max(best, other.score);
+                }
+            }
+            StorageListener.Change change = w.set(u, best);
+            if (change != null) ch.add(change, PERIOD_BEST, u.id);
+        }
+    }
+
+    private void setBest(UserRow u, int m, int best, Changes ch) {
+        int old = u.best[m];
+        if (old == best) return;
+        TreeSet<UserRow> index = bestByMode.get(m);
+        if (old >= 0) index.remove(u);
+        u.best[m] = best;
+        if (best >= 0) index.add(u);
+        ch.add(old < 0 ? StorageListener.Change.INSERT
+                : best < 0 ? StorageListener.Change.DELETE
+                : StorageListener.Change.UPDATE, BEST, u.id);
+    }
+
+    @Override
+    public OptionalInt getHighScore(int userId, GameMode mode) {
+        return read(() -> {
+            UserRow u = user(userId);
+            int best = u == null ? -1 : u.best[mode.ordinal()];
+            return best < 0 ? OptionalInt.empty() : OptionalInt.of(best);
+        });
+    }
+
+    @Override
+    public List<ScoreRow> leaderboard(GameMode mode, int limit) {
+        return read(() -> bestScores(mode, Math.max(1, limit)));
+    }
+
+    @Override
+    public List<ScoreRow> listBestScores(GameMode mode) {
+        return read(() -> bestScores(mode, Integer.MAX_VALUE));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Walks the top of the window's ranked index. A window that has rolled over since
+     * the last completion reads as empty.
+     */
+    @Override
+    public List<ScoreRow> leaderboard(GameMode mode, LeaderboardPeriod period, int limit) {
+        if (!period.isWindowed()) return leaderboard(mode, limit);
+        int max = Math.max(1, limit);
+        return read(() -> {
+            Window w = windows[period.ordinal()][mode.ordinal()];
+            var out = new ArrayList<ScoreRow>(Math.min(max, w.ranked.size()));
+            if (!period.startOf(LocalDate.now(zone)).equals(w.start)) return out;
+            for (Window.Entry e : w.ranked) {
+                if (out.size() == max) break;
+                out.add(new ScoreRow(e.user().id, e.user().username, mode, e.score()));
+            }
+            return out;
+        });
+    }
+
+    private List<ScoreRow> bestScores(GameMode mode, int limit) {
+        var out = new ArrayList<ScoreRow>();
+        for (UserRow u : bestByMode.get(mode.ordinal())) {
+            if (out.size() == limit) break;
+            out.add(new ScoreRow(u.id, u.username, mode, u.best[mode.ordinal()]));
+        }
+        return out;
+    }
+
+    @Override
+    public Optional<ScoreRow> findBestScore(int userId, GameMode mode) {
+        return read(() -> {
+            UserRow u = user(userId);
+            if (u == null || u.best[mode.ordinal()] < 0) return Optional.<ScoreRow>empty();
+            return Optional.of(new ScoreRow(u.id, u.username, mode, u.best[mode.ordinal()]));
+        });
+    }
+
+    // ---- streaming ----
+    //
+    // Streams run over a copy taken under the read lock, so they hold no lock while
+    // being consumed and closing them early releases nothing.
+
+    @Override
+    public Stream<User> streamUsers() {
+        return read(() -> {
+            var out = new ArrayList<User>();
+            for (int id = 1; id <= lastUserId; id++) if (users[id] != null) out.add(users[id].toUser());
+            return out;
+        }).stream();
+    }
+
+    @Override
+    public Stream<GameSession> streamSessions(GameMode mode, int fetchSize) {
+        return read(() -> {
+            var out = new ArrayList<GameSession>();
+            for (int id = 1; id <= lastSessionId; id++) {
+                SessionRow s = sessions[id];
+                if (s != null && (mode == null || s.mode == mode)) out.add(s.toSession());
+            }
+            return out;
+        }).stream();
+    }
+
+    @Override
+    public Stream<GameSession> streamSessionsByUser(int userId) {
+        return listSessionsByUser(userId).stream();
+    }
+
+    // ---- lifecycle ----
+
+    @Override
+    public void addChangeListener(StorageListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void onClose(Runnable hook) {
+        closeHooks.add(hook);
+    }
+
+    /** Runs the close hooks once; the data stays readable until the store is discarded. */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        for (Runnable hook : closeHooks) {
+            try {
+                hook.run();
+            } catch (RuntimeException e) {
+                System.err.println("Storage close hook failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // ---- helpers (caller holds the lock) ----
+
+    private UserRow user(int id) {
+        return id > 0 && id < users.length ? users[id] : null;
+    }
+
+    private SessionRow session(int id) {
+        return id > 0 && id < sessions.length ? sessions[id] : null;
+    }
+
+    private static Instant now() {
+        return Instant.now();
+    }
+}
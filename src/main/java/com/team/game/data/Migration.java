@@ -0,0 +1,126 @@
+package main.java.com.team.game.data;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * One versioned schema change, applied by {@link Migrator} in a single transaction.
+ * <p>
+ * A migration is either a list of SQL statements, each run as written (no splitting,
+ * so trigger bodies are safe), or a code step. Its checksum is taken over the
+ * description and the whitespace-normalised statements; editing an applied migration
+ * is detected at startup. Code steps are checksummed by description only.
+ */
+public final class Migration {
+
+    /** A migration written in Java rather than as plain statements. */
+    @FunctionalInterface
+    public interface Step {
+        void apply(Connection c) throws SQLException;
+    }
+
+    private final int version;
+    private final String description;
+    private final List<String> statements;
+    private final Step step;
+    private final String backfillName;
+    private final Backfill backfill;
+
+    private Migration(int version, String description, List<String> statements, Step step,
+                      String backfillName, Backfill backfill) {
+        if (version < 1) throw new IllegalArgumentException("version must be at least 1");
+        this.version = version;
+        this.description = description;
+        this.statements = statements;
+        this.step = step;
+        this.backfillName = backfillName;
+        this.backfill = backfill;
+    }
+
+    /**
+     * Creates a migration from SQL statements, executed in order.
+     *
+     * @param version    schema version this migration brings the database to
+     * @param statements complete statements; trailing semicolons are not required
+     */
+    public static Migration sql(int version, String description, String... statements) {
+        return new Migration(version, description, List.of(statements), null, null, null);
+    }
+
+    /**
+     * Creates a migration that runs Java code inside the migration transaction.
+     *
+     * @param version schema version this migration brings the database to
+     */
+    public static Migration code(int version, String description, Step step) {
+        return new Migration(version, description, List.of(), step, null, null);
+    }
+
+    /**
+     * Returns a copy of this migration that schedules an online backfill once applied.
+     *
+     * @param name     unique name the backfill's progress is stored under
+     * @param backfill chunked data work to run after the schema change
+     */
+    public Migration withBackfill(String name, Backfill backfill) {
+        return new Migration(version, description, statements, step, name, backfill);
+    }
+
+    /** @return the schema version after this migration */
+    public int getVersion() { return version; }
+
+    /** @return a short human-readable summary */
+    public String getDescription() { return description; }
+
+    /** @return the backfill's name, or {@code null} if it has none */
+    public String getBackfillName() { return backfillName; }
+
+    /** @return the backfill, or {@code null} if it has none */
+    public Backfill getBackfill() { return backfill; }
+
+    /** Runs the statements or code step on a connection already inside a transaction. */
+    void apply(Connection c) throws SQLException {
+        if (step != null) {
+            step.apply(c);
+            return;
+        }
+        try (var st = c.createStatement()) {
+            for (String sql : statements) st.execute(sql);
+        }
+    }
+
+    /** @return hex SHA-256 of the description, normalised statements and backfill name */
+    public String checksum() {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(description.getBytes(StandardCharsets.UTF_8));
+            for (String sql : statements) {
+                md.update((byte) 0);
+                md.update(normalise(sql).getBytes(StandardCharsets.UTF_8));
+            }
+            if (backfillName != null) {
+                md.update((byte) 1);
+                md.update(backfillName.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(md.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    /** Collapses whitespace runs and drops a trailing semicolon, so re-indenting is not a change. */
+    private static String normalise(String sql) {
+        String s = sql.strip().replaceAll("\\s+", " ");
+        return s.endsWith(";") ? s.substring(0, s.length() - 1).stripTrailing() : s;
+    }
+
+    @Override
+    public String toString() {
+        return "V" + version + " " + description;
+    }
+}
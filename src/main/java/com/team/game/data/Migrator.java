@@ -0,0 +1,302 @@
+package main.java.com.team.game.data;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings a database up to the latest schema version and runs online backfills.
+ * <p>
+ * The current version is kept in {@code PRAGMA user_version}. Each pending
+ * {@link Migration} runs in its own {@code BEGIN IMMEDIATE} transaction together with
+ * the version bump and a row in {@code schema_migrations} holding its checksum, so a
+ * failed migration leaves the database at the previous version. When the database is
+ * already current, {@link #migrate()} only reads the version and the recorded
+ * checksums; no DDL is executed.
+ * <p>
+ * Backfills attached to migrations are recorded in {@code schema_backfill} when their
+ * migration commits and are run later by {@link #runBackfills}, one chunk per
+ * transaction, while the game is in use; on a new database they are recorded as done.
+ * When the store routes writes through a {@link SingleWriter}, each chunk is submitted
+ * to it like any other write.
+ */
+public final class Migrator {
+
+    /** Default number of items a backfill processes per transaction. */
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    private static final String[] BOOKKEEPING = {
+        """
+        CREATE TABLE IF NOT EXISTS schema_migrations (
+          version     INTEGER PRIMARY KEY,
+          description TEXT     NOT NULL,
+          checksum    TEXT     NOT NULL,
+          applied_at  DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+        )""",
+        """
+        CREATE TABLE IF NOT EXISTS schema_backfill (
+          name       TEXT     PRIMARY KEY,
+          cursor     INTEGER  NOT NULL DEFAULT 0,
+          completed  INTEGER  NOT NULL DEFAULT 0,
+          updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+        )"""
+    };
+
+    private final Database db;
+    private final List<Migration> migrations;
+    private final Map<String, Backfill> backfills = new LinkedHashMap<>();
+
+    /**
+     * @param db         database to migrate
+     * @param migrations every migration, in version order starting at 1 without gaps
+     * @throws IllegalArgumentException if the versions are not 1, 2, 3, ...
+     */
+    public Migrator(Database db, List<Migration> migrations) {
+        this.db = db;
+        this.migrations = List.copyOf(migrations);
+        for (int i = 0; i < this.migrations.size(); i++) {
+            Migration m = this.migrations.get(i);
+            if (m.getVersion() != i + 1) {
+                throw new IllegalArgumentException("Expected migration V" + (i + 1) + " but found " + m);
+            }
+            if (m.getBackfill() != null && backfills.put(m.getBackfillName(), m.getBackfill()) != null) {
+                throw new IllegalArgumentException("Duplicate backfill name " + m.getBackfillName());
+            }
+        }
+    }
+
+    /** @return the version the migrations bring a database to */
+    public int latestVersion() { return migrations.size(); }
+
+    /** @return the database's current {@code user_version} */
+    public int currentVersion() {
+        try (var c = db.getConnection(); var st = c.createStatement()) {
+            return userVersion(st);
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /**
+     * Applies every pending migration in order.
+     *
+     * @return number of migrations applied (0 if the schema was already current)
+     * @throws IllegalStateException if the database is newer than these migrations, or an
+     *                               applied migration's checksum no longer matches
+     */
+    public int migrate() {
+        try (var c = db.getConnection(); var st = c.createStatement()) {
+            int current = userVersion(st);
+            if (current > latestVersion()) {
+                throw new IllegalStateException("Database schema V" + current
+                        + " is newer than this build (V" + latestVersion() + ")");
+            }
+            if (current > 0) verifyChecksums(st, current);
+            boolean empty = current == 0 && isEmpty(st);
+            int applied = 0;
+            for (Migration m : migrations.subList(current, migrations.size())) {
+                if (apply(c, m, empty)) applied++;
+            }
+            return applied;
+        } catch (SQLException e) {
+            throw new RuntimeException("Schema migration failed", e);
+        }
+    }
+
+    /** @return true if a backfill of these migrations has not finished yet */
+    public boolean hasPendingBackfills() {
+        return !pendingBackfills().isEmpty();
+    }
+
+    /**
+     * Runs pending backfills chunk by chunk until they finish or the thread is interrupted.
+     * Each chunk and its progress commit together, so an interrupted run resumes later.
+     *
+     * @param chunkSize items per chunk (min 1)
+     * @param pauseMs   pause between chunks so other writers get the lock (0 for none)
+     * @return number of chunks committed
+     * @throws InterruptedException if interrupted while pausing; progress so far is kept
+     */
+    public int runBackfills(int chunkSize, long pauseMs) throws InterruptedException {
+        return runBackfills(chunkSize, pauseMs, null);
+    }
+
+    /**
+     * Like {@link #runBackfills(int, long)}, but each chunk is a write job on {@code writer},
+     * sharing its transactions instead of taking the write lock on a connection of its own.
+     *
+     * @param writer writer thread of the store, or {@code null} to run chunks on this thread
+     */
+    int runBackfills(int chunkSize, long pauseMs, SingleWriter writer) throws InterruptedException {
+        int chunks = 0;
+        for (String name : pendingBackfills()) {
+            Backfill backfill = backfills.get(name);
+            boolean done = false;
+            while (!done) {
+                if (Thread.interrupted()) throw new InterruptedException();
+                done = writer == null
+                        ? runChunk(name, backfill, Math.max(1, chunkSize))
+                        : submitChunk(writer, name, backfill, Math.max(1, chunkSize));
+                chunks++;
+                if (!done && pauseMs > 0) Thread.sleep(pauseMs);
+            }
+        }
+        return chunks;
+    }
+
+    // ---- internals ----
+
+    /**
+     * Runs one migration transactionally; false if another connection applied it first.
+     *
+     * @param fresh the database had no tables before migrating, so its backfill has nothing to do
+     */
+    private boolean apply(Connection c, Migration m, boolean fresh) throws SQLException {
+        try (var st = c.createStatement()) {
+            st.execute("BEGIN IMMEDIATE");
+            try {
+                if (userVersion(st) >= m.getVersion()) { // raced with another process
+                    st.execute("ROLLBACK");
+                    return false;
+                }
+                for (String ddl : BOOKKEEPING) st.execute(ddl);
+                m.apply(c);
+                try (var ps = c.prepareStatement(
+                        "INSERT INTO schema_migrations(version, description, checksum) VALUES (?, ?, ?)")) {
+                    ps.setInt(1, m.getVersion());
+                    ps.setString(2, m.getDescription());
+                    ps.setString(3, m.checksum());
+                    ps.executeUpdate();
+                }
+                if (m.getBackfill() != null) {
+                    try (var ps = c.prepareStatement(
+                            "INSERT INTO schema_backfill(name, completed) VALUES (?, ?) ON CONFLICT(name) DO NOTHING")) {
+                        ps.setString(1, m.getBackfillName());
+                        ps.setInt(2, fresh ? 1 : 0);
+                        ps.executeUpdate();
+                    }
+                }
+                st.execute("PRAGMA user_version = " + m.getVersion());
+                st.execute("COMMIT");
+                return true;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    st.execute("ROLLBACK");
+                } catch (SQLException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw new SQLException("Migration " + m + " failed", e);
+            }
+        }
+    }
+
+    /** Compares the recorded checksums of applied migrations with the ones in this build. */
+    private void verifyChecksums(Statement st, int current) throws SQLException {
+        Map<Integer, String> recorded = new HashMap<>();
+        try (var rs = st.executeQuery("SELECT version, checksum FROM schema_migrations")) {
+            while (rs.next()) recorded.put(rs.getInt(1), rs.getString(2));
+        }
+        for (Migration m : migrations.subList(0, current)) {
+            String stored = recorded.get(m.getVersion());
+            if (stored != null && !stored.equals(m.checksum())) {
+                throw new IllegalStateException("Migration " + m + " was changed after it was applied");
+            }
+        }
+    }
+
+    /** @return names of known backfills that have not completed, in migration order */
+    private List<String> pendingBackfills() {
+        if (backfills.isEmpty()) return List.of();
+        var out = new ArrayList<String>();
+        try (var c = db.getConnection(); var st = c.createStatement()) {
+            try (var rs = st.executeQuery(
+                    "SELECT 1 FROM sqlite_master WHERE type='table' AND name='schema_backfill'")) {
+                if (!rs.next()) return out;
+            }
+            var open = new ArrayList<String>();
+            try (var rs = st.executeQuery("SELECT name FROM schema_backfill WHERE completed = 0")) {
+                while (rs.next()) open.add(rs.getString(1));
+            }
+            for (String name : backfills.keySet()) if (open.contains(name)) out.add(name);
+            return out;
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /** Runs one chunk and records its cursor in the same transaction; true once finished. */
+    private boolean runChunk(String name, Backfill backfill, int chunkSize) {
+        try (var c = db.getConnection(); var st = c.createStatement()) {
+            st.execute("BEGIN IMMEDIATE");
+            try {
+                boolean done = step(c, name, backfill, chunkSize);
+                st.execute("COMMIT");
+                return done;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    st.execute("ROLLBACK");
+                } catch (SQLException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Backfill " + name + " failed", e);
+        }
+    }
+
+    /** Runs one chunk as a job on the writer thread, inside whatever transaction it is grouped into. */
+    private static boolean submitChunk(SingleWriter writer, String name, Backfill backfill, int chunkSize)
+            throws InterruptedException {
+        try {
+            return writer.submit(c -> step(c, name, backfill, chunkSize));
+        } catch (SQLException e) {
+            if (Thread.interrupted()) throw new InterruptedException(); // the queued chunk still commits
+            throw new RuntimeException("Backfill " + name + " failed", e);
+        }
+    }
+
+    /**
+     * Runs the next chunk of a backfill and stores its new cursor, in the caller's transaction.
+     * The progress row is written first, so a deferred transaction takes the write lock before
+     * it reads anything and cannot fail with {@code SQLITE_BUSY_SNAPSHOT} halfway through.
+     *
+     * @return true if the backfill has finished (or was already)
+     */
+    private static boolean step(Connection c, String name, Backfill backfill, int chunkSize) throws SQLException {
+        long cursor;
+        try (var ps = c.prepareStatement("""
+                UPDATE schema_backfill SET updated_at = CURRENT_TIMESTAMP
+                WHERE name = ? AND completed = 0
+                RETURNING cursor""")) {
+            ps.setString(1, name);
+            try (var rs = ps.executeQuery()) {
+                if (!rs.next()) return true;
+                cursor = rs.getLong(1);
+            }
+        }
+        long next = backfill.step(c, cursor, chunkSize);
+        try (var ps = c.prepareStatement(
+                "UPDATE schema_backfill SET cursor = ?, completed = ?, updated_at = CURRENT_TIMESTAMP WHERE name = ?")) {
+            ps.setLong(1, next == Backfill.DONE ? cursor : next);
+            ps.setInt(2, next == Backfill.DONE ? 1 : 0);
+            ps.setString(3, name);
+            ps.executeUpdate();
+        }
+        return next == Backfill.DONE;
+    }
+
+    /** @return true if the database has no tables yet (a new file) */
+    private static boolean isEmpty(Statement st) throws SQLException {
+        try (var rs = st.executeQuery("SELECT 1 FROM sqlite_master WHERE type='table' LIMIT 1")) {
+            return !rs.next();
+        }
+    }
+
+    private static int userVersion(Statement st) throws SQLException {
+        try (var rs = st.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
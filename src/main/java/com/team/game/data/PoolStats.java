@@ -0,0 +1,107 @@
+package main.java.com.team.game.data;
+
+/**
+ * Immutable snapshot of a {@link Database} connection pool's counters.
+ * <p>
+ * Counts are cumulative since the pool was created, except {@code active}
+ * and {@code idle} which describe the pool at the moment of the snapshot.
+ */
+public final class PoolStats {
+
+    private final int maxSize;
+    private final int active;
+    private final int idle;
+    private final long created;
+    private final long borrowed;
+    private final long waited;
+    private final double averageWaitMillis;
+    private final long timedOut;
+    private final long leaked;
+    private final long statementHits;
+    private final long statementMisses;
+    private final long statementEvictions;
+
+    /**
+     * Constructs a new {@code PoolStats} snapshot.
+     *
+     * @param maxSize           maximum number of connections the pool may open
+     * @param active            connections currently borrowed
+     * @param idle              connections currently waiting in the pool
+     * @param created           physical connections opened so far
+     * @param borrowed          total successful borrows
+     * @param waited            borrows that had to wait for a free connection
+     * @param averageWaitMillis average wait of those borrows, in milliseconds
+     * @param timedOut          borrows that gave up waiting
+     * @param leaked            connections reported as possible leaks
+     * @param statementHits      prepared statements served from a connection's cache
+     * @param statementMisses    prepared statements that had to be parsed
+     * @param statementEvictions cached statements dropped to make room
+     */
+    public PoolStats(int maxSize, int active, int idle, long created, long borrowed,
+                     long waited, double averageWaitMillis, long timedOut, long leaked,
+                     long statementHits, long statementMisses, long statementEvictions) {
+        this.maxSize = maxSize;
+        this.active = active;
+        this.idle = idle;
+        this.created = created;
+        this.borrowed = borrowed;
+        this.waited = waited;
+        this.averageWaitMillis = averageWaitMillis;
+        this.timedOut = timedOut;
+        this.leaked = leaked;
+        this.statementHits = statementHits;
+        this.statementMisses = statementMisses;
+        this.statementEvictions = statementEvictions;
+    }
+
+    /** @return maximum number of connections the pool may open */
+    public int getMaxSize() { return maxSize; }
+
+    /** @return connections currently borrowed */
+    public int getActive() { return active; }
+
+    /** @return connections currently idle in the pool */
+    public int getIdle() { return idle; }
+
+    /** @return physical connections opened since the pool was created */
+    public long getCreated() { return created; }
+
+    /** @return total number of successful borrows */
+    public long getBorrowed() { return borrowed; }
+
+    /** @return number of borrows that had to wait for a free connection */
+    public long getWaited() { return waited; }
+
+    /** @return average wait in milliseconds of the borrows that waited */
+    public double getAverageWaitMillis() { return averageWaitMillis; }
+
+    /** @return number of borrows that timed out */
+    public long getTimedOut() { return timedOut; }
+
+    /** @return number of connections reported as possible leaks */
+    public long getLeaked() { return leaked; }
+
+    /** @return prepared statements served from a connection's statement cache */
+    public long getStatementHits() { return statementHits; }
+
+    /** @return prepared statements that had to be parsed and planned */
+    public long getStatementMisses() { return statementMisses; }
+
+    /** @return cached statements evicted to stay within the cache size */
+    public long getStatementEvictions() { return statementEvictions; }
+
+    /** @return fraction of statement requests served from the cache, 0.0 when none */
+    public double getStatementHitRatio() {
+        long total = statementHits + statementMisses;
+        return total == 0 ? 0.0 : (double) statementHits / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "pool: %d/%d active, %d idle, created=%d, borrowed=%d, waited=%d (avg %.2f ms), timedOut=%d, leaked=%d, "
+                        + "statements: hits=%d, misses=%d, evictions=%d",
+                active, maxSize, idle, created, borrowed, waited, averageWaitMillis, timedOut, leaked,
+                statementHits, statementMisses, statementEvictions);
+    }
+}
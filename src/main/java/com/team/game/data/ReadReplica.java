@@ -0,0 +1,219 @@
+package main.java.com.team.game.data;
+
+import org.sqlite.SQLiteCommitListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An in-memory copy of the game database that read-heavy screens query instead of the file.
+ * <p>
+ * The copy is a {@link Database#memoryUrl shared in-memory database} with its own pool of
+ * read-only connections, so its readers never take a lock on the main database or wait
+ * for a pool connection the writers need. A refresh copies the whole database into a new
+ * in-memory database with {@code VACUUM INTO}, reading one snapshot of the source. On a
+ * WAL file that read never blocks writers. The new copy then replaces the old one.
+ * Queries already running finish on the old copy, which is freed when they return it.
+ * <p>
+ * Refreshes run on a daemon thread every half staleness bound, and only when something
+ * has been committed through the source pool since the last copy. {@link #getConnection}
+ * hands out a copy only while it is within the bound, or while nothing has been committed
+ * since it was taken. Otherwise it returns {@code null} and the caller reads the main
+ * database, so a slow refresh delays nothing but makes those reads fresh.
+ * <p>
+ * After each refresh the {@link RefreshListener} is told which tables changed, so results
+ * read from the old copy can be dropped from caches.
+ */
+public final class ReadReplica implements AutoCloseable {
+
+    /** Told, on the refresh thread, when a new copy is in use. */
+    @FunctionalInterface
+    interface RefreshListener {
+        /**
+         * @param tables       tables written through the source pool since the previous copy
+         * @param takenAtNanos {@link System#nanoTime()} when the new copy's snapshot was started;
+         *                     every commit reported before then is in it
+         */
+        void refreshed(Set<String> tables, long takenAtNanos);
+    }
+
+    /** Numbers the in-memory databases of all replicas in this process. */
+    private static final AtomicLong COPY_IDS = new AtomicLong();
+
+    private final Database source;
+    private final long maxStalenessNanos;
+    private final int poolSize;
+    private final RefreshListener listener;
+
+    /** Commits seen through the source pool; a copy is current while this has not moved. */
+    private final AtomicLong commits = new AtomicLong();
+    /** Tables written by the current thread's open transaction. */
+    private final ThreadLocal<Set<String>> writing = ThreadLocal.withInitial(HashSet::new);
+    /** Tables written by commits since the last copy was started. */
+    private final Set<String> committed = ConcurrentHashMap.newKeySet();
+
+    private volatile Copy current;
+    private volatile boolean closed;
+    private Thread refresher;
+
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong failedRefreshes = new AtomicLong();
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong staleReads = new AtomicLong();
+    private volatile double lastRefreshMillis;
+
+    /** One in-memory copy: its pool, when its snapshot was started and the commit count at that moment. */
+    private record Copy(Database pool, long takenAtNanos, long commits) { }
+
+    /**
+     * @param source       pool every write to the database goes through; its commits mark the copy stale
+     * @param maxStaleness how far behind the main database a copy may be read
+     * @param poolSize     connections per in-memory copy
+     * @param listener     told after each refresh
+     */
+    ReadReplica(Database source, Duration maxStaleness, int poolSize, RefreshListener listener) {
+        this.source = source;
+        this.maxStalenessNanos = Math.max(0, maxStaleness.toNanos());
+        this.poolSize = Math.max(1, poolSize);
+        this.listener = listener;
+        source.addUpdateListener((type, database, table, rowId) -> {
+            if (!closed) writing.get().add(table);
+        });
+        source.addCommitListener(new SQLiteCommitListener() {
+            @Override public void onCommit() {
+                Set<String> tables = writing.get();
+                committed.addAll(tables);
+                tables.clear();
+                commits.incrementAndGet();
+            }
+            @Override public void onRollback() { writing.get().clear(); }
+        });
+    }
+
+    /**
+     * Borrows a connection to the current copy if it is fresh enough.
+     *
+     * @return a read-only connection to the copy, or {@code null} if the caller should read the main database
+     */
+    public Connection getConnection() {
+        while (true) {
+            Copy copy = current;
+            if (copy == null || closed
+                    || commits.get() != copy.commits() && System.nanoTime() - copy.takenAtNanos() > maxStalenessNanos) {
+                staleReads.incrementAndGet();
+                return null;
+            }
+            try {
+                Connection c = copy.pool().getConnection();
+                reads.incrementAndGet();
+                return c;
+            } catch (SQLException e) {
+                if (copy == current) { // not just replaced and closed under us
+                    staleReads.incrementAndGet();
+                    return null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes a new copy now, if anything was committed since the last one (or there is none yet).
+     *
+     * @return true if a new copy was taken
+     * @throws RuntimeException if the copy failed; the previous copy stays in use
+     */
+    public synchronized boolean refresh() {
+        Copy old = current;
+        if (closed || old != null && commits.get() == old.commits()) return false;
+        long seen = commits.get();
+        Set<String> tables = new HashSet<>();
+        for (String table : committed) { // one by one, so a table committed meanwhile stays for next time
+            if (committed.remove(table)) tables.add(table);
+        }
+        long started = System.nanoTime();
+        String name = "replica-" + COPY_IDS.incrementAndGet();
+        Database next = Database.readOnly(Database.memoryUrl(name), poolSize);
+        try {
+            // Borrowing the first connection creates the empty database; the pool's keep-alive
+            // connection holds it from then on, so this one goes straight back to the pool
+            next.getConnection().close();
+            try (Connection from = DriverManager.getConnection(source.getUrl())) {
+                // Closed before the copy: VACUUM fails while any statement on the connection is active
+                try (var st = from.createStatement()) {
+                    st.execute("PRAGMA busy_timeout = 5000");
+                }
+                try (var ps = from.prepareStatement("VACUUM INTO ?")) {
+                    ps.setString(1, Database.memoryUrl(name).substring("jdbc:sqlite:".length()));
+                    ps.execute();
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            next.close();
+            committed.addAll(tables); // still to be reported
+            failedRefreshes.incrementAndGet();
+            throw e instanceof RuntimeException r ? r : new RuntimeException(e);
+        }
+        current = new Copy(next, started, seen);
+        if (old != null) old.pool().close();
+        lastRefreshMillis = (System.nanoTime() - started) / 1_000_000.0;
+        refreshes.incrementAndGet();
+        if (old != null && !tables.isEmpty()) listener.refreshed(tables, started);
+        return true;
+    }
+
+    /** Refreshes every half staleness bound (at least every 10 ms) on a daemon thread, until closed. */
+    synchronized void start() {
+        if (refresher != null || closed) return;
+        long pauseMs = Math.max(10, maxStalenessNanos / 2 / 1_000_000);
+        refresher = new Thread(() -> {
+            while (!closed) {
+                try {
+                    Thread.sleep(pauseMs);
+                } catch (InterruptedException e) {
+                    return; // closing
+                }
+                try {
+                    refresh();
+                } catch (RuntimeException e) {
+                    System.err.println("Read replica refresh failed: " + e.getMessage());
+                }
+            }
+        }, "db-replica");
+        refresher.setDaemon(true);
+        refresher.start();
+    }
+
+    /** @return a snapshot of the replica's counters */
+    public ReplicaStats stats() {
+        Copy copy = current;
+        return new ReplicaStats(refreshes.get(), failedRefreshes.get(), reads.get(), staleReads.get(), lastRefreshMillis,
+                copy == null ? -1 : (System.nanoTime() - copy.takenAtNanos()) / 1_000_000);
+    }
+
+    /** Stops refreshing and frees the copy; later reads go to the main database. */
+    @Override
+    public void close() {
+        Thread t;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            t = refresher;
+        }
+        if (t != null) {
+            t.interrupt();
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Copy copy = current;
+        if (copy != null) copy.pool().close();
+    }
+}
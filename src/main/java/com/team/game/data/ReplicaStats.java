@@ -0,0 +1,61 @@
+package main.java.com.team.game.data;
+
+/**
+ * Immutable snapshot of a {@link ReadReplica}.
+ * <p>
+ * Counts are cumulative since the replica was created, except {@code ageMillis}
+ * which is the age of the copy being read at the moment of the snapshot.
+ */
+public final class ReplicaStats {
+
+    private final long refreshes;
+    private final long failedRefreshes;
+    private final long reads;
+    private final long staleReads;
+    private final double lastRefreshMillis;
+    private final long ageMillis;
+
+    /**
+     * Constructs a new {@code ReplicaStats} snapshot.
+     *
+     * @param refreshes         copies taken
+     * @param failedRefreshes   copies that failed, leaving the previous one in use
+     * @param reads             queries served by the replica
+     * @param staleReads        queries sent to the main database because the replica was too far behind
+     * @param lastRefreshMillis time the most recent copy took, in milliseconds
+     * @param ageMillis         time since the copy in use was taken, or -1 if there is none yet
+     */
+    public ReplicaStats(long refreshes, long failedRefreshes, long reads, long staleReads,
+                        double lastRefreshMillis, long ageMillis) {
+        this.refreshes = refreshes;
+        this.failedRefreshes = failedRefreshes;
+        this.reads = reads;
+        this.staleReads = staleReads;
+        this.lastRefreshMillis = lastRefreshMillis;
+        this.ageMillis = ageMillis;
+    }
+
+    /** @return copies taken */
+    public long getRefreshes() { return refreshes; }
+
+    /** @return copies that failed, leaving the previous one in use */
+    public long getFailedRefreshes() { return failedRefreshes; }
+
+    /** @return queries served by the replica */
+    public long getReads() { return reads; }
+
+    /** @return queries sent to the main database because the replica was too far behind */
+    public long getStaleReads() { return staleReads; }
+
+    /** @return time the most recent copy took, in milliseconds */
+    public double getLastRefreshMillis() { return lastRefreshMillis; }
+
+    /** @return time since the copy in use was taken, or -1 if there is none yet */
+    public long getAgeMillis() { return ageMillis; }
+
+    @Override
+    public String toString() {
+        return String.format("replica: refreshes=%d (failed %d, last %.1f ms), reads=%d, stale=%d, age %d ms",
+                refreshes, failedRefreshes, lastRefreshMillis, reads, staleReads, ageMillis);
+    }
+}
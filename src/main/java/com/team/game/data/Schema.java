@@ -0,0 +1,425 @@
+package main.java.com.team.game.data;
+
+import main.java.com.team.game.model.LeaderboardPeriod;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@link GameStore} schema as an ordered list of {@link Migration}s.
+ * <p>
+ * Never edit a migration that has shipped: its checksum is recorded in every database
+ * it was applied to. Add a new migration at the end instead. Statements use
+ * {@code IF NOT EXISTS} so databases created before versioning (user_version 0)
+ * upgrade cleanly.
+ */
+final class Schema {
+
+    private Schema() { }
+
+    /** Base tables; the *_started indexes serve keyset-paged history, with and without a mode filter. */
+    private static final Migration V1_BASE = Migration.sql(1, "users and game sessions",
+        """
+        CREATE TABLE IF NOT EXISTS users (
+          id            INTEGER PRIMARY KEY AUTOINCREMENT,
+          username      TEXT NOT NULL UNIQUE,
+          password_hash TEXT NOT NULL,
+          registered_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+        )""",
+        """
+        CREATE TABLE IF NOT EXISTS game_session (
+          id         INTEGER PRIMARY KEY AUTOINCREMENT,
+          user_id    INTEGER  NOT NULL,
+          mode       TEXT     NOT NULL,
+          started_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+          ended_at   DATETIME,
+          score      INTEGER  NOT NULL DEFAULT 0,
+          strikes    INTEGER  NOT NULL DEFAULT 0,
+          completed  INTEGER  NOT NULL DEFAULT 0,
+          FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+        )""",
+        "CREATE INDEX IF NOT EXISTS idx_session_user_mode ON game_session(user_id, mode, completed)",
+        "CREATE INDEX IF NOT EXISTS idx_session_user_started ON game_session(user_id, started_at DESC, id DESC)",
+        "CREATE INDEX IF NOT EXISTS idx_session_user_mode_started ON game_session(user_id, mode, started_at DESC, id DESC)");
+
+    /**
+     * Case-insensitive unique key: lets username lookups use an index instead of LOWER() scans,
+     * and is the only check against names differing just by case. Databases older than the
+     * index may hold such names; the migration then stops and lists them, since renaming a
+     * user would lock them out of their account.
+     */
+    private static final Migration V2_USERNAME_NOCASE = Migration.code(2, "case-insensitive username index",
+            Schema::createUsernameIndex);
+
+    /**
+     * Creates {@code idx_users_username_nocase}.
+     *
+     * @throws IllegalStateException listing every user whose name repeats an older user's
+     *                               name up to case; rename one of each pair, then restart
+     */
+    private static void createUsernameIndex(Connection c) throws SQLException {
+        var clashes = new ArrayList<String>();
+        try (var st = c.createStatement(); var rs = st.executeQuery("""
+                SELECT u.id, u.username, d.first_id
+                FROM users u
+                JOIN (SELECT username AS name, MIN(id) AS first_id FROM users
+                      GROUP BY username COLLATE NOCASE HAVING COUNT(*) > 1) d
+                  ON u.username = d.name COLLATE NOCASE AND u.id > d.first_id
+                ORDER BY u.id""")) {
+            while (rs.next()) {
+                clashes.add("user " + rs.getInt(1) + " '" + rs.getString(2) + "' (clashes with user " + rs.getInt(3) + ")");
+            }
+        }
+        if (!clashes.isEmpty()) {
+            throw new IllegalStateException("Usernames must be unique ignoring case; rename these users and restart: "
+                    + String.join(", ", clashes));
+        }
+        try (var st = c.createStatement()) {
+            st.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_users_username_nocase ON users(username COLLATE NOCASE)");
+        }
+    }
+
+    private static final String UPSERT_NEW_BEST = """
+        INSERT INTO user_best_score(user_id, mode, best_score, achieved_at)
+        VALUES (NEW.user_id, NEW.mode, NEW.score, COALESCE(NEW.ended_at, CURRENT_TIMESTAMP))
+        ON CONFLICT(user_id, mode) DO UPDATE
+          SET best_score = excluded.best_score, achieved_at = excluded.achieved_at
+          WHERE excluded.best_score > user_best_score.best_score;
+        """;
+
+    /**
+     * {@code user_best_score}, the per-user, per-mode best completed score, and the triggers
+     * that keep it in step with {@code game_session}.
+     * <p>
+     * Completing a session (or inserting an already completed one) raises the best score
+     * if it beats it; deleting the session that holds the best score recomputes it from
+     * that user's remaining sessions. Existing sessions are folded in by the
+     * {@code best_scores} backfill.
+     */
+    private static final Migration V3_BEST_SCORES = Migration.sql(3, "per-user best score summary",
+        """
+        CREATE TABLE IF NOT EXISTS user_best_score (
+          user_id     INTEGER NOT NULL,
+          mode        TEXT    NOT NULL,
+          best_score  INTEGER NOT NULL,
+          achieved_at DATETIME,
+          PRIMARY KEY (user_id, mode),
+          FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+        )""",
+        "CREATE INDEX IF NOT EXISTS idx_best_mode_score ON user_best_score(mode, best_score DESC)",
+        """
+        CREATE TRIGGER IF NOT EXISTS trg_best_on_complete
+        AFTER UPDATE OF completed, score ON game_session
+        WHEN NEW.completed = 1
+        BEGIN
+        """ + UPSERT_NEW_BEST + "END",
+        """
+        CREATE TRIGGER IF NOT EXISTS trg_best_on_insert
+        AFTER INSERT ON game_session
+        WHEN NEW.completed = 1
+        BEGIN
+        """ + UPSERT_NEW_BEST + "END",
+        // Only the session holding the best score can lower it; the users check skips
+        // recomputation while a user's sessions are being cascade-deleted.
+        """
+        CREATE TRIGGER IF NOT EXISTS trg_best_on_delete
+        AFTER DELETE ON game_session
+        WHEN OLD.completed = 1
+         AND OLD.score >= (SELECT best_score FROM user_best_score
+                           WHERE user_id = OLD.user_id AND mode = OLD.mode)
+        BEGIN
+          DELETE FROM user_best_score WHERE user_id = OLD.user_id AND mode = OLD.mode;
+          INSERT INTO user_best_score(user_id, mode, best_score, achieved_at)
+            SELECT user_id, mode, score, ended_at FROM game_session
+            WHERE user_id = OLD.user_id AND mode = OLD.mode AND completed = 1
+              AND EXISTS (SELECT 1 FROM users WHERE id = OLD.user_id)
+            ORDER BY score DESC, ended_at ASC
+            LIMIT 1;
+        END""")
+        .withBackfill("best_scores", Schema::backfillBestScores);
+
+    /**
+     * Append-only answer log. {@code question} interns prompts so each event stores a small
+     * integer; {@code user_id} is copied from the session so per-user aggregates need no join.
+     * {@code answered_at} is epoch milliseconds and {@code response_ms} is NULL when unknown.
+     * The covering indexes let per-question and per-user accuracy and timing be computed from
+     * the index alone.
+     */
+    private static final Migration V4_ANSWER_EVENTS = Migration.sql(4, "answer event log",
+        """
+        CREATE TABLE IF NOT EXISTS question (
+          id     INTEGER PRIMARY KEY,
+          prompt TEXT NOT NULL UNIQUE,
+          mode   TEXT
+        )""",
+        """
+        CREATE TABLE IF NOT EXISTS answer_event (
+          id          INTEGER PRIMARY KEY,
+          session_id  INTEGER NOT NULL,
+          user_id     INTEGER NOT NULL,
+          question_id INTEGER,
+          correct     INTEGER NOT NULL,
+          response_ms INTEGER,
+          response    TEXT,
+          answered_at INTEGER NOT NULL,
+          FOREIGN KEY (session_id) REFERENCES game_session(id) ON DELETE CASCADE,
+          FOREIGN KEY (question_id) REFERENCES question(id)
+        )""",
+        "CREATE INDEX IF NOT EXISTS idx_answer_session ON answer_event(session_id)",
+        "CREATE INDEX IF NOT EXISTS idx_answer_question ON answer_event(question_id, correct, response_ms)",
+        "CREATE INDEX IF NOT EXISTS idx_answer_user_question ON answer_event(user_id, question_id, correct, response_ms)");
+
+    /**
+     * Cold storage for old completed sessions (see {@link SessionArchive}). Each
+     * {@code session_archive} row is a Deflater-compressed block of one user's sessions of
+     * one mode, with their logged answers; {@code archived_best} keeps the best archived
+     * score per user and mode, and the delete trigger now recomputes a best score from it
+     * as well as from the live sessions, so archiving never lowers a best score.
+     */
+    private static final Migration V5_SESSION_ARCHIVE = Migration.sql(5, "session archive",
+        """
+        CREATE TABLE IF NOT EXISTS session_archive (
+          id       INTEGER PRIMARY KEY,
+          user_id  INTEGER NOT NULL,
+          mode     TEXT    NOT NULL,
+          first_id INTEGER NOT NULL,
+          last_id  INTEGER NOT NULL,
+          sessions INTEGER NOT NULL,
+          data     BLOB    NOT NULL,
+          FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+        )""",
+        "CREATE INDEX IF NOT EXISTS idx_archive_user_mode ON session_archive(user_id, mode, first_id)",
+        "CREATE INDEX IF NOT EXISTS idx_archive_first ON session_archive(first_id)",
+        """
+        CREATE TABLE IF NOT EXISTS archived_best (
+          user_id     INTEGER NOT NULL,
+          mode        TEXT    NOT NULL,
+          best_score  INTEGER NOT NULL,
+          achieved_at DATETIME,
+          PRIMARY KEY (user_id, mode),
+          FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+        )""",
+        "DROP TRIGGER IF EXISTS trg_best_on_delete",
+        """
+        CREATE TRIGGER trg_best_on_delete
+        AFTER DELETE ON game_session
+        WHEN OLD.completed = 1
+         AND OLD.score >= (SELECT best_score FROM user_best_score
+                           WHERE user_id = OLD.user_id AND mode = OLD.mode)
+        BEGIN
+          DELETE FROM user_best_score WHERE user_id = OLD.user_id AND mode = OLD.mode;
+          INSERT INTO user_best_score(user_id, mode, best_score, achieved_at)
+            SELECT user_id, mode, score, ended_at FROM (
+              SELECT user_id, mode, score, ended_at FROM game_session
+              WHERE user_id = OLD.user_id AND mode = OLD.mode AND completed = 1
+              UNION ALL
+              SELECT user_id, mode, best_score, achieved_at FROM archived_best
+              WHERE user_id = OLD.user_id AND mode = OLD.mode)
+            WHERE EXISTS (SELECT 1 FROM users WHERE id = OLD.user_id)
+            ORDER BY score DESC, ended_at ASC
+            LIMIT 1;
+        END""");
+
+    /** The windows {@code period_best} keeps; {@link LeaderboardPeriod#ALL_TIME} is {@code user_best_score}. */
+    private static final LeaderboardPeriod[] WINDOWS =
+            {LeaderboardPeriod.DAY, LeaderboardPeriod.WEEK, LeaderboardPeriod.TERM};
+
+    /**
+     * SQL for the window key of a timestamp: the local date the window starts on, as
+     * {@code YYYY-MM-DD} (see {@link LeaderboardPeriod#startOf}).
+     *
+     * @param time SQL expression for a UTC timestamp, e.g. {@code 'now'} or a column
+     */
+    static String windowSql(LeaderboardPeriod period, String time) {
+        return switch (period) {
+            case DAY -> "date(" + time + ", 'localtime')";
+            case WEEK -> "date(" + time + ", 'localtime', 'weekday 0', '-6 days')";
+            case TERM -> "date(" + time + ", 'localtime', 'start of month', '-' || "
+                    + "((CAST(strftime('%m', " + time + ", 'localtime') AS INTEGER) - 1) % 3) || ' months')";
+            case ALL_TIME -> throw new IllegalArgumentException("ALL_TIME has no window");
+        };
+    }
+
+    /**
+     * Trigger body for a newly completed session: drops windows that have rolled over,
+     * then raises the owner's best in each current window if the session ended in it.
+     */
+    private static String periodBestOnComplete() {
+        String ended = "COALESCE(NEW.ended_at, CURRENT_TIMESTAMP)";
+        StringBuilder sql = new StringBuilder();
+        for (LeaderboardPeriod p : WINDOWS) {
+            String current = windowSql(p, "'now'");
+            sql.append("DELETE FROM period_best WHERE period = '").append(p).append("' AND bucket < ")
+                    .append(current).append(";\n")
+                    .append("INSERT INTO period_best(period, bucket, mode, user_id, best_score, achieved_at)\n")
+                    .append("SELECT '").append(p).append("', ").append(current).append(", NEW.mode, NEW.user_id, NEW.score, ")
+                    .append(ended).append("\n")
+                    .append("WHERE ").append(windowSql(p, ended)).append(" = ").append(current).append("\n")
+                    .append("""
+                        ON CONFLICT(period, bucket, mode, user_id) DO UPDATE
+                          SET best_score = excluded.best_score, achieved_at = excluded.achieved_at
+                          WHERE excluded.best_score > period_best.best_score;
+                        """);
+        }
+        return sql.toString();
+    }
+
+    /** Statement computing current-window bests from the completed sessions {@code sessionFilter} selects. */
+    private static String periodBestFrom(LeaderboardPeriod p, String sessionFilter) {
+        String current = windowSql(p, "'now'");
+        return "INSERT INTO period_best(period, bucket, mode, user_id, best_score, achieved_at)\n"
+                + "SELECT '" + p + "', " + current + ", mode, user_id, MAX(score), ended_at FROM game_session\n"
+                + "WHERE " + sessionFilter + " AND completed = 1 AND " + windowSql(p, "ended_at") + " = " + current + "\n"
+                + "GROUP BY user_id, mode";
+    }
+
+    /**
+     * {@code period_best}: each user's best completed score per mode in the current day,
+     * week and term (see {@link LeaderboardPeriod}), keyed by the date the window starts.
+     * <p>
+     * Like {@code user_best_score} it is kept by triggers, so a windowed leaderboard is
+     * an index range read of one window's rows. Completing a session first deletes the
+     * rows of windows that have rolled over, so the table only ever holds about one
+     * window's worth of rows per period. Deleting a session that holds a window best
+     * recomputes that user's windows from their remaining sessions. Sessions already
+     * finished in the current windows are folded in by the {@code period_bests} backfill.
+     */
+    private static final Migration V6_PERIOD_BEST = Migration.sql(6, "windowed best scores",
+        """
+        CREATE TABLE IF NOT EXISTS period_best (
+          period      TEXT    NOT NULL,
+          bucket      TEXT    NOT NULL,
+          mode        TEXT    NOT NULL,
+          user_id     INTEGER NOT NULL,
+          best_score  INTEGER NOT NULL,
+          achieved_at DATETIME,
+          PRIMARY KEY (period, bucket, mode, user_id),
+          FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+        )""",
+        "CREATE INDEX IF NOT EXISTS idx_period_best_rank ON period_best(period, bucket, mode, best_score DESC)",
+        "CREATE INDEX IF NOT EXISTS idx_period_best_user ON period_best(user_id, mode)",
+        """
+        CREATE TRIGGER IF NOT EXISTS trg_period_best_on_complete
+        AFTER UPDATE OF completed, score ON game_session
+        WHEN NEW.completed = 1
+        BEGIN
+        """ + periodBestOnComplete() + "END",
+        """
+        CREATE TRIGGER IF NOT EXISTS trg_period_best_on_insert
+        AFTER INSERT ON game_session
+        WHEN NEW.completed = 1
+        BEGIN
+        """ + periodBestOnComplete() + "END",
+        """
+        CREATE TRIGGER IF NOT EXISTS trg_period_best_on_delete
+        AFTER DELETE ON game_session
+        WHEN OLD.completed = 1
+         AND EXISTS (SELECT 1 FROM period_best
+                     WHERE user_id = OLD.user_id AND mode = OLD.mode AND best_score <= OLD.score)
+        BEGIN
+          DELETE FROM period_best WHERE user_id = OLD.user_id AND mode = OLD.mode;
+        """ + periodBestOnDelete() + "END")
+        .withBackfill("period_bests", Schema::backfillPeriodBests);
+
+    private static String periodBestOnDelete() {
+        StringBuilder sql = new StringBuilder();
+        String owner = "user_id = OLD.user_id AND mode = OLD.mode AND EXISTS (SELECT 1 FROM users WHERE id = OLD.user_id)";
+        for (LeaderboardPeriod p : WINDOWS) sql.append(periodBestFrom(p, owner)).append(";\n");
+        return sql.toString();
+    }
+
+    /**
+     * Oldest and newest start time of each {@code session_archive} block, indexed by user, so
+     * history pages decode only the blocks they reach instead of all of a user's archive.
+     */
+    private static final Migration V7_ARCHIVE_START_BOUNDS = Migration.code(7,
+            "archive block start-time bounds", SessionArchive::addStartBounds);
+
+    /**
+     * Ends both leaderboard indexes with {@code user_id}, the tie-break of every ranking
+     * query, so ties on score come out of the index in order instead of through a
+     * temporary sort.
+     */
+    private static final Migration V8_RANK_TIE_BREAK = Migration.sql(8, "user_id tie-break in rank indexes",
+        "DROP INDEX IF EXISTS idx_best_mode_score",
+        "CREATE INDEX IF NOT EXISTS idx_best_mode_score ON user_best_score(mode, best_score DESC, user_id)",
+        "DROP INDEX IF EXISTS idx_period_best_rank",
+        "CREATE INDEX IF NOT EXISTS idx_period_best_rank ON period_best(period, bucket, mode, best_score DESC, user_id)");
+
+    /**
+     * Which {@code session_archive} block each archived session is in, so a session read or
+     * deleted by ID decodes one block instead of every block whose ID range covers it.
+     */
+    private static final Migration V9_ARCHIVED_SESSION_INDEX = Migration.code(9,
+            "archived session to block index", SessionArchive::indexSessions);
+
+    /** Every migration, in version order. Append only. */
+    static final List<Migration> MIGRATIONS =
+            List.of(V1_BASE, V2_USERNAME_NOCASE, V3_BEST_SCORES, V4_ANSWER_EVENTS, V5_SESSION_ARCHIVE,
+                    V6_PERIOD_BEST, V7_ARCHIVE_START_BOUNDS, V8_RANK_TIE_BREAK, V9_ARCHIVED_SESSION_INDEX);
+
+    /**
+     * Folds existing completed sessions into {@code user_best_score}, a range of users at
+     * a time. The upsert only ever raises a best score, so it is idempotent and safe to
+     * run while the triggers maintain new sessions.
+     */
+    private static long backfillBestScores(Connection c, long afterUserId, int chunkSize) throws SQLException {
+        long lastUserId = lastUserOfChunk(c, afterUserId, chunkSize);
+        if (lastUserId == Backfill.DONE) return Backfill.DONE;
+        String upsert = """
+            INSERT INTO user_best_score(user_id, mode, best_score, achieved_at)
+            SELECT user_id, mode, score, ended_at FROM (
+              SELECT user_id, mode, score, ended_at,
+                     ROW_NUMBER() OVER (PARTITION BY user_id, mode ORDER BY score DESC, ended_at ASC) AS rn
+              FROM game_session
+              WHERE completed = 1 AND user_id > ? AND user_id <= ?
+            )
+            WHERE rn = 1
+            ON CONFLICT(user_id, mode) DO UPDATE
+              SET best_score = excluded.best_score, achieved_at = excluded.achieved_at
+              WHERE excluded.best_score > user_best_score.best_score
+            """;
+        try (var ps = c.prepareStatement(upsert)) {
+            ps.setLong(1, afterUserId);
+            ps.setLong(2, lastUserId);
+            ps.executeUpdate();
+        }
+        return lastUserId;
+    }
+
+    /**
+     * Folds sessions finished in the current day, week and term into {@code period_best},
+     * a range of users at a time. Like the best-score backfill the upsert only raises.
+     */
+    private static long backfillPeriodBests(Connection c, long afterUserId, int chunkSize) throws SQLException {
+        long lastUserId = lastUserOfChunk(c, afterUserId, chunkSize);
+        if (lastUserId == Backfill.DONE) return Backfill.DONE;
+        for (LeaderboardPeriod p : WINDOWS) {
+            try (var ps = c.prepareStatement(periodBestFrom(p, "user_id > ? AND user_id <= ?") + """
+
+                    ON CONFLICT(period, bucket, mode, user_id) DO UPDATE
+                      SET best_score = excluded.best_score, achieved_at = excluded.achieved_at
+                      WHERE excluded.best_score > period_best.best_score""")) {
+                ps.setLong(1, afterUserId);
+                ps.setLong(2, lastUserId);
+                ps.executeUpdate();
+            }
+        }
+        return lastUserId;
+    }
+
+    /** @return the highest of the next {@code chunkSize} user IDs after {@code afterUserId}, or {@link Backfill#DONE} */
+    private static long lastUserOfChunk(Connection c, long afterUserId, int chunkSize) throws SQLException {
+        try (var ps = c.prepareStatement("SELECT MAX(id) FROM (SELECT id FROM users WHERE id > ? ORDER BY id LIMIT ?)")) {
+            ps.setLong(1, afterUserId);
+            ps.setInt(2, chunkSize);
+            try (var rs = ps.executeQuery()) {
+                if (!rs.next()) return Backfill.DONE;
+                long last = rs.getLong(1);
+                return rs.wasNull() ? Backfill.DONE : last;
+            }
+        }
+    }
+}
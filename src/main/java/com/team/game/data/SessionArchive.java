@@ -0,0 +1,587 @@
+package main.java.com.team.game.data;
+
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.GameSession;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Cold storage for completed sessions that have not changed in a long time.
+ * <p>
+ * {@link #archive} moves old completed sessions, with their logged answers, out of
+ * {@code game_session} and {@code answer_event} into {@code session_archive}: one row
+ * per block of up to {@link #MAX_BLOCK_SESSIONS} sessions of one user and mode, packed
+ * and Deflater-compressed into a BLOB. New sessions of a user and mode are appended to
+ * the newest block while it has room. Before the live rows are deleted, the best score
+ * among them is folded into {@code archived_best}, which the delete trigger consults,
+ * so best scores and leaderboards are unaffected.
+ * <p>
+ * The live table, and its indexes, then only hold recent and in-progress sessions.
+ * Archived sessions are still returned by {@link GameStore}'s session reads, which
+ * decode a user's blocks on demand; they are identified by their original IDs. Each
+ * block records the oldest and newest start time in it, so a {@link NewestFirst} reader
+ * decodes blocks in start-time order and only as far as a history page reaches.
+ * {@code archived_session} maps each archived session ID to its block, so a lookup by
+ * ID decodes that one block.
+ * <p>
+ * Every method works on a connection supplied by the caller; {@link #archive} and
+ * {@link #delete} must run inside a write transaction.
+ */
+final class SessionArchive {
+
+    /** Most sessions stored in one block. */
+    static final int MAX_BLOCK_SESSIONS = 256;
+
+    /** Version byte at the start of every block. */
+    private static final int BLOCK_FORMAT = 1;
+
+    private static final DateTimeFormatter SQLITE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
+
+    /** Orders sessions like the history screens: newest first by start time, then ID. */
+    static final Comparator<Entry> NEWEST_FIRST =
+            Comparator.comparing(Entry::startedAt).thenComparingInt(Entry::id).reversed();
+
+    private SessionArchive() { }
+
+    /**
+     * An archived session. Timestamps are kept as SQLite stored them, so archiving and
+     * exporting never alter them.
+     */
+    record Entry(int id, int userId, GameMode mode, String startedAt, String endedAt,
+                 int score, int strikes, List<Answer> answers) {
+
+        /** @return the session as the live table would return it */
+        GameSession toSession() {
+            return new GameSession(id, userId, mode, parseTimestamp(startedAt),
+                    endedAt == null ? null : parseTimestamp(endedAt), score, strikes, true);
+        }
+    }
+
+    /** An archived answer; {@code questionId} is 0 and {@code responseMs} -1 when unknown. */
+    record Answer(boolean correct, long answeredAt, int questionId, String response, int responseMs) { }
+
+    // ---- archiving ----
+
+    /**
+     * Archives the completed sessions with IDs in {@code (afterId, upToId]} that ended
+     * before {@code cutoff}.
+     *
+     * @param cutoff end time, in SQLite's {@code YYYY-MM-DD HH:MM:SS} UTC text
+     * @return number of sessions archived
+     */
+    static int archive(Connection c, long afterId, long upToId, String cutoff) throws SQLException {
+        Map<String, List<Entry>> groups = new LinkedHashMap<>();
+        int found = 0;
+        try (var ps = c.prepareStatement("""
+                SELECT id, user_id, mode, started_at, ended_at, score, strikes FROM game_session
+                WHERE id > ? AND id <= ? AND completed = 1 AND ended_at < ?
+                ORDER BY id""")) {
+            ps.setLong(1, afterId);
+            ps.setLong(2, upToId);
+            ps.setString(3, cutoff);
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int id = rs.getInt(1);
+                    Entry e = new Entry(id, rs.getInt(2), GameMode.valueOf(rs.getString(3)),
+                            rs.getString(4), rs.getString(5), rs.getInt(6), rs.getInt(7), answersOf(c, id));
+                    groups.computeIfAbsent(e.userId + "/" + e.mode, k -> new ArrayList<>()).add(e);
+                    found++;
+                }
+            }
+        }
+        if (found == 0) return 0;
+
+        for (List<Entry> group : groups.values()) {
+            appendToBlocks(c, group);
+            Entry best = group.stream()
+                    .max(Comparator.comparingInt(Entry::score)
+                            .thenComparing(Entry::endedAt, Comparator.reverseOrder()))
+                    .orElseThrow();
+            try (var ps = c.prepareStatement("""
+                    INSERT INTO archived_best(user_id, mode, best_score, achieved_at) VALUES (?, ?, ?, ?)
+                    ON CONFLICT(user_id, mode) DO UPDATE
+                      SET best_score = excluded.best_score, achieved_at = excluded.achieved_at
+                      WHERE excluded.best_score > archived_best.best_score""")) {
+                ps.setInt(1, best.userId);
+                ps.setString(2, best.mode.name());
+                ps.setInt(3, best.score);
+                ps.setString(4, best.endedAt);
+                ps.executeUpdate();
+            }
+        }
+        // Cascades to the answer log; the delete trigger now also sees archived_best
+        try (var ps = c.prepareStatement("DELETE FROM game_session WHERE id = ?")) {
+            for (List<Entry> group : groups.values()) {
+                for (Entry e : group) {
+                    ps.setInt(1, e.id);
+                    ps.addBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+        return found;
+    }
+
+    /** Adds sessions of one user and mode to the newest block, opening new blocks when it is full. */
+    private static void appendToBlocks(Connection c, List<Entry> group) throws SQLException {
+        Entry first = group.get(0);
+        List<Entry> block = new ArrayList<>();
+        long blockId = 0;
+        try (var ps = c.prepareStatement("""
+                SELECT id, sessions, data FROM session_archive
+                WHERE user_id = ? AND mode = ? ORDER BY first_id DESC LIMIT 1""")) {
+            ps.setInt(1, first.userId);
+            ps.setString(2, first.mode.name());
+            try (var rs = ps.executeQuery()) {
+                if (rs.next() && rs.getInt(2) < MAX_BLOCK_SESSIONS) {
+                    blockId = rs.getLong(1);
+                    block.addAll(decode(rs.getBytes(3), first.userId, first.mode));
+                }
+            }
+        }
+        List<Entry> pending = new ArrayList<>(group);
+        while (!pending.isEmpty()) {
+            int take = Math.min(pending.size(), MAX_BLOCK_SESSIONS - block.size());
+            List<Entry> added = pending.subList(0, take);
+            block.addAll(added);
+            mapToBlock(c, writeBlock(c, blockId, block), added);
+            pending = new ArrayList<>(pending.subList(take, pending.size()));
+            blockId = 0;
+            block = new ArrayList<>();
+        }
+    }
+
+    /** Records which block each of {@code sessions} is stored in. */
+    private static void mapToBlock(Connection c, long blockId, List<Entry> sessions) throws SQLException {
+        try (var ps = c.prepareStatement("INSERT OR REPLACE INTO archived_session(session_id, block_id) VALUES (?, ?)")) {
+            for (Entry e : sessions) {
+                ps.setInt(1, e.id);
+                ps.setLong(2, blockId);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * Inserts a block, or replaces block {@code blockId} if it is not 0.
+     *
+     * @return the block's ID
+     */
+    private static long writeBlock(Connection c, long blockId, List<Entry> block) throws SQLException {
+        block.sort(Comparator.comparingInt(Entry::id));
+        Entry first = block.get(0);
+        String sql = blockId == 0
+                ? """
+                  INSERT INTO session_archive(first_id, last_id, sessions, data, oldest_started, newest_started, user_id, mode)
+                  VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                  RETURNING id"""
+                : """
+                  UPDATE session_archive
+                  SET first_id = ?, last_id = ?, sessions = ?, data = ?, oldest_started = ?, newest_started = ?
+                  WHERE id = ?""";
+        try (var ps = c.prepareStatement(sql)) {
+            ps.setInt(1, first.id);
+            ps.setInt(2, block.get(block.size() - 1).id);
+            ps.setInt(3, block.size());
+            ps.setBytes(4, encode(block));
+            ps.setString(5, oldestStart(block));
+            ps.setString(6, newestStart(block));
+            if (blockId != 0) {
+                ps.setLong(7, blockId);
+                ps.executeUpdate();
+                return blockId;
+            }
+            ps.setInt(7, first.userId);
+            ps.setString(8, first.mode.name());
+            try (var rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private static String oldestStart(List<Entry> block) {
+        return block.stream().map(Entry::startedAt).min(Comparator.naturalOrder()).orElseThrow();
+    }
+
+    private static String newestStart(List<Entry> block) {
+        return block.stream().map(Entry::startedAt).max(Comparator.naturalOrder()).orElseThrow();
+    }
+
+    /**
+     * Schema step: adds each block's oldest and newest start time, measured from the
+     * blocks already archived, and the index {@link NewestFirst} reads blocks by.
+     */
+    static void addStartBounds(Connection c) throws SQLException {
+        try (var st = c.createStatement()) {
+            st.execute("ALTER TABLE session_archive ADD COLUMN oldest_started TEXT");
+            st.execute("ALTER TABLE session_archive ADD COLUMN newest_started TEXT");
+        }
+        try (var sel = c.prepareStatement("SELECT id, user_id, mode, data FROM session_archive");
+             var upd = c.prepareStatement("UPDATE session_archive SET oldest_started = ?, newest_started = ? WHERE id = ?");
+             var rs = sel.executeQuery()) {
+            while (rs.next()) {
+                List<Entry> block = decode(rs.getBytes(4), rs.getInt(2), GameMode.valueOf(rs.getString(3)));
+                upd.setString(1, oldestStart(block));
+                upd.setString(2, newestStart(block));
+                upd.setLong(3, rs.getLong(1));
+                upd.executeUpdate();
+            }
+        }
+        try (var st = c.createStatement()) {
+            st.execute("CREATE INDEX IF NOT EXISTS idx_archive_user_newest ON session_archive(user_id, newest_started)");
+        }
+    }
+
+    /**
+     * Schema step: creates {@code archived_session}, filled from the blocks already
+     * archived, and drops the {@code first_id} index that lookups by ID used to scan.
+     */
+    static void indexSessions(Connection c) throws SQLException {
+        try (var st = c.createStatement()) {
+            st.execute("""
+                    CREATE TABLE IF NOT EXISTS archived_session (
+                      session_id INTEGER PRIMARY KEY,
+                      block_id   INTEGER NOT NULL,
+                      FOREIGN KEY (block_id) REFERENCES session_archive(id) ON DELETE CASCADE
+                    )""");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_archived_session_block ON archived_session(block_id)");
+            st.execute("DROP INDEX IF EXISTS idx_archive_first");
+        }
+        try (var sel = c.prepareStatement("SELECT id, user_id, mode, data FROM session_archive");
+             var rs = sel.executeQuery()) {
+            while (rs.next()) {
+                mapToBlock(c, rs.getLong(1), decode(rs.getBytes(4), rs.getInt(2), GameMode.valueOf(rs.getString(3))));
+            }
+        }
+    }
+
+    private static List<Answer> answersOf(Connection c, int sessionId) throws SQLException {
+        List<Answer> out = new ArrayList<>();
+        try (var ps = c.prepareStatement("""
+                SELECT correct, answered_at, question_id, response, response_ms
+                FROM answer_event WHERE session_id = ? ORDER BY id""")) {
+            ps.setInt(1, sessionId);
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int ms = rs.getInt(5);
+                    if (rs.wasNull()) ms = -1;
+                    out.add(new Answer(rs.getInt(1) != 0, rs.getLong(2), rs.getInt(3), rs.getString(4), ms));
+                }
+            }
+        }
+        return out;
+    }
+
+    // ---- reads ----
+
+    /**
+     * Loads a user's archived sessions, newest first.
+     *
+     * @param mode only load sessions of this mode, or {@code null} for all modes
+     */
+    static List<Entry> load(Connection c, int userId, GameMode mode) throws SQLException {
+        List<Entry> out = new ArrayList<>();
+        try (var ps = c.prepareStatement("SELECT mode, data FROM session_archive WHERE user_id = ?"
+                + (mode == null ? "" : " AND mode = ?"))) {
+            ps.setInt(1, userId);
+            if (mode != null) ps.setString(2, mode.name());
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) out.addAll(decode(rs.getBytes(2), userId, GameMode.valueOf(rs.getString(1))));
+            }
+        }
+        out.sort(NEWEST_FIRST);
+        return out;
+    }
+
+    /**
+     * A user's archived sessions, newest first, decoded a block at a time as they are reached.
+     * <p>
+     * Blocks are read in descending order of their newest start time. The next block is
+     * decoded only when its newest session could come before the next one to return, so a
+     * reader that stops after a page decodes the blocks that page overlaps and no more.
+     * Blocks whose sessions all started after the cursor are not read at all.
+     */
+    static final class NewestFirst implements AutoCloseable {
+        private final int userId;
+        private final String beforeStarted;
+        private final int beforeId;
+        private final PreparedStatement ps;
+        private final ResultSet rs;
+        private final PriorityQueue<Entry> decoded = new PriorityQueue<>(NEWEST_FIRST);
+        /** Newest start time in the block under the result-set cursor, or null once all are read. */
+        private String nextBlockNewest;
+
+        /**
+         * @param mode          only read sessions of this mode, or {@code null} for all modes
+         * @param beforeStarted only return sessions before this start time and ID (a page cursor),
+         *                      or {@code null} for all of them
+         */
+        NewestFirst(Connection c, int userId, GameMode mode, String beforeStarted, int beforeId) throws SQLException {
+            this.userId = userId;
+            this.beforeStarted = beforeStarted;
+            this.beforeId = beforeId;
+            ps = c.prepareStatement("SELECT mode, data, newest_started FROM session_archive WHERE user_id = ?"
+                    + (mode == null ? "" : " AND mode = ?")
+                    + (beforeStarted == null ? "" : " AND oldest_started <= ?")
+                    + " ORDER BY newest_started DESC");
+            int i = 1;
+            ps.setInt(i++, userId);
+            if (mode != null) ps.setString(i++, mode.name());
+            if (beforeStarted != null) ps.setString(i, beforeStarted);
+            try {
+                rs = ps.executeQuery();
+                nextBlockNewest = rs.next() ? rs.getString(3) : null;
+            } catch (SQLException e) {
+                ps.close();
+                throw e;
+            }
+        }
+
+        /** @return the next session without consuming it, or null when there are no more */
+        Entry peek() throws SQLException {
+            while (nextBlockNewest != null
+                    && (decoded.isEmpty() || nextBlockNewest.compareTo(decoded.peek().startedAt()) >= 0)) {
+                for (Entry e : decode(rs.getBytes(2), userId, GameMode.valueOf(rs.getString(1)))) {
+                    if (isBeforeCursor(e)) decoded.add(e);
+                }
+                nextBlockNewest = rs.next() ? rs.getString(3) : null;
+            }
+            return decoded.peek();
+        }
+
+        /** @return the next session, or null when there are no more */
+        Entry next() throws SQLException {
+            Entry e = peek();
+            if (e != null) decoded.poll();
+            return e;
+        }
+
+        private boolean isBeforeCursor(Entry e) {
+            if (beforeStarted == null) return true;
+            int cmp = e.startedAt().compareTo(beforeStarted);
+            return cmp < 0 || cmp == 0 && e.id() < beforeId;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                rs.close();
+            } finally {
+                ps.close();
+            }
+        }
+    }
+
+    /** @param mode only count sessions of this mode, or {@code null} for all modes */
+    static int count(Connection c, int userId, GameMode mode) throws SQLException {
+        try (var ps = c.prepareStatement("SELECT COALESCE(SUM(sessions), 0) FROM session_archive WHERE user_id = ?"
+                + (mode == null ? "" : " AND mode = ?"))) {
+            ps.setInt(1, userId);
+            if (mode != null) ps.setString(2, mode.name());
+            try (var rs = ps.executeQuery()) { return rs.next() ? rs.getInt(1) : 0; }
+        }
+    }
+
+    /** @return the archived session with this ID, or null */
+    static Entry find(Connection c, int sessionId) throws SQLException {
+        Located located = locate(c, sessionId);
+        return located == null ? null : located.block.get(located.index);
+    }
+
+    // ---- deletion ----
+
+    /**
+     * Removes an archived session and recomputes the user's best score for its mode from
+     * what is left, live and archived.
+     *
+     * @return true if the session was archived
+     */
+    static boolean delete(Connection c, int sessionId) throws SQLException {
+        Located located = locate(c, sessionId);
+        if (located == null) return false;
+        Entry gone = located.block.remove(located.index);
+        try (var ps = c.prepareStatement("DELETE FROM archived_session WHERE session_id = ?")) {
+            ps.setInt(1, sessionId);
+            ps.executeUpdate();
+        }
+        if (located.block.isEmpty()) {
+            try (var ps = c.prepareStatement("DELETE FROM session_archive WHERE id = ?")) {
+                ps.setLong(1, located.blockId);
+                ps.executeUpdate();
+            }
+        } else {
+            writeBlock(c, located.blockId, located.block);
+        }
+
+        Entry best = load(c, gone.userId, gone.mode).stream()
+                .max(Comparator.comparingInt(Entry::score)
+                        .thenComparing(Entry::endedAt, Comparator.reverseOrder()))
+                .orElse(null);
+        try (var del = c.prepareStatement("DELETE FROM archived_best WHERE user_id = ? AND mode = ?")) {
+            del.setInt(1, gone.userId);
+            del.setString(2, gone.mode.name());
+            del.executeUpdate();
+        }
+        if (best != null) {
+            try (var ins = c.prepareStatement(
+                    "INSERT INTO archived_best(user_id, mode, best_score, achieved_at) VALUES (?, ?, ?, ?)")) {
+                ins.setInt(1, best.userId);
+                ins.setString(2, best.mode.name());
+                ins.setInt(3, best.score);
+                ins.setString(4, best.endedAt);
+                ins.executeUpdate();
+            }
+        }
+        // Same recomputation as the delete trigger
+        try (var del = c.prepareStatement("DELETE FROM user_best_score WHERE user_id = ? AND mode = ?");
+             var ins = c.prepareStatement("""
+                     INSERT INTO user_best_score(user_id, mode, best_score, achieved_at)
+                     SELECT user_id, mode, score, ended_at FROM (
+                       SELECT user_id, mode, score, ended_at FROM game_session
+                       WHERE user_id = ?1 AND mode = ?2 AND completed = 1
+                       UNION ALL
+                       SELECT user_id, mode, best_score, achieved_at FROM archived_best
+                       WHERE user_id = ?1 AND mode = ?2)
+                     ORDER BY score DESC, ended_at ASC
+                     LIMIT 1""")) {
+            for (PreparedStatement ps : new PreparedStatement[]{del, ins}) {
+                ps.setInt(1, gone.userId);
+                ps.setString(2, gone.mode.name());
+                ps.executeUpdate();
+            }
+        }
+        return true;
+    }
+
+    /** A block holding a given session, decoded, and the session's position in it. */
+    private record Located(long blockId, List<Entry> block, int index) { }
+
+    private static Located locate(Connection c, int sessionId) throws SQLException {
+        try (var ps = c.prepareStatement("""
+                SELECT a.id, a.user_id, a.mode, a.data
+                FROM archived_session s JOIN session_archive a ON a.id = s.block_id
+                WHERE s.session_id = ?""")) {
+            ps.setInt(1, sessionId);
+            try (var rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    List<Entry> block = new ArrayList<>(
+                            decode(rs.getBytes(4), rs.getInt(2), GameMode.valueOf(rs.getString(3))));
+                    for (int i = 0; i < block.size(); i++) {
+                        if (block.get(i).id == sessionId) return new Located(rs.getLong(1), block, i);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    // ---- block format ----
+    //
+    // Deflate-compressed: format byte, session count, then per session its ID, start and
+    // end text, score, strikes and answers (correct flag, epoch millis, question ID,
+    // optional response text, response time). User and mode are columns of the row.
+
+    static byte[] encode(List<Entry> block) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            var bytes = new ByteArrayOutputStream(64 * block.size());
+            try (var out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+                out.writeByte(BLOCK_FORMAT);
+                out.writeInt(block.size());
+                for (Entry e : block) {
+                    out.writeInt(e.id);
+                    out.writeUTF(e.startedAt);
+                    out.writeUTF(e.endedAt == null ? "" : e.endedAt);
+                    out.writeInt(e.score);
+                    out.writeInt(e.strikes);
+                    out.writeInt(e.answers.size());
+                    for (Answer a : e.answers) {
+                        out.writeBoolean(a.correct);
+                        out.writeLong(a.answeredAt);
+                        out.writeInt(a.questionId);
+                        out.writeBoolean(a.response != null);
+                        if (a.response != null) out.writeUTF(a.response);
+                        out.writeInt(a.responseMs);
+                    }
+                }
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static List<Entry> decode(byte[] data, int userId, GameMode mode) {
+        Inflater inflater = new Inflater();
+        try (var in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data), inflater))) {
+            int format = in.readUnsignedByte();
+            if (format != BLOCK_FORMAT) throw new IllegalStateException("Unknown archive block format " + format);
+            int n = in.readInt();
+            List<Entry> out = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                int id = in.readInt();
+                String started = in.readUTF();
+                String ended = in.readUTF();
+                int score = in.readInt();
+                int strikes = in.readInt();
+                int answerCount = in.readInt();
+                List<Answer> answers = new ArrayList<>(answerCount);
+                for (int k = 0; k < answerCount; k++) {
+                    boolean correct = in.readBoolean();
+                    long at = in.readLong();
+                    int question = in.readInt();
+                    String response = in.readBoolean() ? in.readUTF() : null;
+                    answers.add(new Answer(correct, at, question, response, in.readInt()));
+                }
+                out.add(new Entry(id, userId, mode, started, ended.isEmpty() ? null : ended,
+                        score, strikes, answers));
+            }
+            return out;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt archive block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Converts a stored timestamp the same way the driver's {@code getTimestamp} does for
+     * live rows, so archived and live sessions sort and display alike.
+     */
+    static Instant parseTimestamp(String text) {
+        return Timestamp.valueOf(text).toInstant();
+    }
+
+    /** Formats an instant the way SQLite's {@code CURRENT_TIMESTAMP} does. */
+    static String formatTimestamp(Instant instant) {
+        return SQLITE_TIMESTAMP.format(instant);
+    }
+}
@@ -0,0 +1,254 @@
+package main.java.com.team.game.data;
+
+import main.java.com.team.game.model.GameSession;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped journal of rounds in progress, used to finish rounds
+ * that were interrupted by a crash or by closing the game mid-round.
+ * <p>
+ * Every round start, answer and finish appends one fixed-size record holding the
+ * round's state after the event. Records are written into a {@link MappedByteBuffer},
+ * so an append is a memory copy: the OS writes the pages back even if the process
+ * dies, and nothing is fsynced per answer ({@link #force()} is called on compaction
+ * and close). Each record carries a CRC32, so a torn tail is detected and ignored.
+ * <p>
+ * A finish record must only be appended once the final result is committed to
+ * SQLite. Compaction then keeps just the latest state of each round that has not
+ * finished, so the file stays small. If a compaction is itself interrupted, older
+ * records may survive after the new ones; {@link #pending()} keeps the state with
+ * the most answers per round, so they are harmless.
+ * <p>
+ * File layout: an 8-byte header ({@code "CABJ"}, version), then 24-byte records:
+ * <pre>
+ *  0 type (1 start, 2 answer, 3 finish)   1 unused   2 strikes (short)
+ *  4 session ID (int)   8 score (int)   12 time, epoch ms (long)   20 CRC32 of bytes 0-19
+ * </pre>
+ */
+public final class SessionJournal implements AutoCloseable {
+
+    /** Default initial size of the mapped file. */
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private static final int HEADER_MAGIC = 0x4341424A; // "CABJ"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    static final int RECORD_SIZE = 24;
+
+    private static final byte START = 1;
+    private static final byte ANSWER = 2;
+    private static final byte FINISH = 3;
+
+    /**
+     * Latest known state of a round in the journal.
+     *
+     * @param sessionId session the state belongs to
+     * @param score     score after the last journaled event
+     * @param strikes   strikes after the last journaled event
+     * @param finished  true if the round's final result was committed
+     * @param at        time of the last journaled event
+     */
+    public record Entry(int sessionId, int score, int strikes, boolean finished, Instant at) {
+        /** @return answers given so far; each answer adds one point or one strike */
+        int progress() { return score + strikes; }
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final CRC32 crc = new CRC32();
+    private final byte[] scratch = new byte[RECORD_SIZE];
+
+    // all guarded by this
+    private MappedByteBuffer map;
+    private int position;
+    private final Map<Integer, Entry> entries = new LinkedHashMap<>();
+    private boolean closed;
+
+    private SessionJournal(Path file, FileChannel channel, MappedByteBuffer map) {
+        this.file = file;
+        this.channel = channel;
+        this.map = map;
+    }
+
+    /**
+     * Opens (or creates) the journal at {@code file} and reads the records it holds.
+     *
+     * @param capacity initial mapped size in bytes; the file grows when it fills up with open rounds
+     */
+    public static SessionJournal open(Path file, int capacity) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            FileChannel ch = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = Math.max(ch.size(), HEADER_SIZE + (long) Math.max(capacity, RECORD_SIZE));
+            SessionJournal j = new SessionJournal(file, ch, ch.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            j.load();
+            return j;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open session journal " + file, e);
+        }
+    }
+
+    /** @return the journal file */
+    public Path getFile() { return file; }
+
+    /** Records that a round was started (its row already exists in SQLite). */
+    public void started(GameSession s) {
+        append(START, s.getId(), s.getScore(), s.getStrikes());
+    }
+
+    /** Records a round's state right after an answer. */
+    public void answered(GameSession now) {
+        append(ANSWER, now.getId(), now.getScore(), now.getStrikes());
+    }
+
+    /** Records that a round's final result is committed; call only after the write returns. */
+    public void finished(int sessionId) {
+        synchronized (this) {
+            Entry e = entries.get(sessionId);
+            append(FINISH, sessionId, e == null ? 0 : e.score(), e == null ? 0 : e.strikes());
+        }
+    }
+
+    /** @return the latest state of every round that has not finished, in order of first appearance */
+    public synchronized List<Entry> pending() {
+        List<Entry> out = new ArrayList<>();
+        for (Entry e : entries.values()) if (!e.finished()) out.add(e);
+        return out;
+    }
+
+    /** @return bytes of the file currently holding records */
+    public synchronized int size() { return position; }
+
+    /**
+     * Rewrites the journal with one record per round that has not finished and flushes
+     * it to disk. Finished rounds are dropped: their results are in SQLite.
+     */
+    public synchronized void compact() {
+        ensureOpen();
+        List<Entry> keep = pending();
+        entries.clear();
+        int oldPosition = position;
+        position = HEADER_SIZE;
+        for (Entry e : keep) write(START, e.sessionId(), e.score(), e.strikes(), e.at().toEpochMilli());
+        for (int i = position; i < oldPosition; i++) map.put(i, (byte) 0); // so stale records read as the end
+        force();
+    }
+
+    /**
+     * Forgets rounds that no longer need recovering, e.g. after {@link GameStore#recoverSessions}
+     * finalized them, and compacts.
+     */
+    public synchronized void markFinished(List<Entry> recovered) {
+        for (Entry e : recovered) {
+            entries.put(e.sessionId(), new Entry(e.sessionId(), e.score(), e.strikes(), true, e.at()));
+        }
+        compact();
+    }
+
+    /** Flushes written records to the storage device. */
+    public synchronized void force() {
+        if (!closed) map.force();
+    }
+
+    /** Flushes and closes the file; later appends are ignored. Safe to call more than once. */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        map.force();
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close session journal: " + e.getMessage());
+        }
+    }
+
+    // ---- records ----
+
+    private synchronized void append(byte type, int sessionId, int score, int strikes) {
+        if (closed) return; // shutting down: what is in SQLite now is what recovery will see
+        if (position + RECORD_SIZE > map.capacity()) {
+            compact();
+            if (position + RECORD_SIZE > map.capacity() / 2) grow();
+        }
+        write(type, sessionId, score, strikes, System.currentTimeMillis());
+    }
+
+    private void write(byte type, int sessionId, int score, int strikes, long atMs) {
+        ByteBuffer rec = ByteBuffer.wrap(scratch);
+        rec.put(type).put((byte) 0).putShort((short) strikes).putInt(sessionId).putInt(score).putLong(atMs);
+        crc.reset();
+        crc.update(scratch, 0, RECORD_SIZE - 4);
+        rec.putInt((int) crc.getValue());
+        map.put(position, scratch);
+        position += RECORD_SIZE;
+        apply(type, sessionId, score, strikes, atMs);
+    }
+
+    /** Merges a record into {@link #entries}, keeping the state with the most answers. */
+    private void apply(byte type, int sessionId, int score, int strikes, long atMs) {
+        Entry prev = entries.get(sessionId);
+        boolean finished = type == FINISH || (prev != null && prev.finished());
+        Entry next = new Entry(sessionId, score, strikes, finished, Instant.ofEpochMilli(atMs));
+        if (prev != null && prev.progress() > next.progress()) {
+            next = new Entry(sessionId, prev.score(), prev.strikes(), finished, prev.at());
+        }
+        entries.put(sessionId, next);
+    }
+
+    /** Reads records up to the first empty or corrupt one; initializes an empty file. */
+    private void load() {
+        if (map.getInt(0) != HEADER_MAGIC) {
+            for (int i = 0; i < map.capacity(); i++) map.put(i, (byte) 0);
+            map.putInt(0, HEADER_MAGIC).putInt(4, VERSION);
+            position = HEADER_SIZE;
+            map.force();
+            return;
+        }
+        if (map.getInt(4) != VERSION) {
+            throw new IllegalStateException("Unsupported session journal version " + map.getInt(4) + " in " + file);
+        }
+        position = HEADER_SIZE;
+        while (position + RECORD_SIZE <= map.capacity()) {
+            map.get(position, scratch);
+            byte type = scratch[0];
+            if (type < START || type > FINISH) break;
+            crc.reset();
+            crc.update(scratch, 0, RECORD_SIZE - 4);
+            ByteBuffer rec = ByteBuffer.wrap(scratch);
+            if (rec.getInt(RECORD_SIZE - 4) != (int) crc.getValue()) break; // torn write
+            apply(type, rec.getInt(4), rec.getInt(8), rec.getShort(2), rec.getLong(12));
+            position += RECORD_SIZE;
+        }
+    }
+
+    /** Doubles the mapped size once open rounds alone fill half of it. */
+    private void grow() {
+        try {
+            map.force();
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) map.capacity() * 2);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot grow session journal " + file, e);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) throw new IllegalStateException("Session journal is closed");
+    }
+}
@@ -0,0 +1,225 @@
+package main.java.com.team.game.data;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routes every write to one dedicated thread, which owns the only writing connection.
+ * <p>
+ * SQLite admits one writer at a time; letting every thread write means they queue on
+ * the file lock and can fail with {@code SQLITE_BUSY}. Here callers enqueue their work
+ * and wait. The writer thread takes whatever has queued up (up to {@code maxBatch}
+ * writes) and runs it in one transaction, each write inside its own savepoint, so a
+ * failing write is rolled back alone while the rest of the batch still commits
+ * (group commit). A caller returns only after its write is committed.
+ * <p>
+ * After {@link #close()} the queue is drained and later writes run on the caller's
+ * thread, so shutdown hooks that still write (such as the answer flusher) keep working.
+ */
+final class SingleWriter implements AutoCloseable {
+
+    /** Work executed on the writer's connection, inside the current transaction. */
+    @FunctionalInterface
+    interface Work<T> {
+        T run(Connection c) throws SQLException;
+    }
+
+    /** Default maximum number of writes grouped into one transaction. */
+    static final int DEFAULT_MAX_BATCH = 64;
+
+    private final Database db;
+    private final int maxBatch;
+    private final LinkedBlockingQueue<Job<?>> queue = new LinkedBlockingQueue<>();
+    private final Object lifecycle = new Object();
+    private final Thread thread;
+    private boolean closed; // guarded by lifecycle
+
+    // metrics, guarded by this
+    private int maxQueueDepth;
+    private long commits;
+    private long writes;
+    private long failedWrites;
+    private long failedCommits;
+    private int lastBatchSize;
+    private int maxBatchSize;
+    private long totalCommitNanos;
+
+    /**
+     * Starts the writer thread.
+     *
+     * @param db       pool the writer borrows its connection from
+     * @param maxBatch maximum writes per transaction (min 1)
+     */
+    SingleWriter(Database db, int maxBatch) {
+        this.db = db;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.thread = new Thread(this::loop, "db-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Runs {@code work} on the writer thread and waits until it has been committed.
+     *
+     * @return the value {@code work} returned
+     * @throws SQLException the exception {@code work} threw (its savepoint is rolled back),
+     *                      or the failure of the transaction it was grouped into
+     */
+    <T> T submit(Work<T> work) throws SQLException {
+        Job<T> job = new Job<>(work);
+        if (Thread.currentThread() == thread) {
+            throw new IllegalStateException("Nested write on the writer thread");
+        }
+        boolean direct;
+        synchronized (lifecycle) {
+            direct = closed;
+            if (!direct) queue.add(job);
+        }
+        if (direct) commit(List.of(job));
+        return job.await();
+    }
+
+    /** @return a snapshot of the queue depth and batch counters */
+    synchronized WriterStats stats() {
+        return new WriterStats(queue.size(), maxQueueDepth, commits, writes, failedWrites, failedCommits,
+                lastBatchSize, maxBatchSize, commits == 0 ? 0.0 : totalCommitNanos / 1_000_000.0 / commits);
+    }
+
+    /**
+     * Commits everything still queued, then stops the writer thread. Safe to call more
+     * than once; writes submitted afterwards run on the caller's thread.
+     */
+    @Override
+    public void close() {
+        synchronized (lifecycle) {
+            closed = true;
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ---- internals ----
+
+    private void loop() {
+        List<Job<?>> batch = new ArrayList<>(maxBatch);
+        while (true) {
+            Job<?> first;
+            try {
+                first = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                first = null;
+            }
+            if (first == null) {
+                synchronized (lifecycle) {
+                    if (closed && queue.isEmpty()) return;
+                }
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, maxBatch - 1);
+            synchronized (this) {
+                maxQueueDepth = Math.max(maxQueueDepth, batch.size() + queue.size());
+            }
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    /** Runs a batch in one transaction, a savepoint per job, and completes every job. */
+    private void commit(List<Job<?>> batch) {
+        long start = System.nanoTime();
+        int ok = 0;
+        int failed = 0;
+        try (Connection c = db.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                for (Job<?> job : batch) {
+                    try (var sp = c.prepareStatement("SAVEPOINT write_job")) { sp.execute(); }
+                    if (job.runIn(c)) {
+                        try (var rel = c.prepareStatement("RELEASE write_job")) { rel.execute(); }
+                        ok++;
+                    } else {
+                        try (var rb = c.prepareStatement("ROLLBACK TO write_job")) { rb.execute(); }
+                        try (var rel = c.prepareStatement("RELEASE write_job")) { rel.execute(); }
+                        failed++;
+                    }
+                }
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        } catch (SQLException | RuntimeException e) {
+            synchronized (this) {
+                failedCommits++;
+            }
+            for (Job<?> job : batch) job.fail(e);
+            return;
+        }
+        // Counted before the callers are released, so a caller that has its result sees its write in the stats
+        synchronized (this) {
+            commits++;
+            writes += ok;
+            failedWrites += failed;
+            lastBatchSize = batch.size();
+            maxBatchSize = Math.max(maxBatchSize, batch.size());
+            totalCommitNanos += System.nanoTime() - start;
+        }
+        for (Job<?> job : batch) job.complete();
+    }
+
+    /** One queued write: its work, its result once run, and the future its caller waits on. */
+    private static final class Job<T> {
+        private final Work<T> work;
+        private final CompletableFuture<T> done = new CompletableFuture<>();
+        private T result;
+        private Exception error;
+
+        Job(Work<T> work) { this.work = work; }
+
+        /** Runs the work; results are held back until the transaction commits. */
+        boolean runIn(Connection c) {
+            try {
+                result = work.run(c);
+                return true;
+            } catch (SQLException | RuntimeException e) {
+                error = e;
+                return false;
+            }
+        }
+
+        void complete() {
+            if (error != null) done.completeExceptionally(error);
+            else done.complete(result);
+        }
+
+        void fail(Exception e) {
+            done.completeExceptionally(error != null ? error : e);
+        }
+
+        T await() throws SQLException {
+            try {
+                return done.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for the writer", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException se) throw se;
+                if (cause instanceof RuntimeException re) throw re;
+                throw new SQLException(cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package main.java.com.team.game.data;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of prepared statements bound to one physical connection.
+ * <p>
+ * Statements are keyed by their SQL text (plus the generated-keys flag) so a
+ * query that runs on every answer click is parsed and planned by SQLite only
+ * once per connection. Callers get a thin proxy whose {@code close()} resets
+ * the statement and hands it back instead of finalizing it. A statement that
+ * is already checked out is never shared: a second request for the same SQL
+ * gets a fresh, uncached statement.
+ * <p>
+ * The driver finalizes a statement whose execution fails with some errors (such as
+ * {@code SQLITE_ERROR} after a schema change, or {@code SQLITE_INTERRUPT}), so a
+ * statement that threw from an {@code execute} call, or is found closed when it is
+ * handed back, is dropped from the cache and prepared afresh next time.
+ * <p>
+ * Not thread-safe on its own; it is only used by whoever currently holds the
+ * owning connection.
+ */
+final class StatementCache {
+
+    private final Connection physical;
+    private final int capacity;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+
+    /** Access-ordered map, so iteration starts at the least recently used entry. */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * @param physical  connection the statements are prepared on
+     * @param capacity  maximum number of cached statements (0 disables caching)
+     * @param hits      shared counter incremented on cache hits
+     * @param misses    shared counter incremented on cache misses
+     * @param evictions shared counter incremented when an entry is evicted
+     */
+    StatementCache(Connection physical, int capacity, AtomicLong hits, AtomicLong misses, AtomicLong evictions) {
+        this.physical = physical;
+        this.capacity = capacity;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    /**
+     * Returns a prepared statement for {@code sql}, reusing a cached one when possible.
+     *
+     * @param owner             pooled connection reported by {@link PreparedStatement#getConnection()}
+     * @param sql               statement text
+     * @param autoGeneratedKeys a {@link java.sql.Statement} generated-keys flag, or -1 for the default
+     */
+    PreparedStatement prepare(Connection owner, String sql, int autoGeneratedKeys) throws SQLException {
+        if (capacity <= 0) {
+            misses.incrementAndGet();
+            return prepareRaw(sql, autoGeneratedKeys);
+        }
+        String key = autoGeneratedKeys < 0 ? sql : autoGeneratedKeys + "|" + sql;
+        Entry e = entries.get(key);
+        if (e != null && !e.inUse) {
+            hits.incrementAndGet();
+        } else if (e != null) {
+            misses.incrementAndGet();               // same SQL already open (nested use)
+            return prepareRaw(sql, autoGeneratedKeys);
+        } else {
+            misses.incrementAndGet();
+            e = new Entry(key, prepareRaw(sql, autoGeneratedKeys));
+            entries.put(key, e);
+            evictOverflow();
+        }
+        e.inUse = true;
+        return e.checkout(owner);
+    }
+
+    /** Finalizes every cached statement. Called before the physical connection is closed. */
+    void clear() {
+        for (Entry e : entries.values()) {
+            if (e.inUse) e.closeOnReturn = true;
+            else closeQuietly(e.statement);
+        }
+        entries.clear();
+    }
+
+    private PreparedStatement prepareRaw(String sql, int autoGeneratedKeys) throws SQLException {
+        return autoGeneratedKeys < 0
+                ? physical.prepareStatement(sql)
+                : physical.prepareStatement(sql, autoGeneratedKeys);
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > capacity && it.hasNext()) {
+            Entry lru = it.next();
+            it.remove();
+            evictions.incrementAndGet();
+            if (lru.inUse) lru.closeOnReturn = true;
+            else closeQuietly(lru.statement);
+        }
+    }
+
+    /** Drops an entry whose statement can no longer be reused. */
+    private void discard(Entry e) {
+        closeQuietly(e.statement);
+        if (entries.remove(e.key, e)) evictions.incrementAndGet();
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try { ps.close(); } catch (SQLException ignored) { }
+    }
+
+    /** One cached statement and its checkout state. */
+    private final class Entry {
+        final String key;
+        final PreparedStatement statement;
+        boolean inUse;
+        boolean closeOnReturn;
+        /** An execute call threw; the driver may have finalized the statement. */
+        boolean failed;
+
+        Entry(String key, PreparedStatement statement) {
+            this.key = key;
+            this.statement = statement;
+        }
+
+        PreparedStatement checkout(Connection owner) {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new Handle(this, owner));
+        }
+
+        /** Resets the statement for the next caller, or drops it if it cannot be reused. */
+        void checkin() {
+            inUse = false;
+            if (closeOnReturn) {
+                closeQuietly(statement);
+                return;
+            }
+            try {
+                if (!failed && !statement.isClosed()) {
+                    statement.clearParameters();
+                    statement.clearBatch();
+                    return;
+                }
+            } catch (SQLException e) {
+                // fall through: a statement that cannot be reset is not reused
+            }
+            discard(this);
+        }
+    }
+
+    /** Proxy handler: {@code close()} returns the statement to the cache. */
+    private static final class Handle implements InvocationHandler {
+        private final Entry entry;
+        private final Connection owner;
+        private boolean returned;
+
+        Handle(Entry entry, Connection owner) {
+            this.entry = entry;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (name) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> "Cached[" + entry.statement + "]";
+                };
+            }
+            switch (name) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        entry.checkin();
+                    }
+                    return null;
+                case "isClosed":
+                    return returned;
+                case "getConnection":
+                    return owner;
+                default:
+                    if (returned) throw new SQLException("Statement has already been closed");
+            }
+            try {
+                return method.invoke(entry.statement, args);
+            } catch (InvocationTargetException e) {
+                if (name.startsWith("execute")) entry.failed = true;
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package main.java.com.team.game.data;
+
+import java.util.Set;
+
+/**
+ * Receives row changes made through a {@link GameStorage}, for keeping caches in step.
+ * <p>
+ * {@link #onChange} is called for each changed row, on the thread that made the change,
+ * followed by {@link #onCommit} once the changes are visible to readers, or by
+ * {@link #onRollback} if they were discarded. Table names are those of the SQLite
+ * schema ({@code users}, {@code game_session}, {@code user_best_score}, ...); the
+ * in-memory store reports the same names for the equivalent changes.
+ * <p>
+ * With a {@link ReadReplica}, some queries may still return the old rows for a short
+ * while after {@link #onCommit}; {@link #onReplicaRefresh} says when they stop.
+ * <p>
+ * A store that runs writes on a thread of its own (the SQLite store's single writer)
+ * carries the caller's {@link #captureWriteContext write context} over to that thread,
+ * so per-thread state such as "ignore this write" still applies to it.
+ */
+public interface StorageListener {
+
+    /** Kind of row change. */
+    enum Change { INSERT, UPDATE, DELETE }
+
+    /**
+     * @param change what happened to the row
+     * @param table  table the row belongs to
+     * @param rowId  ID of the row; meaningful for {@code users} and {@code game_session}
+     */
+    void onChange(Change change, String table, long rowId);
+
+    /** The changes reported since the last commit or rollback on this thread are now visible. */
+    void onCommit();
+
+    /** The changes reported since the last commit or rollback on this thread were discarded. */
+    void onRollback();
+
+    /**
+     * Queries routed to the read replica now see every change committed before
+     * {@code takenAtNanos}, so results read from it earlier may be out of date.
+     *
+     * @param tables       tables changed since the previous refresh
+     * @param takenAtNanos {@link System#nanoTime()} when the replica's new snapshot was started
+     */
+    default void onReplicaRefresh(Set<String> tables, long takenAtNanos) { }
+
+    /**
+     * Returns the calling thread's state that decides how {@link #onChange} treats its
+     * writes, captured when a write is queued for another thread.
+     *
+     * @return the state, or {@code null} if there is none
+     */
+    default Object captureWriteContext() { return null; }
+
+    /**
+     * Makes state from {@link #captureWriteContext} current on this thread, around a
+     * write run on another thread's behalf.
+     *
+     * @param context the captured state, or the value this returned to put it back
+     * @return the state it replaced
+     */
+    default Object restoreWriteContext(Object context) { return null; }
+}
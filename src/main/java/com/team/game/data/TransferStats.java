@@ -0,0 +1,68 @@
+package main.java.com.team.game.data;
+
+/**
+ * Immutable summary of a {@link GameStore} export or import.
+ * <p>
+ * On export the skipped counts are always 0. On import a user is skipped when their
+ * username (ignoring case) already exists, and a session or answer is skipped when its
+ * owner was skipped.
+ */
+public final class TransferStats {
+
+    private final long users;
+    private final long sessions;
+    private final long answers;
+    private final long skippedUsers;
+    private final long skippedSessions;
+    private final long skippedAnswers;
+    private final long elapsedMillis;
+
+    /**
+     * Constructs a new {@code TransferStats}.
+     *
+     * @param users           users written or imported
+     * @param sessions        sessions written or imported
+     * @param answers         logged answers written or imported
+     * @param skippedUsers    users not imported because the username was taken
+     * @param skippedSessions sessions not imported because their user was skipped
+     * @param skippedAnswers  answers not imported because their session was skipped
+     * @param elapsedMillis   wall-clock duration of the transfer
+     */
+    public TransferStats(long users, long sessions, long answers, long skippedUsers,
+                         long skippedSessions, long skippedAnswers, long elapsedMillis) {
+        this.users = users;
+        this.sessions = sessions;
+        this.answers = answers;
+        this.skippedUsers = skippedUsers;
+        this.skippedSessions = skippedSessions;
+        this.skippedAnswers = skippedAnswers;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /** @return users written or imported */
+    public long getUsers() { return users; }
+
+    /** @return sessions written or imported */
+    public long getSessions() { return sessions; }
+
+    /** @return logged answers written or imported */
+    public long getAnswers() { return answers; }
+
+    /** @return users not imported because the username was taken */
+    public long getSkippedUsers() { return skippedUsers; }
+
+    /** @return sessions not imported because their user was skipped */
+    public long getSkippedSessions() { return skippedSessions; }
+
+    /** @return answers not imported because their session was skipped */
+    public long getSkippedAnswers() { return skippedAnswers; }
+
+    /** @return wall-clock duration of the transfer, in milliseconds */
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    @Override
+    public String toString() {
+        return String.format("users=%d, sessions=%d, answers=%d, skipped users=%d sessions=%d answers=%d, %d ms",
+                users, sessions, answers, skippedUsers, skippedSessions, skippedAnswers, elapsedMillis);
+    }
+}
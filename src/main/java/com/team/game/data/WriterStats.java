@@ -0,0 +1,87 @@
+package main.java.com.team.game.data;
+
+/**
+ * Immutable snapshot of the {@link GameStore} single-writer queue.
+ * <p>
+ * Counts are cumulative since the writer started, except {@code queueDepth}
+ * which is the number of writes waiting at the moment of the snapshot.
+ */
+public final class WriterStats {
+
+    private final int queueDepth;
+    private final int maxQueueDepth;
+    private final long commits;
+    private final long writes;
+    private final long failedWrites;
+    private final long failedCommits;
+    private final int lastBatchSize;
+    private final int maxBatchSize;
+    private final double averageCommitMillis;
+
+    /**
+     * Constructs a new {@code WriterStats} snapshot.
+     *
+     * @param queueDepth          writes currently waiting for the writer thread
+     * @param maxQueueDepth       largest queue depth seen when a batch was taken
+     * @param commits             transactions committed
+     * @param writes              writes committed across all transactions
+     * @param failedWrites        writes that failed and were rolled back on their own
+     * @param failedCommits       transactions that failed as a whole
+     * @param lastBatchSize       writes in the most recent transaction
+     * @param maxBatchSize        most writes grouped into one transaction
+     * @param averageCommitMillis average time from BEGIN to COMMIT, in milliseconds
+     */
+    public WriterStats(int queueDepth, int maxQueueDepth, long commits, long writes, long failedWrites,
+                       long failedCommits, int lastBatchSize, int maxBatchSize, double averageCommitMillis) {
+        this.queueDepth = queueDepth;
+        this.maxQueueDepth = maxQueueDepth;
+        this.commits = commits;
+        this.writes = writes;
+        this.failedWrites = failedWrites;
+        this.failedCommits = failedCommits;
+        this.lastBatchSize = lastBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.averageCommitMillis = averageCommitMillis;
+    }
+
+    /** @return writes currently waiting for the writer thread */
+    public int getQueueDepth() { return queueDepth; }
+
+    /** @return largest queue depth seen when a batch was taken */
+    public int getMaxQueueDepth() { return maxQueueDepth; }
+
+    /** @return transactions committed */
+    public long getCommits() { return commits; }
+
+    /** @return writes committed across all transactions */
+    public long getWrites() { return writes; }
+
+    /** @return writes that failed and were rolled back without affecting their batch */
+    public long getFailedWrites() { return failedWrites; }
+
+    /** @return transactions that failed to commit, failing every write in them */
+    public long getFailedCommits() { return failedCommits; }
+
+    /** @return writes grouped into the most recent transaction */
+    public int getLastBatchSize() { return lastBatchSize; }
+
+    /** @return most writes grouped into a single transaction */
+    public int getMaxBatchSize() { return maxBatchSize; }
+
+    /** @return average writes per committed transaction, 0.0 when none */
+    public double getAverageBatchSize() {
+        return commits == 0 ? 0.0 : (double) writes / commits;
+    }
+
+    /** @return average time a transaction was open, in milliseconds */
+    public double getAverageCommitMillis() { return averageCommitMillis; }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "writer: queue=%d (max %d), commits=%d, writes=%d, failed=%d, failedCommits=%d, "
+                        + "batch last=%d max=%d avg=%.1f, avg commit %.2f ms",
+                queueDepth, maxQueueDepth, commits, writes, failedWrites, failedCommits,
+                lastBatchSize, maxBatchSize, getAverageBatchSize(), averageCommitMillis);
+    }
+}
@@ -0,0 +1,69 @@
+package main.java.com.team.game.model;
+
+import java.time.Instant;
+
+/**
+ * Immutable record of a single answer submitted during a game session.
+ * <p>
+ * Every answer is appended to the {@code answer_event} log in batches; when
+ * write-behind is enabled the same events are also applied to the owning session's
+ * score and strikes. The question, the response and the response time are optional.
+ */
+public final class AnswerEvent {
+
+    private final int sessionId;
+    private final boolean correct;
+    private final Instant answeredAt;
+    private final String question;
+    private final String response;
+    private final int responseMs;
+
+    /**
+     * Constructs an {@code AnswerEvent} without question details.
+     *
+     * @param sessionId  ID of the session the answer belongs to
+     * @param correct    true if the answer was correct, false for a strike
+     * @param answeredAt time the answer was submitted
+     */
+    public AnswerEvent(int sessionId, boolean correct, Instant answeredAt) {
+        this(sessionId, correct, answeredAt, null, null, -1);
+    }
+
+    /**
+     * Constructs a new {@code AnswerEvent}.
+     *
+     * @param sessionId  ID of the session the answer belongs to
+     * @param correct    true if the answer was correct, false for a strike
+     * @param answeredAt time the answer was submitted
+     * @param question   prompt that identifies the question, or {@code null} if unknown
+     * @param response   what the player entered, or {@code null} if nothing (e.g. timed out)
+     * @param responseMs time from showing the question to answering, or -1 if unknown
+     */
+    public AnswerEvent(int sessionId, boolean correct, Instant answeredAt,
+                       String question, String response, int responseMs) {
+        this.sessionId = sessionId;
+        this.correct = correct;
+        this.answeredAt = answeredAt;
+        this.question = question;
+        this.response = response;
+        this.responseMs = responseMs;
+    }
+
+    /** @return the ID of the session this answer belongs to */
+    public int getSessionId() { return sessionId; }
+
+    /** @return true if the answer was correct, false if it was a strike */
+    public boolean isCorrect() { return correct; }
+
+    /** @return timestamp of when the answer was submitted */
+    public Instant getAnsweredAt() { return answeredAt; }
+
+    /** @return the prompt that identifies the question, or {@code null} if unknown */
+    public String getQuestion() { return question; }
+
+    /** @return what the player entered, or {@code null} if nothing was entered */
+    public String getResponse() { return response; }
+
+    /** @return milliseconds from showing the question to answering, or -1 if unknown */
+    public int getResponseMs() { return responseMs; }
+}
@@ -0,0 +1,48 @@
+package main.java.com.team.game.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Time window a leaderboard ranks rounds over.
+ * <p>
+ * Windows follow the local calendar: a day starts at local midnight, a week on
+ * Monday, and a term is a calendar quarter (January, April, July and October).
+ * A round counts towards the windows that contain its end time; when a window
+ * rolls over its leaderboard starts empty.
+ */
+public enum LeaderboardPeriod {
+    /** Rounds finished today. */
+    DAY("Today"),
+    /** Rounds finished since Monday. */
+    WEEK("This week"),
+    /** Rounds finished since the start of the quarter. */
+    TERM("This term"),
+    /** Every round ever finished. */
+    ALL_TIME("All time");
+
+    private final String label;
+
+    LeaderboardPeriod(String label) { this.label = label; }
+
+    /** @return short name for period selectors */
+    public String getLabel() { return label; }
+
+    /** @return false for {@link #ALL_TIME}, which has no window */
+    public boolean isWindowed() { return this != ALL_TIME; }
+
+    /**
+     * Returns the first day of the window that contains {@code date}.
+     *
+     * @throws IllegalStateException for {@link #ALL_TIME}
+     */
+    public LocalDate startOf(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case TERM -> date.withDayOfMonth(1).minusMonths((date.getMonthValue() - 1) % 3);
+            case ALL_TIME -> throw new IllegalStateException("ALL_TIME has no window");
+        };
+    }
+}
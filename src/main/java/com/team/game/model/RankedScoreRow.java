@@ -0,0 +1,48 @@
+package main.java.com.team.game.model;
+
+/**
+ * A leaderboard entry together with the player's rank in that mode.
+ * <p>
+ * Ranks start at 1; how ties share a rank depends on the {@link RankingStyle}
+ * the row was computed with.
+ */
+public final class RankedScoreRow {
+
+    private final int rank;
+    private final int userId;
+    private final String username;
+    private final GameMode mode;
+    private final int highScore;
+
+    /**
+     * Constructs a new {@code RankedScoreRow}.
+     *
+     * @param rank      1-based rank of the user in the mode
+     * @param userId    unique ID of the user
+     * @param username  username associated with the score
+     * @param mode      game mode the score was achieved in
+     * @param highScore the user’s best score for this mode
+     */
+    public RankedScoreRow(int rank, int userId, String username, GameMode mode, int highScore) {
+        this.rank = rank;
+        this.userId = userId;
+        this.username = username;
+        this.mode = mode;
+        this.highScore = highScore;
+    }
+
+    /** @return the 1-based rank of this entry */
+    public int getRank() { return rank; }
+
+    /** @return the user’s unique ID */
+    public int getUserId() { return userId; }
+
+    /** @return the username associated with this score entry */
+    public String getUsername() { return username; }
+
+    /** @return the game mode this score applies to */
+    public GameMode getMode() { return mode; }
+
+    /** @return the user’s highest recorded score */
+    public int getHighScore() { return highScore; }
+}
@@ -0,0 +1,14 @@
+package main.java.com.team.game.model;
+
+/**
+ * How tied scores are ranked.
+ * <p>
+ * For scores 90, 80, 80, 70: {@link #STANDARD} ranks them 1, 2, 2, 4 and
+ * {@link #DENSE} ranks them 1, 2, 2, 3.
+ */
+public enum RankingStyle {
+    /** Competition ranking: ties share a rank and the following ranks are skipped. */
+    STANDARD,
+    /** Dense ranking: ties share a rank and the next distinct score ranks one lower. */
+    DENSE
+}
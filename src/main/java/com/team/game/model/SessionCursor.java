@@ -0,0 +1,36 @@
+package main.java.com.team.game.model;
+
+/**
+ * Position in a user's session history, used to fetch the page that follows it.
+ * <p>
+ * Holds the {@code (started_at, id)} key of the last session on a page exactly as
+ * stored, so the next page can seek straight to it instead of skipping rows.
+ * Obtain one from {@link SessionPage#getNextCursor()}.
+ */
+public final class SessionCursor {
+
+    private final String startedAt;
+    private final int id;
+
+    /**
+     * Constructs a new {@code SessionCursor}.
+     *
+     * @param startedAt stored {@code started_at} value of the last session seen
+     * @param id        ID of the last session seen
+     */
+    public SessionCursor(String startedAt, int id) {
+        this.startedAt = startedAt;
+        this.id = id;
+    }
+
+    /** @return the stored start time of the last session seen */
+    public String getStartedAt() { return startedAt; }
+
+    /** @return the ID of the last session seen */
+    public int getId() { return id; }
+
+    @Override
+    public String toString() {
+        return "SessionCursor{" + startedAt + ", " + id + "}";
+    }
+}
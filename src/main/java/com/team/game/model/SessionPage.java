@@ -0,0 +1,36 @@
+package main.java.com.team.game.model;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * One page of a user's session history, newest first.
+ * <p>
+ * If more sessions follow, {@link #getNextCursor()} holds the cursor to pass
+ * back for the next page.
+ */
+public final class SessionPage {
+
+    private final List<GameSession> sessions;
+    private final SessionCursor nextCursor; // null on the last page
+
+    /**
+     * Constructs a new {@code SessionPage}.
+     *
+     * @param sessions   sessions on this page
+     * @param nextCursor cursor for the following page, or {@code null} if this is the last page
+     */
+    public SessionPage(List<GameSession> sessions, SessionCursor nextCursor) {
+        this.sessions = List.copyOf(sessions);
+        this.nextCursor = nextCursor;
+    }
+
+    /** @return the sessions on this page (unmodifiable) */
+    public List<GameSession> getSessions() { return sessions; }
+
+    /** @return cursor for the next page, or empty if this is the last page */
+    public Optional<SessionCursor> getNextCursor() { return Optional.ofNullable(nextCursor); }
+
+    /** @return true if more sessions follow this page */
+    public boolean hasMore() { return nextCursor != null; }
+}
@@ -0,0 +1,200 @@
+package main.java.com.team.game.service;
+
+import main.java.com.team.game.model.AnswerEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind queue for answer events.
+ * <p>
+ * {@link #add(AnswerEvent)} only appends to an in-memory queue, so callers on the
+ * JavaFX thread never wait for the database. A single background thread hands the
+ * queue to its sink (such as {@code GameStorage#applyAnswers} or
+ * {@code GameStorage#appendAnswerEvents}), which writes it in one transaction, every
+ * {@code flushIntervalMs}, or as soon as {@code maxBatch} answers are waiting.
+ * {@link #flush()} writes everything queued so far before returning.
+ * <p>
+ * If a flush fails the batch is put back at the head of the queue and retried on
+ * the next flush, so answers are neither lost nor reordered.
+ */
+final class AnswerBuffer implements AutoCloseable {
+
+    private final Consumer<List<AnswerEvent>> sink;
+    private final int maxBatch;
+
+    /** Guards {@link #queue}; held only for in-memory operations. */
+    private final ReentrantLock queueLock = new ReentrantLock();
+    private final ArrayDeque<AnswerEvent> queue = new ArrayDeque<>();
+
+    /** Serialises flushes so batches reach the database in submission order. */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final ScheduledExecutorService flusher;
+    private final ScheduledFuture<?> periodic;
+    private boolean flushRequested;
+    private volatile boolean closed;
+
+    // metrics, written under flushLock
+    private long flushes;
+    private long events;
+    private long failures;
+    private int lastBatchSize;
+    private int maxBatchSize;
+    private long lastFlushNanos;
+    private long maxFlushNanos;
+    private long totalFlushNanos;
+
+    /**
+     * Creates the buffer and starts its background flusher.
+     *
+     * @param sink            writes one batch transactionally, throwing if it fails
+     * @param maxBatch        queued answers that trigger an early flush (min 1)
+     * @param flushIntervalMs time between periodic flushes (min 1)
+     * @param threadName      name of the background flusher thread
+     */
+    AnswerBuffer(Consumer<List<AnswerEvent>> sink, int maxBatch, long flushIntervalMs, String threadName) {
+        this.sink = sink;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, threadName);
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(1, flushIntervalMs);
+        this.periodic = flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues an answer. Never touches the database; schedules a background flush
+     * once {@code maxBatch} answers are waiting.
+     *
+     * @throws IllegalStateException if the buffer has been closed
+     */
+    void add(AnswerEvent event) {
+        boolean trigger = false;
+        queueLock.lock();
+        try {
+            if (closed) throw new IllegalStateException("Answer buffer is closed");
+            queue.addLast(event);
+            if (queue.size() >= maxBatch && !flushRequested) {
+                flushRequested = true;
+                trigger = true;
+            }
+        } finally {
+            queueLock.unlock();
+        }
+        if (trigger) flusher.execute(this::flushQuietly);
+    }
+
+    /**
+     * Writes every answer queued so far, blocking until it is committed.
+     *
+     * @throws RuntimeException if the write fails; the answers stay queued
+     */
+    void flush() {
+        flushLock.lock();
+        try {
+            List<AnswerEvent> batch = drain();
+            if (batch.isEmpty()) return;
+            long start = System.nanoTime();
+            try {
+                sink.accept(batch);
+            } catch (RuntimeException e) {
+                failures++;
+                requeue(batch);
+                throw e;
+            }
+            long took = System.nanoTime() - start;
+            flushes++;
+            events += batch.size();
+            lastBatchSize = batch.size();
+            maxBatchSize = Math.max(maxBatchSize, batch.size());
+            lastFlushNanos = took;
+            maxFlushNanos = Math.max(maxFlushNanos, took);
+            totalFlushNanos += took;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /** @return a snapshot of the flush counters */
+    WriteBehindStats stats() {
+        int pending;
+        queueLock.lock();
+        try {
+            pending = queue.size();
+        } finally {
+            queueLock.unlock();
+        }
+        flushLock.lock();
+        try {
+            return new WriteBehindStats(flushes, events, failures, pending, lastBatchSize, maxBatchSize,
+                    lastFlushNanos / 1_000_000.0, maxFlushNanos / 1_000_000.0,
+                    flushes == 0 ? 0.0 : totalFlushNanos / 1_000_000.0 / flushes);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Stops the background flusher and writes whatever is still queued.
+     * Safe to call more than once; every call returns only after any flush in
+     * progress has finished.
+     */
+    @Override
+    public void close() {
+        boolean first;
+        queueLock.lock();
+        try {
+            first = !closed;
+            closed = true;
+        } finally {
+            queueLock.unlock();
+        }
+        if (first) {
+            periodic.cancel(false);
+            flusher.shutdown();
+        }
+        flush();
+    }
+
+    // ---- internals ----
+
+    /** Background flush; failures are logged and retried on the next tick. */
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            System.err.println("Failed to flush answers, will retry: " + e.getMessage());
+        }
+    }
+
+    private List<AnswerEvent> drain() {
+        queueLock.lock();
+        try {
+            flushRequested = false;
+            List<AnswerEvent> batch = new ArrayList<>(queue);
+            queue.clear();
+            return batch;
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private void requeue(List<AnswerEvent> batch) {
+        queueLock.lock();
+        try {
+            for (int i = batch.size() - 1; i >= 0; i--) queue.addFirst(batch.get(i));
+        } finally {
+            queueLock.unlock();
+        }
+    }
+}
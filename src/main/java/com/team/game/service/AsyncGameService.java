@@ -0,0 +1,292 @@
+package main.java.com.team.game.service;
+
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.model.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking facade over {@link GameService} for the JavaFX controllers.
+ * <p>
+ * Every call runs on its own virtual thread and returns a {@link CompletableFuture},
+ * so bcrypt hashing and SQLite I/O never run on the JavaFX Application Thread.
+ * Controllers continue on the FX thread with
+ * {@code whenCompleteAsync(..., FxRuntime.fxThread())}.
+ * <p>
+ * Each call is bounded by a timeout: the future fails with a
+ * {@link java.util.concurrent.TimeoutException} once the time is up, and statements the
+ * call runs on its own thread are stopped by the same deadline (see
+ * {@link Database#withQueryTimeout}). Cancelling or timing out a future interrupts the
+ * virtual thread running it, which also stops a statement in progress; a write queued
+ * to the store's single writer still completes.
+ * <p>
+ * The answers of one round must reach the store in order, so they go through a
+ * {@link Round}, which runs its operations one after another.
+ */
+public final class AsyncGameService implements AutoCloseable {
+
+    /** Default time a call may take before its future fails. */
+    public static final long DEFAULT_TIMEOUT_MS = 10_000;
+
+    private final GameService svc;
+    private final long timeoutMs;
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("game-io-", 0).factory());
+
+    /**
+     * Creates the facade with its own virtual-thread executor.
+     *
+     * @param svc       service the calls are delegated to
+     * @param timeoutMs maximum duration of one call (min 1)
+     */
+    AsyncGameService(GameService svc, long timeoutMs) {
+        this.svc = svc;
+        this.timeoutMs = Math.max(1, timeoutMs);
+    }
+
+    // ---------------------------------------------------------------------
+    // AUTHENTICATION & USER MANAGEMENT
+    // ---------------------------------------------------------------------
+
+    /**
+     * Authenticates a user off the FX thread. The password is copied before returning,
+     * so the caller may wipe its array straight away; the copy is wiped after use.
+     */
+    public CompletableFuture<Optional<User>> login(String username, char[] password) {
+        char[] pw = Arrays.copyOf(password, password.length);
+        return supply(() -> {
+            try {
+                return svc.login(username, pw);
+            } finally {
+                Arrays.fill(pw, '\0');
+            }
+        });
+    }
+
+    /**
+     * Registers a user off the FX thread. The password is copied as for {@link #login}.
+     * The future fails with {@link IllegalStateException} if the name is taken.
+     */
+    public CompletableFuture<User> register(String username, char[] password) {
+        char[] pw = Arrays.copyOf(password, password.length);
+        return supply(() -> {
+            try {
+                return svc.register(username, pw);
+            } finally {
+                Arrays.fill(pw, '\0');
+            }
+        });
+    }
+
+    /** @see GameService#listUsers() */
+    public CompletableFuture<List<User>> listUsers() {
+        return supply(svc::listUsers);
+    }
+
+    /** @see GameService#updateUsername(User, String) */
+    public CompletableFuture<Void> updateUsername(User user, String newName) {
+        return run(() -> svc.updateUsername(user, newName));
+    }
+
+    /** Updates a password off the FX thread; the password is copied as for {@link #login}. */
+    public CompletableFuture<Void> updatePassword(User user, char[] newPw) {
+        char[] pw = Arrays.copyOf(newPw, newPw.length);
+        return run(() -> {
+            try {
+                svc.updatePassword(user, pw);
+            } finally {
+                Arrays.fill(pw, '\0');
+            }
+        });
+    }
+
+    /** @see GameService#deleteUser(User) */
+    public CompletableFuture<Boolean> deleteUser(User user) {
+        return supply(() -> svc.deleteUser(user));
+    }
+
+    // ---------------------------------------------------------------------
+    // GAME SESSIONS
+    // ---------------------------------------------------------------------
+
+    /**
+     * Starts a round in the background. Answers may be submitted on the returned
+     * {@link Round} straight away; they are applied once the session exists.
+     */
+    public Round startRound(User user, GameMode mode) {
+        return new Round(submit(() -> svc.startRound(user, mode)));
+    }
+
+    /** @see GameService#listSessionsByUser(User, SessionCursor, int, GameMode) */
+    public CompletableFuture<SessionPage> listSessionsByUser(User user, SessionCursor after, int pageSize, GameMode mode) {
+        return supply(() -> svc.listSessionsByUser(user, after, pageSize, mode));
+    }
+
+    /** @see GameService#countSessionsByUser(User, GameMode) */
+    public CompletableFuture<Integer> countSessionsByUser(User user, GameMode mode) {
+        return supply(() -> svc.countSessionsByUser(user, mode));
+    }
+
+    /** @see GameService#deleteSession(int) */
+    public CompletableFuture<Boolean> deleteSession(int sessionId) {
+        return supply(() -> svc.deleteSession(sessionId));
+    }
+
+    // ---------------------------------------------------------------------
+    // SCORING & LEADERBOARD
+    // ---------------------------------------------------------------------
+
+    /** @see GameService#highScore(User, GameMode) */
+    public CompletableFuture<OptionalInt> highScore(User user, GameMode mode) {
+        return supply(() -> svc.highScore(user, mode));
+    }
+
+    /** @see GameService#leaderboard(GameMode, int) */
+    public CompletableFuture<List<ScoreRow>> leaderboard(GameMode mode, int limit) {
+        return supply(() -> svc.leaderboard(mode, limit));
+    }
+
+    /** @see GameService#leaderboard(GameMode, LeaderboardPeriod, int) */
+    public CompletableFuture<List<ScoreRow>> leaderboard(GameMode mode, LeaderboardPeriod period, int limit) {
+        return supply(() -> svc.leaderboard(mode, period, limit));
+    }
+
+    // ---------------------------------------------------------------------
+    // EXECUTION
+    // ---------------------------------------------------------------------
+
+    /**
+     * Runs arbitrary service work on a virtual thread with this facade's timeout.
+     * Use for screens that combine several calls into one load.
+     *
+     * @param work blocking work, typically calls on {@link GameService}
+     * @return a future completed with the result, or failed with the thrown exception
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> work) {
+        return submit(work).result();
+    }
+
+    /**
+     * A submitted call: the future its caller sees, which may time out or be cancelled
+     * while the work is still running, and a future that completes (never exceptionally)
+     * once the work has returned or was dropped before it started.
+     */
+    private record Call<T>(CompletableFuture<T> result, CompletableFuture<Void> ended) { }
+
+    private <T> Call<T> submit(Supplier<T> work) {
+        CompletableFuture<T> f = new CompletableFuture<>();
+        CompletableFuture<Void> ended = new CompletableFuture<>();
+        AtomicBoolean claimed = new AtomicBoolean(); // by the worker starting, or by a cancel before that
+        Future<?> task = executor.submit(() -> {
+            if (!claimed.compareAndSet(false, true)) return; // cancelled or timed out while queued
+            try {
+                f.complete(Database.withQueryTimeout(timeoutMs, work));
+            } catch (Throwable t) {
+                f.completeExceptionally(t);
+            } finally {
+                ended.complete(null);
+            }
+        });
+        f.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        f.whenComplete((r, e) -> {
+            if (e == null) return;
+            if (claimed.compareAndSet(false, true)) ended.complete(null); // will never run
+            else task.cancel(true);
+        });
+        return new Call<>(f, ended);
+    }
+
+    /**
+     * Unwraps the {@link CompletionException} a dependent stage reports, so callers can
+     * test for the exception the service actually threw (e.g. {@link IllegalStateException}).
+     *
+     * @param error throwable passed to a completion handler
+     * @return the underlying cause
+     */
+    public static Throwable causeOf(Throwable error) {
+        Throwable t = error;
+        while (t instanceof CompletionException && t.getCause() != null) t = t.getCause();
+        return t;
+    }
+
+    private CompletableFuture<Void> run(Runnable work) {
+        return supply(() -> { work.run(); return null; });
+    }
+
+    /**
+     * Stops accepting calls and waits for the ones already running to finish.
+     * Registered to run before the database pool closes.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    /**
+     * One round in progress. Its operations run strictly in submission order, each
+     * after the previous one has finished (successfully or not), so queued answers
+     * cannot overtake each other or the final {@link #finish()}. An operation whose
+     * future timed out still counts as running until its work has actually returned.
+     */
+    public final class Round {
+        private final CompletableFuture<GameSession> started;
+        /** Completes when the work of the last operation submitted has ended. */
+        private CompletableFuture<Void> tail;
+
+        private Round(Call<GameSession> start) {
+            this.started = start.result();
+            this.tail = start.ended();
+        }
+
+        /** @return completes with the new session, or fails if it could not be started */
+        public CompletableFuture<GameSession> started() { return started; }
+
+        /** @see GameService#submitCorrect(GameSession) */
+        public CompletableFuture<Optional<GameSession>> submitCorrect() {
+            return then(svc::submitCorrect);
+        }
+
+        /** @see GameService#submitWrong(GameSession) */
+        public CompletableFuture<Optional<GameSession>> submitWrong() {
+            return then(svc::submitWrong);
+        }
+
+        /** @see GameService#submitCorrect(GameSession, String, String, int) */
+        public CompletableFuture<Optional<GameSession>> submitCorrect(String question, String response, int responseMs) {
+            return then(s -> svc.submitCorrect(s, question, response, responseMs));
+        }
+
+        /** @see GameService#submitWrong(GameSession, String, String, int) */
+        public CompletableFuture<Optional<GameSession>> submitWrong(String question, String response, int responseMs) {
+            return then(s -> svc.submitWrong(s, question, response, responseMs));
+        }
+
+        /** @see GameService#finishRound(GameSession) */
+        public CompletableFuture<Void> finish() {
+            return then(s -> { svc.finishRound(s); return null; });
+        }
+
+        /** Chains {@code op} behind the work of everything submitted earlier on this round. */
+        private synchronized <T> CompletableFuture<T> then(Function<GameSession, T> op) {
+            CompletableFuture<Call<T>> call = tail
+                    .thenCompose(ignored -> started)
+                    .thenApply(s -> submit(() -> op.apply(s)));
+            tail = call
+                    .handle((c, e) -> c == null ? CompletableFuture.<Void>completedFuture(null) : c.ended())
+                    .thenCompose(Function.identity());
+            return call.thenCompose(Call::result);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package main.java.com.team.game.service;
+
+import main.java.com.team.game.data.StorageListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Invalidates {@link QueryCache} entries and the {@link RankingIndex} from storage row-change
+ * events, and reports the same changes to the {@link ChangeFeed}.
+ * <p>
+ * Registered on the storage (for SQLite, on every pooled connection), it catches writes
+ * that do not go through {@link GameService}'s own mutators: the write-behind flusher,
+ * triggers, other {@code GameStorage} users in this process. Changes are collected
+ * per thread and applied when the transaction commits, so readers cannot re-cache
+ * the old rows before the new ones are visible; a rollback discards them.
+ * <p>
+ * Writes made inside {@link #quietly} are ignored because the service invalidates
+ * precisely for those itself; the flag travels with the write when the storage runs it
+ * on a writer thread. Session rows of rounds played live are skipped for the feed:
+ * their snapshots only repeat state the service has already published. SQLite only reports changes made through this process's
+ * connections; writes from another process are bounded by the cache TTL.
+ * <p>
+ * When the store reads through a lagging replica, results cached (or pushed) right after a
+ * commit may come from the old copy, so each replica refresh drops them again and has the
+ * feed re-read.
+ */
+final class CacheInvalidator implements StorageListener {
+
+    /** Past this many row changes in one transaction the whole cache is cleared instead. */
+    private static final int MAX_PENDING = 1_000;
+
+    private final QueryCache cache;
+    private final RankingIndex ranking;
+    private final ChangeFeed feed;
+    private final IntPredicate isLive;
+    private final ThreadLocal<Integer> quiet = ThreadLocal.withInitial(() -> 0);
+    private final ThreadLocal<Pending> pending = ThreadLocal.withInitial(Pending::new);
+
+    /** Invalidations waiting for the current thread's transaction to commit. */
+    private static final class Pending {
+        final List<Runnable> actions = new ArrayList<>();
+        boolean clearAll;
+
+        void reset() {
+            actions.clear();
+            clearAll = false;
+        }
+    }
+
+    /**
+     * @param isLive whether a session ID belongs to a round being played in memory
+     */
+    CacheInvalidator(QueryCache cache, RankingIndex ranking, ChangeFeed feed, IntPredicate isLive) {
+        this.cache = cache;
+        this.ranking = ranking;
+        this.feed = feed;
+        this.isLive = isLive;
+    }
+
+    /** Runs a service write whose cache effects the caller invalidates itself. */
+    <T> T quietly(Supplier<T> write) {
+        quiet.set(quiet.get() + 1);
+        try {
+            return write.get();
+        } finally {
+            quiet.set(quiet.get() - 1);
+        }
+    }
+
+    /** Runs a service write whose cache effects the caller invalidates itself. */
+    void quietly(Runnable write) {
+        quietly(() -> { write.run(); return null; });
+    }
+
+    @Override
+    public Object captureWriteContext() {
+        return quiet.get();
+    }
+
+    @Override
+    public Object restoreWriteContext(Object context) {
+        Integer before = quiet.get();
+        quiet.set(context == null ? 0 : (Integer) context);
+        return before;
+    }
+
+    @Override
+    public void onChange(Change type, String table, long rowId) {
+        if (quiet.get() > 0) return;
+        Runnable action = switch (table) {
+            case "users" -> type == Change.INSERT
+                    ? cache::invalidateUsers
+                    : () -> { cache.invalidateUser((int) rowId); ranking.invalidate(); feed.allScoresChanged(); };
+            case "game_session" -> sessionAction(type, (int) rowId);
+            case "user_best_score" -> () -> { cache.invalidateAllScores(); ranking.invalidate(); feed.allScoresChanged(); };
+            case "period_best" -> () -> { cache.invalidateAllScores(); feed.allScoresChanged(); };
+            default -> null;
+        };
+        if (action == null) return;
+        Pending p = pending.get();
+        if (p.clearAll) return;
+        if (p.actions.size() < MAX_PENDING) {
+            p.actions.add(action);
+        } else {
+            p.actions.clear();
+            p.clearAll = true;
+        }
+    }
+
+    @Override
+    public void onCommit() {
+        Pending p = pending.get();
+        if (p.clearAll) {
+            cache.clear();
+            ranking.invalidate();
+            feed.allScoresChanged();
+            feed.sessionChanged(ChangeFeed.ALL_USERS, SessionChange.reset());
+        }
+        else for (Runnable r : p.actions) r.run();
+        p.reset();
+    }
+
+    /** Owners are not known from the row ID, so subscribers re-read unless it is a removal. */
+    private Runnable sessionAction(Change type, int sessionId) {
+        if (type == Change.INSERT) {
+            return () -> {
+                cache.invalidateAllSessions();
+                feed.sessionChanged(ChangeFeed.ALL_USERS, SessionChange.reset());
+            };
+        }
+        boolean live = type == Change.UPDATE && isLive.test(sessionId);
+        return () -> {
+            cache.invalidateSession(sessionId);
+            if (live) return;
+            feed.sessionChanged(ChangeFeed.ALL_USERS, type == Change.DELETE
+                    ? SessionChange.removed(sessionId)
+                    : SessionChange.reset());
+        };
+    }
+
+    @Override
+    public void onRollback() {
+        pending.get().reset();
+    }
+
+    @Override
+    public void onReplicaRefresh(Set<String> tables, long takenAtNanos) {
+        boolean users = tables.contains("users");
+        if (users) cache.invalidateUsers();
+        if (users || tables.contains("user_best_score") || tables.contains("period_best")) {
+            cache.invalidateAllScores();
+            feed.allScoresChanged();
+        }
+        if (tables.contains("game_session") || tables.contains("session_archive")) cache.invalidateAllSessions();
+        feed.repeatResets(takenAtNanos);
+    }
+}
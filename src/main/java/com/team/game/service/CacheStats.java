@@ -0,0 +1,97 @@
+package main.java.com.team.game.service;
+
+/**
+ * Immutable snapshot of the {@link GameService} query cache counters.
+ * <p>
+ * Counts are cumulative since the service was created, except {@code size}
+ * which is the number of cached results at the moment of the snapshot.
+ */
+public final class CacheStats {
+
+    private final long[] hits;
+    private final long[] misses;
+    private final long evictions;
+    private final long expirations;
+    private final long invalidations;
+    private final int size;
+    private final int maxSize;
+
+    /**
+     * Constructs a new {@code CacheStats} snapshot.
+     *
+     * @param hits          hits per query, indexed by {@link CachedQuery#ordinal()}
+     * @param misses        misses per query, indexed by {@link CachedQuery#ordinal()}
+     * @param evictions     entries dropped to stay within {@code maxSize}
+     * @param expirations   entries dropped because their TTL had passed
+     * @param invalidations entries dropped because the data behind them changed
+     * @param size          entries currently cached
+     * @param maxSize       maximum number of cached entries
+     */
+    public CacheStats(long[] hits, long[] misses, long evictions, long expirations,
+                      long invalidations, int size, int maxSize) {
+        this.hits = hits.clone();
+        this.misses = misses.clone();
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.invalidations = invalidations;
+        this.size = size;
+        this.maxSize = maxSize;
+    }
+
+    /** @return cache hits for the given query */
+    public long getHits(CachedQuery query) { return hits[query.ordinal()]; }
+
+    /** @return cache misses (database reads) for the given query */
+    public long getMisses(CachedQuery query) { return misses[query.ordinal()]; }
+
+    /** @return fraction of calls to the given query served from the cache, 0.0 when none */
+    public double getHitRatio(CachedQuery query) {
+        return ratio(getHits(query), getMisses(query));
+    }
+
+    /** @return total cache hits across all queries */
+    public long getHits() { return sum(hits); }
+
+    /** @return total cache misses across all queries */
+    public long getMisses() { return sum(misses); }
+
+    /** @return fraction of all cached-query calls served from the cache, 0.0 when none */
+    public double getHitRatio() { return ratio(getHits(), getMisses()); }
+
+    /** @return entries evicted to stay within the size bound */
+    public long getEvictions() { return evictions; }
+
+    /** @return entries dropped after their TTL passed */
+    public long getExpirations() { return expirations; }
+
+    /** @return entries dropped because their data changed */
+    public long getInvalidations() { return invalidations; }
+
+    /** @return number of entries currently cached */
+    public int getSize() { return size; }
+
+    /** @return maximum number of entries, 0 when caching is disabled */
+    public int getMaxSize() { return maxSize; }
+
+    private static long sum(long[] values) {
+        long total = 0;
+        for (long v : values) total += v;
+        return total;
+    }
+
+    private static double ratio(long hit, long miss) {
+        long total = hit + miss;
+        return total == 0 ? 0.0 : (double) hit / total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(String.format(
+                "cache: %d/%d entries, hit ratio %.2f, evictions=%d, expirations=%d, invalidations=%d",
+                size, maxSize, getHitRatio(), evictions, expirations, invalidations));
+        for (CachedQuery q : CachedQuery.values()) {
+            sb.append(String.format(", %s %d/%d", q.name().toLowerCase(), getHits(q), getHits(q) + getMisses(q)));
+        }
+        return sb.toString();
+    }
+}
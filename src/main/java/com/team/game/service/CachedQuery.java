@@ -0,0 +1,15 @@
+package main.java.com.team.game.service;
+
+/**
+ * Read queries of {@link GameService} whose results are cached.
+ */
+public enum CachedQuery {
+    /** {@link GameService#listUsers()} */
+    USERS,
+    /** {@link GameService#listSessionsByUser} */
+    SESSIONS,
+    /** {@link GameService#highScore} */
+    HIGH_SCORE,
+    /** {@link GameService#leaderboard} */
+    LEADERBOARD
+}
@@ -0,0 +1,324 @@
+package main.java.com.team.game.service;
+
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.LeaderboardPeriod;
+import main.java.com.team.game.model.ScoreRow;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+
+/**
+ * Pushes leaderboard and session-list changes to subscribers such as open windows.
+ * <p>
+ * {@link GameService} reports what each of its writes touched, and the
+ * {@link CacheInvalidator} reports writes made around it. A report only marks a mode or
+ * a player's sessions as changed; one background thread collects the marks once per
+ * coalescing interval, re-reads each affected leaderboard once and compares it with what
+ * each subscriber last received, so a leaderboard subscriber hears about a finished
+ * round only when it changes the top K. Deliveries to one subscriber are merged until its
+ * executor gets round to them, so a busy JavaFX thread gets one batch, not a backlog.
+ * <p>
+ * Nothing is read while nothing changes; the only timer is one per window rollover
+ * (local midnight) while a windowed leaderboard is subscribed. With no subscribers a
+ * report costs a volatile read, and the thread is not started until the first subscription.
+ */
+final class ChangeFeed implements AutoCloseable {
+
+    /** Default time reports are collected before subscribers are updated. */
+    static final long DEFAULT_COALESCE_MS = 200;
+
+    /** Owner passed for session changes whose player is not known; sent to every subscriber. */
+    static final int ALL_USERS = -1;
+
+    /** Reads a leaderboard the way a subscriber would. */
+    @FunctionalInterface
+    interface BoardReader {
+        List<ScoreRow> read(GameMode mode, LeaderboardPeriod period, int limit);
+    }
+
+    private final BoardReader boards;
+    private final Runnable onRollover;
+    private final long coalesceMs;
+    private final ScheduledExecutorService dispatcher;
+    private final CopyOnWriteArrayList<BoardSubscription> boardSubs = new CopyOnWriteArrayList<>();
+    private final CopyOnWriteArrayList<SessionSubscription> sessionSubs = new CopyOnWriteArrayList<>();
+
+    // guarded by this
+    private final Set<GameMode> dirtyModes = EnumSet.noneOf(GameMode.class);
+    private final List<Owned> dirtySessions = new ArrayList<>();
+    private boolean scheduled;
+    private boolean rolloverScheduled;
+    /** When each player (or {@link #ALL_USERS}) was last reset; kept once reads are known to lag. */
+    private final Map<Integer, Long> resetAt = new HashMap<>();
+    private boolean trackResets;
+
+    /** A session change and the player it belongs to ({@link #ALL_USERS} if unknown). */
+    private record Owned(int userId, SessionChange change) { }
+
+    /**
+     * @param boards     reads the leaderboards subscribers watch (normally through the query cache)
+     * @param onRollover run at each midnight before boards are re-read, to drop cached windowed boards
+     * @param coalesceMs how long reports are collected before subscribers are updated (min 1)
+     */
+    ChangeFeed(BoardReader boards, Runnable onRollover, long coalesceMs) {
+        this.boards = boards;
+        this.onRollover = onRollover;
+        this.coalesceMs = Math.max(1, coalesceMs);
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "change-feed");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // ---- subscribing ----
+
+    /**
+     * Watches the top {@code limit} rows of a leaderboard. The current rows are delivered
+     * straight away, then the whole new top K each time it changes.
+     */
+    Subscription subscribeLeaderboard(GameMode mode, LeaderboardPeriod period, int limit,
+                                      Executor executor, Consumer<List<ScoreRow>> listener) {
+        BoardSubscription sub = new BoardSubscription(mode, period, limit,
+                new Outbox<>(executor, listener, (older, newer) -> newer));
+        boardSubs.add(sub);
+        if (period.isWindowed()) scheduleRollover();
+        dispatcher.execute(() -> refresh(sub));
+        return () -> {
+            boardSubs.remove(sub);
+            sub.outbox.closed = true;
+        };
+    }
+
+    /** Watches one player's sessions; each delivery is a batch of changes in the order they happened. */
+    Subscription subscribeSessions(int userId, Executor executor, Consumer<List<SessionChange>> listener) {
+        SessionSubscription sub = new SessionSubscription(userId, new Outbox<>(executor, listener, SessionChange::merge));
+        sessionSubs.add(sub);
+        return () -> {
+            sessionSubs.remove(sub);
+            sub.outbox.closed = true;
+        };
+    }
+
+    // ---- reports ----
+
+    /** A mode's best scores (or the names shown next to them) may have changed. */
+    void scoresChanged(GameMode mode) {
+        if (boardSubs.isEmpty()) return;
+        synchronized (this) {
+            dirtyModes.add(mode);
+            schedule();
+        }
+    }
+
+    /** Best scores of every mode may have changed. */
+    void allScoresChanged() {
+        if (boardSubs.isEmpty()) return;
+        synchronized (this) {
+            dirtyModes.addAll(EnumSet.allOf(GameMode.class));
+            schedule();
+        }
+    }
+
+    /**
+     * A session of the player changed.
+     *
+     * @param userId owner of the session, or {@link #ALL_USERS} if not known
+     */
+    void sessionChanged(int userId, SessionChange change) {
+        if (sessionSubs.isEmpty()) return;
+        synchronized (this) {
+            dirtySessions.add(new Owned(userId, change));
+            if (trackResets && change.getKind() == SessionChange.Kind.RESET) resetAt.put(userId, System.nanoTime());
+            schedule();
+        }
+    }
+
+    /**
+     * Reads now see every change made before {@code takenAtNanos}. A reset sent before then
+     * may have been reloaded from older rows, so it is sent again. Called after each refresh
+     * of a lagging read replica; resets are only remembered from the first call on.
+     *
+     * @param takenAtNanos {@link System#nanoTime()} the reads are up to date with
+     */
+    void repeatResets(long takenAtNanos) {
+        synchronized (this) {
+            trackResets = true;
+            for (Iterator<Map.Entry<Integer, Long>> it = resetAt.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<Integer, Long> e = it.next();
+                if (e.getValue() - takenAtNanos >= 0) continue;
+                it.remove();
+                if (sessionSubs.isEmpty()) continue;
+                dirtySessions.add(new Owned(e.getKey(), SessionChange.reset()));
+                schedule();
+            }
+        }
+    }
+
+    // ---- dispatching ----
+
+    /** Caller holds the lock. */
+    private void schedule() {
+        if (scheduled) return;
+        scheduled = true;
+        try {
+            dispatcher.schedule(this::dispatch, coalesceMs, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) { // closed: nobody is left to tell
+            scheduled = false;
+        }
+    }
+
+    private void dispatch() {
+        Set<GameMode> modes;
+        List<Owned> sessions;
+        synchronized (this) {
+            modes = EnumSet.copyOf(dirtyModes);
+            dirtyModes.clear();
+            sessions = new ArrayList<>(dirtySessions);
+            dirtySessions.clear();
+            scheduled = false;
+        }
+        for (BoardSubscription sub : boardSubs) {
+            if (modes.contains(sub.mode)) refresh(sub);
+        }
+        if (sessions.isEmpty()) return;
+        for (SessionSubscription sub : sessionSubs) {
+            List<SessionChange> mine = new ArrayList<>();
+            for (Owned o : sessions) {
+                if (o.userId == sub.userId || o.userId == ALL_USERS) mine.add(o.change);
+            }
+            if (!mine.isEmpty()) sub.outbox.post(SessionChange.merge(List.of(), mine));
+        }
+    }
+
+    /** Re-reads a watched leaderboard and delivers it if it differs from the last delivery. */
+    private void refresh(BoardSubscription sub) {
+        if (sub.outbox.closed) return;
+        List<ScoreRow> rows;
+        try {
+            rows = boards.read(sub.mode, sub.period, sub.limit);
+        } catch (RuntimeException e) {
+            System.err.println("Leaderboard refresh failed: " + e.getMessage());
+            return; // the next change retries
+        }
+        if (sub.last != null && sameRows(sub.last, rows)) return;
+        sub.last = rows;
+        sub.outbox.post(rows);
+    }
+
+    private static boolean sameRows(List<ScoreRow> a, List<ScoreRow> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            ScoreRow x = a.get(i), y = b.get(i);
+            if (x.getUserId() != y.getUserId() || x.getHighScore() != y.getHighScore()
+                    || !x.getUsername().equals(y.getUsername())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Re-reads every mode at the next local midnight, when day (and possibly week and term)
+     * windows roll over without any write, then again each midnight after.
+     */
+    private synchronized void scheduleRollover() {
+        if (rolloverScheduled) return;
+        rolloverScheduled = true;
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.systemDefault());
+        ZonedDateTime midnight = LocalDate.now(now.getZone()).plusDays(1).atStartOfDay(now.getZone());
+        long delayMs = Duration.between(now, midnight).toMillis() + 1_000; // past the boundary SQLite sees
+        try {
+            dispatcher.schedule(() -> {
+                synchronized (this) { rolloverScheduled = false; }
+                onRollover.run();
+                allScoresChanged();
+                if (boardSubs.stream().anyMatch(s -> s.period.isWindowed())) scheduleRollover();
+            }, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) { // closed
+            rolloverScheduled = false;
+        }
+    }
+
+    /** Stops the dispatcher; queued reports are dropped. */
+    @Override
+    public void close() {
+        dispatcher.shutdownNow();
+        boardSubs.clear();
+        sessionSubs.clear();
+    }
+
+    // ---- subscriptions ----
+
+    private static final class BoardSubscription {
+        final GameMode mode;
+        final LeaderboardPeriod period;
+        final int limit;
+        final Outbox<List<ScoreRow>> outbox;
+        List<ScoreRow> last; // dispatcher thread only
+
+        BoardSubscription(GameMode mode, LeaderboardPeriod period, int limit, Outbox<List<ScoreRow>> outbox) {
+            this.mode = mode;
+            this.period = period;
+            this.limit = limit;
+            this.outbox = outbox;
+        }
+    }
+
+    private record SessionSubscription(int userId, Outbox<List<SessionChange>> outbox) { }
+
+    /**
+     * Hands values to one subscriber on its executor, merging values posted while an
+     * earlier hand-off is still queued so at most one task is waiting at a time.
+     */
+    private static final class Outbox<T> {
+        private final Executor executor;
+        private final Consumer<T> listener;
+        private final BinaryOperator<T> merge;
+        private T pending;
+        private boolean queued;
+        volatile boolean closed;
+
+        Outbox(Executor executor, Consumer<T> listener, BinaryOperator<T> merge) {
+            this.executor = executor;
+            this.listener = listener;
+            this.merge = merge;
+        }
+
+        void post(T value) {
+            boolean submit;
+            synchronized (this) {
+                pending = pending == null ? value : merge.apply(pending, value);
+                submit = !queued;
+                queued = true;
+            }
+            if (submit) executor.execute(this::deliver);
+        }
+
+        private void deliver() {
+            T value;
+            synchronized (this) {
+                value = pending;
+                pending = null;
+                queued = false;
+            }
+            if (value != null && !closed) listener.accept(value);
+        }
+    }
+}
@@ -1,31 +1,117 @@
 package main.java.com.team.game.service;
 
-import main.java.com.team.game.data.GameStore;
+import main.java.com.team.game.data.GameStorage;
+import main.java.com.team.game.data.SessionJournal;
 import main.java.com.team.game.model.*;
 
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Provides a clean, high-level interface between the UI layer and the database layer.
  * <p>
- * The {@code GameService} acts as a facade around {@link GameStore},
+ * The {@code GameService} acts as a facade around a {@link GameStorage},
  * handling user management, session tracking, score queries, and access
  * to static question banks. It’s used by controllers throughout the app
  * to keep UI logic separate from persistence and data concerns.
+ * <p>
+ * Answers are written synchronously by default. {@link #enableWriteBehind(int, long)}
+ * switches {@link #submitCorrect} and {@link #submitWrong} to an in-memory queue that
+ * is flushed in batches by a background thread, on {@link #finishRound} and when the
+ * database is closed at shutdown.
+ * <p>
+ * Every answer, with its question, response and response time when the caller supplies
+ * them, is also appended to the {@code answer_event} log. Log entries are batched in
+ * memory and inserted together; with write-behind on they are written in the same
+ * transaction as the score updates.
+ * <p>
+ * {@link #listUsers}, {@link #listSessionsByUser}, {@link #highScore} and
+ * {@link #leaderboard} are served from a bounded, TTL-limited cache. The service's
+ * own writes invalidate exactly the entries they affect; other writes through the
+ * same storage are picked up from its change notifications (see
+ * {@link CacheInvalidator}). Hit ratios are available from {@link #cacheStats()}.
+ * <p>
+ * With {@link #enableLiveSessions(long)} a round is instead played in memory: answers
+ * update a {@link LiveSession} with lock-free counters, and only the start, periodic
+ * snapshots and the final result reach the database. {@link #liveSession(int)} and
+ * {@link #liveSessions()} read the current state of rounds in progress without a query.
+ * <p>
+ * {@link #enableJournal(Path)} records round starts, answers and finishes in a
+ * memory-mapped {@link SessionJournal}; rounds left unfinished by a crash or a closed
+ * window are finalized from it the next time the journal is enabled.
+ * <p>
+ * Player ranks ({@link #rankOf}, {@link #topRanked}, {@link #aroundMe}) come from an
+ * in-memory {@link RankingIndex} that is loaded per mode on first use and updated as
+ * rounds finish.
+ * <p>
+ * Open windows can follow changes instead of re-reading: {@link #subscribeLeaderboard}
+ * delivers a board's new top K whenever a finished round, rename or deletion changes it,
+ * and {@link #subscribeSessions} delivers the rounds a player starts, plays, finishes and
+ * deletes. Changes are coalesced over a short interval and handed to the subscriber's
+ * executor (the JavaFX thread, for controllers); nothing is queried while nothing changes.
+ * <p>
+ * Every method here blocks. The JavaFX controllers go through {@link #async()}, which
+ * runs the same calls on virtual threads and returns futures.
  */
 public final class GameService {
 
-    private final GameStore store;
+    /** Default maximum number of cached query results. */
+    public static final int DEFAULT_CACHE_SIZE = 256;
+
+    /** Default time a cached result is served before it is re-read. */
+    public static final long DEFAULT_CACHE_TTL_MS = 30_000;
+
+    /** Logged answers that trigger an early append to {@code answer_event}. */
+    public static final int ANSWER_LOG_BATCH = 64;
+
+    /** Maximum time a logged answer waits in memory before it is appended. */
+    public static final long ANSWER_LOG_INTERVAL_MS = 1_000;
+
+    private final GameStorage store;
+    private final QueryCache cache;
+    private final CacheInvalidator invalidator;
+    private final RankingIndex ranking;
+    private final AnswerBuffer answerLog;
+    private final ChangeFeed feed;
+    private volatile AnswerBuffer answers;
+    private volatile LiveSessions live;
+    private volatile SessionJournal journal;
+    private volatile AsyncGameService async;
 
     /**
-     * Constructs a {@code GameService} that wraps the given {@link GameStore}.
+     * Constructs a {@code GameService} that wraps the given {@link GameStorage},
+     * with the default query cache.
      *
      * @param store the underlying data store that manages persistence
      */
-    public GameService(GameStore store) {
+    public GameService(GameStorage store) {
+        this(store, DEFAULT_CACHE_SIZE, DEFAULT_CACHE_TTL_MS);
+    }
+
+    /**
+     * Constructs a {@code GameService} with a query cache of the given size and TTL.
+     *
+     * @param store      the underlying data store that manages persistence
+     * @param cacheSize  maximum number of cached query results (0 disables caching)
+     * @param cacheTtlMs how long a cached result may be served
+     */
+    public GameService(GameStorage store, int cacheSize, long cacheTtlMs) {
         this.store = store;
+        this.cache = new QueryCache(cacheSize, cacheTtlMs);
+        this.ranking = new RankingIndex(store);
+        this.feed = new ChangeFeed(this::leaderboard, cache::invalidateAllScores, ChangeFeed.DEFAULT_COALESCE_MS);
+        store.onClose(feed::close);
+        this.invalidator = new CacheInvalidator(cache, ranking, feed, id -> liveRound(id) != null);
+        store.addChangeListener(invalidator);
+        this.answerLog = new AnswerBuffer(store::appendAnswerEvents, ANSWER_LOG_BATCH, ANSWER_LOG_INTERVAL_MS, "answer-log");
+        store.onClose(answerLog::close);
     }
 
     // ---------------------------------------------------------------------
@@ -34,7 +120,9 @@ public final class GameService {
 
     /** Registers a new user account. */
     public User register(String username, char[] password) {
-        return store.createUser(username, password);
+        User u = invalidator.quietly(() -> store.createUser(username, password));
+        cache.invalidateUsers();
+        return u;
     }
 
     /** Attempts to authenticate an existing user by username and password. */
@@ -42,24 +130,35 @@ public final class GameService {
         return store.authenticate(username, password);
     }
 
-    /** Returns all users currently stored in the database. */
+    /** Returns all users currently stored in the database (cached). */
     public List<User> listUsers() {
-        return store.listUsers();
+        return cache.get(QueryCache.Key.users(), () -> List.copyOf(store.listUsers()));
     }
 
     /** Updates a user’s username, enforcing uniqueness checks. */
     public void updateUsername(User user, String newName) {
-        store.updateUsername(user.getId(), newName);
+        invalidator.quietly(() -> store.updateUsername(user.getId(), newName));
+        cache.invalidateUsers();
+        cache.invalidateLeaderboardsWith(user.getId());
+        ranking.rename(user.getId(), newName);
+        feed.allScoresChanged();
     }
 
     /** Updates a user’s password. */
     public void updatePassword(User user, char[] newPw) {
-        store.updatePassword(user.getId(), newPw);
+        invalidator.quietly(() -> store.updatePassword(user.getId(), newPw)); // nothing cached depends on it
     }
 
     /** Deletes a user and all associated sessions (cascade delete). */
     public boolean deleteUser(User user) {
-        return store.deleteUser(user.getId());
+        LiveSessions ls = live;
+        if (ls != null) ls.removeUser(user.getId());
+        boolean deleted = invalidator.quietly(() -> store.deleteUser(user.getId()));
+        cache.invalidateUser(user.getId());
+        ranking.removeUser(user.getId());
+        feed.allScoresChanged();
+        feed.sessionChanged(user.getId(), SessionChange.reset());
+        return deleted;
     }
 
     // ---------------------------------------------------------------------
@@ -68,46 +167,478 @@ public final class GameService {
 
     /** Starts a new round/session for the given user and game mode. */
     public GameSession startRound(User user, GameMode mode) {
-        return store.startSession(user.getId(), mode);
+        GameSession s = invalidator.quietly(() -> store.startSession(user.getId(), mode));
+        cache.invalidateSessions(user.getId());
+        LiveSessions ls = live;
+        if (ls != null) ls.register(s);
+        feed.sessionChanged(user.getId(), SessionChange.added(s));
+        SessionJournal j = journal;
+        if (j != null) j.started(s);
+        return s;
+    }
+
+    /**
+     * Records a correct answer in the current game session.
+     *
+     * @return the session as stored after the update; empty if the session is already
+     *         completed, or if write-behind is on and the answer was only queued
+     */
+    public Optional<GameSession> submitCorrect(GameSession s) {
+        return submitCorrect(s, null, null, -1);
+    }
+
+    /**
+     * Records a correct answer and logs which question it was, what was entered and how long it took.
+     *
+     * @param question   prompt identifying the question, or {@code null} if unknown
+     * @param response   what the player entered, or {@code null}
+     * @param responseMs time taken to answer, or -1 if unknown
+     * @return as for {@link #submitCorrect(GameSession)}
+     */
+    public Optional<GameSession> submitCorrect(GameSession s, String question, String response, int responseMs) {
+        return submit(s, new AnswerEvent(s.getId(), true, Instant.now(), question, response, responseMs));
+    }
+
+    /**
+     * Records an incorrect answer in the current game session; the third strike completes it.
+     *
+     * @return the session as stored after the update; empty if the session is already
+     *         completed, or if write-behind is on and the answer was only queued
+     */
+    public Optional<GameSession> submitWrong(GameSession s) {
+        return submitWrong(s, null, null, -1);
+    }
+
+    /**
+     * Records an incorrect answer and logs its details, as for
+     * {@link #submitCorrect(GameSession, String, String, int)}.
+     *
+     * @param response what the player entered, or {@code null} if nothing (e.g. timed out)
+     * @return as for {@link #submitWrong(GameSession)}
+     */
+    public Optional<GameSession> submitWrong(GameSession s, String question, String response, int responseMs) {
+        return submit(s, new AnswerEvent(s.getId(), false, Instant.now(), question, response, responseMs));
     }
 
-    /** Records a correct answer in the current game session. */
-    public void submitCorrect(GameSession s) {
-        store.submitCorrect(s.getId());
+    /**
+     * Applies an answer to the live round, now to the database, or queues it when
+     * write-behind is on; logs it either way.
+     */
+    private Optional<GameSession> submit(GameSession s, AnswerEvent event) {
+        LiveSession round = liveRound(s);
+        if (round != null) {
+            GameSession now = round.answer(event.isCorrect());
+            answerLog.add(event);
+            if (now == null) return Optional.empty();
+            if (now.isCompleted()) {
+                completeLive(now); // third strike: persist the result straight away
+            } else {
+                SessionJournal j = journal;
+                if (j != null) j.answered(now);
+                feed.sessionChanged(now.getUserId(), SessionChange.updated(now));
+            }
+            return Optional.of(now);
+        }
+        AnswerBuffer buf = answers;
+        if (buf != null) { // applied and logged in the same flush
+            buf.add(event);
+            return Optional.empty();
+        }
+        Optional<GameSession> updated = invalidator.quietly(() -> event.isCorrect()
+                ? store.submitCorrect(s.getId())
+                : store.submitWrong(s.getId()));
+        answerLog.add(event);
+        return answered(s, updated);
     }
 
-    /** Records an incorrect answer in the current game session. */
-    public void submitWrong(GameSession s) {
-        store.submitWrong(s.getId());
+    /** Invalidates what a synchronously applied answer changed. */
+    private Optional<GameSession> answered(GameSession s, Optional<GameSession> updated) {
+        cache.invalidateSessions(s.getUserId());
+        SessionJournal j = journal;
+        if (j != null && updated.isPresent()) {
+            if (updated.get().isCompleted()) j.finished(s.getId());
+            else j.answered(updated.get());
+        }
+        if (updated.isPresent()) feed.sessionChanged(s.getUserId(), SessionChange.updated(updated.get()));
+        if (updated.isPresent() && updated.get().isCompleted()) {
+            cache.invalidateScores(s.getUserId(), s.getMode());
+            ranking.refresh(s.getUserId(), s.getMode());
+            feed.scoresChanged(s.getMode());
+        }
+        return updated;
     }
 
-    /** Marks a game session as finished and timestamps its completion. */
+    /**
+     * Marks a game session as finished and timestamps its completion.
+     * Any queued answers are written first, so the final score is durable on return.
+     */
     public void finishRound(GameSession s) {
-        store.finishSession(s.getId());
+        flushPendingAnswers();
+        LiveSession round = liveRound(s);
+        if (round != null) {
+            GameSession result = round.finish();
+            if (result != null) {
+                completeLive(result);
+                return;
+            }
+        }
+        Optional<GameSession> finished = invalidator.quietly(() -> store.finishSession(s.getId()));
+        SessionJournal j = journal;
+        if (j != null) j.finished(s.getId());
+        cache.invalidateSessions(s.getUserId());
+        cache.invalidateScores(s.getUserId(), s.getMode());
+        ranking.refresh(s.getUserId(), s.getMode());
+        feed.sessionChanged(s.getUserId(), finished.map(SessionChange::updated)
+                .orElseGet(() -> SessionChange.removed(s.getId())));
+        feed.scoresChanged(s.getMode());
+    }
+
+    /**
+     * Writes the final result of a live round and stops tracking it.
+     */
+    private void completeLive(GameSession result) {
+        invalidator.quietly(() -> store.completeSession(result));
+        SessionJournal j = journal;
+        if (j != null) j.finished(result.getId());
+        LiveSessions ls = live;
+        if (ls != null) ls.remove(result.getId());
+        cache.invalidateSessions(result.getUserId());
+        cache.invalidateScores(result.getUserId(), result.getMode());
+        ranking.refresh(result.getUserId(), result.getMode());
+        feed.sessionChanged(result.getUserId(), SessionChange.updated(result));
+        feed.scoresChanged(result.getMode());
+    }
+
+    /** @return the live round for {@code s}, or {@code null} if live sessions are off or it is not tracked */
+    private LiveSession liveRound(GameSession s) {
+        return liveRound(s.getId());
     }
 
-    /** Returns all sessions belonging to a particular user, ordered by date. */
+    private LiveSession liveRound(int sessionId) {
+        LiveSessions ls = live;
+        return ls == null ? null : ls.get(sessionId);
+    }
+
+    /** Replaces stored rows of rounds in progress with their live state. */
+    private List<GameSession> withLiveState(List<GameSession> sessions) {
+        LiveSessions ls = live;
+        if (ls == null) return sessions;
+        List<GameSession> out = null;
+        for (int i = 0; i < sessions.size(); i++) {
+            LiveSession round = ls.get(sessions.get(i).getId());
+            if (round == null) continue;
+            if (out == null) out = new ArrayList<>(sessions);
+            out.set(i, round.snapshot());
+        }
+        return out == null ? sessions : List.copyOf(out);
+    }
+
+    /** Returns all sessions belonging to a particular user, ordered by date (cached). */
     public List<GameSession> listSessionsByUser(User user) {
-        return store.listSessionsByUser(user.getId());
+        return withLiveState(cache.get(QueryCache.Key.sessions(user.getId()),
+                () -> List.copyOf(store.listSessionsByUser(user.getId()))));
+    }
+
+    /**
+     * Returns one page of a user's sessions, newest first. Pages are read straight from
+     * the keyset index rather than cached, so each costs the same regardless of history length.
+     *
+     * @param after    cursor from the previous page, or {@code null} for the first page
+     * @param pageSize maximum number of sessions on the page
+     * @param mode     only list sessions of this mode, or {@code null} for all modes
+     */
+    public SessionPage listSessionsByUser(User user, SessionCursor after, int pageSize, GameMode mode) {
+        SessionPage page = store.listSessionsByUser(user.getId(), after, pageSize, mode);
+        List<GameSession> sessions = withLiveState(page.getSessions());
+        return sessions == page.getSessions() ? page : new SessionPage(sessions, page.getNextCursor().orElse(null));
+    }
+
+    /**
+     * Counts a user's sessions.
+     *
+     * @param mode only count sessions of this mode, or {@code null} for all modes
+     */
+    public int countSessionsByUser(User user, GameMode mode) {
+        return store.countSessionsByUser(user.getId(), mode);
+    }
+
+    /**
+     * Streams every session of a mode (or all modes) for exports and reports, one row at a
+     * time. Bypasses the cache; the caller must close the stream.
+     *
+     * @param mode only stream sessions of this mode, or {@code null} for all modes
+     */
+    public Stream<GameSession> streamSessions(GameMode mode) {
+        return store.streamSessions(mode, GameStorage.DEFAULT_FETCH_SIZE);
+    }
+
+    /** Streams all users ordered by ID. Bypasses the cache; the caller must close the stream. */
+    public Stream<User> streamUsers() {
+        return store.streamUsers();
     }
 
     /** Deletes a single session by ID. */
     public boolean deleteSession(int sessionId) {
-        return store.deleteSession(sessionId);
+        LiveSessions ls = live;
+        if (ls != null) ls.remove(sessionId);
+        boolean deleted = invalidator.quietly(() -> store.deleteSession(sessionId));
+        Optional<GameSession> cached = cache.invalidateSession(sessionId);
+        if (cached.isEmpty()) { // owner unknown: be conservative
+            cache.invalidateAllScores();
+            ranking.invalidate();
+            feed.allScoresChanged();
+        } else if (cached.get().isCompleted()) {
+            cache.invalidateScores(cached.get().getUserId(), cached.get().getMode());
+            ranking.refresh(cached.get().getUserId(), cached.get().getMode());
+            feed.scoresChanged(cached.get().getMode());
+        }
+        if (deleted) {
+            feed.sessionChanged(cached.map(GameSession::getUserId).orElse(ChangeFeed.ALL_USERS),
+                    SessionChange.removed(sessionId));
+        }
+        return deleted;
+    }
+
+    // ---------------------------------------------------------------------
+    // ASYNC ACCESS
+    // ---------------------------------------------------------------------
+
+    /**
+     * Returns the non-blocking facade over this service, creating it on first use.
+     * Its executor is shut down, after running calls finish, when the database pool closes.
+     */
+    public AsyncGameService async() {
+        AsyncGameService a = async;
+        if (a == null) {
+            synchronized (this) {
+                a = async;
+                if (a == null) {
+                    a = new AsyncGameService(this, AsyncGameService.DEFAULT_TIMEOUT_MS);
+                    store.onClose(a::close);
+                    async = a;
+                }
+            }
+        }
+        return a;
+    }
+
+    // ---------------------------------------------------------------------
+    // WRITE-BEHIND
+    // ---------------------------------------------------------------------
+
+    /**
+     * Switches answer submission to write-behind mode.
+     * <p>
+     * Answers are queued in memory and written in one transaction every
+     * {@code flushIntervalMs}, as soon as {@code maxBatch} answers are waiting,
+     * on {@link #finishRound}, and before the database pool closes at shutdown.
+     *
+     * @param maxBatch        queued answers that trigger an early flush
+     * @param flushIntervalMs maximum time an answer stays queued during play
+     * @throws IllegalStateException if write-behind or live sessions are already enabled
+     */
+    public synchronized void enableWriteBehind(int maxBatch, long flushIntervalMs) {
+        if (answers != null) throw new IllegalStateException("Write-behind is already enabled");
+        if (journal != null) throw new IllegalStateException("The session journal is enabled; it needs each answer's result");
+        if (live != null) throw new IllegalStateException("Live sessions are enabled; answers are not written per answer");
+        AnswerBuffer buf = new AnswerBuffer(store::applyAnswers, maxBatch, flushIntervalMs, "answer-flusher");
+        store.onClose(buf::close);
+        answers = buf;
+    }
+
+    /** Writes any queued answers and answer-log entries now, blocking until they are committed. */
+    public void flushPendingAnswers() {
+        AnswerBuffer buf = answers;
+        if (buf != null) buf.flush();
+        answerLog.flush();
+    }
+
+    /** @return flush batch sizes and latencies, or empty when write-behind is off */
+    public Optional<WriteBehindStats> writeBehindStats() {
+        AnswerBuffer buf = answers;
+        return buf == null ? Optional.empty() : Optional.of(buf.stats());
+    }
+
+    /** @return batch sizes and latencies of appends to the answer log */
+    public WriteBehindStats answerLogStats() {
+        return answerLog.stats();
+    }
+
+    // ---------------------------------------------------------------------
+    // LIVE SESSIONS
+    // ---------------------------------------------------------------------
+
+    /**
+     * Switches rounds started from now on to in-memory play.
+     * <p>
+     * Answers update the round's {@link LiveSession} only; its progress is written every
+     * {@code snapshotIntervalMs} and before the database pool closes, and its final
+     * result when it completes (third strike or {@link #finishRound}).
+     *
+     * @param snapshotIntervalMs maximum play lost if the process dies mid-round
+     * @throws IllegalStateException if live sessions or write-behind are already enabled
+     */
+    public synchronized void enableLiveSessions(long snapshotIntervalMs) {
+        if (live != null) throw new IllegalStateException("Live sessions are already enabled");
+        if (answers != null) throw new IllegalStateException("Write-behind is enabled");
+        LiveSessions ls = new LiveSessions(store, snapshotIntervalMs);
+        store.onClose(ls::close);
+        live = ls;
+    }
+
+    /** @return the current state of a round being played, or empty if it is not live */
+    public Optional<LiveSession> liveSession(int sessionId) {
+        LiveSessions ls = live;
+        return ls == null ? Optional.empty() : Optional.ofNullable(ls.get(sessionId));
+    }
+
+    /** @return every round being played right now; empty when live sessions are off */
+    public List<LiveSession> liveSessions() {
+        LiveSessions ls = live;
+        return ls == null ? List.of() : List.copyOf(ls.all());
+    }
+
+    /** Writes the progress of every live round now, blocking until it is committed. No-op when off. */
+    public void snapshotLiveSessions() {
+        LiveSessions ls = live;
+        if (ls != null) ls.snapshot();
+    }
+
+    // ---------------------------------------------------------------------
+    // CRASH RECOVERY
+    // ---------------------------------------------------------------------
+
+    /**
+     * Opens the session journal at {@code file}, finalizes the rounds it shows were
+     * interrupted, and journals every round from now on.
+     * <p>
+     * Interrupted rounds are completed with the last state journaled for them (or the
+     * stored one, if that has more answers), so a round abandoned mid-play still counts
+     * towards high scores instead of staying open forever. The journal is compacted
+     * after recovery and closed with the database.
+     *
+     * @return number of interrupted rounds finalized
+     * @throws IllegalStateException if the journal or write-behind is already enabled
+     */
+    public synchronized int enableJournal(Path file) {
+        if (journal != null) throw new IllegalStateException("The session journal is already enabled");
+        if (answers != null) throw new IllegalStateException("Write-behind is enabled; queued answers have no result to journal");
+        SessionJournal j = SessionJournal.open(file, SessionJournal.DEFAULT_CAPACITY);
+        int recovered;
+        try {
+            List<SessionJournal.Entry> interrupted = j.pending();
+            recovered = invalidator.quietly(() -> store.recoverSessions(interrupted));
+            j.markFinished(interrupted);
+        } catch (RuntimeException e) {
+            j.close();
+            throw e;
+        }
+        if (recovered > 0) {
+            cache.invalidateAllSessions();
+            cache.invalidateAllScores();
+            ranking.invalidate();
+            feed.allScoresChanged();
+            feed.sessionChanged(ChangeFeed.ALL_USERS, SessionChange.reset());
+        }
+        store.onClose(j::close);
+        journal = j;
+        return recovered;
     }
 
     // ---------------------------------------------------------------------
     // SCORING & LEADERBOARD
     // ---------------------------------------------------------------------
 
-    /** Retrieves the user’s highest recorded score for the given mode. */
+    /** Retrieves the user’s highest recorded score for the given mode (cached). */
     public OptionalInt highScore(User user, GameMode mode) {
-        return store.getHighScore(user.getId(), mode);
+        return cache.get(QueryCache.Key.highScore(user.getId(), mode),
+                () -> store.getHighScore(user.getId(), mode));
     }
 
-    /** Returns a leaderboard of top scores for the specified game mode. */
+    /** Returns a leaderboard of top scores for the specified game mode (cached per mode and limit). */
     public List<ScoreRow> leaderboard(GameMode mode, int limit) {
-        return store.leaderboard(mode, limit);
+        return leaderboard(mode, LeaderboardPeriod.ALL_TIME, limit);
+    }
+
+    /**
+     * Returns a leaderboard of top scores for the mode over today, this week, this term or
+     * all time (cached per mode, period and limit). Windowed boards come from per-window
+     * best scores that are updated as rounds finish, so they cost the same at any history size.
+     */
+    public List<ScoreRow> leaderboard(GameMode mode, LeaderboardPeriod period, int limit) {
+        return cache.get(QueryCache.Key.leaderboard(mode, period, limit),
+                () -> List.copyOf(store.leaderboard(mode, period, limit)));
+    }
+
+    /**
+     * Returns the user's rank among all players with a completed round in the mode.
+     *
+     * @param style how tied scores are ranked
+     * @return 1-based rank, or empty if the user has no completed round in the mode
+     */
+    public OptionalInt rankOf(User user, GameMode mode, RankingStyle style) {
+        return ranking.rankOf(user.getId(), mode, style);
+    }
+
+    /**
+     * Returns the top {@code k} players of a mode with their ranks.
+     *
+     * @param style how tied scores are ranked
+     */
+    public List<RankedScoreRow> topRanked(GameMode mode, int k, RankingStyle style) {
+        return ranking.top(mode, k, style);
+    }
+
+    /**
+     * Returns the user's own leaderboard row with up to {@code k} rows above and below it.
+     *
+     * @param style how tied scores are ranked
+     * @return the rows in rank order, or an empty list if the user is not ranked in the mode
+     */
+    public List<RankedScoreRow> aroundMe(User user, GameMode mode, int k, RankingStyle style) {
+        return ranking.around(user.getId(), mode, k, style);
+    }
+
+    /** @return number of players with a completed round in the mode */
+    public int rankedPlayerCount(GameMode mode) {
+        return ranking.size(mode);
+    }
+
+    // ---------------------------------------------------------------------
+    // CHANGE SUBSCRIPTIONS
+    // ---------------------------------------------------------------------
+
+    /**
+     * Follows the top {@code limit} rows of a leaderboard.
+     * <p>
+     * The current rows are delivered first, then the whole new top K each time a change
+     * alters it (a round finished or deleted, a player renamed or deleted, a window rolling
+     * over). Changes within a short interval are coalesced and a round that does not
+     * reach the top K delivers nothing. Close the subscription when the window closes.
+     *
+     * @param executor runs the listener, e.g. {@code FxRuntime.fxThread()}
+     * @param listener receives the top K rows in rank order
+     */
+    public Subscription subscribeLeaderboard(GameMode mode, LeaderboardPeriod period, int limit,
+                                             Executor executor, Consumer<List<ScoreRow>> listener) {
+        return feed.subscribeLeaderboard(mode, period, limit, executor, listener);
+    }
+
+    /**
+     * Follows a player's sessions: rounds started, answered, finished and deleted.
+     * Nothing is delivered until something changes; changes within a short interval are
+     * merged into one batch with at most one entry per round.
+     *
+     * @param executor runs the listener, e.g. {@code FxRuntime.fxThread()}
+     * @param listener receives each batch of changes
+     */
+    public Subscription subscribeSessions(User user, Executor executor, Consumer<List<SessionChange>> listener) {
+        return feed.subscribeSessions(user.getId(), executor, listener);
+    }
+
+    /** @return hit ratios and eviction/invalidation counts of the query cache */
+    public CacheStats cacheStats() {
+        return cache.stats();
     }
 
     // ---------------------------------------------------------------------
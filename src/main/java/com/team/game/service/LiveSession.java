@@ -0,0 +1,142 @@
+package main.java.com.team.game.service;
+
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.GameSession;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A round in progress, held in memory as the source of truth while it is played.
+ * <p>
+ * Score, strikes and the completed flag are packed into one {@link AtomicLong} and
+ * updated by compare-and-set, so answers from any thread are applied in O(1) without
+ * locks, and every reader sees a consistent combination. The same rules as the
+ * database apply: answers to a completed round are ignored and the third strike
+ * completes it.
+ * <p>
+ * Instances are created by {@link GameService} when live sessions are enabled;
+ * {@link #snapshot()} gives an immutable {@link GameSession} of the current state.
+ */
+public final class LiveSession {
+
+    /** Strikes that complete a round. */
+    static final int MAX_STRIKES = 3;
+
+    // state layout: bits 0-31 score, bits 32-47 strikes, bit 48 completed
+    private static final long SCORE_MASK = 0xFFFF_FFFFL;
+    private static final int STRIKES_SHIFT = 32;
+    private static final long STRIKES_MASK = 0xFFFFL;
+    private static final long COMPLETED = 1L << 48;
+
+    private final int id;
+    private final int userId;
+    private final GameMode mode;
+    private final Instant startedAt;
+    private final AtomicLong state;
+    private volatile Instant endedAt;
+    private volatile long persistedState; // last state written by a snapshot
+
+    LiveSession(GameSession started) {
+        this.id = started.getId();
+        this.userId = started.getUserId();
+        this.mode = started.getMode();
+        this.startedAt = started.getStartedAt();
+        long initial = pack(started.getScore(), started.getStrikes(), started.isCompleted());
+        this.state = new AtomicLong(initial);
+        this.persistedState = initial;
+    }
+
+    /** @return the session ID */
+    public int getId() { return id; }
+
+    /** @return the ID of the player */
+    public int getUserId() { return userId; }
+
+    /** @return the mode being played */
+    public GameMode getMode() { return mode; }
+
+    /** @return the current score */
+    public int getScore() { return score(state.get()); }
+
+    /** @return the current number of strikes */
+    public int getStrikes() { return strikes(state.get()); }
+
+    /** @return true once the round has ended */
+    public boolean isCompleted() { return (state.get() & COMPLETED) != 0; }
+
+    /** @return an immutable copy of the current state */
+    public GameSession snapshot() {
+        return toSession(state.get());
+    }
+
+    // ---- updates ----
+
+    /**
+     * Applies one answer.
+     *
+     * @return the state right after this answer, or {@code null} if the round was already completed
+     */
+    GameSession answer(boolean correct) {
+        long cur, next;
+        do {
+            cur = state.get();
+            if ((cur & COMPLETED) != 0) return null;
+            int strikes = strikes(cur) + (correct ? 0 : 1);
+            next = pack(score(cur) + (correct ? 1 : 0), strikes, strikes >= MAX_STRIKES);
+        } while (!state.compareAndSet(cur, next));
+        if ((next & COMPLETED) != 0) endedAt = Instant.now();
+        return toSession(next);
+    }
+
+    /**
+     * Marks the round completed.
+     *
+     * @return the final state, or {@code null} if it was already completed
+     */
+    GameSession finish() {
+        long cur, next;
+        do {
+            cur = state.get();
+            if ((cur & COMPLETED) != 0) return null;
+            next = cur | COMPLETED;
+        } while (!state.compareAndSet(cur, next));
+        endedAt = Instant.now();
+        return toSession(next);
+    }
+
+    /** @return the current state if it changed since the last snapshot was written, else {@code null} */
+    GameSession dirtySnapshot() {
+        long cur = state.get();
+        return cur == persistedState ? null : toSession(cur);
+    }
+
+    /** Records that {@code written} is what the database now holds. */
+    void markPersisted(GameSession written) {
+        persistedState = pack(written.getScore(), written.getStrikes(), written.isCompleted());
+    }
+
+    // ---- packing ----
+
+    private GameSession toSession(long s) {
+        boolean completed = (s & COMPLETED) != 0;
+        Instant ended = completed ? endedAt : null;
+        if (completed && ended == null) ended = Instant.now(); // completing thread has not stamped it yet
+        return new GameSession(id, userId, mode, startedAt, ended, score(s), strikes(s), completed);
+    }
+
+    private static long pack(int score, int strikes, boolean completed) {
+        return (score & SCORE_MASK) | ((strikes & STRIKES_MASK) << STRIKES_SHIFT) | (completed ? COMPLETED : 0);
+    }
+
+    private static int score(long s) { return (int) (s & SCORE_MASK); }
+
+    private static int strikes(long s) { return (int) ((s >>> STRIKES_SHIFT) & STRIKES_MASK); }
+
+    @Override
+    public String toString() {
+        long s = state.get();
+        return "LiveSession{id=" + id + ", user=" + userId + ", " + mode + ", score=" + score(s)
+                + ", strikes=" + strikes(s) + ((s & COMPLETED) != 0 ? ", completed" : "") + "}";
+    }
+}
@@ -0,0 +1,118 @@
+package main.java.com.team.game.service;
+
+import main.java.com.team.game.data.GameStorage;
+import main.java.com.team.game.model.GameSession;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Registry of {@link LiveSession}s, keyed by session ID.
+ * <p>
+ * A background thread writes the state of every round that changed since the last
+ * tick in one transaction every {@code snapshotIntervalMs}, so a crash loses at most
+ * one interval of play. Final results are written by {@link GameService} when a
+ * round completes. {@link #close()} writes a last snapshot.
+ */
+final class LiveSessions implements AutoCloseable {
+
+    private final GameStorage store;
+    private final ConcurrentHashMap<Integer, LiveSession> sessions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService snapshotter;
+
+    /** Serialises snapshot writes so an older snapshot never lands after a newer one. */
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    /**
+     * @param store              store snapshots are written to
+     * @param snapshotIntervalMs time between snapshots (min 1)
+     */
+    LiveSessions(GameStorage store, long snapshotIntervalMs) {
+        this.store = store;
+        this.snapshotter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "live-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(1, snapshotIntervalMs);
+        snapshotter.scheduleWithFixedDelay(this::snapshotQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /** Starts tracking a freshly persisted round. */
+    LiveSession register(GameSession started) {
+        LiveSession live = new LiveSession(started);
+        sessions.put(live.getId(), live);
+        return live;
+    }
+
+    /** @return the live round, or {@code null} if it is not being played */
+    LiveSession get(int sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    /** @return every round being played (a weakly consistent view) */
+    Collection<LiveSession> all() {
+        return sessions.values();
+    }
+
+    /** Stops tracking a round, e.g. after its final result was written. */
+    void remove(int sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    /** Stops tracking every round of a user. */
+    void removeUser(int userId) {
+        sessions.values().removeIf(s -> s.getUserId() == userId);
+    }
+
+    /**
+     * Writes the state of every round that changed since the last snapshot.
+     *
+     * @return number of rounds written
+     */
+    int snapshot() {
+        snapshotLock.lock();
+        try {
+            List<GameSession> dirty = new ArrayList<>();
+            for (LiveSession s : sessions.values()) {
+                GameSession now = s.dirtySnapshot();
+                if (now != null && !now.isCompleted()) dirty.add(now);
+            }
+            if (dirty.isEmpty()) return 0;
+            store.saveSessionProgress(dirty);
+            for (GameSession written : dirty) {
+                LiveSession s = sessions.get(written.getId());
+                if (s != null) s.markPersisted(written);
+            }
+            return dirty.size();
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /** Stops the snapshot thread and writes a final snapshot. Safe to call more than once. */
+    @Override
+    public void close() {
+        snapshotter.shutdown();
+        try {
+            snapshotter.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        snapshotQuietly();
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            System.err.println("Failed to snapshot live sessions, will retry: " + e.getMessage());
+        }
+    }
+}
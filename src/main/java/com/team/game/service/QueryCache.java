@@ -0,0 +1,229 @@
+package main.java.com.team.game.service;
+
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.GameSession;
+import main.java.com.team.game.model.LeaderboardPeriod;
+import main.java.com.team.game.model.ScoreRow;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time-limited cache of {@link GameService} query results.
+ * <p>
+ * Entries are keyed by query, user, mode, leaderboard period and limit, kept in least-recently-used
+ * order and dropped once older than the TTL. Loads run outside the lock; a result
+ * is only stored if no invalidation happened while it was being loaded, so a slow
+ * read can never put back data that a concurrent write has just made stale.
+ * <p>
+ * The {@code invalidate*} methods remove exactly the entries a given change can
+ * affect. Cached values must be immutable.
+ */
+final class QueryCache {
+
+    /** Identifies one cached result; unused fields are 0 or {@code null}. */
+    static final class Key {
+        final CachedQuery query;
+        final int userId;
+        final GameMode mode;
+        final LeaderboardPeriod period;
+        final int limit;
+
+        private Key(CachedQuery query, int userId, GameMode mode, LeaderboardPeriod period, int limit) {
+            this.query = query;
+            this.userId = userId;
+            this.mode = mode;
+            this.period = period;
+            this.limit = limit;
+        }
+
+        static Key users() { return new Key(CachedQuery.USERS, 0, null, null, 0); }
+
+        static Key sessions(int userId) { return new Key(CachedQuery.SESSIONS, userId, null, null, 0); }
+
+        static Key highScore(int userId, GameMode mode) { return new Key(CachedQuery.HIGH_SCORE, userId, mode, null, 0); }
+
+        static Key leaderboard(GameMode mode, LeaderboardPeriod period, int limit) {
+            return new Key(CachedQuery.LEADERBOARD, 0, mode, period, limit);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key k)) return false;
+            return query == k.query && userId == k.userId && mode == k.mode && period == k.period && limit == k.limit;
+        }
+
+        @Override
+        public int hashCode() { return Objects.hash(query, userId, mode, period, limit); }
+    }
+
+    private static final class Entry {
+        final Object value;
+        final long expiresAt;
+
+        Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    /** Bumped by every invalidation; a load only stores its result if this is unchanged. */
+    private long generation;
+
+    private final long[] hits = new long[CachedQuery.values().length];
+    private final long[] misses = new long[CachedQuery.values().length];
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    /**
+     * @param maxEntries maximum number of cached results (0 disables caching)
+     * @param ttlMillis  how long a result may be served before it is reloaded
+     */
+    QueryCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = Math.max(0, maxEntries);
+        this.ttlNanos = Math.max(0, ttlMillis) * 1_000_000L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() <= QueryCache.this.maxEntries) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /** @return true if results are cached at all */
+    boolean isEnabled() { return maxEntries > 0 && ttlNanos > 0; }
+
+    /**
+     * Returns the cached result for {@code key}, loading and caching it on a miss.
+     *
+     * @param key    what is being read
+     * @param loader reads the value from the database; must return an immutable value
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(Key key, Supplier<T> loader) {
+        long gen;
+        synchronized (this) {
+            Entry e = entries.get(key);
+            if (e != null) {
+                if (System.nanoTime() - e.expiresAt < 0) {
+                    hits[key.query.ordinal()]++;
+                    return (T) e.value;
+                }
+                entries.remove(key);
+                expirations++;
+            }
+            misses[key.query.ordinal()]++;
+            gen = generation;
+        }
+        T value = loader.get();
+        if (isEnabled()) {
+            synchronized (this) {
+                if (gen == generation) entries.put(key, new Entry(value, System.nanoTime() + ttlNanos));
+            }
+        }
+        return value;
+    }
+
+    /** Drops the user list. */
+    void invalidateUsers() {
+        invalidate((k, v) -> k.query == CachedQuery.USERS);
+    }
+
+    /** Drops one user's session list. */
+    void invalidateSessions(int userId) {
+        invalidate((k, v) -> k.query == CachedQuery.SESSIONS && k.userId == userId);
+    }
+
+    /** Drops every session list. */
+    void invalidateAllSessions() {
+        invalidate((k, v) -> k.query == CachedQuery.SESSIONS);
+    }
+
+    /**
+     * Drops the session lists that contain the given session.
+     *
+     * @return the cached copy of that session, if any list contained it
+     */
+    synchronized Optional<GameSession> invalidateSession(int sessionId) {
+        GameSession found = null;
+        for (Map.Entry<Key, Entry> e : entries.entrySet()) {
+            if (e.getKey().query != CachedQuery.SESSIONS) continue;
+            for (Object o : (List<?>) e.getValue().value) {
+                GameSession s = (GameSession) o;
+                if (s.getId() == sessionId) { found = s; break; }
+            }
+            if (found != null) break;
+        }
+        if (found != null) invalidateSessions(found.getUserId());
+        return Optional.ofNullable(found);
+    }
+
+    /** Drops the user's high score and the leaderboards for a mode whose result the user's new score can change. */
+    void invalidateScores(int userId, GameMode mode) {
+        invalidate((k, v) -> (k.query == CachedQuery.HIGH_SCORE && k.userId == userId && k.mode == mode)
+                || (k.query == CachedQuery.LEADERBOARD && k.mode == mode));
+    }
+
+    /** Drops every high score and leaderboard. */
+    void invalidateAllScores() {
+        invalidate((k, v) -> k.query == CachedQuery.HIGH_SCORE || k.query == CachedQuery.LEADERBOARD);
+    }
+
+    /** Drops the leaderboards that list the given user. */
+    void invalidateLeaderboardsWith(int userId) {
+        invalidate((k, v) -> k.query == CachedQuery.LEADERBOARD && listsUser(v, userId));
+    }
+
+    /** Drops everything cached about a user: session list, high scores and leaderboards showing them. */
+    void invalidateUser(int userId) {
+        invalidate((k, v) -> k.query == CachedQuery.USERS
+                || (k.query == CachedQuery.SESSIONS && k.userId == userId)
+                || (k.query == CachedQuery.HIGH_SCORE && k.userId == userId)
+                || (k.query == CachedQuery.LEADERBOARD && listsUser(v, userId)));
+    }
+
+    /** Drops everything. */
+    void clear() {
+        invalidate((k, v) -> true);
+    }
+
+    /** @return a snapshot of the cache counters */
+    synchronized CacheStats stats() {
+        return new CacheStats(hits, misses, evictions, expirations, invalidations, entries.size(), maxEntries);
+    }
+
+    // ---- internals ----
+
+    private synchronized void invalidate(BiPredicate<Key, Object> affected) {
+        generation++;
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, Entry> e = it.next();
+            if (affected.test(e.getKey(), e.getValue().value)) {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    private static boolean listsUser(Object leaderboard, int userId) {
+        for (Object o : (List<?>) leaderboard) {
+            if (((ScoreRow) o).getUserId() == userId) return true;
+        }
+        return false;
+    }
+}
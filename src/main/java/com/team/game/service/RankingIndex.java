@@ -0,0 +1,182 @@
+package main.java.com.team.game.service;
+
+import main.java.com.team.game.data.GameStorage;
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.RankedScoreRow;
+import main.java.com.team.game.model.RankingStyle;
+import main.java.com.team.game.model.ScoreRow;
+import main.java.com.team.game.util.OrderStatisticTree;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory ranking of every player's best score, one per {@link GameMode}.
+ * <p>
+ * Each mode keeps its players in an {@link OrderStatisticTree} ordered by best score
+ * (highest first, then user ID), plus a tree of the distinct scores for dense ranks,
+ * so a player's rank, the top K and the rows around a player each cost O(log n)
+ * per returned row. A mode is loaded from {@link GameStorage#listBestScores} the first
+ * time it is queried and then kept current by {@link #refresh}, {@link #rename} and
+ * {@link #removeUser}; {@link #invalidate()} drops everything so it is reloaded.
+ */
+final class RankingIndex {
+
+    /** One player's position in a mode; ordered by score descending, then user ID. */
+    private static final class Entry {
+        final int userId;
+        final int score;
+
+        Entry(int userId, int score) {
+            this.userId = userId;
+            this.score = score;
+        }
+    }
+
+    private static final Comparator<Entry> ORDER =
+            Comparator.comparingInt((Entry e) -> e.score).reversed().thenComparingInt(e -> e.userId);
+
+    private static final class ModeRanking {
+        final OrderStatisticTree<Entry> entries = new OrderStatisticTree<>(ORDER);
+        final OrderStatisticTree<Integer> distinctScores = new OrderStatisticTree<>(Comparator.reverseOrder());
+        final Map<Integer, Integer> scoreCounts = new HashMap<>();
+        final Map<Integer, Entry> byUser = new HashMap<>();
+        final Map<Integer, String> names = new HashMap<>();
+
+        void put(int userId, String name, int score) {
+            remove(userId);
+            Entry e = new Entry(userId, score);
+            entries.add(e);
+            byUser.put(userId, e);
+            names.put(userId, name);
+            if (scoreCounts.merge(score, 1, Integer::sum) == 1) distinctScores.add(score);
+        }
+
+        void remove(int userId) {
+            Entry e = byUser.remove(userId);
+            if (e == null) return;
+            names.remove(userId);
+            entries.remove(e);
+            if (scoreCounts.merge(e.score, -1, Integer::sum) == 0) {
+                scoreCounts.remove(e.score);
+                distinctScores.remove(e.score);
+            }
+        }
+
+        int rank(Entry e, RankingStyle style) {
+            return 1 + switch (style) {
+                case STANDARD -> entries.countLessThan(new Entry(Integer.MIN_VALUE, e.score));
+                case DENSE -> distinctScores.countLessThan(e.score);
+            };
+        }
+
+        List<RankedScoreRow> rows(GameMode mode, int from, int to, RankingStyle style) {
+            List<RankedScoreRow> out = new ArrayList<>();
+            for (Entry e : entries.range(from, to)) {
+                out.add(new RankedScoreRow(rank(e, style), e.userId, names.get(e.userId), mode, e.score));
+            }
+            return out;
+        }
+    }
+
+    private final GameStorage store;
+    private final Map<GameMode, ModeRanking> modes = new EnumMap<>(GameMode.class);
+    /** Bumped by {@link #invalidate()}; compared lock-free so commit callbacks never wait on a load. */
+    private final AtomicLong generation = new AtomicLong();
+    private long loadedGeneration;
+
+    RankingIndex(GameStorage store) {
+        this.store = store;
+    }
+
+    /** @return number of players with a best score in the mode */
+    synchronized int size(GameMode mode) {
+        return mode(mode).entries.size();
+    }
+
+    /** @return the player's 1-based rank in the mode, or empty if they have no completed session */
+    synchronized OptionalInt rankOf(int userId, GameMode mode, RankingStyle style) {
+        ModeRanking m = mode(mode);
+        Entry e = m.byUser.get(userId);
+        return e == null ? OptionalInt.empty() : OptionalInt.of(m.rank(e, style));
+    }
+
+    /** @return the first {@code k} rows of the mode's ranking */
+    synchronized List<RankedScoreRow> top(GameMode mode, int k, RankingStyle style) {
+        return mode(mode).rows(mode, 0, Math.max(0, k), style);
+    }
+
+    /**
+     * @return up to {@code k} rows either side of the player plus the player's own row,
+     *         or an empty list if the player is not ranked in the mode
+     */
+    synchronized List<RankedScoreRow> around(int userId, GameMode mode, int k, RankingStyle style) {
+        ModeRanking m = mode(mode);
+        Entry e = m.byUser.get(userId);
+        if (e == null) return List.of();
+        int at = m.entries.indexOf(e);
+        int span = Math.max(0, k);
+        return m.rows(mode, at - span, at + span + 1, style);
+    }
+
+    /**
+     * Re-reads one player's best score for a mode after it may have changed.
+     * Does nothing if the mode has not been loaded yet.
+     */
+    synchronized void refresh(int userId, GameMode mode) {
+        ModeRanking m = loaded().get(mode);
+        if (m == null) return;
+        Optional<ScoreRow> best = store.findBestScore(userId, mode);
+        if (best.isPresent()) m.put(userId, best.get().getUsername(), best.get().getHighScore());
+        else m.remove(userId);
+    }
+
+    /** Updates the name shown for a player in every loaded mode. */
+    synchronized void rename(int userId, String username) {
+        for (ModeRanking m : loaded().values()) {
+            if (m.names.containsKey(userId)) m.names.put(userId, username);
+        }
+    }
+
+    /** Removes a deleted player from every loaded mode. */
+    synchronized void removeUser(int userId) {
+        for (ModeRanking m : loaded().values()) m.remove(userId);
+    }
+
+    /**
+     * Drops every loaded mode; each is rebuilt from the store on its next query.
+     * Does not take the lock, so it is safe to call from a database commit callback.
+     */
+    void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    // ---- internals ----
+
+    /** @return the loaded modes, first discarding them if {@link #invalidate()} was called */
+    private Map<GameMode, ModeRanking> loaded() {
+        long current = generation.get();
+        if (current != loadedGeneration) {
+            modes.clear();
+            loadedGeneration = current;
+        }
+        return modes;
+    }
+
+    private ModeRanking mode(GameMode mode) {
+        ModeRanking m = loaded().get(mode);
+        if (m == null) {
+            m = new ModeRanking();
+            for (ScoreRow row : store.listBestScores(mode)) m.put(row.getUserId(), row.getUsername(), row.getHighScore());
+            modes.put(mode, m);
+        }
+        return m;
+    }
+}
@@ -0,0 +1,97 @@
+package main.java.com.team.game.service;
+
+import main.java.com.team.game.model.GameSession;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One change to a player's session list, as pushed by
+ * {@link GameService#subscribeSessions}.
+ * <p>
+ * {@link Kind#ADDED} and {@link Kind#UPDATED} carry the session as it is now;
+ * {@link Kind#REMOVED} carries only its ID. {@link Kind#RESET} means the list changed
+ * in a way the service could not describe row by row (for example a write made
+ * directly through the storage) and should be read again.
+ */
+public final class SessionChange {
+
+    /** What happened to the session. */
+    public enum Kind { ADDED, UPDATED, REMOVED, RESET }
+
+    private static final SessionChange RESET = new SessionChange(Kind.RESET, -1, null);
+
+    private final Kind kind;
+    private final int sessionId;
+    private final GameSession session;
+
+    private SessionChange(Kind kind, int sessionId, GameSession session) {
+        this.kind = kind;
+        this.sessionId = sessionId;
+        this.session = session;
+    }
+
+    /** @return a change reporting a newly started round */
+    public static SessionChange added(GameSession session) {
+        return new SessionChange(Kind.ADDED, session.getId(), session);
+    }
+
+    /** @return a change reporting the new state of an existing round */
+    public static SessionChange updated(GameSession session) {
+        return new SessionChange(Kind.UPDATED, session.getId(), session);
+    }
+
+    /** @return a change reporting a deleted round */
+    public static SessionChange removed(int sessionId) {
+        return new SessionChange(Kind.REMOVED, sessionId, null);
+    }
+
+    /** @return a change asking the subscriber to re-read the whole list */
+    public static SessionChange reset() {
+        return RESET;
+    }
+
+    /** @return what happened */
+    public Kind getKind() { return kind; }
+
+    /** @return ID of the session, or -1 for {@link Kind#RESET} */
+    public int getSessionId() { return sessionId; }
+
+    /** @return the session after the change; {@code null} for {@link Kind#REMOVED} and {@link Kind#RESET} */
+    public GameSession getSession() { return session; }
+
+    /**
+     * Folds a later batch of changes into an earlier one, keeping one change per session:
+     * a round added and then updated is reported as added with its latest state, one added
+     * and then removed is dropped, and a reset anywhere replaces the whole batch, since
+     * the re-read that follows it sees every other change too.
+     *
+     * @return the combined batch, in the order sessions were first mentioned
+     */
+    static List<SessionChange> merge(List<SessionChange> earlier, List<SessionChange> later) {
+        Map<Integer, SessionChange> bySession = new LinkedHashMap<>();
+        for (List<SessionChange> batch : List.of(earlier, later)) {
+            for (SessionChange c : batch) {
+                if (c.kind == Kind.RESET) return List.of(RESET);
+                SessionChange before = bySession.get(c.sessionId);
+                if (before == null) {
+                    bySession.put(c.sessionId, c);
+                } else if (before.kind == Kind.ADDED && c.kind == Kind.REMOVED) {
+                    bySession.remove(c.sessionId);
+                } else if (before.kind == Kind.ADDED) {
+                    bySession.put(c.sessionId, added(c.session));
+                } else {
+                    bySession.put(c.sessionId, c);
+                }
+            }
+        }
+        return new ArrayList<>(bySession.values());
+    }
+
+    @Override
+    public String toString() {
+        return kind + (kind == Kind.RESET ? "" : " #" + sessionId);
+    }
+}
@@ -0,0 +1,12 @@
+package main.java.com.team.game.service;
+
+/**
+ * Handle for a change subscription made through {@link GameService}.
+ * Closing it stops further deliveries, including any already queued on the
+ * subscriber's executor; closing it twice does nothing.
+ */
+public interface Subscription extends AutoCloseable {
+
+    @Override
+    void close();
+}
@@ -0,0 +1,88 @@
+package main.java.com.team.game.service;
+
+/**
+ * Immutable snapshot of the write-behind answer buffer's counters.
+ * <p>
+ * Counts are cumulative since write-behind was enabled, except {@code pending}
+ * which is the number of answers waiting to be flushed at the moment of the snapshot.
+ */
+public final class WriteBehindStats {
+
+    private final long flushes;
+    private final long events;
+    private final long failures;
+    private final int pending;
+    private final int lastBatchSize;
+    private final int maxBatchSize;
+    private final double lastFlushMillis;
+    private final double maxFlushMillis;
+    private final double averageFlushMillis;
+
+    /**
+     * Constructs a new {@code WriteBehindStats} snapshot.
+     *
+     * @param flushes            successful flushes so far
+     * @param events             answers written by those flushes
+     * @param failures           flushes that failed and were retried later
+     * @param pending            answers currently queued
+     * @param lastBatchSize      answers written by the most recent flush
+     * @param maxBatchSize       largest number of answers written by one flush
+     * @param lastFlushMillis    duration of the most recent flush, in milliseconds
+     * @param maxFlushMillis     longest flush, in milliseconds
+     * @param averageFlushMillis average flush duration, in milliseconds
+     */
+    public WriteBehindStats(long flushes, long events, long failures, int pending,
+                            int lastBatchSize, int maxBatchSize,
+                            double lastFlushMillis, double maxFlushMillis, double averageFlushMillis) {
+        this.flushes = flushes;
+        this.events = events;
+        this.failures = failures;
+        this.pending = pending;
+        this.lastBatchSize = lastBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.lastFlushMillis = lastFlushMillis;
+        this.maxFlushMillis = maxFlushMillis;
+        this.averageFlushMillis = averageFlushMillis;
+    }
+
+    /** @return number of successful flushes */
+    public long getFlushes() { return flushes; }
+
+    /** @return number of answers written to the database */
+    public long getEvents() { return events; }
+
+    /** @return number of flushes that failed */
+    public long getFailures() { return failures; }
+
+    /** @return number of answers waiting to be flushed */
+    public int getPending() { return pending; }
+
+    /** @return answers written by the most recent flush */
+    public int getLastBatchSize() { return lastBatchSize; }
+
+    /** @return largest batch written by a single flush */
+    public int getMaxBatchSize() { return maxBatchSize; }
+
+    /** @return average number of answers per flush, 0.0 when none */
+    public double getAverageBatchSize() {
+        return flushes == 0 ? 0.0 : (double) events / flushes;
+    }
+
+    /** @return duration of the most recent flush in milliseconds */
+    public double getLastFlushMillis() { return lastFlushMillis; }
+
+    /** @return longest flush in milliseconds */
+    public double getMaxFlushMillis() { return maxFlushMillis; }
+
+    /** @return average flush duration in milliseconds */
+    public double getAverageFlushMillis() { return averageFlushMillis; }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "write-behind: flushes=%d, events=%d, failures=%d, pending=%d, "
+                        + "batch last=%d max=%d avg=%.1f, flush last=%.2f ms max=%.2f ms avg=%.2f ms",
+                flushes, events, failures, pending, lastBatchSize, maxBatchSize, getAverageBatchSize(),
+                lastFlushMillis, maxFlushMillis, averageFlushMillis);
+    }
+}
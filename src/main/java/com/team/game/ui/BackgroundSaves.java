@@ -0,0 +1,25 @@
+package main.java.com.team.game.ui;
+
+import java.util.concurrent.CompletableFuture;
+import main.java.com.team.game.service.AsyncGameService;
+
+/**
+ * Shared handling for saves the game screens start in the background and do not wait for.
+ */
+public final class BackgroundSaves {
+
+    /** Private constructor to prevent instantiation. */
+    private BackgroundSaves() {}
+
+    /**
+     * Logs a background save that failed; the round itself carries on.
+     *
+     * @param save   pending save on the current round
+     * @param action description used in the log line
+     */
+    public static void logFailure(CompletableFuture<?> save, String action) {
+        save.whenComplete((r, err) -> {
+            if (err != null) System.err.println("Failed to " + action + ": " + AsyncGameService.causeOf(err).getMessage());
+        });
+    }
+}
@@ -1,7 +1,13 @@
 package main.java.com.team.game.ui;
 
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.stage.Window;
+import javafx.stage.WindowEvent;
 
 /**
  * Ensures that the JavaFX runtime is started exactly once,
@@ -32,4 +38,39 @@ public final class FxRuntime {
             Platform.setImplicitExit(false);
         }
     }
+
+    /**
+     * Returns an executor that runs tasks on the JavaFX Application Thread via
+     * {@link Platform#runLater}. Pass it to {@code thenAcceptAsync} or
+     * {@code whenCompleteAsync} to update the UI with the result of a background call.
+     *
+     * @return executor for the JavaFX Application Thread
+     */
+    public static Executor fxThread() {
+        return Platform::runLater;
+    }
+
+    /**
+     * Runs {@code action} once, when the window showing {@code node} is hidden. Works from a
+     * controller's {@code initialize}, before the node is in a scene; use it to close
+     * change subscriptions so a closed window stops receiving updates.
+     *
+     * @param node   any node of the window's scene graph
+     * @param action what to run on the JavaFX Application Thread when the window closes
+     */
+    public static void onWindowHidden(Node node, Runnable action) {
+        AtomicBoolean done = new AtomicBoolean(false);
+        Consumer<Window> watchWindow = window -> {
+            if (window != null) window.addEventHandler(WindowEvent.WINDOW_HIDDEN, e -> {
+                if (done.compareAndSet(false, true)) action.run();
+            });
+        };
+        Consumer<Scene> watchScene = scene -> {
+            if (scene == null) return;
+            scene.windowProperty().addListener((obs, old, window) -> watchWindow.accept(window));
+            watchWindow.accept(scene.getWindow());
+        };
+        node.sceneProperty().addListener((obs, old, scene) -> watchScene.accept(scene));
+        watchScene.accept(node.getScene());
+    }
 }
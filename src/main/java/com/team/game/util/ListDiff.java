@@ -0,0 +1,70 @@
+package main.java.com.team.game.util;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Turns one list into another with few single-row edits, so a bound view (such as a
+ * JavaFX {@code ObservableList} behind a table) sees each row that moved, appeared or
+ * went away rather than a wholesale replacement that resets selection and scrolling.
+ * <p>
+ * Rows are matched by key. Rows whose key is gone are removed, missing ones inserted
+ * where they belong, rows out of place moved (a remove and an insert) and rows in
+ * place but with different content replaced with {@code set}. Meant for short lists
+ * such as a top K: finding a row to move is a linear scan.
+ */
+public final class ListDiff {
+
+    private ListDiff() { }
+
+    /**
+     * Edits {@code target} until it equals {@code next} row for row.
+     *
+     * @param target list to edit in place
+     * @param next   rows it should end up with, in order; keys must be unique
+     * @param key    identity of a row (e.g. user ID)
+     * @param same   whether two rows with the same key look the same, so need no update
+     * @return number of edits made (a move counts as one)
+     */
+    public static <T, K> int patch(List<T> target, List<? extends T> next,
+                                   Function<? super T, K> key, BiPredicate<? super T, ? super T> same) {
+        Set<K> wanted = new HashSet<>();
+        for (T row : next) wanted.add(key.apply(row));
+
+        int edits = 0;
+        for (int i = target.size() - 1; i >= 0; i--) {
+            if (!wanted.contains(key.apply(target.get(i)))) {
+                target.remove(i);
+                edits++;
+            }
+        }
+
+        for (int i = 0; i < next.size(); i++) {
+            T want = next.get(i);
+            K k = key.apply(want);
+            if (i < target.size() && Objects.equals(key.apply(target.get(i)), k)) {
+                if (!same.test(target.get(i), want)) {
+                    target.set(i, want);
+                    edits++;
+                }
+                continue;
+            }
+            int at = indexOf(target, i + 1, k, key);
+            if (at >= 0) target.remove(at);
+            target.add(i, want);
+            edits++;
+        }
+        return edits;
+    }
+
+    private static <T, K> int indexOf(List<T> list, int from, K k, Function<? super T, K> key) {
+        for (int j = from; j < list.size(); j++) {
+            if (Objects.equals(key.apply(list.get(j)), k)) return j;
+        }
+        return -1;
+    }
+}
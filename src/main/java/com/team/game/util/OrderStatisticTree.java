@@ -0,0 +1,208 @@
+package main.java.com.team.game.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sorted set that can also answer positional queries in O(log n).
+ * <p>
+ * A treap (randomised balanced binary search tree) where every node stores the size
+ * of its subtree, so besides add/remove it supports "how many elements are smaller
+ * than x" ({@link #countLessThan}) and "the i-th smallest element" ({@link #get}).
+ * Elements that compare equal are treated as duplicates. Not thread-safe.
+ *
+ * @param <T> element type, ordered by the comparator given at construction
+ */
+public final class OrderStatisticTree<T> {
+
+    private static final class Node<T> {
+        final T value;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        Node<T> left, right;
+        int size = 1;
+
+        Node(T value) { this.value = value; }
+    }
+
+    private final Comparator<? super T> order;
+    private Node<T> root;
+
+    /**
+     * Creates an empty tree.
+     *
+     * @param order ordering of the elements; equal elements are duplicates
+     */
+    public OrderStatisticTree(Comparator<? super T> order) {
+        this.order = order;
+    }
+
+    /** @return number of elements */
+    public int size() { return size(root); }
+
+    /** @return true if the tree has no elements */
+    public boolean isEmpty() { return root == null; }
+
+    /** Removes every element. */
+    public void clear() { root = null; }
+
+    /**
+     * Adds an element.
+     *
+     * @return false if an equal element was already present (the tree is unchanged)
+     */
+    public boolean add(T value) {
+        if (contains(value)) return false;
+        root = insert(root, new Node<>(value));
+        return true;
+    }
+
+    /**
+     * Removes the element equal to {@code value}.
+     *
+     * @return false if no such element was present
+     */
+    public boolean remove(T value) {
+        if (!contains(value)) return false;
+        root = delete(root, value);
+        return true;
+    }
+
+    /** @return true if an element equal to {@code value} is present */
+    public boolean contains(T value) {
+        Node<T> n = root;
+        while (n != null) {
+            int c = order.compare(value, n.value);
+            if (c == 0) return true;
+            n = c < 0 ? n.left : n.right;
+        }
+        return false;
+    }
+
+    /**
+     * Counts elements strictly smaller than {@code probe}; the probe need not be in the tree.
+     *
+     * @return number of elements ordered before {@code probe}
+     */
+    public int countLessThan(T probe) {
+        int count = 0;
+        Node<T> n = root;
+        while (n != null) {
+            if (order.compare(probe, n.value) <= 0) {
+                n = n.left;
+            } else {
+                count += size(n.left) + 1;
+                n = n.right;
+            }
+        }
+        return count;
+    }
+
+    /** @return zero-based position of {@code value}, or -1 if it is not present */
+    public int indexOf(T value) {
+        return contains(value) ? countLessThan(value) : -1;
+    }
+
+    /**
+     * Returns the element at a position in sorted order.
+     *
+     * @param index zero-based position
+     * @throws IndexOutOfBoundsException if {@code index} is outside {@code [0, size)}
+     */
+    public T get(int index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException(index);
+        Node<T> n = root;
+        while (true) {
+            int leftSize = size(n.left);
+            if (index < leftSize) {
+                n = n.left;
+            } else if (index == leftSize) {
+                return n.value;
+            } else {
+                index -= leftSize + 1;
+                n = n.right;
+            }
+        }
+    }
+
+    /**
+     * Returns the elements at positions {@code [from, to)} in sorted order; bounds are
+     * clamped to the tree. Costs O(log n + k) for k returned elements.
+     */
+    public List<T> range(int from, int to) {
+        int lo = Math.max(0, from);
+        int hi = Math.min(size(), to);
+        List<T> out = new ArrayList<>(Math.max(0, hi - lo));
+        if (lo < hi) collect(root, lo, hi, 0, out);
+        return out;
+    }
+
+    // ---- internals ----
+
+    private static int size(Node<?> n) { return n == null ? 0 : n.size; }
+
+    private static <T> Node<T> update(Node<T> n) {
+        n.size = size(n.left) + size(n.right) + 1;
+        return n;
+    }
+
+    private Node<T> insert(Node<T> n, Node<T> fresh) {
+        if (n == null) return fresh;
+        if (order.compare(fresh.value, n.value) < 0) {
+            n.left = insert(n.left, fresh);
+            if (n.left.priority > n.priority) n = rotateRight(n);
+        } else {
+            n.right = insert(n.right, fresh);
+            if (n.right.priority > n.priority) n = rotateLeft(n);
+        }
+        return update(n);
+    }
+
+    private Node<T> delete(Node<T> n, T value) {
+        int c = order.compare(value, n.value);
+        if (c < 0) {
+            n.left = delete(n.left, value);
+        } else if (c > 0) {
+            n.right = delete(n.right, value);
+        } else {
+            return merge(n.left, n.right);
+        }
+        return update(n);
+    }
+
+    /** Joins two treaps where every element of {@code a} precedes every element of {@code b}. */
+    private static <T> Node<T> merge(Node<T> a, Node<T> b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            return update(a);
+        }
+        b.left = merge(a, b.left);
+        return update(b);
+    }
+
+    private static <T> Node<T> rotateRight(Node<T> n) {
+        Node<T> l = n.left;
+        n.left = l.right;
+        l.right = update(n);
+        return update(l);
+    }
+
+    private static <T> Node<T> rotateLeft(Node<T> n) {
+        Node<T> r = n.right;
+        n.right = r.left;
+        r.left = update(n);
+        return update(r);
+    }
+
+    /** In-order walk of the subtree at {@code n}, whose first element has position {@code offset}. */
+    private static <T> void collect(Node<T> n, int lo, int hi, int offset, List<T> out) {
+        if (n == null) return;
+        int here = offset + size(n.left);
+        if (lo < here) collect(n.left, lo, hi, offset, out);
+        if (here >= lo && here < hi) out.add(n.value);
+        if (here + 1 < hi) collect(n.right, lo, hi, here + 1, out);
+    }
+}
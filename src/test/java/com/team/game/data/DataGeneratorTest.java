@@ -0,0 +1,53 @@
+package test.java.com.team.game.data;
+
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.GameStore;
+import main.java.com.team.game.data.TransferStats;
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.GameSession;
+import main.java.com.team.game.model.ScoreRow;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataGeneratorTest {
+
+    @Test
+    void sameSeed_givesTheSameData() {
+        try (GameStore a = new GameStore(Database.isolated("DataGeneratorTest-a", 2));
+             GameStore b = new GameStore(Database.isolated("DataGeneratorTest-b", 2))) {
+            TransferStats stats = a.seedData(2_500, 4, 7); // more than one chunk of users
+            b.seedData(2_500, 4, 7);
+            assertEquals(2_500, stats.getUsers());
+            assertEquals(10_000, stats.getSessions());
+
+            for (GameMode mode : GameMode.values()) {
+                assertEquals(scores(a.leaderboard(mode, 20)), scores(b.leaderboard(mode, 20)));
+            }
+            try (Stream<GameSession> sa = a.streamSessions(null, 256); Stream<GameSession> sb = b.streamSessions(null, 256)) {
+                assertEquals(sa.map(s -> s.getStartedAt() + "/" + s.getScore()).toList(),
+                        sb.map(s -> s.getStartedAt() + "/" + s.getScore()).toList());
+            }
+            assertTrue(a.authenticate("seed7_1", "password".toCharArray()).isPresent());
+        }
+    }
+
+    @Test
+    void rerun_skipsUsersThatAlreadyExist() {
+        try (GameStore store = new GameStore(Database.isolated("DataGeneratorTest", 2))) {
+            store.seedData(10, 3, 1);
+            TransferStats again = store.seedData(10, 3, 1);
+            assertEquals(0, again.getUsers());
+            assertEquals(10, again.getSkippedUsers());
+            assertEquals(30, again.getSkippedSessions());
+            assertEquals(10, store.listUsers().size());
+        }
+    }
+
+    private static List<String> scores(List<ScoreRow> rows) {
+        return rows.stream().map(r -> r.getUsername() + "=" + r.getHighScore()).toList();
+    }
+}
@@ -0,0 +1,104 @@
+package test.java.com.team.game.data;
+
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.GameStore;
+import main.java.com.team.game.data.TransferStats;
+import main.java.com.team.game.model.AnswerEvent;
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.GameSession;
+import main.java.com.team.game.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataTransferTest {
+
+    private Path dir;
+    private GameStore source;
+    private GameStore target;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dir = Files.createTempDirectory("cab302-transfer-");
+        source = new GameStore(Database.isolated("DataTransferTest-source", 2));
+        target = new GameStore(Database.isolated("DataTransferTest-target", 2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        source.close();
+        target.close();
+    }
+
+    @Test
+    void roundTrip_keepsUsersSessionsAnswersAndPasswords() {
+        User alice = source.createUser("alice", "secret".toCharArray());
+        User bob = source.createUser("bob", "hunter2".toCharArray());
+        GameSession done = source.startSession(alice.getId(), GameMode.BASICS);
+        source.submitCorrect(done.getId());
+        source.submitCorrect(done.getId());
+        source.finishSession(done.getId());
+        source.appendAnswerEvents(List.of(
+                new AnswerEvent(done.getId(), true, Instant.ofEpochMilli(1_000), "2 + 2", "4", 900),
+                new AnswerEvent(done.getId(), true, Instant.ofEpochMilli(2_000), "say \"hi\"\n", null, -1)));
+        GameSession open = source.startSession(bob.getId(), GameMode.TRIG);
+        source.submitWrong(open.getId());
+
+        Path file = dir.resolve("cohort.jsonl.gz");
+        TransferStats exported = source.exportTo(file);
+        assertEquals(2, exported.getUsers());
+        assertEquals(2, exported.getSessions());
+        assertEquals(2, exported.getAnswers());
+
+        target.createUser("someone", "pw".toCharArray()); // imported IDs must not clash with existing rows
+        TransferStats imported = target.importFrom(file, 1);
+        assertEquals(2, imported.getUsers());
+        assertEquals(2, imported.getSessions());
+        assertEquals(2, imported.getAnswers());
+
+        User alice2 = target.authenticate("alice", "secret".toCharArray()).orElseThrow();
+        User bob2 = target.authenticate("bob", "hunter2".toCharArray()).orElseThrow();
+        assertEquals(OptionalInt.of(2), target.getHighScore(alice2.getId(), GameMode.BASICS));
+
+        GameSession done2 = target.listSessionsByUser(alice2.getId()).get(0);
+        assertTrue(done2.isCompleted());
+        assertEquals(done.getStartedAt(), done2.getStartedAt());
+        List<AnswerEvent> answers = target.listAnswerEvents(done2.getId());
+        assertEquals(2, answers.size());
+        assertEquals("4", answers.get(0).getResponse());
+        assertEquals(900, answers.get(0).getResponseMs());
+        assertEquals("say \"hi\"\n", answers.get(1).getQuestion());
+        assertNull(answers.get(1).getResponse());
+        assertEquals(-1, answers.get(1).getResponseMs());
+
+        GameSession open2 = target.listSessionsByUser(bob2.getId()).get(0);
+        assertFalse(open2.isCompleted());
+        assertEquals(1, open2.getStrikes());
+
+        TransferStats again = target.importFrom(file);
+        assertEquals(0, again.getUsers());
+        assertEquals(2, again.getSkippedUsers());
+        assertEquals(2, again.getSkippedSessions());
+        assertEquals(2, again.getSkippedAnswers());
+    }
+
+    @Test
+    void malformedLine_isReportedWithItsNumber() throws Exception {
+        Path file = dir.resolve("broken.jsonl");
+        Files.writeString(file, """
+                {"type":"header","format":"cab302-game","version":1}
+                {"type":"user","id":1,"username":"carol","passwordHash":"x","registeredAt":null}
+                {"type":"session","id":1,"userId":1,"mode":"CHESS","startedAt":null,"endedAt":null,"score":0,"strikes":0,"completed":false}
+                """);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> target.importFrom(file));
+        assertTrue(e.getMessage().startsWith("line 3:"), e.getMessage());
+    }
+}
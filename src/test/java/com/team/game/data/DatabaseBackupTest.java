@@ -0,0 +1,120 @@
+package test.java.com.team.game.data;
+
+import main.java.com.team.game.data.BackupFile;
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.DatabaseBackup;
+import main.java.com.team.game.data.GameStore;
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.GameSession;
+import main.java.com.team.game.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatabaseBackupTest {
+
+    private Path dir;
+    private String url;
+    private Database db;
+    private GameStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dir = Files.createTempDirectory("cab302-backup-");
+        url = "jdbc:sqlite:" + dir.resolve("game.db");
+        db = new Database(url, 3);
+        store = new GameStore(db);
+        for (int i = 0; i < 50; i++) {
+            User u = store.createUser("player" + i, "pw".toCharArray());
+            GameSession s = store.startSession(u.getId(), GameMode.BASICS);
+            store.submitCorrect(s.getId());
+            store.finishSession(s.getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void backup_whilePlayersWrite_isConsistentAndChecksummed() throws Exception {
+        DatabaseBackup backups = new DatabaseBackup(db, dir.resolve("backups"), 3, 1, 1);
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicInteger written = new AtomicInteger();
+        Thread writer = new Thread(() -> {
+            while (!stop.get()) {
+                store.createUser("late" + written.incrementAndGet(), "pw".toCharArray());
+            }
+        });
+        writer.start();
+        BackupFile backup;
+        try {
+            backup = backups.backup();
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+
+        assertTrue(written.get() > 0, "writers kept going during the backup");
+        assertTrue(DatabaseBackup.verify(backup));
+        assertEquals(backup.getSha256() + "  " + backup.getFile().getFileName(),
+                Files.readString(backup.getChecksumFile()).strip());
+        assertEquals(backup.getFile(), backups.list().get(0).getFile());
+        try (var stray = Files.list(backup.getFile().getParent())) {
+            assertTrue(stray.noneMatch(p -> p.toString().endsWith(".part")), "no leftovers");
+        }
+
+        Path copy = dir.resolve("copy.db");
+        Files.copy(backup.getFile(), copy);
+        try (GameStore restored = new GameStore(new Database("jdbc:sqlite:" + copy, 1))) {
+            int users = restored.listUsers().size();
+            assertTrue(users >= 50 && users <= 50 + written.get(), "users in the copy: " + users);
+        }
+    }
+
+    @Test
+    void rotation_keepsTheNewest() {
+        DatabaseBackup backups = new DatabaseBackup(db, dir.resolve("backups"), 2);
+        backups.backup();
+        BackupFile second = backups.backup();
+        BackupFile third = backups.backup();
+
+        List<BackupFile> kept = DatabaseBackup.list(url, dir.resolve("backups"));
+        assertEquals(List.of(third.getFile(), second.getFile()), kept.stream().map(BackupFile::getFile).toList());
+        assertFalse(Files.exists(dir.resolve("backups").resolve("game.db")));
+    }
+
+    @Test
+    void restore_replacesTheFile_andRefusesTamperedBackups() throws Exception {
+        BackupFile backup = new DatabaseBackup(db, dir.resolve("backups"), 2).backup();
+        store.createUser("after-backup", "pw".toCharArray());
+        store.close();
+
+        String other = "jdbc:sqlite:" + dir.resolve("other").resolve("game.db");
+        Files.createDirectories(dir.resolve("other"));
+        assertNull(DatabaseBackup.restore(backup, other), "nothing was replaced");
+        Path kept = DatabaseBackup.restore(backup, url);
+        assertNotNull(kept);
+        assertTrue(Files.exists(kept));
+
+        store = new GameStore(new Database(url, 1));
+        assertEquals(50, store.listUsers().size());
+        assertTrue(store.authenticate("player7", "pw".toCharArray()).isPresent());
+
+        Files.write(backup.getFile(), new byte[] {1}, StandardOpenOption.APPEND);
+        assertFalse(DatabaseBackup.verify(backup));
+        assertThrows(IllegalStateException.class, () -> DatabaseBackup.restore(backup, other));
+        assertThrows(IllegalArgumentException.class,
+                () -> DatabaseBackup.restore(backup, Database.memoryUrl("DatabaseBackupTest")));
+    }
+}
@@ -0,0 +1,257 @@
+package test.java.com.team.game.data;
+
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.PoolStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatabaseTest {
+
+    private Path dir;
+    private Database db;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dir = Files.createTempDirectory("cab302-pool-");
+        db = new Database("jdbc:sqlite:" + dir.resolve("pool.db"), 2, 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void connections_areConfiguredOnce_withWalAndForeignKeys() throws Exception {
+        try (Connection c = db.getConnection(); var st = c.createStatement()) {
+            try (var rs = st.executeQuery("PRAGMA journal_mode")) {
+                assertTrue(rs.next());
+                assertEquals("wal", rs.getString(1).toLowerCase());
+            }
+            try (var rs = st.executeQuery("PRAGMA foreign_keys")) {
+                assertTrue(rs.next());
+                assertEquals(1, rs.getInt(1));
+            }
+            try (var rs = st.executeQuery("PRAGMA synchronous")) {
+                assertTrue(rs.next());
+                assertEquals(1, rs.getInt(1)); // NORMAL
+            }
+        }
+    }
+
+    @Test
+    void queryTimeout_interruptsARunningStatement_andKeepsTheBusyTimeout() throws Exception {
+        String endless = "WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n) SELECT count(*) FROM n";
+        long start = System.nanoTime();
+        RuntimeException e = assertThrows(RuntimeException.class, () -> Database.withQueryTimeout(200, () -> {
+            try (Connection c = db.getConnection(); var ps = c.prepareStatement(endless); var rs = ps.executeQuery()) {
+                return rs.next();
+            } catch (SQLException ex) {
+                throw new RuntimeException(ex);
+            }
+        }));
+        assertInstanceOf(SQLException.class, e.getCause());
+        assertTrue(System.nanoTime() - start < 10_000_000_000L, "statement was not interrupted");
+
+        try (Connection c = db.getConnection(); var st = c.createStatement()) {
+            try (var rs = st.executeQuery("SELECT 1")) { // outside the deadline, the connection still works
+                assertTrue(rs.next());
+            }
+            try (var rs = st.executeQuery("PRAGMA busy_timeout")) {
+                assertTrue(rs.next());
+                assertEquals(5000, rs.getInt(1));
+            }
+        }
+    }
+
+    @Test
+    void closedConnection_isReturnedAndReused() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            try (Connection c = db.getConnection(); var st = c.createStatement()) {
+                st.execute("SELECT 1");
+            }
+        }
+        PoolStats stats = db.stats();
+        assertEquals(1, stats.getCreated());
+        assertEquals(10, stats.getBorrowed());
+        assertEquals(0, stats.getActive());
+        assertEquals(1, stats.getIdle());
+    }
+
+    @Test
+    void returnedConnection_rejectsFurtherUse() throws Exception {
+        Connection c = db.getConnection();
+        c.close();
+        assertTrue(c.isClosed());
+        assertThrows(SQLException.class, c::createStatement);
+        c.close(); // double close is harmless
+        assertEquals(0, db.stats().getActive());
+    }
+
+    @Test
+    void exhaustedPool_timesOut() throws Exception {
+        try (Connection a = db.getConnection(); Connection b = db.getConnection()) {
+            assertThrows(SQLException.class, db::getConnection);
+            PoolStats stats = db.stats();
+            assertEquals(2, stats.getActive());
+            assertEquals(1, stats.getTimedOut());
+        }
+    }
+
+    @Test
+    void openTransaction_isRolledBackOnReturn() throws Exception {
+        try (Connection c = db.getConnection(); var st = c.createStatement()) {
+            st.execute("CREATE TABLE t(x INTEGER)");
+        }
+        try (Connection c = db.getConnection(); var st = c.createStatement()) {
+            c.setAutoCommit(false);
+            st.execute("INSERT INTO t VALUES (1)");
+        }
+        try (Connection c = db.getConnection(); var st = c.createStatement();
+             var rs = st.executeQuery("SELECT COUNT(*) FROM t")) {
+            assertTrue(c.getAutoCommit());
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void preparedStatements_areReusedPerConnection() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            try (Connection c = db.getConnection();
+                 var ps = c.prepareStatement("SELECT ?")) {
+                ps.setInt(1, i);
+                try (var rs = ps.executeQuery()) {
+                    assertTrue(rs.next());
+                    assertEquals(i, rs.getInt(1));
+                }
+            }
+        }
+        PoolStats stats = db.stats();
+        assertEquals(1, stats.getStatementMisses());
+        assertEquals(4, stats.getStatementHits());
+    }
+
+    @Test
+    void failedCachedStatement_isPreparedAfresh() throws Exception {
+        try (Connection c = db.getConnection(); var st = c.createStatement()) {
+            st.execute("CREATE TABLE t(x INTEGER)");
+            st.execute("INSERT INTO t VALUES (7)");
+            assertEquals(7, selectX(c));
+
+            st.execute("DROP TABLE t");
+            assertThrows(SQLException.class, () -> selectX(c));
+
+            st.execute("CREATE TABLE t(x INTEGER)");
+            st.execute("INSERT INTO t VALUES (8)");
+            assertEquals(8, selectX(c));
+        }
+    }
+
+    private static int selectX(Connection c) throws SQLException {
+        try (var ps = c.prepareStatement("SELECT x FROM t"); var rs = ps.executeQuery()) {
+            assertTrue(rs.next());
+            return rs.getInt(1);
+        }
+    }
+
+    @Test
+    void nestedUseOfSameSql_getsIndependentStatements() throws Exception {
+        try (Connection c = db.getConnection();
+             var outer = c.prepareStatement("SELECT ?");
+             var inner = c.prepareStatement("SELECT ?")) {
+            outer.setString(1, "outer");
+            inner.setString(1, "inner");
+            try (var a = outer.executeQuery(); var b = inner.executeQuery()) {
+                assertTrue(a.next());
+                assertTrue(b.next());
+                assertEquals("outer", a.getString(1));
+                assertEquals("inner", b.getString(1));
+            }
+            assertSame(c, outer.getConnection());
+        }
+    }
+
+    @Test
+    void statementCache_evictsLeastRecentlyUsed() throws Exception {
+        try (Database small = new Database("jdbc:sqlite:" + dir.resolve("small.db"), 1, 200, 2);
+             Connection c = small.getConnection()) {
+            for (String sql : new String[]{"SELECT 1", "SELECT 2", "SELECT 1", "SELECT 3", "SELECT 2"}) {
+                try (var ps = c.prepareStatement(sql); var rs = ps.executeQuery()) {
+                    assertTrue(rs.next());
+                }
+            }
+            PoolStats stats = small.stats();
+            assertEquals(1, stats.getStatementHits());     // second "SELECT 1"
+            assertEquals(4, stats.getStatementMisses());   // "SELECT 2" was evicted by "SELECT 3"
+            assertEquals(2, stats.getStatementEvictions());
+        }
+    }
+
+    @Test
+    void isolatedDatabases_shareDataAcrossConnections_butNotWithEachOther() throws Exception {
+        try (Database a = Database.isolated("DatabaseTest", 2);
+             Database b = Database.isolated("DatabaseTest", 2)) {
+            assertTrue(a.isInMemory());
+            try (Connection c1 = a.getConnection(); Connection c2 = a.getConnection()) {
+                c1.createStatement().execute("CREATE TABLE t(x INTEGER)");
+                c1.createStatement().execute("INSERT INTO t VALUES (42)");
+                try (var rs = c2.createStatement().executeQuery("SELECT x FROM t")) {
+                    assertTrue(rs.next());
+                    assertEquals(42, rs.getInt(1));
+                }
+            }
+            try (Connection c = b.getConnection(); var st = c.createStatement();
+                 var rs = st.executeQuery("SELECT count(*) FROM sqlite_master WHERE name = 't'")) {
+                assertTrue(rs.next());
+                assertEquals(0, rs.getInt(1));
+            }
+        }
+    }
+
+    @Test
+    void privateMemoryDatabase_isLimitedToOneConnection() {
+        try (Database mem = new Database("jdbc:sqlite::memory:", 4)) {
+            assertTrue(mem.isInMemory());
+            assertEquals(1, mem.stats().getMaxSize());
+        }
+    }
+
+    @Test
+    void fromProperties_appliesUrlPoolSizeAndPragmas() throws Exception {
+        Properties props = new Properties();
+        props.setProperty("game.db.url", "jdbc:sqlite:" + dir.resolve("nested/configured.db"));
+        props.setProperty("game.db.poolSize", "3");
+        props.setProperty("game.db.pragmas", "synchronous=OFF; cache_size=-2000");
+        try (Database configured = Database.fromProperties(props);
+             Connection c = configured.getConnection(); var st = c.createStatement()) {
+            assertEquals(3, configured.stats().getMaxSize());
+            assertTrue(Files.exists(dir.resolve("nested")));
+            try (var rs = st.executeQuery("PRAGMA synchronous")) {
+                assertTrue(rs.next());
+                assertEquals(0, rs.getInt(1)); // OFF
+            }
+            try (var rs = st.executeQuery("PRAGMA journal_mode")) {
+                assertTrue(rs.next());
+                assertEquals("wal", rs.getString(1).toLowerCase());
+            }
+        }
+        props.setProperty("game.db.poolSize", "many");
+        assertThrows(IllegalArgumentException.class, () -> Database.fromProperties(props));
+    }
+
+    @Test
+    void close_rejectsNewBorrows() {
+        db.close();
+        assertThrows(SQLException.class, db::getConnection);
+    }
+}
@@ -0,0 +1,490 @@
+package test.java.com.team.game.data;
+
+import main.java.com.team.game.data.GameStorage;
+import main.java.com.team.game.data.SessionJournal;
+import main.java.com.team.game.data.StorageListener;
+import main.java.com.team.game.model.AnswerEvent;
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.GameSession;
+import main.java.com.team.game.model.LeaderboardPeriod;
+import main.java.com.team.game.model.ScoreRow;
+import main.java.com.team.game.model.SessionCursor;
+import main.java.com.team.game.model.SessionPage;
+import main.java.com.team.game.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour every {@link GameStorage} must share, run against each implementation by
+ * a subclass that supplies a fresh, empty store per test.
+ * <p>
+ * Mirrors the storage-level checks of {@code GameStoreDatabaseTest}, without the
+ * SQLite-specific ones (pragmas, query plans, connection accounting).
+ */
+public abstract class GameStorageContractTest {
+
+    protected GameStorage store;
+
+    /** @return a new, empty store */
+    protected abstract GameStorage newStorage() throws Exception;
+
+    @BeforeEach
+    void openStore() throws Exception {
+        store = newStorage();
+    }
+
+    @AfterEach
+    void closeStore() {
+        store.close();
+    }
+
+    // ---- users ----
+
+    @Test
+    void usersAreListedByUsername() {
+        store.createUser("bob", "pw".toCharArray());
+        store.createUser("alice", "pw".toCharArray());
+        store.createUser("charlie", "pw".toCharArray());
+
+        List<User> users = store.listUsers();
+        assertEquals(List.of("alice", "bob", "charlie"), users.stream().map(User::getUsername).toList());
+        for (User u : users) {
+            assertNotNull(u.getRegisteredAt());
+            assertTrue(u.getRegisteredAt().isBefore(Instant.now().plusSeconds(5)));
+        }
+    }
+
+    @Test
+    void usernamesAreUniqueIgnoringCase() {
+        store.createUser("Alice", "x".toCharArray());
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> store.createUser("alice", "y".toCharArray()));
+        assertTrue(ex.getMessage().toLowerCase().contains("taken"));
+        assertEquals(1, store.listUsers().size());
+    }
+
+    @Test
+    void authenticate_matchesUsernameIgnoringCase_andChecksThePassword() {
+        store.createUser("sam", "123".toCharArray());
+        assertTrue(store.authenticate("sam", "123".toCharArray()).isPresent());
+        assertTrue(store.authenticate("SAM", "123".toCharArray()).isPresent());
+        assertTrue(store.authenticate("sam", "wrong".toCharArray()).isEmpty());
+        assertTrue(store.authenticate("unknown", "123".toCharArray()).isEmpty());
+    }
+
+    @Test
+    void findUserByUsername_ignoresCase() {
+        User u = store.createUser("CaseyJones", "pw".toCharArray());
+        assertEquals(u.getId(), store.findUserByUsername("caseyjones").orElseThrow().getId());
+        assertTrue(store.findUserByUsername("nobody").isEmpty());
+    }
+
+    @Test
+    void updateUsername_rejectsTakenNames_andRenames() {
+        store.createUser("eva", "x".toCharArray());
+        User mike = store.createUser("mike", "x".toCharArray());
+
+        assertThrows(IllegalStateException.class, () -> store.updateUsername(mike.getId(), "EVA"));
+        store.updateUsername(mike.getId(), "michael");
+
+        assertEquals(List.of("eva", "michael"), store.listUsers().stream().map(User::getUsername).toList());
+        assertTrue(store.findUserByUsername("mike").isEmpty());
+        store.updateUsername(mike.getId(), "Michael"); // a change of case only is allowed
+        assertEquals("Michael", store.findUserByUsername("MICHAEL").orElseThrow().getUsername());
+    }
+
+    @Test
+    void updatePassword_replacesTheCredential() {
+        User u = store.createUser("pat", "old".toCharArray());
+        store.updatePassword(u.getId(), "new".toCharArray());
+        assertTrue(store.authenticate("pat", "old".toCharArray()).isEmpty());
+        assertTrue(store.authenticate("pat", "new".toCharArray()).isPresent());
+    }
+
+    @Test
+    void deleteUser_removesSessionsScoresAndAnswers() {
+        User u = store.createUser("gone", "pw".toCharArray());
+        GameSession s = finished(u, GameMode.TRIG, 2);
+        store.appendAnswerEvents(List.of(new AnswerEvent(s.getId(), true, Instant.now())));
+
+        assertTrue(store.deleteUser(u.getId()));
+        assertFalse(store.deleteUser(u.getId()));
+        assertTrue(store.listSessionsByUser(u.getId()).isEmpty());
+        assertTrue(store.listAnswerEvents(s.getId()).isEmpty());
+        assertTrue(store.getHighScore(u.getId(), GameMode.TRIG).isEmpty());
+        assertTrue(store.leaderboard(GameMode.TRIG, 10).isEmpty());
+        assertTrue(store.findUserByUsername("gone").isEmpty());
+    }
+
+    // ---- sessions ----
+
+    @Test
+    void session_startsEmpty_andCompletesOnTheThirdStrike() {
+        User u = store.createUser("runner", "pw".toCharArray());
+        GameSession s = store.startSession(u.getId(), GameMode.BASICS);
+        assertEquals(0, s.getScore());
+        assertEquals(0, s.getStrikes());
+        assertFalse(s.isCompleted());
+        assertNotNull(s.getStartedAt());
+        assertNull(s.getEndedAt());
+
+        assertEquals(1, store.submitCorrect(s.getId()).orElseThrow().getScore());
+        store.submitWrong(s.getId());
+        GameSession second = store.submitWrong(s.getId()).orElseThrow();
+        assertEquals(2, second.getStrikes());
+        assertFalse(second.isCompleted());
+        GameSession third = store.submitWrong(s.getId()).orElseThrow();
+        assertTrue(third.isCompleted());
+        assertNotNull(third.getEndedAt());
+
+        assertTrue(store.submitCorrect(s.getId()).isEmpty());
+        assertTrue(store.submitWrong(s.getId()).isEmpty());
+        assertTrue(store.submitCorrect(-1).isEmpty());
+        GameSession stored = store.listSessionsByUser(u.getId()).get(0);
+        assertEquals(1, stored.getScore());
+        assertEquals(3, stored.getStrikes());
+    }
+
+    @Test
+    void finishSession_completesAndStampsTheEnd() {
+        User u = store.createUser("finisher", "pw".toCharArray());
+        GameSession s = store.startSession(u.getId(), GameMode.TRIG);
+        store.submitCorrect(s.getId());
+        GameSession finished = store.finishSession(s.getId()).orElseThrow();
+
+        GameSession reloaded = store.listSessionsByUser(u.getId()).get(0);
+        assertTrue(reloaded.isCompleted());
+        assertNotNull(reloaded.getEndedAt());
+        assertTrue(finished.isCompleted());
+        assertEquals(reloaded.getEndedAt(), finished.getEndedAt());
+        assertEquals(1, finished.getScore());
+        assertTrue(store.finishSession(-1).isEmpty());
+    }
+
+    @Test
+    void sessionsAreListedNewestFirst_andDeletable() {
+        User u = store.createUser("chronos", "pw".toCharArray());
+        GameSession s1 = store.startSession(u.getId(), GameMode.BASICS);
+        GameSession s2 = store.startSession(u.getId(), GameMode.TRIG);
+
+        assertEquals(List.of(s2.getId(), s1.getId()),
+                store.listSessionsByUser(u.getId()).stream().map(GameSession::getId).toList());
+        assertTrue(store.deleteSession(s2.getId()));
+        assertFalse(store.deleteSession(s2.getId()));
+        assertEquals(1, store.listSessionsByUser(u.getId()).size());
+    }
+
+    @Test
+    void concurrentSubmits_loseNoUpdates() throws Exception {
+        User u = store.createUser("racer", "pw".toCharArray());
+        GameSession s = store.startSession(u.getId(), GameMode.TRIG);
+        int perThread = 50;
+
+        Runnable submit = () -> { for (int i = 0; i < perThread; i++) store.submitCorrect(s.getId()); };
+        Thread a = new Thread(submit);
+        Thread b = new Thread(submit);
+        a.start(); b.start();
+        a.join(); b.join();
+
+        assertEquals(2 * perThread, store.listSessionsByUser(u.getId()).get(0).getScore());
+    }
+
+    @Test
+    void pagesWalkTheWholeHistory_inListOrder() {
+        User u = store.createUser("pager", "pw".toCharArray());
+        for (int i = 0; i < 23; i++) store.startSession(u.getId(), i % 3 == 0 ? GameMode.TRIG : GameMode.BASICS);
+
+        List<Integer> paged = new ArrayList<>();
+        SessionCursor cursor = null;
+        int pages = 0;
+        do {
+            SessionPage page = store.listSessionsByUser(u.getId(), cursor, 4, null);
+            page.getSessions().forEach(s -> paged.add(s.getId()));
+            cursor = page.getNextCursor().orElse(null);
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(store.listSessionsByUser(u.getId()).stream().map(GameSession::getId).toList(), paged);
+        assertEquals(6, pages);
+        assertEquals(23, store.countSessionsByUser(u.getId(), null));
+
+        SessionPage trig = store.listSessionsByUser(u.getId(), null, 100, GameMode.TRIG);
+        assertEquals(8, trig.getSessions().size());
+        assertFalse(trig.hasMore());
+        assertTrue(trig.getSessions().stream().allMatch(s -> s.getMode() == GameMode.TRIG));
+        assertEquals(8, store.countSessionsByUser(u.getId(), GameMode.TRIG));
+        assertThrows(IllegalArgumentException.class, () -> store.listSessionsByUser(u.getId(), null, 0, null));
+    }
+
+    @Test
+    void streamsMatchTheLists() {
+        User a = store.createUser("stream_a", "pw".toCharArray());
+        User b = store.createUser("stream_b", "pw".toCharArray());
+        for (int i = 0; i < 5; i++) store.startSession(a.getId(), i % 2 == 0 ? GameMode.BASICS : GameMode.TRIG);
+        store.startSession(b.getId(), GameMode.BASICS);
+
+        try (Stream<GameSession> s = store.streamSessionsByUser(a.getId())) {
+            assertEquals(store.listSessionsByUser(a.getId()).stream().map(GameSession::getId).toList(),
+                    s.map(GameSession::getId).toList());
+        }
+        try (Stream<GameSession> s = store.streamSessions(GameMode.BASICS, 2)) {
+            assertEquals(4, s.count());
+        }
+        try (Stream<GameSession> s = store.streamSessions(null, 1)) {
+            List<Integer> ids = s.map(GameSession::getId).toList();
+            List<Integer> sorted = new ArrayList<>(ids);
+            Collections.sort(sorted);
+            assertEquals(sorted, ids);
+            assertEquals(6, ids.size());
+        }
+        try (Stream<User> s = store.streamUsers()) {
+            assertEquals("stream_a", s.findFirst().orElseThrow().getUsername());
+        }
+    }
+
+    // ---- scores ----
+
+    @Test
+    void highScore_isTheBestCompletedSession() {
+        User u = store.createUser("scorer", "pw".toCharArray());
+        assertTrue(store.getHighScore(u.getId(), GameMode.BASICS).isEmpty());
+
+        finished(u, GameMode.BASICS, 1);
+        finished(u, GameMode.BASICS, 2);
+        GameSession open = store.startSession(u.getId(), GameMode.BASICS);
+        for (int i = 0; i < 9; i++) store.submitCorrect(open.getId()); // not completed: does not count
+
+        assertEquals(2, store.getHighScore(u.getId(), GameMode.BASICS).getAsInt());
+        assertTrue(store.getHighScore(u.getId(), GameMode.TRIG).isEmpty());
+    }
+
+    @Test
+    void leaderboard_isPerMode_sorted_andLimited() {
+        User alice = store.createUser("lb_alice", "pw".toCharArray());
+        User bob = store.createUser("lb_bob", "pw".toCharArray());
+        User cara = store.createUser("lb_cara", "pw".toCharArray());
+        finished(alice, GameMode.BASICS, 3);
+        finished(bob, GameMode.BASICS, 1);
+        finished(cara, GameMode.TRIG, 5);
+
+        List<ScoreRow> top = store.leaderboard(GameMode.BASICS, 10);
+        assertEquals(List.of("lb_alice", "lb_bob"), top.stream().map(ScoreRow::getUsername).toList());
+        assertEquals(3, top.get(0).getHighScore());
+        assertEquals(1, store.leaderboard(GameMode.BASICS, 1).size());
+        assertEquals(List.of(3, 1), store.listBestScores(GameMode.BASICS).stream().map(ScoreRow::getHighScore).toList());
+        assertEquals(5, store.findBestScore(cara.getId(), GameMode.TRIG).orElseThrow().getHighScore());
+        assertTrue(store.findBestScore(cara.getId(), GameMode.BASICS).isEmpty());
+    }
+
+    @Test
+    void bestScore_followsDeletedSessions_andRenames() {
+        User u = store.createUser("best", "pw".toCharArray());
+        GameSession low = finished(u, GameMode.BASICS, 3);
+        GameSession high = store.startSession(u.getId(), GameMode.BASICS);
+        for (int i = 0; i < 5; i++) store.submitCorrect(high.getId());
+        for (int i = 0; i < 3; i++) store.submitWrong(high.getId()); // completes via the strike rule
+        assertEquals(5, store.getHighScore(u.getId(), GameMode.BASICS).getAsInt());
+
+        store.updateUsername(u.getId(), "renamed");
+        assertEquals("renamed", store.leaderboard(GameMode.BASICS, 1).get(0).getUsername());
+
+        assertTrue(store.deleteSession(high.getId()));
+        assertEquals(3, store.getHighScore(u.getId(), GameMode.BASICS).getAsInt());
+        assertTrue(store.deleteSession(low.getId()));
+        assertTrue(store.getHighScore(u.getId(), GameMode.BASICS).isEmpty());
+        assertTrue(store.leaderboard(GameMode.BASICS, 10).isEmpty());
+    }
+
+    @Test
+    void windowedLeaderboards_onlyCountRoundsFinishedInTheWindow() {
+        User alice = store.createUser("win_alice", "pw".toCharArray());
+        User bob = store.createUser("win_bob", "pw".toCharArray());
+        GameSession aliceRound = finished(alice, GameMode.BASICS, 4);
+        GameSession longAgo = store.startSession(bob.getId(), GameMode.BASICS);
+        store.recoverSessions(List.of(new SessionJournal.Entry(longAgo.getId(), 6, 0, false,
+                Instant.parse("2020-01-01T10:00:00Z"))));
+
+        assertEquals(List.of("win_bob", "win_alice"), names(store.leaderboard(GameMode.BASICS, LeaderboardPeriod.ALL_TIME, 10)));
+        for (LeaderboardPeriod period : List.of(LeaderboardPeriod.DAY, LeaderboardPeriod.WEEK, LeaderboardPeriod.TERM)) {
+            assertEquals(List.of("win_alice"), names(store.leaderboard(GameMode.BASICS, period, 10)), period.name());
+            assertTrue(store.leaderboard(GameMode.TRIG, period, 10).isEmpty());
+        }
+
+        finished(bob, GameMode.BASICS, 2);
+        finished(bob, GameMode.BASICS, 1);
+        List<ScoreRow> week = store.leaderboard(GameMode.BASICS, LeaderboardPeriod.WEEK, 10);
+        assertEquals(List.of("win_alice", "win_bob"), names(week));
+        assertEquals(2, week.get(1).getHighScore());
+        assertEquals(1, store.leaderboard(GameMode.BASICS, LeaderboardPeriod.DAY, 1).size());
+
+        store.deleteSession(aliceRound.getId());
+        assertEquals(List.of("win_bob"), names(store.leaderboard(GameMode.BASICS, LeaderboardPeriod.TERM, 10)));
+        store.deleteUser(bob.getId());
+        assertTrue(store.leaderboard(GameMode.BASICS, LeaderboardPeriod.DAY, 10).isEmpty());
+    }
+
+    @Test
+    void leaderboards_breakTiesByUserId() {
+        User first = store.createUser("tie_first", "pw".toCharArray());
+        User second = store.createUser("tie_second", "pw".toCharArray());
+        User third = store.createUser("tie_third", "pw".toCharArray());
+        finished(third, GameMode.TRIG, 2); // reached the tie first
+        finished(second, GameMode.TRIG, 2);
+        finished(first, GameMode.TRIG, 2);
+
+        List<String> byId = List.of("tie_first", "tie_second", "tie_third");
+        assertEquals(byId, names(store.leaderboard(GameMode.TRIG, 10)));
+        assertEquals(byId, names(store.leaderboard(GameMode.TRIG, LeaderboardPeriod.WEEK, 10)));
+        assertEquals(byId, names(store.listBestScores(GameMode.TRIG)));
+        assertEquals(List.of("tie_first"), names(store.leaderboard(GameMode.TRIG, 1)));
+    }
+
+    private static List<String> names(List<ScoreRow> rows) {
+        return rows.stream().map(ScoreRow::getUsername).toList();
+    }
+
+    // ---- answer log and in-memory rounds ----
+
+    @Test
+    void applyAnswers_scoresAndLogsInOrder() {
+        User u = store.createUser("batch", "pw".toCharArray());
+        GameSession s = store.startSession(u.getId(), GameMode.TARGET);
+        Instant t = Instant.now();
+        store.applyAnswers(List.of(
+                new AnswerEvent(s.getId(), true, t, "q1", "a", 100),
+                new AnswerEvent(s.getId(), false, t, "q2", null, -1),
+                new AnswerEvent(s.getId(), false, t, "q1", "b", 200),
+                new AnswerEvent(s.getId(), false, t, "q3", "c", 300),
+                new AnswerEvent(s.getId(), true, t, "q4", "d", 400))); // after the third strike: ignored
+
+        GameSession after = store.listSessionsByUser(u.getId()).get(0);
+        assertEquals(1, after.getScore());
+        assertEquals(3, after.getStrikes());
+        assertTrue(after.isCompleted());
+        assertEquals(1, store.getHighScore(u.getId(), GameMode.TARGET).getAsInt());
+
+        List<AnswerEvent> log = store.listAnswerEvents(s.getId());
+        assertEquals(List.of("q1", "q2", "q1", "q3", "q4"), log.stream().map(AnswerEvent::getQuestion).toList());
+        assertNull(log.get(1).getResponse());
+        assertEquals(-1, log.get(1).getResponseMs());
+        assertEquals(200, log.get(2).getResponseMs());
+    }
+
+    @Test
+    void answerEventsOfMissingSessions_areDropped() {
+        User u = store.createUser("logger", "pw".toCharArray());
+        GameSession kept = store.startSession(u.getId(), GameMode.BASICS);
+        GameSession gone = store.startSession(u.getId(), GameMode.BASICS);
+        store.deleteSession(gone.getId());
+
+        store.appendAnswerEvents(List.of(
+                new AnswerEvent(gone.getId(), true, Instant.now()),
+                new AnswerEvent(kept.getId(), false, Instant.now())));
+
+        assertTrue(store.listAnswerEvents(gone.getId()).isEmpty());
+        assertEquals(1, store.listAnswerEvents(kept.getId()).size());
+        assertEquals(0, store.listSessionsByUser(u.getId()).get(0).getStrikes()); // logging does not score
+    }
+
+    @Test
+    void progressSnapshots_neverOverwriteAFinalResult() {
+        User u = store.createUser("live", "pw".toCharArray());
+        GameSession s = store.startSession(u.getId(), GameMode.BASICS);
+        store.saveSessionProgress(List.of(state(s, 4, 1, false)));
+        assertEquals(4, store.listSessionsByUser(u.getId()).get(0).getScore());
+
+        assertTrue(store.completeSession(state(s, 6, 1, true)));
+        assertFalse(store.completeSession(state(s, 9, 1, true)));
+        store.saveSessionProgress(List.of(state(s, 5, 2, false))); // late snapshot
+
+        GameSession stored = store.listSessionsByUser(u.getId()).get(0);
+        assertTrue(stored.isCompleted());
+        assertEquals(6, stored.getScore());
+        assertEquals(6, store.getHighScore(u.getId(), GameMode.BASICS).getAsInt());
+    }
+
+    @Test
+    void recoverSessions_completesWithTheStateThatHasMoreAnswers() {
+        User u = store.createUser("crashy", "pw".toCharArray());
+        GameSession behind = store.startSession(u.getId(), GameMode.BASICS);
+        GameSession ahead = store.startSession(u.getId(), GameMode.BASICS);
+        GameSession done = finished(u, GameMode.BASICS, 1);
+        for (int i = 0; i < 4; i++) store.submitCorrect(ahead.getId());
+        Instant at = Instant.parse("2025-01-01T10:00:00Z");
+
+        int n = store.recoverSessions(List.of(
+                new SessionJournal.Entry(behind.getId(), 3, 1, false, at),
+                new SessionJournal.Entry(ahead.getId(), 2, 0, false, at),
+                new SessionJournal.Entry(done.getId(), 7, 0, false, at)));
+
+        assertEquals(2, n);
+        assertEquals(3, session(u, behind).getScore());
+        assertEquals(1, session(u, behind).getStrikes());
+        assertNotNull(session(u, behind).getEndedAt());
+        assertEquals(4, session(u, ahead).getScore());
+        assertTrue(session(u, ahead).isCompleted());
+        assertEquals(1, session(u, done).getScore());
+        assertEquals(4, store.getHighScore(u.getId(), GameMode.BASICS).getAsInt());
+    }
+
+    // ---- lifecycle ----
+
+    @Test
+    void changeListeners_hearCommittedWrites() {
+        List<String> heard = Collections.synchronizedList(new ArrayList<>());
+        store.addChangeListener(new StorageListener() {
+            @Override public void onChange(Change change, String table, long rowId) { heard.add(change + " " + table); }
+            @Override public void onCommit() { heard.add("commit"); }
+            @Override public void onRollback() { heard.add("rollback"); }
+        });
+        User u = store.createUser("heard", "pw".toCharArray());
+        GameSession s = store.startSession(u.getId(), GameMode.BASICS);
+        store.finishSession(s.getId());
+
+        assertTrue(heard.contains("INSERT users"));
+        assertTrue(heard.contains("INSERT game_session"));
+        assertTrue(heard.contains("UPDATE game_session"));
+        assertTrue(heard.stream().anyMatch(h -> h.endsWith("user_best_score")));
+        assertEquals("commit", heard.get(heard.size() - 1));
+    }
+
+    @Test
+    void closeHooks_runOnce_inOrder_whileTheStoreIsUsable() {
+        User u = store.createUser("closer", "pw".toCharArray());
+        List<String> ran = new ArrayList<>();
+        store.onClose(() -> ran.add("first " + store.listSessionsByUser(u.getId()).size()));
+        store.onClose(() -> ran.add("second"));
+        store.close();
+        store.close();
+        assertEquals(List.of("first 0", "second"), ran);
+    }
+
+    // ---- helpers ----
+
+    /** Plays a completed session with the given score. */
+    private GameSession finished(User u, GameMode mode, int score) {
+        GameSession s = store.startSession(u.getId(), mode);
+        for (int i = 0; i < score; i++) store.submitCorrect(s.getId());
+        store.finishSession(s.getId());
+        return s;
+    }
+
+    private GameSession session(User u, GameSession s) {
+        return store.listSessionsByUser(u.getId()).stream()
+                .filter(x -> x.getId() == s.getId()).findFirst().orElseThrow();
+    }
+
+    private static GameSession state(GameSession s, int score, int strikes, boolean completed) {
+        return new GameSession(s.getId(), s.getUserId(), s.getMode(), s.getStartedAt(),
+                completed ? Instant.now() : null, score, strikes, completed);
+    }
+}
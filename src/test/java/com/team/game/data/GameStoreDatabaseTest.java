@@ -1,5 +1,7 @@
-package main.java.com.team.game.data;
+package test.java.com.team.game.data;
 
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.GameStore;
 import main.java.com.team.game.model.GameMode;
 import main.java.com.team.game.model.GameSession;
 import main.java.com.team.game.model.ScoreRow;
@@ -7,8 +9,6 @@ import main.java.com.team.game.model.User;
 
 import org.junit.jupiter.api.*;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.Instant;
@@ -19,29 +19,31 @@ import static org.junit.jupiter.api.Assertions.*;
 /**
  * Integration tests for {@link GameStore} backed by the real SQLite DB.
  * <p>
- * Uses a temporary working directory and clears all tables between tests.
+ * Uses an in-memory database of its own and clears all tables between tests.
  * Verifies schema creation, user auth and updates, session lifecycle,
  * high score queries, leaderboard ranking, ordering, and foreign key behavior.
  */
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class GameStoreDatabaseTest {
 
-    private static Path tempRoot;
+    private static Database db;
     private static GameStore store;
 
     /**
-     * Creates a temp working directory, initializes the DB (via {@link Database}),
-     * constructs a {@link GameStore}, and truncates all tables once before the suite.
+     * Creates an isolated in-memory DB (via {@link Database#isolated}), constructs a
+     * {@link GameStore} on it, and truncates all tables once before the suite.
      */
     @BeforeAll
-    static void setupWorkingDirAndInit() throws Exception {
-        tempRoot = Files.createTempDirectory("cab302-dbtests-");
-        System.setProperty("user.dir", tempRoot.toAbsolutePath().toString());
-        Class.forName(Database.class.getName());   // load/initialize once
-        store = new GameStore();
+    static void setupDatabase() throws Exception {
+        db = Database.isolated("GameStoreDatabaseTest", 2);
+        store = new GameStore(db);
         truncateAll();
     }
 
+    /** Discards the database. */
+    @AfterAll
+    static void closeDatabase() { db.close(); }
+
     /**
      * Clears all tables after each test to guarantee isolation.
      */
@@ -52,20 +54,23 @@ public class GameStoreDatabaseTest {
      * Utility: removes all rows from {@code users} and {@code game_session}.
      */
     private static void truncateAll() throws SQLException {
-        try (Connection c = Database.open()) {
+        try (Connection c = db.getConnection()) {
             c.createStatement().execute("DELETE FROM game_session");
             c.createStatement().execute("DELETE FROM users");
         }
     }
 
     /**
-     * Verifies the schema (tables) were created by {@link GameStore#GameStore()}.
+     * Verifies the schema (tables) were created by {@link GameStore#GameStore(Database)}.
      */
     @Test @Order(1)
     void testSchemaWasCreated() throws Exception {
-        try (Connection c = Database.open()) {
-            assertTrue(c.getMetaData().getTables(null, null, "users", null).next());
-            assertTrue(c.getMetaData().getTables(null, null, "game_session", null).next());
+        // Close the metadata result sets: an open one pins a read snapshot on the pooled connection
+        try (Connection c = db.getConnection();
+             var users = c.getMetaData().getTables(null, null, "users", null);
+             var sessions = c.getMetaData().getTables(null, null, "game_session", null)) {
+            assertTrue(users.next());
+            assertTrue(sessions.next());
         }
     }
 
@@ -294,7 +299,7 @@ public class GameStoreDatabaseTest {
      */
     @Test @Order(14)
     void testForeignKeysPragmaOn() throws Exception {
-        try (Connection c = Database.open();
+        try (Connection c = db.getConnection();
              var rs = c.createStatement().executeQuery("PRAGMA foreign_keys")) {
             assertTrue(rs.next());
             assertEquals(1, rs.getInt(1));
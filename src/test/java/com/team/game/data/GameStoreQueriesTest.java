@@ -0,0 +1,271 @@
+package test.java.com.team.game.data;
+
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.GameStore;
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.GameSession;
+import main.java.com.team.game.model.ScoreRow;
+import main.java.com.team.game.model.SessionCursor;
+import main.java.com.team.game.model.SessionPage;
+import main.java.com.team.game.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** SQLite-specific behaviour of {@link GameStore}, each test on a fresh in-memory database. */
+public class GameStoreQueriesTest {
+
+    private Database db;
+    private GameStore store;
+
+    @BeforeEach
+    void setUp() {
+        db = Database.isolated("GameStoreQueriesTest", 2);
+        store = new GameStore(db);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void submits_returnTheUpdatedSession_andNothingOnceCompleted() {
+        User u = store.createUser("returner", "pw".toCharArray());
+        GameSession s = store.startSession(u.getId(), GameMode.BASICS);
+
+        GameSession afterCorrect = store.submitCorrect(s.getId()).orElseThrow();
+        assertEquals(1, afterCorrect.getScore());
+        assertEquals(0, afterCorrect.getStrikes());
+
+        store.submitWrong(s.getId());
+        GameSession second = store.submitWrong(s.getId()).orElseThrow();
+        assertEquals(2, second.getStrikes());
+        assertFalse(second.isCompleted());
+
+        GameSession third = store.submitWrong(s.getId()).orElseThrow();
+        assertEquals(3, third.getStrikes());
+        assertTrue(third.isCompleted());
+        assertNotNull(third.getEndedAt());
+
+        assertTrue(store.submitCorrect(s.getId()).isEmpty());
+        assertTrue(store.submitWrong(s.getId()).isEmpty());
+    }
+
+    @Test
+    void concurrentSubmits_areNotLost() throws Exception {
+        User u = store.createUser("racer", "pw".toCharArray());
+        GameSession s = store.startSession(u.getId(), GameMode.TRIG);
+        int perThread = 50;
+
+        Runnable submit = () -> { for (int i = 0; i < perThread; i++) store.submitCorrect(s.getId()); };
+        Thread a = new Thread(submit);
+        Thread b = new Thread(submit);
+        a.start(); b.start();
+        a.join(); b.join();
+
+        GameSession after = store.listSessionsByUser(u.getId()).get(0);
+        assertEquals(2 * perThread, after.getScore());
+    }
+
+    @Test
+    void usernameLookup_usesTheNocaseIndex() throws Exception {
+        User u = store.createUser("CaseyJones", "pw".toCharArray());
+        assertEquals(u.getId(), store.findUserByUsername("caseyjones").orElseThrow().getId());
+        assertTrue(store.findUserByUsername("nobody").isEmpty());
+
+        try (Connection c = db.getConnection();
+             var ps = c.prepareStatement("EXPLAIN QUERY PLAN SELECT id FROM users WHERE username = ? COLLATE NOCASE")) {
+            ps.setString(1, "caseyjones");
+            StringBuilder plan = new StringBuilder();
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) plan.append(rs.getString("detail")).append('\n');
+            }
+            assertTrue(plan.toString().contains("idx_users_username_nocase"), plan.toString());
+        }
+    }
+
+    @Test
+    void bestScores_followSessionCompletionsAndDeletions() {
+        User u = store.createUser("best", "pw".toCharArray());
+        GameSession low = store.startSession(u.getId(), GameMode.BASICS);
+        for (int i = 0; i < 3; i++) store.submitCorrect(low.getId());
+        store.finishSession(low.getId());
+        GameSession high = store.startSession(u.getId(), GameMode.BASICS);
+        for (int i = 0; i < 5; i++) store.submitCorrect(high.getId());
+        store.submitWrong(high.getId());
+        store.submitWrong(high.getId());
+        store.submitWrong(high.getId()); // completes via the strike rule
+
+        assertEquals(5, store.getHighScore(u.getId(), GameMode.BASICS).getAsInt());
+        assertTrue(store.getHighScore(u.getId(), GameMode.TRIG).isEmpty());
+
+        assertTrue(store.deleteSession(high.getId()));
+        assertEquals(3, store.getHighScore(u.getId(), GameMode.BASICS).getAsInt());
+
+        assertTrue(store.deleteSession(low.getId()));
+        assertTrue(store.getHighScore(u.getId(), GameMode.BASICS).isEmpty());
+        assertTrue(store.leaderboard(GameMode.BASICS, 10).isEmpty());
+    }
+
+    @Test
+    void bestScores_areRemovedWithTheirUser() throws Exception {
+        User u = store.createUser("gone", "pw".toCharArray());
+        for (int n = 1; n <= 2; n++) {
+            GameSession s = store.startSession(u.getId(), GameMode.TRIG);
+            for (int i = 0; i < n; i++) store.submitCorrect(s.getId());
+            store.finishSession(s.getId());
+        }
+        assertTrue(store.deleteUser(u.getId()));
+        try (Connection c = db.getConnection();
+             var rs = c.createStatement().executeQuery("SELECT COUNT(*) FROM user_best_score")) {
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void bestScores_areBackfilledForAFileFromBeforeTheTable() throws Exception {
+        String url = "jdbc:sqlite:" + Files.createTempDirectory("cab302-best-").resolve("old.db");
+        try (Database old = new Database(url, 1); var c = old.getConnection(); var st = c.createStatement()) {
+            // users and sessions as created before schema versioning, with no user_version
+            st.execute("""
+                CREATE TABLE users (
+                  id            INTEGER PRIMARY KEY AUTOINCREMENT,
+                  username      TEXT NOT NULL UNIQUE,
+                  password_hash TEXT NOT NULL,
+                  registered_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+                )""");
+            st.execute("""
+                CREATE TABLE game_session (
+                  id         INTEGER PRIMARY KEY AUTOINCREMENT,
+                  user_id    INTEGER  NOT NULL,
+                  mode       TEXT     NOT NULL,
+                  started_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                  ended_at   DATETIME,
+                  score      INTEGER  NOT NULL DEFAULT 0,
+                  strikes    INTEGER  NOT NULL DEFAULT 0,
+                  completed  INTEGER  NOT NULL DEFAULT 0,
+                  FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+                )""");
+            st.execute("INSERT INTO users(id, username, password_hash) VALUES (1, 'fill_a', 'x'), (2, 'fill_b', 'x')");
+            st.execute("""
+                INSERT INTO game_session(user_id, mode, ended_at, score, completed) VALUES
+                  (1, 'BASICS', CURRENT_TIMESTAMP, 4, 1),
+                  (1, 'BASICS', CURRENT_TIMESTAMP, 7, 1),
+                  (2, 'BASICS', CURRENT_TIMESTAMP, 6, 1),
+                  (2, 'BASICS', NULL, 9, 0)""");
+        }
+
+        try (GameStore upgraded = new GameStore(new Database(url, 2))) {
+            // the migrator queues the backfill on a background thread
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            List<ScoreRow> top = upgraded.leaderboard(GameMode.BASICS, 10);
+            while (top.size() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+                top = upgraded.leaderboard(GameMode.BASICS, 10);
+            }
+
+            assertEquals(2, top.size());
+            assertEquals("fill_a", top.get(0).getUsername());
+            assertEquals(7, top.get(0).getHighScore());
+            assertEquals("fill_b", top.get(1).getUsername());
+            assertEquals(6, top.get(1).getHighScore(), "unfinished sessions are not counted");
+        }
+    }
+
+    @Test
+    void sessionPages_walkTheWholeHistoryOnce_includingTiedStartTimes() throws Exception {
+        User u = store.createUser("pager", "pw".toCharArray());
+        try (Connection c = db.getConnection();
+             var ps = c.prepareStatement("INSERT INTO game_session(user_id, mode, started_at) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < 23; i++) {
+                ps.setInt(1, u.getId());
+                ps.setString(2, (i % 3 == 0 ? GameMode.TRIG : GameMode.BASICS).name());
+                ps.setString(3, "2025-01-01 10:00:0" + (i / 5)); // groups of five share a start time
+                ps.executeUpdate();
+            }
+        }
+
+        List<GameSession> all = store.listSessionsByUser(u.getId());
+        List<Integer> paged = new ArrayList<>();
+        SessionCursor cursor = null;
+        int pages = 0;
+        do {
+            SessionPage page = store.listSessionsByUser(u.getId(), cursor, 4, null);
+            page.getSessions().forEach(s -> paged.add(s.getId()));
+            cursor = page.getNextCursor().orElse(null);
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(all.stream().map(GameSession::getId).toList(), paged);
+        assertEquals(6, pages);
+        assertEquals(23, store.countSessionsByUser(u.getId(), null));
+
+        SessionPage trig = store.listSessionsByUser(u.getId(), null, 100, GameMode.TRIG);
+        assertEquals(8, trig.getSessions().size());
+        assertFalse(trig.hasMore());
+        assertTrue(trig.getSessions().stream().allMatch(s -> s.getMode() == GameMode.TRIG));
+        assertEquals(8, store.countSessionsByUser(u.getId(), GameMode.TRIG));
+        assertThrows(IllegalArgumentException.class, () -> store.listSessionsByUser(u.getId(), null, 0, null));
+    }
+
+    @Test
+    void sessionPages_seekOnTheKeysetIndexes_withoutSorting() throws Exception {
+        String base = "EXPLAIN QUERY PLAN SELECT id FROM game_session WHERE user_id=?%s"
+                + " AND (started_at, id) < (?, ?) ORDER BY started_at DESC, id DESC LIMIT 5";
+        try (Connection c = db.getConnection()) {
+            for (String filter : new String[] {"", " AND mode='TRIG'"}) {
+                StringBuilder plan = new StringBuilder();
+                try (var ps = c.prepareStatement(String.format(base, filter))) {
+                    ps.setInt(1, 1);
+                    ps.setString(2, "2025-01-01 10:00:00");
+                    ps.setInt(3, 10);
+                    try (var rs = ps.executeQuery()) {
+                        while (rs.next()) plan.append(rs.getString("detail")).append('\n');
+                    }
+                }
+                assertTrue(plan.toString().contains("_started"), plan.toString());
+                assertFalse(plan.toString().contains("TEMP B-TREE"), plan.toString());
+            }
+        }
+    }
+
+    @Test
+    void streams_matchTheLists_andReleaseTheirConnection() {
+        User a = store.createUser("stream_a", "pw".toCharArray());
+        User b = store.createUser("stream_b", "pw".toCharArray());
+        for (int i = 0; i < 5; i++) store.startSession(a.getId(), i % 2 == 0 ? GameMode.BASICS : GameMode.TRIG);
+        store.startSession(b.getId(), GameMode.BASICS);
+        int activeBefore = db.stats().getActive();
+
+        try (Stream<GameSession> s = store.streamSessionsByUser(a.getId())) {
+            assertEquals(store.listSessionsByUser(a.getId()).stream().map(GameSession::getId).toList(),
+                    s.map(GameSession::getId).toList());
+        }
+        try (Stream<GameSession> s = store.streamSessions(GameMode.BASICS, 2)) {
+            assertEquals(4, s.count());
+        }
+        try (Stream<User> s = store.streamUsers()) {
+            assertEquals("stream_a", s.findFirst().orElseThrow().getUsername()); // closed after one row
+        }
+        assertEquals(activeBefore, db.stats().getActive());
+
+        // Read to the end without closing: the last row releases the connection
+        assertEquals(6, store.streamSessions(null, 1).count());
+        assertEquals(activeBefore, db.stats().getActive());
+
+        // Nothing pins a snapshot afterwards, so writes still go through
+        store.startSession(b.getId(), GameMode.TARGET);
+        assertEquals(2, store.countSessionsByUser(b.getId(), null));
+    }
+}
@@ -0,0 +1,13 @@
+package test.java.com.team.game.data;
+
+import main.java.com.team.game.data.GameStorage;
+import main.java.com.team.game.data.InMemoryGameStore;
+
+/** Runs the storage contract against {@link InMemoryGameStore}. */
+public class InMemoryGameStoreTest extends GameStorageContractTest {
+
+    @Override
+    protected GameStorage newStorage() {
+        return new InMemoryGameStore();
+    }
+}
@@ -0,0 +1,102 @@
+package test.java.com.team.game.data;
+
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.GameStore;
+import main.java.com.team.game.model.GameMode;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Micro-benchmark for the materialized {@code user_best_score} table.
+ * <p>
+ * Fills temporary databases with a fixed number of users and a growing number of
+ * completed sessions, then times {@link GameStore#leaderboard} and
+ * {@link GameStore#getHighScore}, which read {@code user_best_score}, against the
+ * old {@code MAX(score) ... GROUP BY} query over {@code game_session}.
+ * Not part of the test suite; run it directly:
+ * <pre>
+ * mvn -q test-compile exec:java -Dmain.class=test.java.com.team.game.data.LeaderboardBenchmark -Dexec.classpathScope=test
+ * </pre>
+ */
+public class LeaderboardBenchmark {
+
+    private static final int USERS = 2_000;
+    private static final int[] SESSION_COUNTS = {10_000, 100_000, 1_000_000};
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 200;
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("cab302-board-bench-");
+        System.out.printf("%-10s %14s %14s %16s%n", "sessions", "leaderboard", "getHighScore", "GROUP BY scan");
+        for (int n : SESSION_COUNTS) {
+            try (Database db = new Database("jdbc:sqlite:" + dir.resolve("board-" + n + ".db"), 1)) {
+                GameStore store = new GameStore(db);
+                seed(db, n);
+                Random rnd = new Random(7);
+                double board = time(() -> store.leaderboard(GameMode.BASICS, 10));
+                double high = time(() -> store.getHighScore(1 + rnd.nextInt(USERS), GameMode.BASICS));
+                double scan = time(() -> legacyLeaderboard(db));
+                System.out.printf("%-10d %11.1f us %11.1f us %13.1f us%n", n, board, high, scan);
+            }
+        }
+    }
+
+    /** Inserts {@link #USERS} users and {@code sessions} completed sessions in one transaction. */
+    private static void seed(Database db, int sessions) throws SQLException {
+        Random rnd = new Random(42);
+        try (Connection c = db.getConnection()) {
+            c.setAutoCommit(false);
+            try (var ps = c.prepareStatement("INSERT INTO users(username, password_hash) VALUES (?, 'x')")) {
+                for (int i = 0; i < USERS; i++) {
+                    ps.setString(1, "student" + i);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            try (var ps = c.prepareStatement(
+                    "INSERT INTO game_session(user_id, mode, ended_at, score, strikes, completed) "
+                            + "VALUES (?, ?, CURRENT_TIMESTAMP, ?, 3, 1)")) {
+                GameMode[] modes = GameMode.values();
+                for (int i = 0; i < sessions; i++) {
+                    ps.setInt(1, 1 + rnd.nextInt(USERS));
+                    ps.setString(2, modes[i % modes.length].name());
+                    ps.setInt(3, rnd.nextInt(50));
+                    ps.addBatch();
+                    if (i % 10_000 == 9_999) ps.executeBatch();
+                }
+                ps.executeBatch();
+            }
+            c.commit();
+        }
+    }
+
+    /** The pre-materialization leaderboard query, kept here for comparison. */
+    private static int legacyLeaderboard(Database db) {
+        String sql = """
+            SELECT u.id, u.username, MAX(s.score) AS high_score
+            FROM users u JOIN game_session s ON s.user_id = u.id
+            WHERE s.completed = 1 AND s.mode = 'BASICS'
+            GROUP BY u.id, u.username
+            ORDER BY high_score DESC
+            LIMIT 10
+            """;
+        try (Connection c = db.getConnection(); var ps = c.prepareStatement(sql); var rs = ps.executeQuery()) {
+            int rows = 0;
+            while (rs.next()) rows++;
+            return rows;
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /** @return average microseconds per call after a warm-up phase */
+    private static double time(Supplier<?> op) {
+        for (int i = 0; i < WARMUP; i++) op.get();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) op.get();
+        return (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+    }
+}
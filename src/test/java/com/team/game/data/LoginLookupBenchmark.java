@@ -0,0 +1,80 @@
+package test.java.com.team.game.data;
+
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.GameStore;
+import main.java.com.team.game.util.PasswordUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Random;
+
+/**
+ * Micro-benchmark for case-insensitive username lookups.
+ * <p>
+ * Fills temporary databases with growing numbers of users and times
+ * {@link GameStore#findUserByUsername(String)}, which uses the {@code NOCASE}
+ * unique index, against the old {@code LOWER(username)=LOWER(?)} filter, which
+ * has to scan the table. Password verification is left out because BCrypt cost
+ * would hide the lookup. Not part of the test suite; run it directly:
+ * <pre>
+ * mvn -q test-compile exec:java -Dmain.class=test.java.com.team.game.data.LoginLookupBenchmark -Dexec.classpathScope=test
+ * </pre>
+ */
+public class LoginLookupBenchmark {
+
+    private static final int[] USER_COUNTS = {1_000, 10_000, 50_000};
+    private static final int WARMUP = 500;
+    private static final int ITERATIONS = 5_000;
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("cab302-login-bench-");
+        String hash = PasswordUtils.hashPassword("pw".toCharArray()); // hashed once; all rows share it
+        System.out.printf("%-8s %16s %16s%n", "users", "NOCASE index", "LOWER() scan");
+        for (int n : USER_COUNTS) {
+            try (Database db = new Database("jdbc:sqlite:" + dir.resolve("users-" + n + ".db"), 1)) {
+                GameStore store = new GameStore(db);
+                seed(db, n, hash);
+                Random rnd = new Random(42);
+                double indexed = time(() -> store.findUserByUsername("Student" + rnd.nextInt(n)).orElseThrow());
+                double scanned = time(() -> lowerScan(db, "student" + rnd.nextInt(n)));
+                System.out.printf("%-8d %13.1f us %13.1f us%n", n, indexed, scanned);
+            }
+        }
+    }
+
+    /** Inserts {@code n} users in one transaction. */
+    private static void seed(Database db, int n, String hash) throws SQLException {
+        try (Connection c = db.getConnection();
+             var ps = c.prepareStatement("INSERT INTO users(username, password_hash) VALUES (?, ?)")) {
+            c.setAutoCommit(false);
+            for (int i = 0; i < n; i++) {
+                ps.setString(1, "student" + i);
+                ps.setString(2, hash);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            c.commit();
+        }
+    }
+
+    /** The pre-index lookup, kept here for comparison. */
+    private static void lowerScan(Database db, String username) {
+        try (Connection c = db.getConnection();
+             var ps = c.prepareStatement("SELECT id FROM users WHERE LOWER(username)=LOWER(?)")) {
+            ps.setString(1, username);
+            try (var rs = ps.executeQuery()) {
+                if (!rs.next()) throw new IllegalStateException("missing " + username);
+            }
+        } catch (SQLException e) { throw new RuntimeException(e); }
+    }
+
+    /** @return average microseconds per call after a warm-up phase */
+    private static double time(Runnable op) {
+        for (int i = 0; i < WARMUP; i++) op.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) op.run();
+        return (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+    }
+}
@@ -0,0 +1,142 @@
+package test.java.com.team.game.data;
+
+import main.java.com.team.game.data.Backfill;
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.Migration;
+import main.java.com.team.game.data.Migrator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MigratorTest {
+
+    private static final Migration V1 = Migration.sql(1, "items",
+            "CREATE TABLE item (id INTEGER PRIMARY KEY, qty INTEGER NOT NULL)");
+    private static final Migration V2 = Migration.sql(2, "item totals",
+            "CREATE TABLE item_total (id INTEGER PRIMARY KEY, doubled INTEGER NOT NULL)",
+            "CREATE INDEX idx_item_total_doubled ON item_total(doubled)");
+
+    private Database db;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path dir = Files.createTempDirectory("cab302-migrate-");
+        db = new Database("jdbc:sqlite:" + dir.resolve("migrate.db"), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void migrate_appliesPendingVersions_andRecordsThem() throws Exception {
+        assertEquals(1, new Migrator(db, List.of(V1)).migrate());
+        Migrator m = new Migrator(db, List.of(V1, V2));
+        assertEquals(1, m.migrate());
+
+        assertEquals(2, m.currentVersion());
+        assertEquals(2, queryInt("SELECT COUNT(*) FROM schema_migrations"));
+        assertEquals(V2.checksum(), queryString("SELECT checksum FROM schema_migrations WHERE version = 2"));
+    }
+
+    @Test
+    void currentSchema_runsNoDdl() throws Exception {
+        new Migrator(db, List.of(V1, V2)).migrate();
+        int schemaVersion = queryInt("PRAGMA schema_version"); // bumped by every DDL statement
+
+        assertEquals(0, new Migrator(db, List.of(V1, V2)).migrate());
+        assertEquals(schemaVersion, queryInt("PRAGMA schema_version"));
+    }
+
+    @Test
+    void failingMigration_leavesThePreviousVersion() throws Exception {
+        new Migrator(db, List.of(V1)).migrate();
+        Migration broken = Migration.sql(2, "broken",
+                "CREATE TABLE half_done (id INTEGER)",
+                "CREATE TABLE item (id INTEGER)"); // already exists
+
+        assertThrows(RuntimeException.class, () -> new Migrator(db, List.of(V1, broken)).migrate());
+        assertEquals(1, new Migrator(db, List.of(V1)).currentVersion());
+        assertEquals(0, queryInt("SELECT COUNT(*) FROM sqlite_master WHERE name = 'half_done'"));
+    }
+
+    @Test
+    void editedMigration_isRejected_butReformattingIsNot() {
+        new Migrator(db, List.of(V1)).migrate();
+        Migration reindented = Migration.sql(1, "items",
+                "CREATE TABLE item (id INTEGER PRIMARY KEY,\n    qty INTEGER NOT NULL);");
+        Migration edited = Migration.sql(1, "items",
+                "CREATE TABLE item (id INTEGER PRIMARY KEY, qty INTEGER NOT NULL DEFAULT 0)");
+
+        assertEquals(0, new Migrator(db, List.of(reindented)).migrate());
+        assertThrows(IllegalStateException.class, () -> new Migrator(db, List.of(edited)).migrate());
+    }
+
+    @Test
+    void newerDatabase_isRejected() {
+        new Migrator(db, List.of(V1, V2)).migrate();
+        assertThrows(IllegalStateException.class, () -> new Migrator(db, List.of(V1)).migrate());
+    }
+
+    @Test
+    void versionsMustBeContiguous() {
+        assertThrows(IllegalArgumentException.class, () -> new Migrator(db, List.of(V2)));
+    }
+
+    @Test
+    void backfill_runsInChunks_andResumesAfterInterruption() throws Exception {
+        new Migrator(db, List.of(V1)).migrate();
+        try (var c = db.getConnection(); var st = c.createStatement()) {
+            for (int i = 1; i <= 10; i++) st.execute("INSERT INTO item VALUES (" + i + ", " + i + ")");
+        }
+        var cursors = new ArrayList<Long>();
+        Backfill doubling = (c, after, chunk) -> {
+            cursors.add(after);
+            try (var ps = c.prepareStatement("""
+                    INSERT INTO item_total(id, doubled)
+                    SELECT id, qty * 2 FROM item WHERE id > ? ORDER BY id LIMIT ?
+                    RETURNING id""")) {
+                ps.setLong(1, after);
+                ps.setInt(2, chunk);
+                long last = Backfill.DONE;
+                try (var rs = ps.executeQuery()) { while (rs.next()) last = Math.max(last, rs.getLong(1)); }
+                return last;
+            }
+        };
+        Migrator m = new Migrator(db, List.of(V1, V2.withBackfill("item_totals", doubling)));
+        m.migrate();
+        assertTrue(m.hasPendingBackfills());
+
+        Thread.currentThread().interrupt(); // stops before the first chunk, as on shutdown
+        assertThrows(InterruptedException.class, () -> m.runBackfills(4, 0));
+        assertTrue(m.hasPendingBackfills());
+
+        assertEquals(4, m.runBackfills(4, 0)); // 4 + 4 + 2 rows, then an empty chunk
+        assertEquals(List.of(0L, 4L, 8L, 10L), cursors);
+        assertFalse(m.hasPendingBackfills());
+        assertEquals(110, queryInt("SELECT SUM(doubled) FROM item_total"));
+    }
+
+    private int queryInt(String sql) throws SQLException {
+        try (var c = db.getConnection(); var st = c.createStatement(); var rs = st.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getInt(1);
+        }
+    }
+
+    private String queryString(String sql) throws SQLException {
+        try (var c = db.getConnection(); var st = c.createStatement(); var rs = st.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getString(1);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package test.java.com.team.game.data;
+
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.GameStore;
+import main.java.com.team.game.data.ReadReplica;
+import main.java.com.team.game.data.StorageListener;
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.GameSession;
+import main.java.com.team.game.model.ScoreRow;
+import main.java.com.team.game.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadReplicaTest {
+
+    private GameStore store;
+    private User alice;
+
+    @BeforeEach
+    void setUp() {
+        store = new GameStore(Database.isolated("ReadReplicaTest", 2));
+        alice = store.createUser("alice", "pw".toCharArray());
+        play(alice, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void screenQueries_lagWithinTheBound_untilRefreshed() {
+        ReadReplica replica = store.enableReadReplica(Duration.ofMinutes(10), 2);
+        User bob = store.createUser("bob", "pw".toCharArray());
+        GameSession s = play(bob, 5);
+
+        assertEquals(List.of("alice"), names(store.listUsers()));
+        assertEquals(List.of("alice=3"), rows(store.leaderboard(GameMode.BASICS, 10)));
+        assertTrue(store.listSessionsByUser(bob.getId()).isEmpty());
+        assertTrue(store.findUserByUsername("bob").isPresent(), "other queries read the database");
+
+        assertTrue(replica.refresh());
+        assertFalse(replica.refresh(), "nothing committed since");
+        assertEquals(List.of("alice", "bob"), names(store.listUsers()));
+        assertEquals(List.of("bob=5", "alice=3"), rows(store.leaderboard(GameMode.BASICS, 10)));
+        assertEquals(s.getId(), store.listSessionsByUser(bob.getId()).get(0).getId());
+        assertEquals(6, replica.stats().getReads());
+        assertEquals(0, replica.stats().getStaleReads());
+    }
+
+    @Test
+    void replicaTooFarBehind_readsTheDatabase() throws Exception {
+        ReadReplica replica = store.enableReadReplica(Duration.ofMillis(50), 1);
+        Thread.sleep(100);
+        assertEquals(List.of("alice"), names(store.listUsers()));
+        long reads = replica.stats().getReads();
+        assertTrue(reads > 0, "an unchanged database keeps the copy current however old it is");
+
+        for (int i = 0; i < 5; i++) {
+            store.createUser("user" + i, "pw".toCharArray());
+            Thread.sleep(60);
+            assertEquals(i + 2, store.listUsers().size(), "never more than the bound behind");
+        }
+        assertTrue(replica.stats().getRefreshes() > 1);
+    }
+
+    @Test
+    void listeners_hearWhichTablesEachRefreshCovers() {
+        List<Set<String>> refreshed = new CopyOnWriteArrayList<>();
+        store.addChangeListener(new StorageListener() {
+            @Override public void onChange(Change change, String table, long rowId) { }
+            @Override public void onCommit() { }
+            @Override public void onRollback() { }
+            @Override public void onReplicaRefresh(Set<String> tables, long takenAtNanos) { refreshed.add(tables); }
+        });
+        ReadReplica replica = store.enableReadReplica(Duration.ofMinutes(10), 1);
+        assertTrue(refreshed.isEmpty(), "the first copy replaces nothing");
+
+        store.updateUsername(alice.getId(), "alicia");
+        assertTrue(replica.refresh());
+        assertEquals(1, refreshed.size());
+        assertTrue(refreshed.get(0).contains("users"));
+        assertFalse(refreshed.get(0).contains("game_session"));
+    }
+
+    private GameSession play(User user, int correct) {
+        GameSession s = store.startSession(user.getId(), GameMode.BASICS);
+        for (int i = 0; i < correct; i++) store.submitCorrect(s.getId());
+        store.finishSession(s.getId());
+        return s;
+    }
+
+    private static List<String> names(List<User> users) {
+        return users.stream().map(User::getUsername).toList();
+    }
+
+    private static List<String> rows(List<ScoreRow> rows) {
+        return rows.stream().map(r -> r.getUsername() + "=" + r.getHighScore()).toList();
+    }
+}
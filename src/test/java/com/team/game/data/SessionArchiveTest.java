@@ -0,0 +1,203 @@
+package test.java.com.team.game.data;
+
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.GameStore;
+import main.java.com.team.game.model.AnswerEvent;
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.GameSession;
+import main.java.com.team.game.model.SessionCursor;
+import main.java.com.team.game.model.SessionPage;
+import main.java.com.team.game.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionArchiveTest {
+
+    private GameStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new GameStore(Database.isolated("SessionArchiveTest", 2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void archivedSessions_readTheSameAsBefore() {
+        store.seedData(30, 40, 11);
+        User user = store.findUserByUsername("seed11_7").orElseThrow();
+        List<GameSession> before = store.listSessionsByUser(user.getId());
+        List<Integer> pagedBefore = pagedIds(user.getId(), GameMode.BASICS);
+        List<String> boardBefore = board(GameMode.TRIG);
+        OptionalInt bestBefore = store.getHighScore(user.getId(), GameMode.BASICS);
+
+        int archived = store.archiveSessions(Duration.ofDays(30));
+        assertTrue(archived > 0);
+
+        assertEquals(ids(before), ids(store.listSessionsByUser(user.getId())));
+        try (Stream<GameSession> s = store.streamSessionsByUser(user.getId())) {
+            assertEquals(ids(before), s.map(GameSession::getId).toList());
+        }
+        assertEquals(pagedBefore, pagedIds(user.getId(), GameMode.BASICS));
+        assertEquals(before.size(), store.countSessionsByUser(user.getId(), null));
+        assertEquals(boardBefore, board(GameMode.TRIG));
+        assertEquals(bestBefore, store.getHighScore(user.getId(), GameMode.BASICS));
+        try (Stream<GameSession> all = store.streamSessions(null, 64)) {
+            assertEquals(1_200, all.count());
+        }
+
+        assertEquals(0, store.archiveSessions(Duration.ofDays(30)));
+    }
+
+    @Test
+    void deletingAnArchivedSession_recomputesTheBestScore() throws Exception {
+        Path file = Files.createTempFile("cab302-archive-", ".jsonl");
+        Files.writeString(file, """
+                {"type":"header","format":"cab302-game","version":1}
+                {"type":"user","id":1,"username":"dora","passwordHash":"x","registeredAt":"2020-01-01 08:00:00"}
+                {"type":"session","id":1,"userId":1,"mode":"BASICS","startedAt":"2020-02-01 10:00:00","endedAt":"2020-02-01 10:05:00","score":9,"strikes":3,"completed":true}
+                {"type":"answer","sessionId":1,"correct":true,"answeredAt":1580551260000,"question":"3 * 3","response":"9","responseMs":700}
+                {"type":"session","id":2,"userId":1,"mode":"BASICS","startedAt":"2020-02-02 10:00:00","endedAt":"2020-02-02 10:05:00","score":4,"strikes":3,"completed":true}
+                """);
+        store.importFrom(file);
+        User dora = store.findUserByUsername("dora").orElseThrow();
+        GameSession best = store.listSessionsByUser(dora.getId()).get(1);
+        assertEquals(2, store.archiveSessions(Duration.ofDays(1)));
+
+        List<AnswerEvent> answers = store.listAnswerEvents(best.getId());
+        assertEquals(1, answers.size());
+        assertEquals("3 * 3", answers.get(0).getQuestion());
+        assertEquals(700, answers.get(0).getResponseMs());
+
+        Path exported = Files.createTempFile("cab302-archive-", ".jsonl");
+        assertEquals(2, store.exportTo(exported).getSessions());
+        assertEquals(1, store.exportTo(exported).getAnswers());
+
+        assertEquals(OptionalInt.of(9), store.getHighScore(dora.getId(), GameMode.BASICS));
+        assertTrue(store.deleteSession(best.getId()));
+        assertEquals(OptionalInt.of(4), store.getHighScore(dora.getId(), GameMode.BASICS));
+        assertEquals(1, store.countSessionsByUser(dora.getId(), GameMode.BASICS));
+        assertFalse(store.deleteSession(best.getId()));
+    }
+
+    @Test
+    void historyAcrossManyBlocks_pagesAndStreamsInStartOrder() throws Exception {
+        var lines = new StringBuilder("""
+                {"type":"header","format":"cab302-game","version":1}
+                {"type":"user","id":1,"username":"erin","passwordHash":"x","registeredAt":"2019-01-01 08:00:00"}
+                """);
+        int sessions = 700; // three blocks, whose start times overlap because IDs do not follow them
+        for (int id = 1; id <= sessions; id++) {
+            int minute = id * 311 % sessions;
+            boolean open = id % 100 == 0; // never archived, so live rows sit between archived ones
+            lines.append(String.format("""
+                    {"type":"session","id":%d,"userId":1,"mode":"TRIG","startedAt":"2020-03-01 %02d:%02d:00",                    "endedAt":%s,"score":%d,"strikes":%d,"completed":%b}
+                    """, id, minute / 60, minute % 60, open ? "null" : "\"2020-03-02 00:00:00\"",
+                    id % 7, open ? 0 : 3, !open));
+        }
+        Path file = Files.createTempFile("cab302-archive-", ".jsonl");
+        Files.writeString(file, lines);
+        store.importFrom(file);
+        User erin = store.findUserByUsername("erin").orElseThrow();
+        List<Integer> before = ids(store.listSessionsByUser(erin.getId()));
+
+        assertEquals(sessions - 7, store.archiveSessions(Duration.ofDays(1)));
+
+        assertEquals(before, ids(store.listSessionsByUser(erin.getId())));
+        assertEquals(before, pagedIds(erin.getId(), GameMode.TRIG));
+        assertEquals(before, pagedIds(erin.getId(), null));
+        try (Stream<GameSession> s = store.streamSessionsByUser(erin.getId())) {
+            assertEquals(before, s.map(GameSession::getId).toList());
+        }
+        try (Stream<GameSession> s = store.streamSessionsByUser(erin.getId())) {
+            assertEquals(before.subList(0, 5), s.limit(5).map(GameSession::getId).toList());
+        }
+    }
+
+    @Test
+    void interleavedBlocks_findAndDeleteSessionsById() throws Exception {
+        var lines = new StringBuilder("""
+                {"type":"header","format":"cab302-game","version":1}
+                {"type":"user","id":1,"username":"fern","passwordHash":"x","registeredAt":"2019-01-01 08:00:00"}
+                {"type":"user","id":2,"username":"gus","passwordHash":"x","registeredAt":"2019-01-01 08:00:00"}
+                """);
+        for (int id = 1; id <= 40; id++) { // alternating owners, so both blocks span nearly every ID
+            lines.append(String.format("""
+                    {"type":"session","id":%d,"userId":%d,"mode":"BASICS","startedAt":"2020-04-01 10:%02d:00","endedAt":"2020-04-01 11:00:00","score":%d,"strikes":3,"completed":true}
+                    {"type":"answer","sessionId":%d,"correct":true,"answeredAt":1585735200000,"question":"q%d","response":"1","responseMs":500}
+                    """, id, 1 + id % 2, id, id, id, id));
+        }
+        Path file = Files.createTempFile("cab302-archive-", ".jsonl");
+        Files.writeString(file, lines);
+        store.importFrom(file);
+        User fern = store.findUserByUsername("fern").orElseThrow();
+        User gus = store.findUserByUsername("gus").orElseThrow();
+        List<GameSession> fernBefore = store.listSessionsByUser(fern.getId());
+        List<GameSession> gusBefore = store.listSessionsByUser(gus.getId());
+        List<String> questions = new ArrayList<>();
+        for (GameSession s : gusBefore) questions.add(store.listAnswerEvents(s.getId()).get(0).getQuestion());
+
+        assertEquals(40, store.archiveSessions(Duration.ofDays(1)));
+
+        for (int i = 0; i < gusBefore.size(); i++) {
+            List<AnswerEvent> answers = store.listAnswerEvents(gusBefore.get(i).getId());
+            assertEquals(List.of(questions.get(i)), answers.stream().map(AnswerEvent::getQuestion).toList());
+        }
+        for (GameSession s : gusBefore) assertTrue(store.deleteSession(s.getId()));
+        assertEquals(0, store.countSessionsByUser(gus.getId(), null));
+        assertEquals(ids(fernBefore), ids(store.listSessionsByUser(fern.getId())));
+        assertTrue(store.getHighScore(gus.getId(), GameMode.BASICS).isEmpty());
+        assertFalse(store.deleteSession(gusBefore.get(0).getId()));
+    }
+
+    @Test
+    void streamSessions_returnsSessionsArchivedMidStreamOnce() throws Exception {
+        Path dir = Files.createTempDirectory("cab302-archive-");
+        try (GameStore file = new GameStore(new Database("jdbc:sqlite:" + dir.resolve("stream.db"), 3))) {
+            file.seedData(5, 40, 3);
+            List<Integer> seen = new ArrayList<>();
+            try (Stream<GameSession> all = file.streamSessions(null, 16)) {
+                Iterator<GameSession> it = all.iterator();
+                seen.add(it.next().getId());
+                assertTrue(file.archiveSessions(Duration.ofDays(30)) > 0);
+                it.forEachRemaining(s -> seen.add(s.getId()));
+            }
+            assertEquals(200, seen.size());
+            assertEquals(200, seen.stream().distinct().count());
+        }
+    }
+
+    private List<Integer> pagedIds(int userId, GameMode mode) {
+        List<Integer> out = new ArrayList<>();
+        SessionCursor cursor = null;
+        do {
+            SessionPage page = store.listSessionsByUser(userId, cursor, 3, mode);
+            page.getSessions().forEach(s -> out.add(s.getId()));
+            cursor = page.getNextCursor().orElse(null);
+        } while (cursor != null);
+        return out;
+    }
+
+    private List<String> board(GameMode mode) {
+        return store.leaderboard(mode, 50).stream().map(r -> r.getUsername() + "=" + r.getHighScore()).toList();
+    }
+
+    private static List<Integer> ids(List<GameSession> sessions) {
+        return sessions.stream().map(GameSession::getId).toList();
+    }
+}
@@ -0,0 +1,126 @@
+package test.java.com.team.game.data;
+
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.GameStore;
+import main.java.com.team.game.data.SessionJournal;
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.GameSession;
+import main.java.com.team.game.model.User;
+import main.java.com.team.game.service.GameService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionJournalTest {
+
+    private Path dir;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dir = Files.createTempDirectory("cab302-journal-");
+        file = dir.resolve("sessions.journal");
+    }
+
+    @Test
+    void reopenedJournal_reportsRoundsThatDidNotFinish() {
+        try (SessionJournal j = SessionJournal.open(file, 1024)) {
+            j.started(round(1, 0, 0));
+            j.started(round(2, 0, 0));
+            j.answered(round(1, 1, 0));
+            j.answered(round(1, 1, 1));
+            j.answered(round(2, 1, 0));
+            j.finished(2);
+        }
+        try (SessionJournal j = SessionJournal.open(file, 1024)) {
+            List<SessionJournal.Entry> pending = j.pending();
+            assertEquals(1, pending.size());
+            assertEquals(1, pending.get(0).sessionId());
+            assertEquals(1, pending.get(0).score());
+            assertEquals(1, pending.get(0).strikes());
+        }
+    }
+
+    @Test
+    void tornRecord_endsTheJournal() throws Exception {
+        try (SessionJournal j = SessionJournal.open(file, 1024)) {
+            j.started(round(1, 0, 0));
+            j.answered(round(1, 1, 0));
+            j.answered(round(1, 2, 0));
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(8 + 2 * 24 + 8); // score of the last record
+            raf.writeInt(99);
+        }
+        try (SessionJournal j = SessionJournal.open(file, 1024)) {
+            assertEquals(1, j.pending().get(0).score());
+        }
+    }
+
+    @Test
+    void compaction_keepsOneRecordPerOpenRound_andTheFileGrowsWhenFull() {
+        try (SessionJournal j = SessionJournal.open(file, 10 * 24)) {
+            for (int i = 0; i < 1_000; i++) j.answered(round(1, i, 0)); // many times the capacity
+            assertTrue(j.size() <= 8 + 10 * 24);
+            assertEquals(999, j.pending().get(0).score());
+
+            for (int id = 2; id <= 50; id++) j.started(round(id, 0, 0)); // more open rounds than fit
+            assertEquals(50, j.pending().size());
+
+            j.compact();
+            assertEquals(8 + 50 * 24, j.size());
+        }
+        try (SessionJournal j = SessionJournal.open(file, 10 * 24)) {
+            assertEquals(50, j.pending().size());
+            assertEquals(999, j.pending().get(0).score());
+        }
+    }
+
+    @Test
+    void interruptedRounds_areFinalizedOnTheNextStart() {
+        String url = "jdbc:sqlite:" + dir.resolve("game.db");
+        User user;
+        GameSession played;
+        GameSession finished;
+        try (Database db = new Database(url, 2)) {
+            GameService svc = new GameService(new GameStore(db));
+            assertEquals(0, svc.enableJournal(file));
+            svc.enableLiveSessions(60_000);
+            user = svc.register("alice", "pw".toCharArray());
+            played = svc.startRound(user, GameMode.BASICS);
+            svc.submitCorrect(played);
+            svc.submitCorrect(played);
+            svc.submitCorrect(played);
+            finished = svc.startRound(user, GameMode.TRIG);
+            svc.finishRound(finished);
+        } // closed mid-round: the first round is still open
+
+        try (Database db = new Database(url, 2)) {
+            GameStore store = new GameStore(db);
+            GameService svc = new GameService(store);
+            assertEquals(1, svc.enableJournal(file));
+
+            GameSession recovered = store.listSessionsByUser(user.getId()).stream()
+                    .filter(s -> s.getId() == played.getId()).findFirst().orElseThrow();
+            assertTrue(recovered.isCompleted());
+            assertNotNull(recovered.getEndedAt());
+            assertEquals(3, recovered.getScore());
+            assertEquals(OptionalInt.of(recovered.getScore()), svc.highScore(user, GameMode.BASICS));
+        }
+        try (Database db = new Database(url, 1)) {
+            assertEquals(0, new GameService(new GameStore(db)).enableJournal(file)); // nothing left to recover
+        }
+    }
+
+    private static GameSession round(int id, int score, int strikes) {
+        return new GameSession(id, 1, GameMode.BASICS, Instant.now(), null, score, strikes, false);
+    }
+}
@@ -0,0 +1,172 @@
+package test.java.com.team.game.data;
+
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.GameStore;
+import main.java.com.team.game.data.WriterStats;
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.GameSession;
+import main.java.com.team.game.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleWriterTest {
+
+    private String url;
+    private Database db;
+    private Database reads;
+    private GameStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path dir = Files.createTempDirectory("cab302-writer-");
+        url = "jdbc:sqlite:" + dir.resolve("writer.db");
+        db = new Database(url, 2);
+        reads = Database.readOnly(url, 4);
+        store = new GameStore(db, reads, 32);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+        reads.close();
+    }
+
+    @Test
+    void concurrentWrites_shareTransactions() throws Exception {
+        User u = store.createUser("alice", "pw".toCharArray());
+        int threads = 16, perThread = 25;
+        runConcurrently(threads, () -> {
+            for (int i = 0; i < perThread; i++) store.startSession(u.getId(), GameMode.BASICS);
+        });
+
+        assertEquals(threads * perThread, store.countSessionsByUser(u.getId(), null));
+        WriterStats stats = store.writerStats().orElseThrow();
+        assertEquals(threads * perThread + 1, stats.getWrites());
+        assertTrue(stats.getCommits() < stats.getWrites(), stats.toString());
+        assertTrue(stats.getMaxBatchSize() > 1, stats.toString());
+        assertTrue(stats.getMaxBatchSize() <= 32, stats.toString());
+        assertEquals(0, stats.getQueueDepth());
+    }
+
+    @Test
+    void failingWrite_isRolledBackAlone() throws Exception {
+        User u = store.createUser("bob", "pw".toCharArray());
+        var taken = new AtomicInteger();
+        int threads = 8;
+        runConcurrently(threads, () -> {
+            store.startSession(u.getId(), GameMode.TRIG);
+            try {
+                store.createUser("dup", "pw".toCharArray());
+            } catch (IllegalStateException e) {
+                taken.incrementAndGet();
+            }
+            store.startSession(u.getId(), GameMode.TRIG);
+        });
+
+        assertEquals(threads - 1, taken.get());
+        assertTrue(store.findUserByUsername("dup").isPresent());
+        assertEquals(threads * 2, store.countSessionsByUser(u.getId(), GameMode.TRIG));
+        WriterStats stats = store.writerStats().orElseThrow();
+        assertEquals(threads - 1, stats.getFailedWrites());
+        assertEquals(0, stats.getFailedCommits());
+    }
+
+    @Test
+    void writes_areVisibleToReaders_whenTheyReturn() {
+        User u = store.createUser("carol", "pw".toCharArray());
+        assertTrue(store.authenticate("CAROL", "pw".toCharArray()).isPresent());
+
+        GameSession s = store.startSession(u.getId(), GameMode.TARGET);
+        store.submitCorrect(s.getId());
+        store.finishSession(s.getId());
+
+        GameSession read = store.listSessionsByUser(u.getId()).get(0);
+        assertEquals(1, read.getScore());
+        assertTrue(read.isCompleted());
+        assertEquals(1, store.getHighScore(u.getId(), GameMode.TARGET).orElseThrow());
+    }
+
+    @Test
+    void readPool_rejectsWrites() throws Exception {
+        assertTrue(reads.isReadOnly());
+        try (Connection c = reads.getConnection(); var st = c.createStatement()) {
+            assertThrows(SQLException.class,
+                    () -> st.execute("INSERT INTO users(username, password_hash) VALUES ('x', 'y')"));
+        }
+    }
+
+    @Test
+    void writesDuringShutdown_stillCommit() throws Exception {
+        User u = store.createUser("dave", "pw".toCharArray());
+        GameSession s = store.startSession(u.getId(), GameMode.BASICS);
+        db.onClose(() -> store.finishSession(s.getId())); // runs after the writer has stopped
+        db.close();
+
+        try (Database reopened = new Database(url, 1)) {
+            GameSession after = new GameStore(reopened).listSessionsByUser(u.getId()).get(0);
+            assertTrue(after.isCompleted());
+        }
+    }
+
+    @Test
+    void pendingBackfill_runsThroughTheWriter() throws Exception {
+        User u = store.createUser("erin", "pw".toCharArray());
+        GameSession s = store.startSession(u.getId(), GameMode.BASICS);
+        store.submitCorrect(s.getId());
+        store.finishSession(s.getId());
+        db.close();
+        try (Database raw = new Database(url, 1); var c = raw.getConnection(); var st = c.createStatement()) {
+            st.execute("DELETE FROM user_best_score");
+            st.execute("UPDATE schema_backfill SET cursor = 0, completed = 0 WHERE name = 'best_scores'");
+        }
+
+        db = new Database(url, 2);
+        store = new GameStore(db, reads, 32);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (store.leaderboard(GameMode.BASICS, 10).isEmpty() && System.nanoTime() < deadline) Thread.sleep(10);
+
+        assertEquals(1, store.leaderboard(GameMode.BASICS, 10).get(0).getHighScore());
+        assertTrue(store.writerStats().orElseThrow().getWrites() > 0, "chunks were queued on the writer");
+    }
+
+    @Test
+    void directStore_hasNoWriterStats() {
+        assertTrue(new GameStore(db).writerStats().isEmpty());
+    }
+
+    /** Starts every task at once and rethrows the first failure. */
+    private static void runConcurrently(int threads, Runnable task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        var start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) f.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package test.java.com.team.game.data;
+
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.GameStorage;
+import main.java.com.team.game.data.GameStore;
+import main.java.com.team.game.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.sql.DriverManager;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Runs the storage contract against {@link GameStore} on a fresh SQLite file per test. */
+public class SqliteGameStoreTest extends GameStorageContractTest {
+
+    @Override
+    protected GameStorage newStorage() throws Exception {
+        var dir = Files.createTempDirectory("cab302-contract-");
+        return new GameStore(new Database("jdbc:sqlite:" + dir.resolve("contract.db"), 4));
+    }
+
+    @Test
+    void oldDatabaseWithNamesClashingByCase_isRefusedUntilRenamed() throws Exception {
+        String url = "jdbc:sqlite:" + Files.createTempDirectory("cab302-nocase-").resolve("old.db");
+        try (Database old = new Database(url, 1);
+             var c = old.getConnection(); var st = c.createStatement()) {
+            // users as created before schema versioning, unique only by exact spelling
+            st.execute("""
+                CREATE TABLE users (
+                  id            INTEGER PRIMARY KEY AUTOINCREMENT,
+                  username      TEXT NOT NULL UNIQUE,
+                  password_hash TEXT NOT NULL,
+                  registered_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+                )""");
+            st.execute("INSERT INTO users(username, password_hash) VALUES ('Alice', 'x'), ('alice', 'x'), ('bob', 'x')");
+        }
+
+        String message;
+        try (Database db = new Database(url, 2)) {
+            message = messages(assertThrows(RuntimeException.class, () -> new GameStore(db)));
+        }
+        assertTrue(message.contains("user 2 'alice' (clashes with user 1)"), message);
+        assertFalse(message.contains("bob"), message);
+
+        try (Database db = new Database(url, 1); var c = db.getConnection(); var st = c.createStatement()) {
+            assertEquals(1, st.executeUpdate("UPDATE users SET username = 'alice2' WHERE id = 2"));
+        }
+        try (GameStore store = new GameStore(new Database(url, 2))) {
+            assertEquals(List.of("Alice", "alice2", "bob"), store.listUsers().stream().map(User::getUsername).toList());
+            assertThrows(IllegalStateException.class, () -> store.createUser("BOB", "pw".toCharArray()));
+        }
+    }
+
+    @Test
+    void rankingQueries_readTheIndexInOrder() throws Exception {
+        String url = "jdbc:sqlite:" + Files.createTempDirectory("cab302-plan-").resolve("plan.db");
+        try (Database db = new Database(url, 1); GameStore store = new GameStore(db)) {
+            String allTime = plan(db, """
+                SELECT b.user_id, u.username, b.best_score FROM user_best_score b JOIN users u ON u.id = b.user_id
+                WHERE b.mode = 'BASICS' ORDER BY b.best_score DESC, b.user_id LIMIT 10""");
+            assertTrue(allTime.contains("idx_best_mode_score"), allTime);
+            assertFalse(allTime.contains("TEMP B-TREE"), allTime);
+
+            String windowed = plan(db, """
+                SELECT b.user_id, u.username, b.best_score FROM period_best b JOIN users u ON u.id = b.user_id
+                WHERE b.period = 'WEEK' AND b.bucket = '2026-01-05' AND b.mode = 'BASICS'
+                ORDER BY b.best_score DESC, b.user_id LIMIT 10""");
+            assertTrue(windowed.contains("idx_period_best_rank"), windowed);
+            assertFalse(windowed.contains("TEMP B-TREE"), windowed);
+        }
+    }
+
+    private static String plan(Database db, String sql) throws Exception {
+        var out = new StringBuilder();
+        try (var c = db.getConnection(); var st = c.createStatement(); var rs = st.executeQuery("EXPLAIN QUERY PLAN " + sql)) {
+            while (rs.next()) out.append(rs.getString("detail")).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static String messages(Throwable t) {
+        var out = new StringBuilder();
+        for (; t != null; t = t.getCause()) out.append(t.getMessage()).append('\n');
+        return out.toString();
+    }
+
+    @Test
+    void fileWithoutAutoVacuum_isConvertedOnlyWhenAsked() throws Exception {
+        String url = "jdbc:sqlite:" + Files.createTempDirectory("cab302-vacuum-").resolve("old.db");
+        try (var c = DriverManager.getConnection(url); var st = c.createStatement()) { // plain connection: auto_vacuum NONE
+            st.execute("CREATE TABLE users (id INTEGER PRIMARY KEY AUTOINCREMENT, username TEXT NOT NULL UNIQUE,"
+                    + " password_hash TEXT NOT NULL, registered_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+            st.execute("INSERT INTO users(username, password_hash) VALUES ('old', 'x')");
+        }
+
+        try (Database db = new Database(url, 2); GameStore store = new GameStore(db)) {
+            assertTrue(store.findUserByUsername("old").isPresent());
+            assertEquals(0, autoVacuum(url), "opening does not rebuild the file");
+            assertTrue(store.enableIncrementalVacuum());
+            assertEquals(2, autoVacuum(url), "INCREMENTAL");
+            assertFalse(store.enableIncrementalVacuum());
+            assertTrue(store.findUserByUsername("old").isPresent());
+        }
+    }
+
+    /** Reads the mode on a new connection; pooled ones keep the mode they first saw. */
+    private static int autoVacuum(String url) throws Exception {
+        try (var c = DriverManager.getConnection(url); var st = c.createStatement(); var rs = st.executeQuery("PRAGMA auto_vacuum")) {
+            assertTrue(rs.next());
+            return rs.getInt(1);
+        }
+    }
+}
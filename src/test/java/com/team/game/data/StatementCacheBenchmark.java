@@ -0,0 +1,59 @@
+package test.java.com.team.game.data;
+
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.GameStore;
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.GameSession;
+import main.java.com.team.game.model.User;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Micro-benchmark for the per-connection prepared statement cache.
+ * <p>
+ * Runs the answer-submission hot path ({@code submitCorrect}) and the two
+ * score reads against two identical temporary databases, one with the
+ * statement cache disabled and one with the default size, and prints the
+ * average latency of each. Not part of the test suite; run it directly:
+ * <pre>
+ * mvn -q test-compile exec:java -Dmain.class=test.java.com.team.game.data.StatementCacheBenchmark -Dexec.classpathScope=test
+ * </pre>
+ */
+public class StatementCacheBenchmark {
+
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 20_000;
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("cab302-stmt-bench-");
+        System.out.printf("%-14s %14s %14s %14s%n", "cache", "submitCorrect", "getHighScore", "leaderboard");
+        run("disabled", dir.resolve("nocache.db"), 0);
+        run("default(" + Database.DEFAULT_STATEMENT_CACHE_SIZE + ")", dir.resolve("cache.db"),
+                Database.DEFAULT_STATEMENT_CACHE_SIZE);
+    }
+
+    private static void run(String label, Path file, int cacheSize) {
+        try (Database db = new Database("jdbc:sqlite:" + file, 1, Database.DEFAULT_BORROW_TIMEOUT_MS, cacheSize)) {
+            GameStore store = new GameStore(db);
+            User u = store.createUser("bench", "pw".toCharArray());
+            GameSession s = store.startSession(u.getId(), GameMode.BASICS);
+            GameSession done = store.startSession(u.getId(), GameMode.BASICS);
+            store.submitCorrect(done.getId());
+            store.finishSession(done.getId());
+
+            double submit = time(() -> store.submitCorrect(s.getId()));
+            double high = time(() -> store.getHighScore(u.getId(), GameMode.BASICS));
+            double board = time(() -> store.leaderboard(GameMode.BASICS, 10));
+            System.out.printf("%-14s %11.1f us %11.1f us %11.1f us   %s%n", label, submit, high, board, db.stats());
+        }
+    }
+
+    /** @return average microseconds per call after a warm-up phase */
+    private static double time(Runnable op) {
+        for (int i = 0; i < WARMUP; i++) op.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) op.run();
+        return (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+    }
+}
@@ -0,0 +1,109 @@
+package test.java.com.team.game.service;
+
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.GameStore;
+import main.java.com.team.game.model.AnswerEvent;
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.GameSession;
+import main.java.com.team.game.model.User;
+import main.java.com.team.game.service.GameService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnswerLogTest {
+
+    private Database db;
+    private GameStore store;
+    private GameService svc;
+    private User user;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path dir = Files.createTempDirectory("cab302-log-");
+        db = new Database("jdbc:sqlite:" + dir.resolve("log.db"), 2);
+        store = new GameStore(db);
+        svc = new GameService(store);
+        user = svc.register("alice", "pw".toCharArray());
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void answers_areLoggedInBatches_withTheirDetails() throws Exception {
+        GameSession s = svc.startRound(user, GameMode.BASICS);
+        svc.submitCorrect(s, "What is 2 + 2?", "4", 1_200);
+        svc.submitWrong(s, "What is 3 * 3?", "6", 3_400);
+        svc.submitWrong(s, "What is 2 + 2?", null, 30_000); // timed out
+        svc.flushPendingAnswers();
+
+        List<AnswerEvent> log = store.listAnswerEvents(s.getId());
+        assertEquals(3, log.size());
+        assertEquals("What is 2 + 2?", log.get(0).getQuestion());
+        assertTrue(log.get(0).isCorrect());
+        assertEquals("4", log.get(0).getResponse());
+        assertEquals(1_200, log.get(0).getResponseMs());
+        assertFalse(log.get(1).isCorrect());
+        assertNull(log.get(2).getResponse());
+        assertEquals(3, svc.answerLogStats().getEvents());
+        assertEquals(2, count("SELECT COUNT(*) FROM question")); // prompts are interned once
+        assertEquals(1, store.listSessionsByUser(user.getId()).get(0).getScore());
+    }
+
+    @Test
+    void writeBehind_logsAnswersInTheScoreTransaction() {
+        svc.enableWriteBehind(100, 60_000);
+        GameSession s = svc.startRound(user, GameMode.TRIG);
+        svc.submitCorrect(s, "sin 30°", "0.5", 900);
+        svc.submitCorrect(s);
+        svc.flushPendingAnswers();
+
+        List<AnswerEvent> log = store.listAnswerEvents(s.getId());
+        assertEquals(2, log.size());
+        assertNull(log.get(1).getQuestion());
+        assertEquals(-1, log.get(1).getResponseMs());
+        assertEquals(2, store.listSessionsByUser(user.getId()).get(0).getScore());
+        assertEquals(0, svc.answerLogStats().getEvents()); // not logged a second time
+    }
+
+    @Test
+    void eventsOfDeletedSessions_areDropped_withoutFailingTheBatch() {
+        GameSession kept = store.startSession(user.getId(), GameMode.TARGET);
+        GameSession gone = store.startSession(user.getId(), GameMode.TARGET);
+        store.deleteSession(gone.getId());
+
+        store.appendAnswerEvents(List.of(
+                new AnswerEvent(gone.getId(), true, Instant.now(), "Target: angle 45°", "12.00", 800),
+                new AnswerEvent(kept.getId(), false, Instant.now(), "Target: angle 45°", "9.50", 700)));
+
+        assertTrue(store.listAnswerEvents(gone.getId()).isEmpty());
+        assertEquals(1, store.listAnswerEvents(kept.getId()).size());
+    }
+
+    @Test
+    void deletingAUser_removesTheirAnswers() throws Exception {
+        GameSession s = svc.startRound(user, GameMode.BASICS);
+        svc.submitCorrect(s, "q", "a", 10);
+        svc.flushPendingAnswers();
+        svc.deleteUser(user);
+
+        assertEquals(0, count("SELECT COUNT(*) FROM answer_event"));
+    }
+
+    private int count(String sql) throws Exception {
+        try (var c = db.getConnection(); var st = c.createStatement(); var rs = st.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getInt(1);
+        }
+    }
+}
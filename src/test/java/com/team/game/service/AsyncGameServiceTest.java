@@ -0,0 +1,116 @@
+package test.java.com.team.game.service;
+
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.GameStore;
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.GameSession;
+import main.java.com.team.game.model.User;
+import main.java.com.team.game.service.AsyncGameService;
+import main.java.com.team.game.service.GameService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncGameServiceTest {
+
+    private Database db;
+    private GameStore store;
+    private GameService svc;
+    private AsyncGameService async;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path dir = Files.createTempDirectory("cab302-async-");
+        db = new Database("jdbc:sqlite:" + dir.resolve("async.db"), 4);
+        store = new GameStore(db);
+        svc = new GameService(store);
+        async = svc.async();
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void register_andLogin_runOffTheCallingThread() throws Exception {
+        char[] pw = "secret".toCharArray();
+        var registered = async.register("alice", pw);
+        Arrays.fill(pw, '\0'); // wiping straight away must not affect the queued call
+
+        User u = registered.get(10, TimeUnit.SECONDS);
+        assertEquals("alice", u.getUsername());
+        assertTrue(async.login("alice", "secret".toCharArray()).get(10, TimeUnit.SECONDS).isPresent());
+        assertTrue(async.login("alice", "wrong".toCharArray()).get(10, TimeUnit.SECONDS).isEmpty());
+    }
+
+    @Test
+    void duplicateRegistration_failsWithTheServiceException() throws Exception {
+        async.register("bob", "pw".toCharArray()).get(10, TimeUnit.SECONDS);
+        var dup = async.register("bob", "pw".toCharArray());
+
+        CompletionException e = assertThrows(CompletionException.class, dup::join);
+        assertInstanceOf(IllegalStateException.class, AsyncGameService.causeOf(e));
+    }
+
+    @Test
+    void roundOperations_areAppliedInSubmissionOrder() throws Exception {
+        User u = svc.register("carol", "pw".toCharArray());
+        AsyncGameService.Round round = async.startRound(u, GameMode.BASICS);
+        // queued before the session exists; the third strike must land after the correct answers
+        round.submitCorrect();
+        round.submitCorrect();
+        round.submitWrong();
+        round.submitWrong();
+        round.submitWrong();
+        round.submitCorrect();
+        round.finish().get(10, TimeUnit.SECONDS);
+
+        GameSession s = store.listSessionsByUser(u.getId()).get(0);
+        assertEquals(round.started().join().getId(), s.getId());
+        assertEquals(2, s.getScore());
+        assertEquals(3, s.getStrikes());
+        assertTrue(s.isCompleted());
+        assertEquals(OptionalInt.of(2), async.highScore(u, GameMode.BASICS).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failedStart_failsEveryLaterRoundOperation() {
+        User ghost = new User(9_999, "ghost", Instant.now()); // violates the users foreign key
+        AsyncGameService.Round round = async.startRound(ghost, GameMode.TRIG);
+
+        assertThrows(CompletionException.class, () -> round.submitCorrect().join());
+        assertThrows(CompletionException.class, () -> round.finish().join());
+    }
+
+    @Test
+    void cancel_interruptsTheWorkerThread() throws Exception {
+        var blocked = new CountDownLatch(1);
+        var interrupted = new CountDownLatch(1);
+        var slow = async.supply(() -> {
+            blocked.countDown();
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return 0;
+        });
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        slow.cancel(true);
+
+        assertTrue(slow.isCancelled());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+}
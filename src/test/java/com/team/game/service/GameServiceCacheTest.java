@@ -0,0 +1,174 @@
+package test.java.com.team.game.service;
+
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.GameStore;
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.GameSession;
+import main.java.com.team.game.model.User;
+import main.java.com.team.game.service.CacheStats;
+import main.java.com.team.game.service.CachedQuery;
+import main.java.com.team.game.service.GameService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameServiceCacheTest {
+
+    private Database db;
+    private GameStore store;
+    private GameService svc;
+    private User alice;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = Database.isolated("GameServiceCacheTest", 2);
+        store = new GameStore(db);
+        svc = new GameService(store);
+        alice = svc.register("alice", "pw".toCharArray());
+        play(alice, GameMode.BASICS, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void repeatedReads_doNotTouchTheDatabase() {
+        readEverything();
+        long borrowed = db.stats().getBorrowed();
+
+        for (int i = 0; i < 5; i++) readEverything();
+
+        assertEquals(borrowed, db.stats().getBorrowed());
+        CacheStats stats = svc.cacheStats();
+        assertEquals(1, stats.getMisses(CachedQuery.LEADERBOARD));
+        assertEquals(5, stats.getHits(CachedQuery.LEADERBOARD));
+        assertTrue(stats.getHitRatio() > 0.8);
+    }
+
+    @Test
+    void finishRound_invalidatesOnlyThatModeAndUser() {
+        svc.leaderboard(GameMode.BASICS, 10);
+        svc.leaderboard(GameMode.TRIG, 10);
+        svc.highScore(alice, GameMode.BASICS);
+
+        play(alice, GameMode.BASICS, 5);
+
+        assertEquals(OptionalInt.of(5), svc.highScore(alice, GameMode.BASICS));
+        assertEquals(5, svc.leaderboard(GameMode.BASICS, 10).get(0).getHighScore());
+        svc.leaderboard(GameMode.TRIG, 10);
+        assertEquals(1, svc.cacheStats().getHits(CachedQuery.LEADERBOARD)); // TRIG stayed cached
+    }
+
+    @Test
+    void finishRound_withSingleWriter_invalidatesOnlyThatModeAndUser() {
+        Database writes = Database.isolated("GameServiceCacheTest-writer", 2);
+        try (GameStore split = new GameStore(writes, writes, 8)) {
+            svc = new GameService(split);
+            alice = svc.register("alice", "pw".toCharArray());
+            play(alice, GameMode.BASICS, 3);
+            svc.leaderboard(GameMode.BASICS, 10);
+            svc.leaderboard(GameMode.TRIG, 10);
+
+            play(alice, GameMode.BASICS, 5); // written on the writer thread
+
+            assertEquals(5, svc.leaderboard(GameMode.BASICS, 10).get(0).getHighScore());
+            svc.leaderboard(GameMode.TRIG, 10);
+            assertEquals(1, svc.cacheStats().getHits(CachedQuery.LEADERBOARD)); // TRIG stayed cached
+        }
+    }
+
+    @Test
+    void updateUsername_refreshesUsersAndLeaderboard() {
+        assertEquals("alice", svc.leaderboard(GameMode.BASICS, 10).get(0).getUsername());
+        assertEquals("alice", svc.listUsers().get(0).getUsername());
+
+        svc.updateUsername(alice, "alicia");
+
+        assertEquals("alicia", svc.leaderboard(GameMode.BASICS, 10).get(0).getUsername());
+        assertEquals("alicia", svc.listUsers().get(0).getUsername());
+    }
+
+    @Test
+    void deleteSession_andDeleteUser_invalidate() {
+        GameSession s = svc.listSessionsByUser(alice).get(0);
+        assertTrue(svc.deleteSession(s.getId()));
+        assertTrue(svc.listSessionsByUser(alice).isEmpty());
+        assertTrue(svc.highScore(alice, GameMode.BASICS).isEmpty());
+
+        User bob = svc.register("bob", "pw".toCharArray());
+        play(bob, GameMode.TRIG, 2);
+        assertEquals(1, svc.leaderboard(GameMode.TRIG, 10).size());
+        assertEquals(2, svc.listUsers().size());
+
+        assertTrue(svc.deleteUser(bob));
+        assertTrue(svc.leaderboard(GameMode.TRIG, 10).isEmpty());
+        assertEquals(1, svc.listUsers().size());
+    }
+
+    @Test
+    void writesBypassingTheService_invalidateThroughChangeListener() {
+        assertEquals(1, svc.listSessionsByUser(alice).size());
+        assertEquals(OptionalInt.of(3), svc.highScore(alice, GameMode.BASICS));
+
+        GameSession s = store.startSession(alice.getId(), GameMode.BASICS);
+        for (int i = 0; i < 7; i++) store.submitCorrect(s.getId());
+        store.finishSession(s.getId());
+
+        assertEquals(2, svc.listSessionsByUser(alice).size());
+        assertEquals(OptionalInt.of(7), svc.highScore(alice, GameMode.BASICS));
+    }
+
+    @Test
+    void writeBehindFlush_invalidatesThroughChangeListener() {
+        svc.enableWriteBehind(100, 60_000);
+        GameSession s = svc.startRound(alice, GameMode.TRIG);
+        svc.submitCorrect(s);
+        assertEquals(0, svc.listSessionsByUser(alice).get(0).getScore()); // queued, not yet written
+
+        svc.flushPendingAnswers();
+        assertEquals(1, svc.listSessionsByUser(alice).get(0).getScore());
+    }
+
+    @Test
+    void entries_expireAfterTtl_andSizeIsBounded() throws Exception {
+        GameService small = new GameService(store, 2, 50);
+        small.leaderboard(GameMode.BASICS, 10);
+        small.leaderboard(GameMode.TRIG, 10);
+        small.leaderboard(GameMode.TARGET, 10);
+        assertEquals(2, small.cacheStats().getSize());
+        assertEquals(1, small.cacheStats().getEvictions());
+
+        Thread.sleep(80);
+        small.leaderboard(GameMode.TARGET, 10);
+        assertEquals(1, small.cacheStats().getExpirations());
+        assertEquals(0, small.cacheStats().getHits(CachedQuery.LEADERBOARD));
+    }
+
+    @Test
+    void zeroSize_disablesCaching() {
+        GameService uncached = new GameService(store, 0, 0);
+        uncached.listUsers();
+        uncached.listUsers();
+        assertEquals(0, uncached.cacheStats().getHits());
+        assertEquals(2, uncached.cacheStats().getMisses());
+    }
+
+    private void readEverything() {
+        svc.listUsers();
+        svc.listSessionsByUser(alice);
+        svc.highScore(alice, GameMode.BASICS);
+        svc.leaderboard(GameMode.BASICS, 10);
+    }
+
+    private void play(User user, GameMode mode, int correct) {
+        GameSession s = svc.startRound(user, mode);
+        for (int i = 0; i < correct; i++) svc.submitCorrect(s);
+        svc.finishRound(s);
+    }
+}
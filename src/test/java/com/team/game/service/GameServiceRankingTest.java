@@ -0,0 +1,127 @@
+package test.java.com.team.game.service;
+
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.GameStore;
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.GameSession;
+import main.java.com.team.game.model.RankedScoreRow;
+import main.java.com.team.game.model.RankingStyle;
+import main.java.com.team.game.model.User;
+import main.java.com.team.game.service.GameService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameServiceRankingTest {
+
+    private Database db;
+    private GameStore store;
+    private GameService svc;
+    private User ann, bob, cat, dan;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = Database.isolated("GameServiceRankingTest", 2);
+        store = new GameStore(db);
+        svc = new GameService(store);
+        ann = svc.register("ann", "pw".toCharArray());
+        bob = svc.register("bob", "pw".toCharArray());
+        cat = svc.register("cat", "pw".toCharArray());
+        dan = svc.register("dan", "pw".toCharArray());
+        play(ann, 9);
+        play(bob, 8);
+        play(cat, 8);
+        play(dan, 7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void ties_rankedByStyle() {
+        assertEquals(List.of(1, 2, 2, 4), ranks(svc.topRanked(GameMode.BASICS, 10, RankingStyle.STANDARD)));
+        assertEquals(List.of(1, 2, 2, 3), ranks(svc.topRanked(GameMode.BASICS, 10, RankingStyle.DENSE)));
+        assertEquals(OptionalInt.of(4), svc.rankOf(dan, GameMode.BASICS, RankingStyle.STANDARD));
+        assertEquals(OptionalInt.of(3), svc.rankOf(dan, GameMode.BASICS, RankingStyle.DENSE));
+        assertEquals(4, svc.rankedPlayerCount(GameMode.BASICS));
+        assertTrue(svc.rankOf(ann, GameMode.TRIG, RankingStyle.STANDARD).isEmpty());
+    }
+
+    @Test
+    void aroundMe_returnsNeighbours() {
+        List<RankedScoreRow> rows = svc.aroundMe(cat, GameMode.BASICS, 1, RankingStyle.STANDARD);
+        assertEquals(List.of("bob", "cat", "dan"), rows.stream().map(RankedScoreRow::getUsername).toList());
+
+        List<RankedScoreRow> top = svc.aroundMe(ann, GameMode.BASICS, 2, RankingStyle.STANDARD);
+        assertEquals(3, top.size());
+        assertEquals("ann", top.get(0).getUsername());
+    }
+
+    @Test
+    void finishedRounds_updateRanks() {
+        assertEquals(OptionalInt.of(4), svc.rankOf(dan, GameMode.BASICS, RankingStyle.STANDARD));
+
+        play(dan, 10);
+        assertEquals(OptionalInt.of(1), svc.rankOf(dan, GameMode.BASICS, RankingStyle.STANDARD));
+        assertEquals(OptionalInt.of(2), svc.rankOf(ann, GameMode.BASICS, RankingStyle.STANDARD));
+
+        svc.updateUsername(dan, "daniel");
+        assertEquals("daniel", svc.topRanked(GameMode.BASICS, 1, RankingStyle.DENSE).get(0).getUsername());
+
+        svc.deleteUser(ann);
+        assertEquals(3, svc.rankedPlayerCount(GameMode.BASICS));
+        assertEquals(OptionalInt.of(2), svc.rankOf(bob, GameMode.BASICS, RankingStyle.STANDARD));
+    }
+
+    @Test
+    void writesBypassingTheService_reloadRanking() {
+        assertEquals(OptionalInt.of(2), svc.rankOf(cat, GameMode.BASICS, RankingStyle.STANDARD));
+
+        GameSession s = store.startSession(cat.getId(), GameMode.BASICS);
+        for (int i = 0; i < 12; i++) store.submitCorrect(s.getId());
+        store.finishSession(s.getId());
+
+        assertEquals(OptionalInt.of(1), svc.rankOf(cat, GameMode.BASICS, RankingStyle.STANDARD));
+    }
+
+    @Test
+    void singleWriter_finishedRoundsUpdateRanksWithoutReload() throws Exception {
+        String url = "jdbc:sqlite:" + Files.createTempDirectory("cab302-ranking-").resolve("ranking.db");
+        Database reads = Database.readOnly(url, 2);
+        try (GameStore split = new GameStore(new Database(url, 2), reads, 8)) {
+            svc = new GameService(split);
+            User eve = svc.register("eve", "pw".toCharArray());
+            User fay = svc.register("fay", "pw".toCharArray());
+            play(eve, 5);
+            play(fay, 6);
+            assertEquals(OptionalInt.of(2), svc.rankOf(eve, GameMode.BASICS, RankingStyle.STANDARD));
+
+            play(eve, 9); // written on the writer thread
+            long borrowed = reads.stats().getBorrowed();
+
+            assertEquals(OptionalInt.of(1), svc.rankOf(eve, GameMode.BASICS, RankingStyle.STANDARD));
+            assertEquals(borrowed, reads.stats().getBorrowed()); // refreshed in place, not reloaded
+        } finally {
+            reads.close();
+        }
+    }
+
+    private static List<Integer> ranks(List<RankedScoreRow> rows) {
+        return rows.stream().map(RankedScoreRow::getRank).toList();
+    }
+
+    private void play(User user, int correct) {
+        GameSession s = svc.startRound(user, GameMode.BASICS);
+        for (int i = 0; i < correct; i++) svc.submitCorrect(s);
+        svc.finishRound(s);
+    }
+}
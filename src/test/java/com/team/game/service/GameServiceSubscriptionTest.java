@@ -0,0 +1,129 @@
+package test.java.com.team.game.service;
+
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.GameStore;
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.GameSession;
+import main.java.com.team.game.model.LeaderboardPeriod;
+import main.java.com.team.game.model.ScoreRow;
+import main.java.com.team.game.model.User;
+import main.java.com.team.game.service.GameService;
+import main.java.com.team.game.service.SessionChange;
+import main.java.com.team.game.service.Subscription;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameServiceSubscriptionTest {
+
+    private Database db;
+    private GameService svc;
+    private User ann, bob, cat;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = Database.isolated("GameServiceSubscriptionTest", 2);
+        svc = new GameService(new GameStore(db));
+        svc.enableLiveSessions(60_000);
+        ann = svc.register("ann", "pw".toCharArray());
+        bob = svc.register("bob", "pw".toCharArray());
+        cat = svc.register("cat", "pw".toCharArray());
+        play(ann, 9);
+        play(bob, 7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void leaderboard_deliversOnlyWhenTheTopKChanges() throws Exception {
+        BlockingQueue<List<ScoreRow>> boards = new LinkedBlockingQueue<>();
+        try (Subscription sub = svc.subscribeLeaderboard(GameMode.BASICS, LeaderboardPeriod.ALL_TIME, 2,
+                Runnable::run, boards::add)) {
+            assertEquals(List.of("ann=9", "bob=7"), rows(boards.poll(2, TimeUnit.SECONDS)));
+
+            svc.flushPendingAnswers();
+            long borrowed = db.stats().getBorrowed();
+            Thread.sleep(500);
+            assertEquals(borrowed, db.stats().getBorrowed(), "nothing is read while nothing changes");
+
+            play(cat, 3); // outside the top two
+            assertNull(boards.poll(500, TimeUnit.MILLISECONDS));
+
+            play(cat, 8);
+            assertEquals(List.of("ann=9", "cat=8"), rows(boards.poll(2, TimeUnit.SECONDS)));
+
+            svc.updateUsername(ann, "anna");
+            assertEquals(List.of("anna=9", "cat=8"), rows(boards.poll(2, TimeUnit.SECONDS)));
+        }
+
+        play(bob, 20);
+        assertNull(boards.poll(500, TimeUnit.MILLISECONDS), "closed subscriptions hear nothing");
+    }
+
+    @Test
+    void sessions_deliverCoalescedRowChanges() throws Exception {
+        BlockingQueue<List<SessionChange>> batches = new LinkedBlockingQueue<>();
+        try (Subscription sub = svc.subscribeSessions(cat, Runnable::run, batches::add)) {
+            GameSession s = svc.startRound(cat, GameMode.TRIG);
+            svc.submitCorrect(s);
+            svc.submitCorrect(s);
+            svc.startRound(ann, GameMode.TRIG); // someone else's round
+
+            List<SessionChange> batch = batches.poll(2, TimeUnit.SECONDS);
+            assertEquals(1, batch.size());
+            assertEquals(SessionChange.Kind.ADDED, batch.get(0).getKind());
+            assertEquals(2, batch.get(0).getSession().getScore());
+
+            svc.submitWrong(s);
+            svc.finishRound(s);
+            batch = batches.poll(2, TimeUnit.SECONDS);
+            assertEquals(1, batch.size());
+            assertEquals(SessionChange.Kind.UPDATED, batch.get(0).getKind());
+            assertTrue(batch.get(0).getSession().isCompleted());
+
+            assertTrue(svc.deleteSession(s.getId()));
+            batch = batches.poll(2, TimeUnit.SECONDS);
+            assertEquals(SessionChange.Kind.REMOVED, batch.get(0).getKind());
+            assertEquals(s.getId(), batch.get(0).getSessionId());
+            assertNull(batches.poll(300, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    void sessions_finishRoundDeliversTheFinishedRow() throws Exception {
+        GameSession s = svc.startRound(cat, GameMode.BASICS);
+        svc.submitCorrect(s);
+        BlockingQueue<List<SessionChange>> batches = new LinkedBlockingQueue<>();
+        try (Subscription sub = svc.subscribeSessions(cat, Runnable::run, batches::add)) {
+            svc.finishRound(s);
+
+            List<SessionChange> batch = batches.poll(2, TimeUnit.SECONDS);
+            assertNotNull(batch, "no delivery");
+            assertEquals(1, batch.size());
+            assertEquals(SessionChange.Kind.UPDATED, batch.get(0).getKind());
+            assertTrue(batch.get(0).getSession().isCompleted());
+            assertEquals(1, batch.get(0).getSession().getScore());
+        }
+    }
+
+    private static List<String> rows(List<ScoreRow> rows) {
+        assertNotNull(rows, "no delivery");
+        return rows.stream().map(r -> r.getUsername() + "=" + r.getHighScore()).toList();
+    }
+
+    private void play(User user, int correct) {
+        GameSession s = svc.startRound(user, GameMode.BASICS);
+        for (int i = 0; i < correct; i++) svc.submitCorrect(s);
+        svc.finishRound(s);
+    }
+}
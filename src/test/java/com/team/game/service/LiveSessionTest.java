@@ -0,0 +1,136 @@
+package test.java.com.team.game.service;
+
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.GameStore;
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.GameSession;
+import main.java.com.team.game.model.User;
+import main.java.com.team.game.service.GameService;
+import main.java.com.team.game.service.LiveSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LiveSessionTest {
+
+    private Path dir;
+    private Database db;
+    private GameStore store;
+    private GameService svc;
+    private User user;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dir = Files.createTempDirectory("cab302-live-");
+        db = new Database("jdbc:sqlite:" + dir.resolve("live.db"), 2);
+        store = new GameStore(db);
+        svc = new GameService(store);
+        svc.enableLiveSessions(60_000);
+        user = svc.register("alice", "pw".toCharArray());
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void answers_updateMemoryOnly_untilSnapshot() {
+        GameSession s = svc.startRound(user, GameMode.BASICS);
+        GameSession now = svc.submitCorrect(s).orElseThrow();
+        svc.submitWrong(s);
+
+        assertEquals(1, now.getScore());
+        LiveSession live = svc.liveSession(s.getId()).orElseThrow();
+        assertEquals(1, live.getScore());
+        assertEquals(1, live.getStrikes());
+        assertEquals(0, stored(s).getScore()); // not written yet
+        assertEquals(1, svc.listSessionsByUser(user).get(0).getScore()); // but reads see live state
+
+        svc.snapshotLiveSessions();
+        assertEquals(1, stored(s).getScore());
+        assertEquals(1, stored(s).getStrikes());
+        assertFalse(stored(s).isCompleted());
+    }
+
+    @Test
+    void thirdStrike_persistsTheFinalResult() {
+        GameSession s = svc.startRound(user, GameMode.TRIG);
+        svc.submitCorrect(s);
+        svc.submitCorrect(s);
+        svc.submitWrong(s);
+        svc.submitWrong(s);
+        GameSession last = svc.submitWrong(s).orElseThrow();
+
+        assertTrue(last.isCompleted());
+        assertTrue(svc.submitCorrect(s).isEmpty()); // ignored once completed
+        assertTrue(svc.liveSession(s.getId()).isEmpty());
+        GameSession stored = stored(s);
+        assertTrue(stored.isCompleted());
+        assertEquals(2, stored.getScore());
+        assertEquals(3, stored.getStrikes());
+        assertEquals(OptionalInt.of(2), svc.highScore(user, GameMode.TRIG));
+    }
+
+    @Test
+    void finishRound_writesScoreAndCompletion() {
+        GameSession s = svc.startRound(user, GameMode.TARGET);
+        svc.submitCorrect(s);
+        svc.finishRound(s);
+
+        assertTrue(svc.liveSessions().isEmpty());
+        assertTrue(stored(s).isCompleted());
+        assertEquals(1, stored(s).getScore());
+        assertEquals(OptionalInt.of(1), svc.highScore(user, GameMode.TARGET));
+    }
+
+    @Test
+    void concurrentAnswers_areAllCounted() throws Exception {
+        GameSession s = svc.startRound(user, GameMode.BASICS);
+        int threads = 8, perThread = 2_000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread w = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) svc.submitCorrect(s);
+            });
+            workers.add(w);
+            w.start();
+        }
+        for (Thread w : workers) w.join();
+
+        assertEquals(threads * perThread, svc.liveSession(s.getId()).orElseThrow().getScore());
+    }
+
+    @Test
+    void closingTheDatabase_snapshotsRoundsInProgress() {
+        GameSession s = svc.startRound(user, GameMode.BASICS);
+        svc.submitCorrect(s);
+        svc.submitCorrect(s);
+        db.close();
+
+        try (Database reopened = new Database("jdbc:sqlite:" + dir.resolve("live.db"), 1)) {
+            GameSession after = new GameStore(reopened).listSessionsByUser(user.getId()).get(0);
+            assertEquals(2, after.getScore());
+            assertFalse(after.isCompleted());
+        }
+    }
+
+    @Test
+    void liveSessions_andWriteBehind_areExclusive() {
+        assertThrows(IllegalStateException.class, () -> svc.enableWriteBehind(10, 100));
+    }
+
+    private GameSession stored(GameSession s) {
+        return store.listSessionsByUser(user.getId()).stream()
+                .filter(x -> x.getId() == s.getId())
+                .findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,138 @@
+package test.java.com.team.game.service;
+
+import main.java.com.team.game.data.Database;
+import main.java.com.team.game.data.GameStore;
+import main.java.com.team.game.model.GameMode;
+import main.java.com.team.game.model.GameSession;
+import main.java.com.team.game.model.User;
+import main.java.com.team.game.service.GameService;
+import main.java.com.team.game.service.WriteBehindStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteBehindTest {
+
+    private Database db;
+    private GameStore store;
+    private GameService svc;
+    private User user;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path dir = Files.createTempDirectory("cab302-wb-");
+        db = new Database("jdbc:sqlite:" + dir.resolve("wb.db"), 2);
+        store = new GameStore(db);
+        svc = new GameService(store);
+        user = svc.register("alice", "pw".toCharArray());
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void writeBehind_isOffByDefault() {
+        GameSession s = svc.startRound(user, GameMode.BASICS);
+        svc.submitCorrect(s);
+        assertTrue(svc.writeBehindStats().isEmpty());
+        assertEquals(1, currentScore(s));
+    }
+
+    @Test
+    void answers_areQueuedUntilFlushed() {
+        svc.enableWriteBehind(100, 60_000);
+        GameSession s = svc.startRound(user, GameMode.BASICS);
+        svc.submitCorrect(s);
+        svc.submitCorrect(s);
+        svc.submitWrong(s);
+
+        assertEquals(0, currentScore(s));
+        assertEquals(3, svc.writeBehindStats().orElseThrow().getPending());
+
+        svc.flushPendingAnswers();
+        GameSession after = session(s);
+        assertEquals(2, after.getScore());
+        assertEquals(1, after.getStrikes());
+
+        WriteBehindStats stats = svc.writeBehindStats().orElseThrow();
+        assertEquals(1, stats.getFlushes());
+        assertEquals(3, stats.getEvents());
+        assertEquals(3, stats.getLastBatchSize());
+        assertEquals(0, stats.getPending());
+    }
+
+    @Test
+    void finishRound_flushesBeforeCompleting() {
+        svc.enableWriteBehind(100, 60_000);
+        GameSession s = svc.startRound(user, GameMode.TRIG);
+        for (int i = 0; i < 5; i++) svc.submitCorrect(s);
+        svc.finishRound(s);
+
+        assertEquals(OptionalInt.of(5), svc.highScore(user, GameMode.TRIG));
+        assertTrue(session(s).isCompleted());
+    }
+
+    @Test
+    void thirdStrike_completesSession_andLaterAnswersAreIgnored() {
+        svc.enableWriteBehind(100, 60_000);
+        GameSession s = svc.startRound(user, GameMode.BASICS);
+        svc.submitCorrect(s);
+        svc.submitWrong(s);
+        svc.submitWrong(s);
+        svc.submitWrong(s);
+        svc.submitCorrect(s);
+        svc.flushPendingAnswers();
+
+        GameSession after = session(s);
+        assertEquals(1, after.getScore());
+        assertEquals(3, after.getStrikes());
+        assertTrue(after.isCompleted());
+    }
+
+    @Test
+    void fullBatch_isFlushedInBackground() throws Exception {
+        svc.enableWriteBehind(4, 60_000);
+        GameSession s = svc.startRound(user, GameMode.BASICS);
+        for (int i = 0; i < 4; i++) svc.submitCorrect(s);
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (svc.writeBehindStats().orElseThrow().getFlushes() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(4, currentScore(s));
+        assertEquals(4, svc.writeBehindStats().orElseThrow().getMaxBatchSize());
+    }
+
+    @Test
+    void closingDatabase_flushesQueuedAnswers() throws Exception {
+        svc.enableWriteBehind(100, 60_000);
+        GameSession s = svc.startRound(user, GameMode.BASICS);
+        svc.submitCorrect(s);
+        svc.submitCorrect(s);
+        db.close();
+
+        try (Database reopened = new Database(db.getUrl(), 1)) {
+            GameStore check = new GameStore(reopened);
+            assertEquals(2, check.listSessionsByUser(user.getId()).get(0).getScore());
+        }
+    }
+
+    private GameSession session(GameSession s) {
+        return store.listSessionsByUser(user.getId()).stream()
+                .filter(x -> x.getId() == s.getId())
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private int currentScore(GameSession s) {
+        return session(s).getScore();
+    }
+}
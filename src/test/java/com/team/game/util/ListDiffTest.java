@@ -0,0 +1,50 @@
+package test.java.com.team.game.util;
+
+import main.java.com.team.game.util.ListDiff;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ListDiffTest {
+
+    /** Key is the name before '=', content the whole string. */
+    private static int patch(List<String> target, List<String> next) {
+        return ListDiff.patch(target, next, s -> s.substring(0, s.indexOf('=')), String::equals);
+    }
+
+    @Test
+    void playerClimbing_isOneMove() {
+        List<String> rows = new ArrayList<>(List.of("ann=9", "bob=8", "cat=7", "dan=6"));
+        assertEquals(1, patch(rows, List.of("dan=6", "ann=9", "bob=8", "cat=7")));
+        assertEquals(List.of("dan=6", "ann=9", "bob=8", "cat=7"), rows);
+    }
+
+    @Test
+    void entering_changing_andDroppingOut() {
+        List<String> rows = new ArrayList<>(List.of("ann=9", "bob=8", "cat=7"));
+        assertEquals(0, patch(rows, List.of("ann=9", "bob=8", "cat=7")));
+        assertEquals(3, patch(rows, List.of("eve=12", "ann=10", "bob=8"))); // insert, update, remove
+        assertEquals(List.of("eve=12", "ann=10", "bob=8"), rows);
+        assertEquals(3, patch(rows, List.of()));
+        assertTrue(rows.isEmpty());
+    }
+
+    @Test
+    void randomLists_endUpEqual() {
+        Random rnd = new Random(3);
+        List<String> rows = new ArrayList<>();
+        for (int round = 0; round < 500; round++) {
+            List<String> next = new ArrayList<>();
+            for (int i = 0; i < 15; i++) {
+                String row = "p" + rnd.nextInt(25) + "=" + rnd.nextInt(3);
+                if (next.stream().noneMatch(r -> r.startsWith(row.substring(0, row.indexOf('=') + 1)))) next.add(row);
+            }
+            patch(rows, next);
+            assertEquals(next, rows);
+        }
+    }
+}
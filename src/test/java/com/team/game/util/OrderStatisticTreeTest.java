@@ -0,0 +1,66 @@
+package test.java.com.team.game.util;
+
+import main.java.com.team.game.util.OrderStatisticTree;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderStatisticTreeTest {
+
+    @Test
+    void positionalQueries_onSmallTree() {
+        OrderStatisticTree<Integer> t = new OrderStatisticTree<>(Comparator.naturalOrder());
+        for (int v : new int[] {50, 10, 40, 20, 30}) assertTrue(t.add(v));
+        assertFalse(t.add(30));
+
+        assertEquals(5, t.size());
+        assertEquals(10, t.get(0));
+        assertEquals(50, t.get(4));
+        assertEquals(2, t.indexOf(30));
+        assertEquals(-1, t.indexOf(35));
+        assertEquals(3, t.countLessThan(35));
+        assertEquals(List.of(20, 30, 40), t.range(1, 4));
+        assertEquals(List.of(10, 20), t.range(-5, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> t.get(5));
+
+        assertTrue(t.remove(10));
+        assertFalse(t.remove(10));
+        assertEquals(20, t.get(0));
+    }
+
+    @Test
+    void randomOperations_matchSortedList() {
+        Random rnd = new Random(302);
+        OrderStatisticTree<Integer> t = new OrderStatisticTree<>(Comparator.reverseOrder());
+        List<Integer> expected = new ArrayList<>();
+
+        for (int i = 0; i < 5_000; i++) {
+            int v = rnd.nextInt(1_000);
+            int pos = Collections.binarySearch(expected, v, Comparator.reverseOrder());
+            if (rnd.nextBoolean()) {
+                assertEquals(pos < 0, t.add(v));
+                if (pos < 0) expected.add(-pos - 1, v);
+            } else {
+                assertEquals(pos >= 0, t.remove(v));
+                if (pos >= 0) expected.remove(pos);
+            }
+
+            assertEquals(expected.size(), t.size());
+            int probe = rnd.nextInt(1_000);
+            int at = Collections.binarySearch(expected, probe, Comparator.reverseOrder());
+            assertEquals(at >= 0 ? at : -at - 1, t.countLessThan(probe));
+            if (!expected.isEmpty()) {
+                int idx = rnd.nextInt(expected.size());
+                assertEquals(expected.get(idx), t.get(idx));
+                int to = Math.min(expected.size(), idx + 5);
+                assertEquals(expected.subList(idx, to), t.range(idx, to));
+            }
+        }
+    }
+}